@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.commons.datasource;
+
+/**
+ * Usage of the connections of a data source. The counts are taken when the metrics are read,
+ * while the histograms keep being updated.
+ */
+public class ConnectionPoolMetrics {
+
+    private final String name;
+    private final int active;
+    private final int peakActive;
+    private final int idle;
+    private final long acquisitions;
+    private final long failures;
+    private final LatencyHistogram acquisitionLatency;
+    private final LatencyHistogram holdTime;
+
+    ConnectionPoolMetrics(String name, int active, int peakActive, int idle, long acquisitions,
+        long failures, LatencyHistogram acquisitionLatency, LatencyHistogram holdTime) {
+        this.name = name;
+        this.active = active;
+        this.peakActive = peakActive;
+        this.idle = idle;
+        this.acquisitions = acquisitions;
+        this.failures = failures;
+        this.acquisitionLatency = acquisitionLatency;
+        this.holdTime = holdTime;
+    }
+
+    /**
+     * Returns the JNDI name of the data source.
+     *
+     * @return Name of the data source
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of connections acquired and not yet closed.
+     *
+     * @return Number of active connections
+     */
+    public int getActive() {
+        return active;
+    }
+
+    /**
+     * Returns the largest number of connections which were active at the same time.
+     *
+     * @return Peak number of active connections
+     */
+    public int getPeakActive() {
+        return peakActive;
+    }
+
+    /**
+     * Returns the number of idle connections in the pool.
+     *
+     * @return Number of idle connections, or -1 if the pool does not report it
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * Returns the number of connections acquired.
+     *
+     * @return Number of acquisitions
+     */
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    /**
+     * Returns the number of attempts to acquire a connection which failed.
+     *
+     * @return Number of failed acquisitions
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns the histogram of the time taken to acquire connections, including the time
+     * waited for a connection of an exhausted pool.
+     *
+     * @return Histogram of acquisition latencies
+     */
+    public LatencyHistogram getAcquisitionLatency() {
+        return acquisitionLatency;
+    }
+
+    /**
+     * Returns the histogram of the time connections were held before being closed.
+     *
+     * @return Histogram of hold times
+     */
+    public LatencyHistogram getHoldTime() {
+        return holdTime;
+    }
+
+    @Override
+    public String toString() {
+        long acquired = acquisitionLatency.getCount();
+        return name + ": active=" + active + ", peakActive=" + peakActive + ", idle=" + idle +
+            ", acquisitions=" + acquisitions + ", failures=" + failures + ", meanWaitMicros=" +
+            (acquired == 0 ? 0 : acquisitionLatency.getTotalNanos() / acquired / 1000) +
+            ", p99WaitMicros=" + acquisitionLatency.getPercentileBound(99) +
+            ", maxWaitMicros=" + acquisitionLatency.getMaxNanos() / 1000;
+    }
+}
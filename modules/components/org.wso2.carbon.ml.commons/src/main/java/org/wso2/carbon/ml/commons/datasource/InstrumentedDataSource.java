@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.commons.datasource;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * Data source which measures the connections acquired from another data source: the number of
+ * active connections, the time taken to acquire a connection, and the time a connection is held
+ * until it is closed.
+ */
+public class InstrumentedDataSource implements DataSource {
+
+    private final String name;
+    private final DataSource dataSource;
+    // Accessor of the number of idle connections of the underlying pool, if it has one.
+    private final Method idleAccessor;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final LatencyHistogram acquisitionLatency = new LatencyHistogram();
+    private final LatencyHistogram holdTime = new LatencyHistogram();
+
+    /**
+     * Creates an instrumented data source.
+     *
+     * @param name          Name of the data source
+     * @param dataSource    Data source to acquire the connections from
+     */
+    public InstrumentedDataSource(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.idleAccessor = findIdleAccessor(dataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = this.dataSource.getConnection();
+        } catch (SQLException e) {
+            this.failures.incrementAndGet();
+            throw e;
+        }
+        return track(connection, start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = this.dataSource.getConnection(username, password);
+        } catch (SQLException e) {
+            this.failures.incrementAndGet();
+            throw e;
+        }
+        return track(connection, start);
+    }
+
+    /**
+     * Returns the usage of the connections of the data source.
+     *
+     * @return Metrics of the data source
+     */
+    public ConnectionPoolMetrics getMetrics() {
+        return new ConnectionPoolMetrics(this.name, this.active.get(), this.peakActive.get(),
+            getIdle(), this.acquisitions.get(), this.failures.get(), this.acquisitionLatency,
+            this.holdTime);
+    }
+
+    /**
+     * Returns the data source the connections are acquired from.
+     *
+     * @return Underlying data source
+     */
+    public DataSource getDataSource() {
+        return this.dataSource;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return this.dataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        this.dataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        this.dataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return this.dataSource.getLoginTimeout();
+    }
+
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) throws SQLException {
+        if (type.isInstance(this)) {
+            return type.cast(this);
+        }
+        return this.dataSource.unwrap(type);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> type) throws SQLException {
+        return type.isInstance(this) || this.dataSource.isWrapperFor(type);
+    }
+
+    private Connection track(Connection connection, long start) {
+        long now = System.nanoTime();
+        this.acquisitionLatency.record(now - start);
+        this.acquisitions.incrementAndGet();
+        int current = this.active.incrementAndGet();
+        int peak = this.peakActive.get();
+        while (current > peak && !this.peakActive.compareAndSet(peak, current)) {
+            peak = this.peakActive.get();
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class }, new TrackedConnection(connection, now));
+    }
+
+    private int getIdle() {
+        if (this.idleAccessor == null) {
+            return -1;
+        }
+        try {
+            return ((Number) this.idleAccessor.invoke(this.dataSource)).intValue();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /*
+     * Pools such as the Tomcat JDBC pool, used by the Carbon data sources, report their idle
+     * connections through a getIdle or getNumIdle method.
+     */
+    private static Method findIdleAccessor(DataSource dataSource) {
+        for (String methodName : new String[] { "getIdle", "getNumIdle" }) {
+            try {
+                Method method = dataSource.getClass().getMethod(methodName);
+                if (method.getReturnType() == int.class) {
+                    return method;
+                }
+            } catch (NoSuchMethodException e) {
+                // Try the next name.
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Handler of a connection handed out by the data source, which records the time the
+     * connection is held when it is closed for the first time.
+     */
+    private class TrackedConnection implements InvocationHandler {
+        private final Connection connection;
+        private final long acquiredTime;
+        private boolean closed;
+
+        private TrackedConnection(Connection connection, long acquiredTime) {
+            this.connection = connection;
+            this.acquiredTime = acquiredTime;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("close".equals(method.getName()) && method.getParameterTypes().length == 0) {
+                synchronized (this) {
+                    if (!this.closed) {
+                        this.closed = true;
+                        active.decrementAndGet();
+                        holdTime.record(System.nanoTime() - this.acquiredTime);
+                    }
+                }
+            }
+            try {
+                return method.invoke(this.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.commons.datasource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Registry of the data sources shared by the Machine Learner components. A data source is
+ * looked up from JNDI the first time it is asked for, and the same instrumented data source is
+ * returned afterwards, so that database handlers can be created per call without a JNDI lookup.
+ */
+public class MLDataSourceRegistry {
+
+    private static final Log logger = LogFactory.getLog(MLDataSourceRegistry.class);
+    private static final ConcurrentMap<String, InstrumentedDataSource> dataSources =
+        new ConcurrentHashMap<String, InstrumentedDataSource>();
+    private static final AtomicLong lookups = new AtomicLong();
+
+    /*
+     * private Constructor to prevent any other class from instantiating.
+     */
+    private MLDataSourceRegistry() {
+    }
+
+    /**
+     * Returns the data source bound to a JNDI name, looking it up the first time.
+     *
+     * @param jndiName  JNDI lookup name of the data source
+     * @return          Instrumented data source
+     * @throws          NamingException If the data source cannot be looked up
+     */
+    public static InstrumentedDataSource getDataSource(String jndiName) throws NamingException {
+        InstrumentedDataSource dataSource = dataSources.get(jndiName);
+        if (dataSource == null) {
+            synchronized (dataSources) {
+                dataSource = dataSources.get(jndiName);
+                if (dataSource == null) {
+                    Context initContext = new InitialContext();
+                    dataSource = new InstrumentedDataSource(jndiName,
+                        (DataSource) initContext.lookup(jndiName));
+                    lookups.incrementAndGet();
+                    dataSources.put(jndiName, dataSource);
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Resolved the data source " + jndiName);
+                    }
+                }
+            }
+        }
+        return dataSource;
+    }
+
+    /**
+     * Registers a data source under a name, in place of looking it up from JNDI.
+     *
+     * @param name          Name of the data source
+     * @param dataSource    Data source
+     * @return              Instrumented data source
+     */
+    public static InstrumentedDataSource register(String name, DataSource dataSource) {
+        InstrumentedDataSource instrumented = new InstrumentedDataSource(name, dataSource);
+        dataSources.put(name, instrumented);
+        return instrumented;
+    }
+
+    /**
+     * Forgets a data source, so that it is looked up again the next time it is asked for.
+     *
+     * @param name  Name of the data source
+     */
+    public static void remove(String name) {
+        dataSources.remove(name);
+    }
+
+    /**
+     * Returns the usage of the connections of each data source resolved so far.
+     *
+     * @return Metrics of the data sources, by their names
+     */
+    public static Map<String, ConnectionPoolMetrics> getMetrics() {
+        Map<String, ConnectionPoolMetrics> metrics =
+            new LinkedHashMap<String, ConnectionPoolMetrics>();
+        for (Map.Entry<String, InstrumentedDataSource> dataSource : dataSources.entrySet()) {
+            metrics.put(dataSource.getKey(), dataSource.getValue().getMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the number of JNDI lookups made, which is at most one per data source unless a
+     * data source is removed.
+     *
+     * @return Number of JNDI lookups
+     */
+    public static long getLookupCount() {
+        return lookups.get();
+    }
+}
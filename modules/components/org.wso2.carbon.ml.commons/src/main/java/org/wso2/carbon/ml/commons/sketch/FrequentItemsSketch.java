@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.commons.sketch;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Misra-Gries frequent items sketch, which keeps at most k counters of the values of a stream of
+ * numbers. When a value without a counter arrives and all counters are taken, every counter is
+ * decreased instead, so that counts underestimate the frequencies by at most N / (k + 1), where N
+ * is the number of values added. Any value more frequent than that keeps its counter. Sketches are
+ * merged by adding their counters and decreasing all counters by the (k + 1)th largest count.
+ * If no counter is left, e.g. when all the values are distinct, no value is more frequent than
+ * N / (k + 1), and the smallest value added is taken as the most frequent one.
+ */
+public class FrequentItemsSketch implements Serializable {
+
+    private static final long serialVersionUID = -2469136305386452407L;
+
+    private final int k;
+    private final Map<Double, Long> counters;
+    private long n;
+    // Smallest value added, which is the most frequent value if no counter is left.
+    private double min;
+
+    /**
+     * Creates a frequent items sketch.
+     *
+     * @param k     Maximum number of counters, which controls the accuracy of the sketch
+     */
+    public FrequentItemsSketch(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k should be positive: " + k);
+        }
+        this.k = k;
+        this.counters = new HashMap<Double, Long>();
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value     Value to be added
+     */
+    public void update(double value) {
+        if (this.n == 0 || value < this.min) {
+            this.min = value;
+        }
+        this.n++;
+        Long count = this.counters.get(value);
+        if (count != null) {
+            this.counters.put(value, count + 1);
+        } else if (this.counters.size() < this.k) {
+            this.counters.put(value, 1L);
+        } else {
+            decrement(1);
+        }
+    }
+
+    /**
+     * Merges another sketch in to this sketch.
+     *
+     * @param other     Sketch to be merged
+     */
+    public void merge(FrequentItemsSketch other) {
+        for (Map.Entry<Double, Long> counter : other.counters.entrySet()) {
+            Long count = this.counters.get(counter.getKey());
+            this.counters.put(counter.getKey(),
+                count == null ? counter.getValue() : count + counter.getValue());
+        }
+        if (other.n > 0 && (this.n == 0 || other.min < this.min)) {
+            this.min = other.min;
+        }
+        this.n += other.n;
+        if (this.counters.size() > this.k) {
+            long[] counts = new long[this.counters.size()];
+            int i = 0;
+            for (long count : this.counters.values()) {
+                counts[i++] = count;
+            }
+            Arrays.sort(counts);
+            decrement(counts[counts.length - this.k - 1]);
+        }
+    }
+
+    /**
+     * Returns the number of values added to the sketch.
+     *
+     * @return  Number of values
+     */
+    public long getN() {
+        return this.n;
+    }
+
+    /**
+     * Returns the estimated number of occurrences of a value.
+     *
+     * @param value     Value of which the frequency is needed
+     * @return          Lower bound of the number of occurrences of the value
+     */
+    public long getFrequency(double value) {
+        Long count = this.counters.get(value);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Returns the most frequent value. Ties are broken by the smaller value, so that the result
+     * does not depend on the order the values were added in.
+     *
+     * @return  Value with the largest count, the smallest value if no counter is left, or NaN if
+     *          the sketch is empty
+     */
+    public double getMostFrequent() {
+        if (this.counters.isEmpty()) {
+            return this.n == 0 ? Double.NaN : this.min;
+        }
+        double mostFrequent = Double.NaN;
+        long maxCount = 0;
+        for (Map.Entry<Double, Long> counter : this.counters.entrySet()) {
+            if (counter.getValue() > maxCount
+                || (counter.getValue() == maxCount && counter.getKey() < mostFrequent)) {
+                mostFrequent = counter.getKey();
+                maxCount = counter.getValue();
+            }
+        }
+        return mostFrequent;
+    }
+
+    /*
+     * Decreases all counters by the given amount, dropping the counters which reach zero.
+     */
+    private void decrement(long amount) {
+        Iterator<Map.Entry<Double, Long>> iterator = this.counters.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Double, Long> counter = iterator.next();
+            long count = counter.getValue() - amount;
+            if (count > 0) {
+                counter.setValue(count);
+            } else {
+                iterator.remove();
+            }
+        }
+    }
+}
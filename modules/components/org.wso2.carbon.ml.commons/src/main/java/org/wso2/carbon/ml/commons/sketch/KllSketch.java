@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.commons.sketch;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * KLL quantile sketch (Karnin, Lang and Liberty), which estimates ranks and quantiles of a stream
+ * of numbers in a fixed amount of memory. Items are kept in a hierarchy of compactors, where an
+ * item at level h stands for 2^h items of the stream. When a compactor is full it is sorted and
+ * every other item is promoted to the next level. The rank error is about 1.65 / k. Sketches are
+ * serializable, so that sketches of the partitions of a distributed data-set can be merged.
+ */
+public class KllSketch implements Serializable {
+
+    private static final long serialVersionUID = 3054184539474981630L;
+
+    // Capacities of the lower compactors decay geometrically by this factor.
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_CAPACITY = 2;
+
+    private final int k;
+    private final Random random;
+    // Items of each level, of which only the first levelSizes[level] are valid.
+    private double[][] levels = new double[0][];
+    private int[] levelSizes = new int[0];
+    private long n;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    /**
+     * Creates a KLL sketch.
+     *
+     * @param k     Capacity of the top compactor, which controls the accuracy of the sketch
+     */
+    public KllSketch(int k) {
+        if (k < MIN_CAPACITY) {
+            throw new IllegalArgumentException("k should be at least " + MIN_CAPACITY + ": " + k);
+        }
+        this.k = k;
+        this.random = new Random();
+        addLevel();
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value     Value to be added
+     */
+    public void update(double value) {
+        if (this.n == 0) {
+            this.min = value;
+            this.max = value;
+        } else {
+            this.min = Math.min(this.min, value);
+            this.max = Math.max(this.max, value);
+        }
+        this.n++;
+        append(0, value);
+        if (this.levelSizes[0] >= capacity(0)) {
+            compress();
+        }
+    }
+
+    /**
+     * Merges another sketch in to this sketch.
+     *
+     * @param other     Sketch to be merged
+     */
+    public void merge(KllSketch other) {
+        if (other.n == 0) {
+            return;
+        }
+        while (this.levels.length < other.levels.length) {
+            addLevel();
+        }
+        for (int level = 0; level < other.levels.length; level++) {
+            double[] items = other.levels[level];
+            for (int i = 0; i < other.levelSizes[level]; i++) {
+                append(level, items[i]);
+            }
+        }
+        this.min = this.n == 0 ? other.min : Math.min(this.min, other.min);
+        this.max = this.n == 0 ? other.max : Math.max(this.max, other.max);
+        this.n += other.n;
+        compress();
+    }
+
+    /**
+     * Returns the number of values added to the sketch.
+     *
+     * @return  Number of values
+     */
+    public long getN() {
+        return this.n;
+    }
+
+    /**
+     * Returns the minimum value added to the sketch.
+     *
+     * @return  Minimum value, or NaN if the sketch is empty
+     */
+    public double getMin() {
+        return this.min;
+    }
+
+    /**
+     * Returns the maximum value added to the sketch.
+     *
+     * @return  Maximum value, or NaN if the sketch is empty
+     */
+    public double getMax() {
+        return this.max;
+    }
+
+    /**
+     * Returns the estimated number of values less than or equal to the given value.
+     *
+     * @param value     Value of which the rank is needed
+     * @return          Estimated number of values less than or equal to the value
+     */
+    public long getRank(double value) {
+        long rank = 0;
+        for (int level = 0; level < this.levels.length; level++) {
+            double[] items = this.levels[level];
+            for (int i = 0; i < this.levelSizes[level]; i++) {
+                if (items[i] <= value) {
+                    rank += 1L << level;
+                }
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the estimated value at the given fraction of the sorted values.
+     *
+     * @param fraction  Fraction between 0 and 1, e.g. 0.5 for the median
+     * @return          Estimated quantile, or NaN if the sketch is empty
+     */
+    public double getQuantile(double fraction) {
+        if (this.n == 0) {
+            return Double.NaN;
+        }
+        if (fraction <= 0) {
+            return this.min;
+        }
+        if (fraction >= 1) {
+            return this.max;
+        }
+        // Collect the retained items with their weights, sorted by the value.
+        int retained = 0;
+        for (int size : this.levelSizes) {
+            retained += size;
+        }
+        final double[] values = new double[retained];
+        int[] itemLevels = new int[retained];
+        int index = 0;
+        for (int level = 0; level < this.levels.length; level++) {
+            double[] items = this.levels[level];
+            for (int i = 0; i < this.levelSizes[level]; i++) {
+                values[index] = items[i];
+                itemLevels[index++] = level;
+            }
+        }
+        Integer[] order = new Integer[retained];
+        for (int i = 0; i < retained; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                return Double.compare(values[first], values[second]);
+            }
+        });
+        double targetRank = fraction * this.n;
+        long cumulativeWeight = 0;
+        for (int i = 0; i < retained; i++) {
+            cumulativeWeight += 1L << itemLevels[order[i]];
+            if (cumulativeWeight >= targetRank) {
+                return values[order[i]];
+            }
+        }
+        return this.max;
+    }
+
+    /*
+     * Compacts the first level which exceeds its capacity, repeating until all levels fit.
+     */
+    private void compress() {
+        boolean compacted = true;
+        while (compacted) {
+            compacted = false;
+            for (int level = 0; level < this.levels.length; level++) {
+                if (this.levelSizes[level] >= capacity(level)) {
+                    compact(level);
+                    compacted = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    /*
+     * Sorts a level and promotes every other item, starting at a random offset, to the next
+     * level. An odd item out stays at the level.
+     */
+    private void compact(int level) {
+        if (level + 1 == this.levels.length) {
+            addLevel();
+        }
+        double[] items = this.levels[level];
+        int size = this.levelSizes[level];
+        Arrays.sort(items, 0, size);
+        int offset = this.random.nextBoolean() ? 1 : 0;
+        int kept = 0;
+        if (size % 2 == 1) {
+            // Keep the largest item, so that an even number of items is compacted.
+            kept = 1;
+            size--;
+        }
+        for (int i = offset; i < size; i += 2) {
+            append(level + 1, items[i]);
+        }
+        if (kept == 1) {
+            items[0] = items[size];
+        }
+        this.levelSizes[level] = kept;
+    }
+
+    /*
+     * Capacity of a level, which depends on its distance from the top level.
+     */
+    private int capacity(int level) {
+        int depth = this.levels.length - level - 1;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(this.k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void addLevel() {
+        int level = this.levels.length;
+        this.levels = Arrays.copyOf(this.levels, level + 1);
+        this.levels[level] = new double[MIN_CAPACITY];
+        this.levelSizes = Arrays.copyOf(this.levelSizes, level + 1);
+    }
+
+    private void append(int level, double value) {
+        double[] items = this.levels[level];
+        int size = this.levelSizes[level];
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+            this.levels[level] = items;
+        }
+        items[size] = value;
+        this.levelSizes[level] = size + 1;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.commons.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class InstrumentedDataSourceTest {
+
+    @Test
+    public void testConnectionTracking() throws SQLException {
+        InstrumentedDataSource dataSource = new InstrumentedDataSource("test",
+            createDataSource(false));
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        Assert.assertEquals(dataSource.getMetrics().getActive(), 2);
+        first.close();
+        // Closing a connection twice is counted once.
+        first.close();
+        Assert.assertEquals(dataSource.getMetrics().getActive(), 1);
+        second.close();
+        ConnectionPoolMetrics metrics = dataSource.getMetrics();
+        Assert.assertEquals(metrics.getActive(), 0);
+        Assert.assertEquals(metrics.getPeakActive(), 2);
+        Assert.assertEquals(metrics.getAcquisitions(), 2);
+        Assert.assertEquals(metrics.getAcquisitionLatency().getCount(), 2);
+        Assert.assertEquals(metrics.getHoldTime().getCount(), 2);
+        // The pool does not report its idle connections.
+        Assert.assertEquals(metrics.getIdle(), -1);
+    }
+
+    @Test
+    public void testFailedAcquisition() {
+        InstrumentedDataSource dataSource = new InstrumentedDataSource("test",
+            createDataSource(true));
+        try {
+            dataSource.getConnection();
+            Assert.fail("Failure of the data source is not propagated.");
+        } catch (SQLException e) {
+            Assert.assertEquals(e.getMessage(), "Pool exhausted");
+        }
+        Assert.assertEquals(dataSource.getMetrics().getFailures(), 1);
+        Assert.assertEquals(dataSource.getMetrics().getActive(), 0);
+    }
+
+    @Test
+    public void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(20));
+        }
+        histogram.record(TimeUnit.SECONDS.toNanos(2));
+        Assert.assertEquals(histogram.getCount(), 100);
+        Assert.assertEquals(histogram.getPercentileBound(50), 50);
+        Assert.assertEquals(histogram.getPercentileBound(99), 50);
+        Assert.assertEquals(histogram.getPercentileBound(100), 2000000);
+        Assert.assertEquals(histogram.getMaxNanos(), TimeUnit.SECONDS.toNanos(2));
+    }
+
+    private static DataSource createDataSource(final boolean failing) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+            new Class<?>[] { DataSource.class }, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args)
+                        throws Throwable {
+                    if (failing) {
+                        throw new SQLException("Pool exhausted");
+                    }
+                    return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[] { Connection.class }, new InvocationHandler() {
+                            @Override
+                            public Object invoke(Object proxy, Method method, Object[] args) {
+                                return null;
+                            }
+                        });
+                }
+            });
+    }
+}
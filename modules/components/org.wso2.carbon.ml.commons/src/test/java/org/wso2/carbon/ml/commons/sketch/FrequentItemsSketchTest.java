@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.commons.sketch;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class FrequentItemsSketchTest {
+
+    @Test
+    public void testMostFrequent() throws Exception {
+        FrequentItemsSketch first = new FrequentItemsSketch(10);
+        FrequentItemsSketch second = new FrequentItemsSketch(10);
+        // 7 occurs in 1/4 of the values, among 1000 distinct values occurring once.
+        for (int i = 0; i < 1000; i++) {
+            first.update(1000 + i);
+            if (i % 3 == 0) {
+                first.update(7);
+            }
+            second.update(i % 4 == 0 ? 3 : 7);
+        }
+        Assert.assertEquals(first.getN(), 1334, "Value count doesn't match");
+        Assert.assertEquals(first.getMostFrequent(), 7, 0, "Most frequent value doesn't match");
+        Assert.assertTrue(first.getFrequency(7) >= 334 - 1334 / 11,
+            "Frequency is not within N / (k + 1)");
+        first.merge(second);
+        Assert.assertEquals(first.getN(), 2334, "Value count of the merged sketch doesn't match");
+        Assert.assertEquals(first.getMostFrequent(), 7, 0,
+            "Most frequent value of the merged sketch doesn't match");
+        Assert.assertTrue(first.getFrequency(3) > 0, "Frequent value of the merged sketch is lost");
+        Assert.assertTrue(Double.isNaN(new FrequentItemsSketch(10).getMostFrequent()),
+            "Most frequent value of an empty sketch is not NaN");
+    }
+
+    @Test
+    public void testDistinctValues() throws Exception {
+        FrequentItemsSketch first = new FrequentItemsSketch(10);
+        FrequentItemsSketch second = new FrequentItemsSketch(10);
+        // Every value occurs once, so that each counter is decreased to zero.
+        for (int i = 0; i < 1100; i++) {
+            first.update(500 - i);
+            second.update(1000 + i);
+        }
+        Assert.assertEquals(first.getMostFrequent(), -599, 0,
+            "Most frequent value of distinct values is not the smallest value");
+        second.merge(first);
+        Assert.assertEquals(second.getMostFrequent(), -599, 0,
+            "Most frequent value of the merged sketch is not the smallest value");
+    }
+}
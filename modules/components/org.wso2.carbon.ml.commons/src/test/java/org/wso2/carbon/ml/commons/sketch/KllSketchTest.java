@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.commons.sketch;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class KllSketchTest {
+
+    @Test
+    public void testQuantiles() throws Exception {
+        KllSketch first = new KllSketch(200);
+        KllSketch second = new KllSketch(200);
+        // Values in descending order, as in a sorted data-set.
+        for (int i = 100000; i > 0; i--) {
+            first.update(i);
+            second.update(100000 + i);
+        }
+        Assert.assertEquals(first.getN(), 100000, "Value count doesn't match");
+        Assert.assertEquals(first.getMin(), 1, 0, "Minimum doesn't match");
+        Assert.assertEquals(first.getMax(), 100000, 0, "Maximum doesn't match");
+        Assert.assertEquals(first.getQuantile(0.5), 50000, 100000 * 0.02,
+            "Median is not within 2% in rank");
+        Assert.assertEquals(first.getRank(25000), 25000, 100000 * 0.02,
+            "Rank is not within 2%");
+        first.merge(second);
+        Assert.assertEquals(first.getN(), 200000, "Value count of the merged sketch doesn't match");
+        Assert.assertEquals(first.getQuantile(0.75), 150000, 200000 * 0.02,
+            "Quantile of the merged sketch is not within 2% in rank");
+    }
+}
@@ -20,9 +20,14 @@ package org.wso2.carbon.ml.dataset;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
 
 import org.json.JSONArray;
 import org.wso2.carbon.ml.dataset.dto.Feature;
+import org.wso2.carbon.ml.dataset.dto.FeatureSettings;
+import org.wso2.carbon.ml.dataset.dto.FeatureSummary;
+import org.wso2.carbon.ml.dataset.dto.UploadProgress;
 import org.wso2.carbon.ml.dataset.exceptions.DatasetServiceException;
 
 /**
@@ -54,6 +59,40 @@ public interface DatasetService {
     public int uploadDataset(InputStream sourceInputStream, String datasetID, String fileName,
             String projectID) throws DatasetServiceException, IOException;
 
+    /**
+     * Queue the upload of a data file and the calculation of its summary statistics, and return
+     * without waiting for the upload. The input stream is read by the upload job, which closes
+     * it once the upload has finished.
+     *
+     * @param sourceInputStream Input Stream of the source data file
+     * @param datasetID Unique Identifier of the data-set, which identifies the upload job
+     * @param fileName Name of the uploading file
+     * @param projectID Unique Identifier of the project
+     * @return Handle of the upload job, giving the number of features in the data-set
+     * @throws DatasetServiceException If the upload queue is full
+     */
+    public Future<Integer> uploadDatasetAsync(InputStream sourceInputStream, String datasetID,
+            String fileName, String projectID) throws DatasetServiceException;
+
+    /**
+     * Returns the progress of the upload of a data-set.
+     *
+     * @param datasetID Unique Identifier of the data-set
+     * @return Snapshot of the progress of the upload
+     * @throws DatasetServiceException If no upload of the data-set is known
+     */
+    public UploadProgress getUploadProgress(String datasetID) throws DatasetServiceException;
+
+    /**
+     * This method checks whether the upload of a data-set is completed or not.
+     *
+     * @param datasetID Unique Identifier of the data-set
+     * @return Indicates whether the upload is completed or not
+     * @throws DatasetServiceException If the upload has failed, or no upload of the data-set is
+     *             known
+     */
+    public boolean isUploadCompleted(String datasetID) throws DatasetServiceException;
+
     /**
      * Update the data type of a given feature.
      *
@@ -87,6 +126,17 @@ public interface DatasetService {
     public void updateIsIncludedFeature(String featureName, String workflowID, boolean isInput)
             throws DatasetServiceException;
 
+    /**
+     * Update the settings of many features of a work-flow at once, in a single transaction.
+     *
+     * @param workflowID Unique identifier of the current workflow
+     * @param featureSettings Settings to be updated, by the name of the feature. Settings left
+     *            null are not changed.
+     * @throws DatasetServiceException
+     */
+    public void updateFeatureSettings(String workflowID,
+            Map<String, FeatureSettings> featureSettings) throws DatasetServiceException;
+
     /**
      * Returns a set of features in a given range, from the alphabetically
      * ordered set of features, of a data-set.
@@ -100,6 +150,22 @@ public interface DatasetService {
     public List<Feature> getFeatures(String datasetID, String workflowID, int startIndex,
             int numberOfFeatures) throws DatasetServiceException;
 
+    /**
+     * Returns a set of features following a given feature, from the alphabetically ordered
+     * set of features, of a data-set. Pages deep in to a data-set of many features are read
+     * as fast as the first page.
+     *
+     * @param datasetID Unique Identifier of the data-set
+     * @param workflowID Unique identifier of the current workflow
+     * @param lastFeatureName Name of the last feature of the previous page, or null for the
+     *            first page
+     * @param numberOfFeatures Number of features needed, after the given feature
+     * @return A list of Feature objects
+     * @throws DatasetServiceException
+     */
+    public List<Feature> getFeaturesAfter(String datasetID, String workflowID,
+            String lastFeatureName, int numberOfFeatures) throws DatasetServiceException;
+
     /**
      * Returns the names of the features, belongs to a particular data-type
      * (Categorical/Numerical), of the work-flow.
@@ -126,6 +192,24 @@ public interface DatasetService {
     public JSONArray getScatterPlotPoints(String datasetID, String xAxisFeature, String yAxisFeature,
             String groupByFeature) throws DatasetServiceException;
 
+    /**
+     * Returns at most the given number of data points of the selected sample, needed for the
+     * scatter plot, so that the size of the response does not grow with the sample size. The
+     * points are either subsampled within each value of the group-by feature, as [x, y, group]
+     * arrays, or counted in the cells of a grid, as [x, y, group, count] arrays.
+     *
+     * @param datasetID Unique Identifier of the data-set
+     * @param xAxisFeature Name of the feature to use as the x-axis
+     * @param yAxisFeature Name of the feature to use as the y-axis
+     * @param groupByFeature Name of the feature to be grouped by (color code)
+     * @param maxPoints Maximum number of points to return
+     * @param mode SUBSAMPLE or BINNED
+     * @return A JSON array of data points
+     * @throws DatasetServiceException
+     */
+    public JSONArray getScatterPlotPoints(String datasetID, String xAxisFeature, String yAxisFeature,
+            String groupByFeature, int maxPoints, String mode) throws DatasetServiceException;
+
     /**
      * Returns the summary statistics for a given feature of a given data-set
      *
@@ -136,6 +220,18 @@ public interface DatasetService {
      */
     public String getSummaryStats(String datasetID, String feature) throws DatasetServiceException;
 
+    /**
+     * Returns the summary statistics for a given feature of a given data-set, decoded from
+     * their binary form, for use by the other components.
+     *
+     * @param datasetID Unique Identifier of the data-set
+     * @param feature Name of the feature of which summary statistics are needed
+     * @return Summary statistics of the feature, or null if they were stored only as JSON
+     * @throws DatasetServiceException
+     */
+    public FeatureSummary getFeatureSummary(String datasetID, String feature)
+            throws DatasetServiceException;
+
     /**
      * Returns the number of features of a given data-set.
      *
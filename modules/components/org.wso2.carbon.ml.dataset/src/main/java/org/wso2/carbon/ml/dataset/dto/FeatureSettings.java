@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.dto;
+
+/**
+ * Settings of a feature of a work-flow, to be updated together with the settings of other
+ * features. Settings left null are not changed.
+ */
+public class FeatureSettings {
+
+	private String type;
+	private String imputeOption;
+	private Boolean include;
+
+	/**
+	 * Returns the data-type to set to the feature.
+	 *
+	 * @return Data-type of the feature, or null to keep the current one
+	 */
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * Sets the data-type to set to the feature.
+	 *
+	 * @param type Data-type of the feature, or null to keep the current one
+	 */
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	/**
+	 * Returns the impute option to set to the feature.
+	 *
+	 * @return Impute option of the feature, or null to keep the current one
+	 */
+	public String getImputeOption() {
+		return imputeOption;
+	}
+
+	/**
+	 * Sets the impute option to set to the feature.
+	 *
+	 * @param imputeOption Impute option of the feature, or null to keep the current one
+	 */
+	public void setImputeOption(String imputeOption) {
+		this.imputeOption = imputeOption;
+	}
+
+	/**
+	 * Returns whether the feature is to be included as an input.
+	 *
+	 * @return Whether the feature is an input, or null to keep the current setting
+	 */
+	public Boolean getInclude() {
+		return include;
+	}
+
+	/**
+	 * Sets whether the feature is to be included as an input.
+	 *
+	 * @param include Whether the feature is an input, or null to keep the current setting
+	 */
+	public void setInclude(Boolean include) {
+		this.include = include;
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.dto;
+
+import java.util.Map;
+
+/**
+ * Summary statistics of a feature, decoded from the binary form stored along with the JSON
+ * summary. Statistics which were not calculated for the feature are NaN.
+ */
+public class FeatureSummary {
+
+	private String type;
+	private int unique;
+	private int missing;
+	private double mean = Double.NaN;
+	private double median = Double.NaN;
+	private double std = Double.NaN;
+	private double skewness = Double.NaN;
+	private Map<String, Integer> frequencies;
+
+	/**
+	 * Returns the data-type of the feature.
+	 *
+	 * @return Data-type of the feature
+	 */
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * Sets the data-type of the feature.
+	 *
+	 * @param type Data-type of the feature
+	 */
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	/**
+	 * Returns the number of unique values of the feature.
+	 *
+	 * @return Number of unique values
+	 */
+	public int getUnique() {
+		return unique;
+	}
+
+	/**
+	 * Sets the number of unique values of the feature.
+	 *
+	 * @param unique Number of unique values
+	 */
+	public void setUnique(int unique) {
+		this.unique = unique;
+	}
+
+	/**
+	 * Returns the number of missing values of the feature.
+	 *
+	 * @return Number of missing values
+	 */
+	public int getMissing() {
+		return missing;
+	}
+
+	/**
+	 * Sets the number of missing values of the feature.
+	 *
+	 * @param missing Number of missing values
+	 */
+	public void setMissing(int missing) {
+		this.missing = missing;
+	}
+
+	/**
+	 * Returns the mean of the feature.
+	 *
+	 * @return Mean, or NaN if not calculated
+	 */
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * Sets the mean of the feature.
+	 *
+	 * @param mean Mean of the feature
+	 */
+	public void setMean(double mean) {
+		this.mean = mean;
+	}
+
+	/**
+	 * Returns the median of the feature.
+	 *
+	 * @return Median, or NaN if not calculated
+	 */
+	public double getMedian() {
+		return median;
+	}
+
+	/**
+	 * Sets the median of the feature.
+	 *
+	 * @param median Median of the feature
+	 */
+	public void setMedian(double median) {
+		this.median = median;
+	}
+
+	/**
+	 * Returns the standard deviation of the feature.
+	 *
+	 * @return Standard deviation, or NaN if not calculated
+	 */
+	public double getStd() {
+		return std;
+	}
+
+	/**
+	 * Sets the standard deviation of the feature.
+	 *
+	 * @param std Standard deviation of the feature
+	 */
+	public void setStd(double std) {
+		this.std = std;
+	}
+
+	/**
+	 * Returns the skewness of the feature.
+	 *
+	 * @return Skewness, or NaN if not calculated
+	 */
+	public double getSkewness() {
+		return skewness;
+	}
+
+	/**
+	 * Sets the skewness of the feature.
+	 *
+	 * @param skewness Skewness of the feature
+	 */
+	public void setSkewness(double skewness) {
+		this.skewness = skewness;
+	}
+
+	/**
+	 * Returns the frequencies of the intervals of a numerical feature, or of the categories of
+	 * a categorical feature, in the order they are plotted.
+	 *
+	 * @return Frequencies by the interval or category
+	 */
+	public Map<String, Integer> getFrequencies() {
+		return frequencies;
+	}
+
+	/**
+	 * Sets the frequencies of the intervals or categories of the feature.
+	 *
+	 * @param frequencies Frequencies by the interval or category
+	 */
+	public void setFrequencies(Map<String, Integer> frequencies) {
+		this.frequencies = frequencies;
+	}
+}
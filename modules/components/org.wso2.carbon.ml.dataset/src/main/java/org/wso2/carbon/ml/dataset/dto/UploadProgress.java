@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.dto;
+
+import java.io.Serializable;
+
+/**
+ * Progress of the upload of a data-set. Each of the counters is updated by a single stage of
+ * the upload, while the progress is read by the pollers.
+ */
+public class UploadProgress implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	// Phases of an upload.
+	public static final String QUEUED = "QUEUED";
+	public static final String PROFILING = "PROFILING";
+	public static final String STORING_SAMPLE = "STORING_SAMPLE";
+	public static final String UPLOADING = "UPLOADING";
+	public static final String COMPLETED = "COMPLETED";
+	public static final String FAILED = "FAILED";
+
+	private final String datasetID;
+	private volatile String phase = QUEUED;
+	private volatile long bytesWritten;
+	private volatile long rowsProfiled;
+	private volatile int noOfFeatures;
+	private volatile String error;
+	private volatile long finishedTime;
+
+	public UploadProgress(String datasetID) {
+		this.datasetID = datasetID;
+	}
+
+	/**
+	 * Creates a snapshot of the progress of an upload.
+	 *
+	 * @param progress Progress of the upload
+	 */
+	public UploadProgress(UploadProgress progress) {
+		this.datasetID = progress.datasetID;
+		this.phase = progress.phase;
+		this.bytesWritten = progress.bytesWritten;
+		this.rowsProfiled = progress.rowsProfiled;
+		this.noOfFeatures = progress.noOfFeatures;
+		this.error = progress.error;
+		this.finishedTime = progress.finishedTime;
+	}
+
+	/**
+	 * Returns the unique identifier of the uploaded data-set.
+	 *
+	 * @return Unique identifier of the data-set
+	 */
+	public String getDatasetID() {
+		return datasetID;
+	}
+
+	/**
+	 * Returns the current phase of the upload.
+	 *
+	 * @return Phase of the upload
+	 */
+	public String getPhase() {
+		return phase;
+	}
+
+	/**
+	 * Sets the current phase of the upload.
+	 *
+	 * @param phase Phase of the upload
+	 */
+	public void setPhase(String phase) {
+		this.phase = phase;
+		if (COMPLETED.equals(phase) || FAILED.equals(phase)) {
+			this.finishedTime = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Returns the number of bytes written to the data-set file so far.
+	 *
+	 * @return Number of bytes written
+	 */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	/**
+	 * Sets the number of bytes written to the data-set file so far.
+	 *
+	 * @param bytesWritten Number of bytes written
+	 */
+	public void setBytesWritten(long bytesWritten) {
+		this.bytesWritten = bytesWritten;
+	}
+
+	/**
+	 * Returns the number of rows profiled so far.
+	 *
+	 * @return Number of rows profiled
+	 */
+	public long getRowsProfiled() {
+		return rowsProfiled;
+	}
+
+	/**
+	 * Sets the number of rows profiled so far.
+	 *
+	 * @param rowsProfiled Number of rows profiled
+	 */
+	public void setRowsProfiled(long rowsProfiled) {
+		this.rowsProfiled = rowsProfiled;
+	}
+
+	/**
+	 * Returns the number of features of the data-set, once the upload is completed.
+	 *
+	 * @return Number of features in the data-set
+	 */
+	public int getNoOfFeatures() {
+		return noOfFeatures;
+	}
+
+	/**
+	 * Sets the number of features of the data-set.
+	 *
+	 * @param noOfFeatures Number of features in the data-set
+	 */
+	public void setNoOfFeatures(int noOfFeatures) {
+		this.noOfFeatures = noOfFeatures;
+	}
+
+	/**
+	 * Returns the reason of the failure, if the upload has failed.
+	 *
+	 * @return Error message of the failure
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Marks the upload as failed.
+	 *
+	 * @param error Error message of the failure
+	 */
+	public void setFailed(String error) {
+		this.error = error;
+		setPhase(FAILED);
+	}
+
+	/**
+	 * Returns whether the upload has either completed or failed.
+	 *
+	 * @return True if the upload has finished, false otherwise
+	 */
+	public boolean isFinished() {
+		return finishedTime > 0;
+	}
+
+	/**
+	 * Returns the time at which the upload has finished.
+	 *
+	 * @return Finished time in milliseconds, or zero if the upload has not finished
+	 */
+	public long getFinishedTime() {
+		return finishedTime;
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.SortedMap;
+
+/**
+ * Statistics of the numeric values of a column, as written to the summary of the column.
+ */
+public interface ColumnStatistics {
+
+    /**
+     * Adds a value to the statistics.
+     *
+     * @param value     Value to be added
+     */
+    void addValue(double value);
+
+    /**
+     * Returns the number of values added.
+     *
+     * @return  Number of values
+     */
+    long getN();
+
+    /**
+     * Returns the mean of the values.
+     *
+     * @return  Mean, or NaN if there are no values
+     */
+    double getMean();
+
+    /**
+     * Returns the standard deviation of the values.
+     *
+     * @return  Standard deviation, or NaN if there are no values
+     */
+    double getStandardDeviation();
+
+    /**
+     * Returns the skewness of the values.
+     *
+     * @return  Skewness, or NaN if there are less than three values
+     */
+    double getSkewness();
+
+    /**
+     * Returns the given percentile of the values, which may be an estimate.
+     *
+     * @param p     Percentile, between 0 and 100
+     * @return      Percentile, or NaN if there are no values
+     */
+    double getPercentile(double p);
+
+    /**
+     * Returns the frequencies of equal width intervals between the minimum and the maximum of the
+     * values, which may be estimates.
+     *
+     * @param intervals     Number of intervals to be split
+     * @return              Frequencies of each interval
+     */
+    SortedMap<Integer, Integer> getIntervalFrequencies(int intervals);
+}
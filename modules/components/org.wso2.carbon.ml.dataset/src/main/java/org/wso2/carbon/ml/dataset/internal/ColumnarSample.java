@@ -0,0 +1,477 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.wso2.carbon.ml.dataset.dto.SamplePoints;
+
+/**
+ * Columnar binary form of a data-set sample. Numeric columns are stored as doubles, the other
+ * columns as dictionary codes, and each column has a bitmap of its missing cells. The header of
+ * the format holds a directory of the columns, so that a column is only decoded when it is asked
+ * for. Cells are decoded to exactly the strings they were encoded from.
+ *
+ * Layout: magic "MLSP", version, number of rows and columns, and for each column its name,
+ * index, kind and the offset and length of its data. The data of a column is its null bitmap,
+ * followed by the doubles of a numeric column, or by the dictionary, the width of a code and the
+ * codes of a categorical column.
+ */
+public class ColumnarSample {
+
+    private static final int MAGIC = 0x4D4C5350;
+    private static final byte VERSION = 1;
+    // Kinds of columns. Values of an integer column are written without a fraction.
+    private static final byte NUMERIC = 0;
+    private static final byte INTEGER = 1;
+    private static final byte CATEGORICAL = 2;
+    // Largest magnitude below which an integral double is written as a long.
+    private static final double MAX_INTEGER = 1e15;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    // Approximate sizes of the objects of the decoded columns, in bytes.
+    private static final long ARRAY_OVERHEAD = 16;
+    private static final long REFERENCE_SIZE = 8;
+    private static final long FORMATTED_NUMBER_SIZE = 64;
+
+    private final ByteBuffer buffer;
+    private final int rowCount;
+    private final Map<String, Integer> headerMap = new LinkedHashMap<String, Integer>();
+    // Kind, offset and length of the data of each column, by the column index.
+    private final byte[] kinds;
+    private final int[] offsets;
+    private final int[] lengths;
+    // Columns decoded so far.
+    private final String[][] decodedStrings;
+    private final double[][] decodedNumbers;
+
+    /**
+     * Reads the header of an encoded sample. The columns are decoded when they are asked for.
+     *
+     * @param data  Encoded sample
+     * @throws      IOException If the data is not an encoded sample
+     */
+    protected ColumnarSample(byte[] data) throws IOException {
+        try {
+            this.buffer = ByteBuffer.wrap(data);
+            if (this.buffer.getInt() != MAGIC) {
+                throw new IOException("Data is not an encoded sample.");
+            }
+            byte version = this.buffer.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version of the sample format: " + version);
+            }
+            this.rowCount = this.buffer.getInt();
+            int columnCount = this.buffer.getInt();
+            this.kinds = new byte[columnCount];
+            this.offsets = new int[columnCount];
+            this.lengths = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                String name = readString(this.buffer);
+                int column = this.buffer.getInt();
+                this.headerMap.put(name, column);
+                this.kinds[column] = this.buffer.get();
+                this.offsets[column] = this.buffer.getInt();
+                this.lengths[column] = this.buffer.getInt();
+            }
+            // Offsets are relative to the end of the header.
+            int dataStart = this.buffer.position();
+            for (int column = 0; column < columnCount; column++) {
+                this.offsets[column] += dataStart;
+                if (this.offsets[column] + this.lengths[column] > data.length) {
+                    throw new IOException("Encoded sample is truncated.");
+                }
+            }
+            this.decodedStrings = new String[columnCount][];
+            this.decodedNumbers = new double[columnCount][];
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Encoded sample is truncated.", e);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Encoded sample is corrupted.", e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Encoded sample is corrupted.", e);
+        }
+    }
+
+    /**
+     * Reads a stored sample, which is either an encoded sample or a Java serialized
+     * {@link SamplePoints} object written by the earlier versions.
+     *
+     * @param data  Stored sample
+     * @return      Columnar sample
+     * @throws      IOException
+     */
+    protected static ColumnarSample read(byte[] data) throws IOException {
+        if (data.length > 1 && data[0] == (byte) 0xAC && data[1] == (byte) 0xED) {
+            ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(data));
+            try {
+                return new ColumnarSample(encode((SamplePoints) input.readObject()));
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Failed to read the serialized sample: " + e.getMessage(), e);
+            } finally {
+                input.close();
+            }
+        }
+        return new ColumnarSample(data);
+    }
+
+    /**
+     * Encodes a sample in the columnar form.
+     *
+     * @param sample    Sample of a data-set
+     * @return          Encoded sample
+     * @throws          IOException
+     */
+    protected static byte[] encode(SamplePoints sample) throws IOException {
+        List<List<String>> columns = sample.getSamplePoints();
+        int rowCount = columns.isEmpty() ? 0 : columns.get(0).size();
+        Map<String, Integer> header = sample.getHeader();
+        // Encode each column, to find the offsets of the columns.
+        byte[] columnKinds = new byte[columns.size()];
+        List<byte[]> columnData = new ArrayList<byte[]>(columns.size());
+        for (int column = 0; column < columns.size(); column++) {
+            List<String> cells = columns.get(column);
+            if (cells.size() != rowCount) {
+                throw new IOException("Column " + column + " of the sample has " + cells.size() +
+                    " rows instead of " + rowCount + ".");
+            }
+            columnKinds[column] = kindOf(cells);
+            columnData.add(encodeColumn(cells, columnKinds[column]));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        output.writeInt(rowCount);
+        output.writeInt(header.size());
+        int offset = 0;
+        for (Map.Entry<String, Integer> entry : header.entrySet()) {
+            int column = entry.getValue();
+            writeString(output, entry.getKey());
+            output.writeInt(column);
+            output.writeByte(columnKinds[column]);
+            output.writeInt(offset);
+            output.writeInt(columnData.get(column).length);
+            offset += columnData.get(column).length;
+        }
+        for (Map.Entry<String, Integer> entry : header.entrySet()) {
+            output.write(columnData.get(entry.getValue()));
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the header names.
+     *
+     * @return  Header names and their positions in the data-set
+     */
+    protected Map<String, Integer> getHeader() {
+        return this.headerMap;
+    }
+
+    /**
+     * Returns the number of rows of the sample.
+     *
+     * @return  Number of rows
+     */
+    protected int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Returns whether the cells of a column are all numbers.
+     *
+     * @param column    Index of the column
+     * @return          True if the column is numeric, false otherwise
+     */
+    protected boolean isNumeric(int column) {
+        return this.kinds[column] != CATEGORICAL;
+    }
+
+    /**
+     * Returns whether a cell is missing.
+     *
+     * @param column    Index of the column
+     * @param row       Index of the row
+     * @return          True if the cell is missing, false otherwise
+     */
+    protected boolean isMissing(int column, int row) {
+        return (this.buffer.get(this.offsets[column] + (row >>> 3)) & (1 << (row & 7))) != 0;
+    }
+
+    /**
+     * Returns the numeric values of a column, decoding the column on first use. The values of
+     * a categorical column are parsed once for each distinct value.
+     *
+     * @param column    Index of the column
+     * @return          Values of the column, which are NaN for the missing cells
+     * @throws          NumberFormatException If a value of the column is not a number
+     */
+    protected synchronized double[] getNumbers(int column) {
+        if (this.decodedNumbers[column] == null) {
+            double[] numbers = new double[this.rowCount];
+            int start = dataStart(column);
+            if (isNumeric(column)) {
+                for (int row = 0; row < this.rowCount; row++) {
+                    numbers[row] = this.buffer.getDouble(start + row * 8);
+                }
+            } else {
+                ByteBuffer data = columnBuffer(column, start);
+                String[] dictionary = readDictionary(data);
+                double[] parsed = new double[dictionary.length];
+                Arrays.fill(parsed, Double.NaN);
+                int width = data.get();
+                for (int row = 0; row < this.rowCount; row++) {
+                    int code = readCode(data, width);
+                    if (isMissing(column, row)) {
+                        numbers[row] = Double.NaN;
+                    } else {
+                        if (Double.isNaN(parsed[code])) {
+                            parsed[code] = Double.parseDouble(dictionary[code]);
+                        }
+                        numbers[row] = parsed[code];
+                    }
+                }
+            }
+            this.decodedNumbers[column] = numbers;
+        }
+        return this.decodedNumbers[column];
+    }
+
+    /**
+     * Returns the string values of a column, decoding the column on first use.
+     *
+     * @param column    Index of the column
+     * @return          Values of the column, which are empty for the missing cells
+     */
+    protected synchronized String[] getStrings(int column) {
+        if (this.decodedStrings[column] == null) {
+            String[] strings = new String[this.rowCount];
+            if (isNumeric(column)) {
+                double[] numbers = getNumbers(column);
+                for (int row = 0; row < this.rowCount; row++) {
+                    strings[row] = isMissing(column, row) ? "" : format(numbers[row],
+                        this.kinds[column]);
+                }
+            } else {
+                ByteBuffer data = columnBuffer(column, dataStart(column));
+                String[] dictionary = readDictionary(data);
+                int width = data.get();
+                for (int row = 0; row < this.rowCount; row++) {
+                    int code = readCode(data, width);
+                    strings[row] = isMissing(column, row) ? "" : dictionary[code];
+                }
+            }
+            this.decodedStrings[column] = strings;
+        }
+        return this.decodedStrings[column];
+    }
+
+    /**
+     * Decodes the whole sample.
+     *
+     * @return  Sample of the data-set
+     */
+    protected SamplePoints toSamplePoints() {
+        List<List<String>> columns = new ArrayList<List<String>>(this.kinds.length);
+        for (int column = 0; column < this.kinds.length; column++) {
+            columns.add(new ArrayList<String>(Arrays.asList(getStrings(column))));
+        }
+        SamplePoints sample = new SamplePoints();
+        sample.setHeader(this.headerMap);
+        sample.setSamplePoints(columns);
+        return sample;
+    }
+
+    /**
+     * Returns the number of bytes of the encoded sample.
+     *
+     * @return  Size of the encoded sample in bytes
+     */
+    protected int getEncodedSize() {
+        return this.buffer.capacity();
+    }
+
+    /**
+     * Returns an estimate of the memory retained by the sample, including the columns decoded
+     * so far.
+     *
+     * @return  Estimated size of the sample in bytes
+     */
+    protected synchronized long getRetainedSize() {
+        long size = getEncodedSize();
+        for (int column = 0; column < this.kinds.length; column++) {
+            if (this.decodedNumbers[column] != null) {
+                size += ARRAY_OVERHEAD + 8L * this.rowCount;
+            }
+            if (this.decodedStrings[column] != null) {
+                size += ARRAY_OVERHEAD + REFERENCE_SIZE * this.rowCount;
+                // Formatted numbers are distinct strings, while the strings of a categorical
+                // column are shared with the dictionary.
+                size += isNumeric(column) ? FORMATTED_NUMBER_SIZE * this.rowCount :
+                    2L * this.lengths[column];
+            }
+        }
+        return size;
+    }
+
+    /*
+     * Returns the position at which the values of a column start, after its null bitmap.
+     */
+    private int dataStart(int column) {
+        return this.offsets[column] + (this.rowCount + 7) / 8;
+    }
+
+    /*
+     * Returns a view of the data of a column, positioned at the given position.
+     */
+    private ByteBuffer columnBuffer(int column, int position) {
+        ByteBuffer data = this.buffer.duplicate();
+        data.limit(this.offsets[column] + this.lengths[column]);
+        data.position(position);
+        return data;
+    }
+
+    /*
+     * Chooses how a column is stored. A column is numeric only if each of its cells is written
+     * exactly as the number is formatted, so that the cells are restored as they were.
+     */
+    private static byte kindOf(List<String> cells) {
+        boolean numeric = true;
+        boolean integer = true;
+        for (String cell : cells) {
+            if (cell == null || cell.isEmpty()) {
+                continue;
+            }
+            double value;
+            try {
+                value = Double.parseDouble(cell);
+            } catch (NumberFormatException e) {
+                return CATEGORICAL;
+            }
+            numeric = numeric && cell.equals(format(value, NUMERIC));
+            integer = integer && isInteger(value) && cell.equals(format(value, INTEGER));
+            if (!numeric && !integer) {
+                return CATEGORICAL;
+            }
+        }
+        return integer ? INTEGER : NUMERIC;
+    }
+
+    private static boolean isInteger(double value) {
+        return value == Math.rint(value) && Math.abs(value) < MAX_INTEGER;
+    }
+
+    private static String format(double value, byte kind) {
+        return kind == INTEGER ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    private static byte[] encodeColumn(List<String> cells, byte kind) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        byte[] bitmap = new byte[(cells.size() + 7) / 8];
+        for (int row = 0; row < cells.size(); row++) {
+            String cell = cells.get(row);
+            if (cell == null || cell.isEmpty()) {
+                bitmap[row >>> 3] |= 1 << (row & 7);
+            }
+        }
+        output.write(bitmap);
+        if (kind != CATEGORICAL) {
+            for (String cell : cells) {
+                output.writeDouble(cell == null || cell.isEmpty() ? Double.NaN :
+                    Double.parseDouble(cell));
+            }
+        } else {
+            Map<String, Integer> dictionary = new HashMap<String, Integer>();
+            List<String> values = new ArrayList<String>();
+            int[] codes = new int[cells.size()];
+            for (int row = 0; row < cells.size(); row++) {
+                String cell = cells.get(row) == null ? "" : cells.get(row);
+                Integer code = dictionary.get(cell);
+                if (code == null) {
+                    code = values.size();
+                    dictionary.put(cell, code);
+                    values.add(cell);
+                }
+                codes[row] = code;
+            }
+            output.writeInt(values.size());
+            for (String value : values) {
+                writeString(output, value);
+            }
+            int width = values.size() <= 0x100 ? 1 : values.size() <= 0x10000 ? 2 : 4;
+            output.writeByte(width);
+            for (int code : codes) {
+                if (width == 1) {
+                    output.writeByte(code);
+                } else if (width == 2) {
+                    output.writeShort(code);
+                } else {
+                    output.writeInt(code);
+                }
+            }
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private static String[] readDictionary(ByteBuffer data) {
+        String[] dictionary = new String[data.getInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString(data);
+        }
+        return dictionary;
+    }
+
+    private static int readCode(ByteBuffer data, int width) {
+        if (width == 1) {
+            return data.get() & 0xff;
+        } else if (width == 2) {
+            return data.getShort() & 0xffff;
+        }
+        return data.getInt();
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer data) {
+        int length = data.getInt();
+        String value = new String(data.array(), data.arrayOffset() + data.position(), length,
+            UTF_8);
+        data.position(data.position() + length);
+        return value;
+    }
+}
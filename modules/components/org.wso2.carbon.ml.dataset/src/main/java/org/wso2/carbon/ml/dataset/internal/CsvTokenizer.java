@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tokenizes a delimited (CSV or TSV) UTF-8 data-set from a window of its bytes, following the
+ * quoting rules of RFC 4180. Cell boundaries are located directly in the bytes of the window and
+ * numbers are parsed from the byte ranges, so that no intermediate string is created for a
+ * numeric cell. Strings are only created for the cells which are asked for as strings. The
+ * subclasses supply the window, and move it forward as the records are read.
+ */
+public abstract class CsvTokenizer implements RecordReader {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    // Exact powers of ten, with which a mantissa of at most 53 bits is scaled without rounding
+    // errors (Clinger's fast path).
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+        1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    private final byte delimiter;
+    // Window of the data-set, the number of bytes in the window, and the position in the window
+    // at which the next record starts.
+    protected ByteBuffer window;
+    protected int windowLimit;
+    protected int position;
+    // Boundaries of the cells of the current record, relative to the window. A cell is quoted if
+    // it contains escaped quotes, which need to be removed when reading it as a string.
+    private int cellCount;
+    private int[] cellStarts = new int[16];
+    private int[] cellEnds = new int[16];
+    private boolean[] cellEscaped = new boolean[16];
+    private byte[] copyBuffer = new byte[256];
+    private Map<String, Integer> headerMap;
+
+    /**
+     * @param delimiter     Delimiter of the cells, e.g. ',' or '\t'
+     */
+    protected CsvTokenizer(char delimiter) {
+        this.delimiter = (byte) delimiter;
+    }
+
+    @Override
+    public Map<String, Integer> getHeaderMap() {
+        return this.headerMap;
+    }
+
+    @Override
+    public boolean nextRecord() throws IOException {
+        while (this.position >= this.windowLimit) {
+            if (isEndOfInput()) {
+                return false;
+            }
+            moveWindow();
+        }
+        // Move the window forward if the record does not fit in to the rest of the window.
+        while (!tokenizeRecord()) {
+            moveWindow();
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the window reaches the end of the data-set.
+     *
+     * @return  True if there are no bytes after the window
+     */
+    protected abstract boolean isEndOfInput();
+
+    /**
+     * Moves the window forward, so that it starts at the current position and holds more bytes
+     * of the data-set. If the position is already at the start of the window, the record does
+     * not fit in to the window, which has to be enlarged.
+     *
+     * @throws  IOException
+     */
+    protected abstract void moveWindow() throws IOException;
+
+    @Override
+    public void readRecord(String[] strings, double[] numbers, boolean[] stringColumns) {
+        for (int i = 0; i < strings.length; i++) {
+            if (i < this.cellCount) {
+                numbers[i] = this.cellEscaped[i] ? Double.NaN : parseNumber(this.cellStarts[i],
+                    this.cellEnds[i]);
+                strings[i] = (stringColumns != null && stringColumns[i]) ||
+                    Double.isNaN(numbers[i]) ? getString(i) : null;
+            } else {
+                numbers[i] = Double.NaN;
+                strings[i] = "";
+            }
+        }
+    }
+
+    @Override
+    public void readRecord(String[] strings) {
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = i < this.cellCount ? getString(i) : "";
+        }
+    }
+
+    /**
+     * Returns the number of cells of the current record.
+     *
+     * @return  Number of cells
+     */
+    protected int getCellCount() {
+        return this.cellCount;
+    }
+
+    /**
+     * Returns the numeric value of a cell of the current record.
+     *
+     * @param cell  Index of the cell
+     * @return      Numeric value of the cell, or NaN if the cell is not a number
+     */
+    protected double getNumber(int cell) {
+        return this.cellEscaped[cell] ? Double.NaN : parseNumber(this.cellStarts[cell],
+            this.cellEnds[cell]);
+    }
+
+    /**
+     * Returns the string value of a cell of the current record.
+     *
+     * @param cell  Index of the cell
+     * @return      String value of the cell
+     */
+    protected String getString(int cell) {
+        int start = this.cellStarts[cell];
+        int length = this.cellEnds[cell] - start;
+        if (length == 0) {
+            return "";
+        }
+        if (this.copyBuffer.length < length) {
+            this.copyBuffer = new byte[Math.max(length, this.copyBuffer.length * 2)];
+        }
+        int copied = 0;
+        if (this.cellEscaped[cell]) {
+            // Collapse each escaped quote ("") in to a single quote.
+            for (int i = start; i < start + length; i++) {
+                byte current = this.window.get(i);
+                this.copyBuffer[copied++] = current;
+                if (current == QUOTE) {
+                    i++;
+                }
+            }
+        } else {
+            for (int i = start; i < start + length; i++) {
+                this.copyBuffer[copied++] = this.window.get(i);
+            }
+        }
+        return new String(this.copyBuffer, 0, copied, UTF_8);
+    }
+
+    /**
+     * Reads the names of the columns from the first record. Names may be empty, but non-empty
+     * names should be unique. Called by the subclasses once the first window is available.
+     *
+     * @throws  IOException
+     */
+    protected void readHeader() throws IOException {
+        this.headerMap = new LinkedHashMap<String, Integer>();
+        if (!nextRecord()) {
+            return;
+        }
+        for (int i = 0; i < this.cellCount; i++) {
+            String name = getString(i);
+            if (this.headerMap.containsKey(name) && !name.isEmpty()) {
+                throw new IOException("The header contains a duplicate name: " + name);
+            }
+            this.headerMap.put(name, i);
+        }
+    }
+
+    /*
+     * Locates the cells of the record starting at the current position. Returns false, without
+     * advancing the position, if the record does not end within the window and the window does
+     * not reach the end of the data-set.
+     */
+    private boolean tokenizeRecord() {
+        boolean endOfFile = isEndOfInput();
+        int index = this.position;
+        int limit = this.windowLimit;
+        this.cellCount = 0;
+        while (true) {
+            int start;
+            int end;
+            boolean escaped = false;
+            if (index < limit && this.window.get(index) == QUOTE) {
+                // Quoted cell, which ends at a quote that is not followed by another quote.
+                start = ++index;
+                while (true) {
+                    if (index >= limit) {
+                        if (!endOfFile) {
+                            return false;
+                        }
+                        // Unterminated quote at the end of the file.
+                        end = index;
+                        break;
+                    }
+                    if (this.window.get(index) == QUOTE) {
+                        if (index + 1 < limit && this.window.get(index + 1) == QUOTE) {
+                            escaped = true;
+                            index += 2;
+                            continue;
+                        }
+                        if (index + 1 >= limit && !endOfFile) {
+                            return false;
+                        }
+                        end = index++;
+                        break;
+                    }
+                    index++;
+                }
+                // Skip anything between the closing quote and the end of the cell.
+                while (index < limit && !isCellEnd(this.window.get(index))) {
+                    index++;
+                }
+            } else {
+                start = index;
+                while (index < limit && !isCellEnd(this.window.get(index))) {
+                    index++;
+                }
+                end = index;
+            }
+            if (index >= limit && !endOfFile) {
+                return false;
+            }
+            addCell(start, end, escaped);
+            if (index >= limit) {
+                break;
+            }
+            byte terminator = this.window.get(index++);
+            if (terminator == this.delimiter) {
+                continue;
+            }
+            if (terminator == CR) {
+                if (index >= limit && !endOfFile) {
+                    return false;
+                }
+                if (index < limit && this.window.get(index) == LF) {
+                    index++;
+                }
+            }
+            break;
+        }
+        this.position = index;
+        return true;
+    }
+
+    private boolean isCellEnd(byte current) {
+        return current == this.delimiter || current == LF || current == CR;
+    }
+
+    private void addCell(int start, int end, boolean escaped) {
+        if (this.cellCount == this.cellStarts.length) {
+            int capacity = this.cellCount * 2;
+            this.cellStarts = Arrays.copyOf(this.cellStarts, capacity);
+            this.cellEnds = Arrays.copyOf(this.cellEnds, capacity);
+            this.cellEscaped = Arrays.copyOf(this.cellEscaped, capacity);
+        }
+        this.cellStarts[this.cellCount] = start;
+        this.cellEnds[this.cellCount] = end;
+        this.cellEscaped[this.cellCount] = escaped;
+        this.cellCount++;
+    }
+
+    /*
+     * Parses a decimal number, with an optional leading minus sign, fraction and exponent, from
+     * a range of the window. Returns NaN if the range is not a number.
+     */
+    private double parseNumber(int start, int end) {
+        int index = start;
+        if (index == end) {
+            return Double.NaN;
+        }
+        boolean negative = false;
+        if (this.window.get(index) == '-') {
+            negative = true;
+            index++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        byte current;
+        // Integral part.
+        while (index < end && (current = this.window.get(index)) >= '0' && current <= '9') {
+            if (significantDigits < MAX_MANTISSA_DIGITS) {
+                mantissa = mantissa * 10 + (current - '0');
+                if (mantissa != 0) {
+                    significantDigits++;
+                }
+            } else {
+                exponent++;
+                significantDigits++;
+            }
+            digits++;
+            index++;
+        }
+        // Fraction.
+        if (index < end && this.window.get(index) == '.') {
+            index++;
+            while (index < end && (current = this.window.get(index)) >= '0' && current <= '9') {
+                if (significantDigits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + (current - '0');
+                    exponent--;
+                    if (mantissa != 0) {
+                        significantDigits++;
+                    }
+                } else {
+                    significantDigits++;
+                }
+                digits++;
+                index++;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        // Exponent.
+        if (index < end && ((current = this.window.get(index)) == 'e' || current == 'E')) {
+            index++;
+            boolean negativeExponent = false;
+            if (index < end && ((current = this.window.get(index)) == '-' || current == '+')) {
+                negativeExponent = current == '-';
+                index++;
+            }
+            int exponentDigits = 0;
+            int explicitExponent = 0;
+            while (index < end && (current = this.window.get(index)) >= '0' && current <= '9') {
+                if (explicitExponent < 100000) {
+                    explicitExponent = explicitExponent * 10 + (current - '0');
+                }
+                exponentDigits++;
+                index++;
+            }
+            if (exponentDigits == 0) {
+                return Double.NaN;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (index != end) {
+            return Double.NaN;
+        }
+        double value;
+        if (significantDigits <= MAX_MANTISSA_DIGITS && mantissa <= MAX_EXACT_MANTISSA &&
+                exponent >= -22 && exponent <= 22) {
+            value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] :
+                mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            // Rare in data-sets; defer to the correctly rounding parser of the JDK.
+            value = Double.parseDouble(asciiString(negative ? start + 1 : start, end));
+        }
+        return negative ? -value : value;
+    }
+
+    private String asciiString(int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = (char) this.window.get(i);
+        }
+        return new String(chars);
+    }
+}
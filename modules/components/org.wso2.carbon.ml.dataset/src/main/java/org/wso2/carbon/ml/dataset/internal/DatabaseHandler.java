@@ -19,25 +19,25 @@ package org.wso2.carbon.ml.dataset.internal;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.json.JSONArray;
-import org.json.JSONObject;
+import org.wso2.carbon.ml.commons.datasource.MLDataSourceRegistry;
 import org.wso2.carbon.ml.dataset.exceptions.DatabaseHandlerException;
 import org.wso2.carbon.ml.dataset.internal.constants.FeatureType;
 import org.wso2.carbon.ml.dataset.internal.constants.ImputeOption;
 import org.wso2.carbon.ml.dataset.internal.constants.SQLQueries;
+import org.wso2.carbon.ml.dataset.internal.constants.ScatterPlotMode;
 import org.wso2.carbon.ml.dataset.dto.Feature;
+import org.wso2.carbon.ml.dataset.dto.FeatureSettings;
+import org.wso2.carbon.ml.dataset.dto.FeatureSummary;
 import org.wso2.carbon.ml.dataset.dto.SamplePoints;
 
-import javax.naming.Context;
-import javax.naming.InitialContext;
 import javax.sql.DataSource;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -50,24 +50,66 @@ import java.util.SortedMap;
 public class DatabaseHandler {
 
     private DataSource dataSource;
+    private SampleCache sampleCache;
+    private FeaturePageCache featurePageCache;
     private static final Log logger = LogFactory.getLog(DatabaseHandler.class);
 
     /**
-     * Creates a singleton DatabaseHandler instance.
+     * Creates a DatabaseHandler instance on the shared data source of the ML Database.
      *
      * @param mlDatabaseName    JNDI lookup name of the ML Database
      * @throws                  DatabaseHandlerException
      */
     protected DatabaseHandler(String mlDatabaseName) throws DatabaseHandlerException {
         try {
-            Context initContext = new InitialContext();
-            this.dataSource = (DataSource) initContext.lookup(mlDatabaseName);
+            this.dataSource = MLDataSourceRegistry.getDataSource(mlDatabaseName);
         } catch (Exception e) {
             throw new DatabaseHandlerException(
                 "An error occured while connecting to ML database: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Creates a DatabaseHandler instance which keeps the decoded data-set samples in the given
+     * cache.
+     *
+     * @param mlDatabaseName    JNDI lookup name of the ML Database
+     * @param sampleCache       Cache of decoded data-set samples, or null to read the samples
+     *                          from the database each time
+     * @throws                  DatabaseHandlerException
+     */
+    protected DatabaseHandler(String mlDatabaseName, SampleCache sampleCache)
+            throws DatabaseHandlerException {
+        this(mlDatabaseName);
+        this.sampleCache = sampleCache;
+    }
+
+    /**
+     * Creates a DatabaseHandler instance which keeps the decoded data-set samples and the pages
+     * of features listed in the given caches.
+     *
+     * @param mlDatabaseName    JNDI lookup name of the ML Database
+     * @param sampleCache       Cache of decoded data-set samples, or null to read the samples
+     *                          from the database each time
+     * @param featurePageCache  Cache of pages of features, or null to read the features from
+     *                          the database each time
+     * @throws                  DatabaseHandlerException
+     */
+    protected DatabaseHandler(String mlDatabaseName, SampleCache sampleCache,
+        FeaturePageCache featurePageCache) throws DatabaseHandlerException {
+        this(mlDatabaseName, sampleCache);
+        this.featurePageCache = featurePageCache;
+    }
+
+    /**
+     * Creates a DatabaseHandler instance on the given data source.
+     *
+     * @param dataSource    Data source of the ML Database
+     */
+    protected DatabaseHandler(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
     /**
      * Retrieves the path of the data-set having the given ID, from the
      * database.
@@ -163,6 +205,9 @@ public class DatabaseHandler {
             updateStatement.setString(3, workflowID);
             updateStatement.execute();
             connection.commit();
+            if (featurePageCache != null) {
+                featurePageCache.invalidateWorkflow(workflowID);
+            }
             if (logger.isDebugEnabled()) {
                 logger.debug("Successfully updated the data-type of feature" + featureName +
                     " of workflow " + workflowID);
@@ -203,6 +248,9 @@ public class DatabaseHandler {
             updateStatement.setString(3, workflowID);
             updateStatement.execute();
             connection.commit();
+            if (featurePageCache != null) {
+                featurePageCache.invalidateWorkflow(workflowID);
+            }
             if (logger.isDebugEnabled()) {
                 logger.debug("Successfully updated the impute-option of feature" + featureName +
                     " of workflow " + workflowID);
@@ -241,6 +289,9 @@ public class DatabaseHandler {
             updateStatement.setString(3, workflowID);
             updateStatement.execute();
             connection.commit();
+            if (featurePageCache != null) {
+                featurePageCache.invalidateWorkflow(workflowID);
+            }
             if (logger.isDebugEnabled()) {
                 logger.debug("Successfully updated the include-option of feature" + featureName +
                     "of workflow " + workflowID);
@@ -259,6 +310,83 @@ public class DatabaseHandler {
         }
     }
 
+    /**
+     * Update the settings of many features of a work-flow in a single transaction. The updates
+     * of each setting are sent to the database as a single batch.
+     *
+     * @param workflowID        Unique identifier of the current workflow
+     * @param featureSettings   Settings to be updated, by the name of the feature
+     * @throws                  DatabaseHandlerException
+     */
+    protected void updateFeatureSettings(String workflowID,
+        Map<String, FeatureSettings> featureSettings) throws DatabaseHandlerException {
+        Connection connection = null;
+        PreparedStatement updateTypeStatement = null;
+        PreparedStatement updateImputeStatement = null;
+        PreparedStatement updateIncludedStatement = null;
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            updateTypeStatement = connection.prepareStatement(SQLQueries.UPDATE_DATA_TYPE);
+            updateImputeStatement = connection.prepareStatement(SQLQueries.UPDATE_IMPUTE_METHOD);
+            updateIncludedStatement = connection.prepareStatement(SQLQueries.UPDATE_IS_INCLUDED);
+            int types = 0, imputeOptions = 0, includes = 0;
+            for (Entry<String, FeatureSettings> feature : featureSettings.entrySet()) {
+                FeatureSettings settings = feature.getValue();
+                if (settings.getType() != null) {
+                    updateTypeStatement.setString(1, settings.getType());
+                    updateTypeStatement.setString(2, feature.getKey());
+                    updateTypeStatement.setString(3, workflowID);
+                    updateTypeStatement.addBatch();
+                    types++;
+                }
+                if (settings.getImputeOption() != null) {
+                    updateImputeStatement.setString(1, settings.getImputeOption());
+                    updateImputeStatement.setString(2, feature.getKey());
+                    updateImputeStatement.setString(3, workflowID);
+                    updateImputeStatement.addBatch();
+                    imputeOptions++;
+                }
+                if (settings.getInclude() != null) {
+                    updateIncludedStatement.setBoolean(1, settings.getInclude());
+                    updateIncludedStatement.setString(2, feature.getKey());
+                    updateIncludedStatement.setString(3, workflowID);
+                    updateIncludedStatement.addBatch();
+                    includes++;
+                }
+            }
+            if (types > 0) {
+                updateTypeStatement.executeBatch();
+            }
+            if (imputeOptions > 0) {
+                updateImputeStatement.executeBatch();
+            }
+            if (includes > 0) {
+                updateIncludedStatement.executeBatch();
+            }
+            connection.commit();
+            if (featurePageCache != null) {
+                featurePageCache.invalidateWorkflow(workflowID);
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Successfully updated the settings of " + featureSettings.size() +
+                    " features of workflow " + workflowID);
+            }
+        } catch (SQLException e) {
+            // Roll-back the changes.
+            MLDatabaseUtils.rollBack(connection);
+            throw new DatabaseHandlerException("An error occured while updating the feature " +
+                    "settings of workflow " + workflowID + ": " + e.getMessage(), e);
+        } finally {
+            // Enable auto commit.
+            MLDatabaseUtils.enableAutoCommit(connection);
+            // Close the database resources.
+            MLDatabaseUtils.closeDatabaseResources(updateTypeStatement);
+            MLDatabaseUtils.closeDatabaseResources(updateImputeStatement);
+            MLDatabaseUtils.closeDatabaseResources(connection, updateIncludedStatement);
+        }
+    }
+
     /**
      * Update the database with all the summary statistics of the sample.
      *
@@ -270,37 +398,56 @@ public class DatabaseHandler {
      * @param unique            Array of Number of unique values in each feature
      * @param descriptiveStats  Array of descriptiveStats object of each feature
      * @param                   include Default value to set for the flag indicating the feature is an input or not
+     * @param batchSize         Number of features written in a single batch. If not positive,
+     *                          all the features are written in one batch.
      * @throws                  DatabaseHandlerException
      */
     protected void updateSummaryStatistics(String datasetID,  Map<String, Integer> headerMap, String[] type,
         List<SortedMap<?, Integer>> graphFrequencies, int[] missing, int[] unique,
-        List<DescriptiveStatistics> descriptiveStats, Boolean include)
+        List<ColumnStatistics> descriptiveStats, Boolean include, int batchSize)
                 throws DatabaseHandlerException {
         Connection connection = null;
         PreparedStatement updateStatement = null;
         try {
-            JSONArray summaryStat;
+            SummarySerializer summarySerializer = new SummarySerializer();
             connection = dataSource.getConnection();
             connection.setAutoCommit(false);
+            // Put the values to the database table. If the feature already exists, updates
+            // the row. If not, inserts as a new row. A single statement is reused for all the
+            // features, and the rows are sent in batches.
+            updateStatement = connection.prepareStatement(SQLQueries.UPDATE_SUMMARY_STATS);
+            int batchedRows = 0;
             int columnIndex;
             for (Entry<String, Integer> columnNameMapping : headerMap.entrySet()) {
                 columnIndex = columnNameMapping.getValue();
-                // Get the JSON representation of the column summary.
-                summaryStat = createJson(type[columnIndex], graphFrequencies.get(columnIndex), missing[columnIndex],
-                    unique[columnIndex], descriptiveStats.get(columnIndex));
-                // Put the values to the database table. If the feature already exists, updates
-                // the row. If not, inserts as a new row.
-                updateStatement = connection.prepareStatement(SQLQueries.UPDATE_SUMMARY_STATS);
+                // Write the JSON and the binary representations of the column summary.
+                summarySerializer.setColumn(type[columnIndex], graphFrequencies.get(columnIndex),
+                    missing[columnIndex], unique[columnIndex], descriptiveStats.get(columnIndex));
                 updateStatement.setString(1, columnNameMapping.getKey());
                 updateStatement.setInt(2, columnIndex);
                 updateStatement.setString(3, datasetID);
-                updateStatement.setString(4, summaryStat.toString());
-                updateStatement.setString(5, type[columnIndex].toString());
-                updateStatement.setString(6, ImputeOption.DISCARD.toString());
-                updateStatement.setBoolean(7, include);
-                updateStatement.execute();
+                // The JSON summary is bound as a string. The bundled H2 cannot write to a CLOB,
+                // and a driver may read a bound stream only when the batch is executed, so the
+                // JSON of each row needs its own buffer either way.
+                updateStatement.setString(4, summarySerializer.toJson());
+                updateStatement.setBytes(5, summarySerializer.toBinary());
+                updateStatement.setString(6, type[columnIndex].toString());
+                updateStatement.setString(7, ImputeOption.DISCARD.toString());
+                updateStatement.setBoolean(8, include);
+                updateStatement.addBatch();
+                batchedRows++;
+                if (batchedRows == batchSize) {
+                    updateStatement.executeBatch();
+                    batchedRows = 0;
+                }
+            }
+            if (batchedRows > 0) {
+                updateStatement.executeBatch();
             }
             connection.commit();
+            if (featurePageCache != null) {
+                featurePageCache.invalidateDataset(datasetID);
+            }
             if (logger.isDebugEnabled()) {
                 logger.debug("Successfully updated the summary statistics for dataset " + datasetID);
             }
@@ -317,49 +464,6 @@ public class DatabaseHandler {
         }
     }
 
-    /**
-     * Create the JSON string with summary statistics for a column.
-     *
-     * @param type              Data-type of the column
-     * @param graphFrequencies  Bin frequencies of the column
-     * @param missing           Number of missing values in the column
-     * @param unique            Number of unique values in the column
-     * @param descriptiveStats  DescriptiveStats object of the column
-     * @return                  JSON representation of the summary statistics of the column
-     */
-    private JSONArray createJson(String type, SortedMap<?, Integer> graphFrequencies,
-        int missing, int unique, DescriptiveStatistics descriptiveStats) {
-        JSONObject json = new JSONObject();
-        JSONArray freqs = new JSONArray();
-        Object[] categoryNames = graphFrequencies.keySet().toArray();
-        // Create an array with intervals/categories and their frequencies.
-        for (int i = 0; i < graphFrequencies.size(); i++) {
-            JSONArray temp = new JSONArray();
-            temp.put(categoryNames[i].toString());
-            temp.put(graphFrequencies.get(categoryNames[i]));
-            freqs.put(temp);
-        }
-        // Put the statistics to a json object
-        json.put("unique", unique);
-        json.put("missing", missing);
-
-        DecimalFormat decimalFormat = new DecimalFormat("#.###");
-        if (descriptiveStats.getN() != 0) {
-            json.put("mean", decimalFormat.format(descriptiveStats.getMean()));
-            json.put("median", decimalFormat.format(descriptiveStats.getPercentile(50)));
-            json.put("std", decimalFormat.format(descriptiveStats.getStandardDeviation()));
-            if (type.equalsIgnoreCase(FeatureType.NUMERICAL)) {
-                json.put("skewness", decimalFormat.format(descriptiveStats.getSkewness()));
-            }
-        }
-        json.put("values", freqs);
-        json.put("bar", true);
-        json.put("key", "Frequency");
-        JSONArray summaryStatArray = new JSONArray();
-        summaryStatArray.put(json);
-        return summaryStatArray;
-    }
-
     /**
      * Update the data-set table with a data-set sample.
      *
@@ -375,10 +479,14 @@ public class DatabaseHandler {
             connection = dataSource.getConnection();
             connection.setAutoCommit(false);
             updateStatement = connection.prepareStatement(SQLQueries.UPDATE_SAMPLE_POINTS);
-            updateStatement.setObject(1, datasetSample);
+            // Store the sample in the columnar binary form.
+            updateStatement.setBytes(1, ColumnarSample.encode(datasetSample));
             updateStatement.setString(2, datasetID);
             updateStatement.execute();
             connection.commit();
+            if (sampleCache != null) {
+                sampleCache.invalidate(datasetID);
+            }
             if (logger.isDebugEnabled()) {
                 logger.debug("Successfully updated the sample of dataset " + datasetID);
             }
@@ -387,6 +495,9 @@ public class DatabaseHandler {
             MLDatabaseUtils.rollBack(connection);
             throw new DatabaseHandlerException( "An error occurred while updating the sample " +
                     "points of dataset " + datasetID + ": " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new DatabaseHandlerException( "An error occurred while encoding the sample " +
+                    "points of dataset " + datasetID + ": " + e.getMessage(), e);
         } finally {
             // Enable auto commit.
             MLDatabaseUtils.enableAutoCommit(connection);
@@ -408,44 +519,78 @@ public class DatabaseHandler {
      */
     protected JSONArray getScatterPlotPoints(String datasetID, String xAxisFeature, String yAxisFeature,
         String groupByFeature) throws DatabaseHandlerException {
+        return getScatterPlotPoints(datasetID, xAxisFeature, yAxisFeature, groupByFeature,
+            Integer.MAX_VALUE, ScatterPlotMode.SUBSAMPLE);
+    }
 
-        // Get the sample from the database.
-        SamplePoints sample = getDatasetSample(datasetID);
+    /**
+     * Returns at most the given number of points of the selected sample, either as a
+     * subsample of the coordinates of three features, stratified by the group-by feature, or as
+     * the number of points of each group in the cells of a grid.
+     *
+     * @param datasetID         Unique Identifier of the data-set
+     * @param xAxisFeature      Name of the feature to use as the x-axis
+     * @param yAxisFeature      Name of the feature to use as the y-axis
+     * @param groupByFeature    Name of the feature to be grouped by (color code)
+     * @param maxPoints         Maximum number of points to return
+     * @param mode              SUBSAMPLE for [x, y, group] points, or BINNED for
+     *                          [x, y, group, count] cells
+     * @return                  A JSON array of data points
+     * @throws                  DatabaseHandlerException
+     */
+    protected JSONArray getScatterPlotPoints(String datasetID, String xAxisFeature,
+        String yAxisFeature, String groupByFeature, int maxPoints, String mode)
+            throws DatabaseHandlerException {
+        if (maxPoints <= 0) {
+            throw new DatabaseHandlerException("Invalid number of scatter plot points: " +
+                maxPoints);
+        }
+        if (!ScatterPlotMode.SUBSAMPLE.equalsIgnoreCase(mode) &&
+                !ScatterPlotMode.BINNED.equalsIgnoreCase(mode)) {
+            throw new DatabaseHandlerException("Invalid scatter plot mode: " + mode);
+        }
+        // Get the sample from the cache, or from the database.
+        long generation = 0;
+        ColumnarSample sample = null;
+        if (sampleCache != null) {
+            generation = sampleCache.getGeneration();
+            sample = sampleCache.get(datasetID);
+        }
+        if (sample == null) {
+            sample = getDatasetSample(datasetID);
+        }
 
-        // Converts the sample to a JSON array.
-        List<List<String>> columnData = sample.getSamplePoints();
+        // Converts the sample to a JSON array, decoding only the three columns needed.
         Map<String, Integer> dataHeaders = sample.getHeader();
-        JSONArray samplePointsArray = new JSONArray();
-        int firstFeatureColumn = dataHeaders.get(xAxisFeature);
-        int secondFeatureColumn = dataHeaders.get(yAxisFeature);
-        int thirdFeatureColumn = dataHeaders.get(groupByFeature);
-        for (int row = 0; row < columnData.get(thirdFeatureColumn).size(); row++) {
-            if (!columnData.get(firstFeatureColumn).get(row).isEmpty() &&
-                    !columnData.get(secondFeatureColumn).get(row).isEmpty() &&
-                    !columnData.get(thirdFeatureColumn).get(row).isEmpty()) {
-                JSONArray point = new JSONArray();
-                point.put(Double.parseDouble(columnData.get(firstFeatureColumn).get(row)));
-                point.put(Double.parseDouble(columnData.get(secondFeatureColumn).get(row)));
-                point.put(columnData.get(thirdFeatureColumn).get(row));
-                samplePointsArray.put(point);
-            }
+        ScatterPlotDownsampler downsampler = new ScatterPlotDownsampler(sample,
+            dataHeaders.get(xAxisFeature), dataHeaders.get(yAxisFeature),
+            dataHeaders.get(groupByFeature));
+        JSONArray samplePointsArray;
+        if (ScatterPlotMode.BINNED.equalsIgnoreCase(mode)) {
+            samplePointsArray = downsampler.bin(maxPoints);
+        } else {
+            samplePointsArray = downsampler.subsample(maxPoints);
+        }
+        // Cache the sample along with the columns decoded for this request.
+        if (sampleCache != null) {
+            sampleCache.put(datasetID, sample, generation);
         }
-
         return samplePointsArray;
     }
 
     /**
-     * Retrieve the SamplePoints object for a given data-set.
+     * Retrieve the sample of a given data-set. Samples stored as serialized SamplePoints objects
+     * are read as well.
      *
      * @param datasetID     Unique Identifier of the data-set
-     * @return              SamplePoints object of the data-set
+     * @return              Columnar sample of the data-set
      * @throws              DatabaseHandlerException
      */
-    private SamplePoints getDatasetSample(String datasetID) throws DatabaseHandlerException {
+    private ColumnarSample getDatasetSample(String datasetID) throws DatabaseHandlerException {
         Connection connection = null;
         PreparedStatement updateStatement = null;
         ResultSet result = null;
-        SamplePoints samplePoints = null;
+        ColumnarSample samplePoints = null;
         try {
             connection = dataSource.getConnection();
             connection.setAutoCommit(true);
@@ -453,7 +598,7 @@ public class DatabaseHandler {
             updateStatement.setString(1, datasetID);
             result = updateStatement.executeQuery();
             if (result.first()) {
-                samplePoints = (SamplePoints) result.getObject(1);
+                samplePoints = ColumnarSample.read(result.getBytes(1));
             }
             return samplePoints;
         } catch (SQLException e) {
@@ -461,6 +606,9 @@ public class DatabaseHandler {
             MLDatabaseUtils.rollBack(connection);
             throw new DatabaseHandlerException("An error occured while retrieving the sample of " +
                     "dataset " + datasetID + ": " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new DatabaseHandlerException("An error occured while decoding the sample of " +
+                    "dataset " + datasetID + ": " + e.getMessage(), e);
         } finally {
             // Close the database resources.
             MLDatabaseUtils.closeDatabaseResources(connection, updateStatement, result);
@@ -479,6 +627,47 @@ public class DatabaseHandler {
      */
     protected List<Feature> getFeatures(String datasetID, String workflowID, int startIndex,
         int numberOfFeatures) throws DatabaseHandlerException {
+        String pageKey = "#" + startIndex + ":" + numberOfFeatures;
+        return getFeaturePage(datasetID, workflowID, pageKey, SQLQueries.GET_FEATURES,
+            datasetID, datasetID, workflowID, numberOfFeatures, startIndex);
+    }
+
+    /**
+     * Returns a set of features following a given feature, from the alphabetically ordered set
+     * of features, of a data-set. Unlike paging by the starting index, the cost of reading a
+     * page does not grow with the number of the preceding features.
+     *
+     * @param datasetID         Unique Identifier of the data-set
+     * @param workflowID        Unique identifier of the current workflow
+     * @param lastFeatureName   Name of the last feature of the previous page, or null for the
+     *                          first page
+     * @param numberOfFeatures  Number of features needed, after the given feature
+     * @return                  A list of Feature objects
+     * @throws                  DatabaseHandlerException
+     */
+    protected List<Feature> getFeaturesAfter(String datasetID, String workflowID,
+        String lastFeatureName, int numberOfFeatures) throws DatabaseHandlerException {
+        String afterName = lastFeatureName == null ? "" : lastFeatureName;
+        String pageKey = ">" + numberOfFeatures + ":" + afterName;
+        return getFeaturePage(datasetID, workflowID, pageKey, SQLQueries.GET_FEATURES_AFTER,
+            datasetID, workflowID, afterName, numberOfFeatures);
+    }
+
+    /*
+     * Returns a page of features from the cache, or reads it with the given query and
+     * parameters and caches it. Empty pages are not cached, as the feature settings of a new
+     * work-flow may not have been copied yet.
+     */
+    private List<Feature> getFeaturePage(String datasetID, String workflowID, String pageKey,
+        String query, Object... parameters) throws DatabaseHandlerException {
+        long generation = 0;
+        if (featurePageCache != null) {
+            generation = featurePageCache.getGeneration();
+            List<Feature> cached = featurePageCache.get(datasetID, workflowID, pageKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
         List<Feature> features = new ArrayList<Feature>();
         Connection connection = null;
         PreparedStatement getFeatues = null;
@@ -487,12 +676,10 @@ public class DatabaseHandler {
             // Create a prepared statement and retrieve data-set configurations.
             connection = dataSource.getConnection();
             connection.setAutoCommit(true);
-            getFeatues = connection.prepareStatement(SQLQueries.GET_FEATURES);
-            getFeatues.setString(1, datasetID);
-            getFeatues.setString(2, datasetID);
-            getFeatues.setString(3, workflowID);
-            getFeatues.setInt(4, numberOfFeatures);
-            getFeatues.setInt(5, startIndex);
+            getFeatues = connection.prepareStatement(query);
+            for (int i = 0; i < parameters.length; i++) {
+                getFeatues.setObject(i + 1, parameters[i]);
+            }
             result = getFeatues.executeQuery();
             while (result.next()) {
                 String featureType = FeatureType.NUMERICAL;
@@ -503,6 +690,10 @@ public class DatabaseHandler {
                 String imputeOperation = ImputeOption.DISCARD;
                 if (ImputeOption.REPLACE_WTH_MEAN.equalsIgnoreCase(result.getString(5))) {
                     imputeOperation = ImputeOption.REPLACE_WTH_MEAN;
+                } else if (ImputeOption.REPLACE_WTH_MEDIAN.equalsIgnoreCase(result.getString(5))) {
+                    imputeOperation = ImputeOption.REPLACE_WTH_MEDIAN;
+                } else if (ImputeOption.REPLACE_WTH_MODE.equalsIgnoreCase(result.getString(5))) {
+                    imputeOperation = ImputeOption.REPLACE_WTH_MODE;
                 } else if (ImputeOption.REGRESSION_IMPUTATION.equalsIgnoreCase(
                     result.getString(5))) {
                     imputeOperation = ImputeOption.REGRESSION_IMPUTATION;
@@ -514,7 +705,6 @@ public class DatabaseHandler {
                 features.add(new Feature(featureName, isImportantFeature, featureType,
                     imputeOperation, summaryStat));
             }
-            return features;
         } catch (SQLException e) {
             throw new DatabaseHandlerException( "An error occured while retrieving features of " +
                     "the data set: " + datasetID + ": " + e.getMessage(), e);
@@ -522,6 +712,10 @@ public class DatabaseHandler {
             // Close the database resources.
             MLDatabaseUtils.closeDatabaseResources(connection, getFeatues, result);
         }
+        if (featurePageCache != null && !features.isEmpty()) {
+            return featurePageCache.put(datasetID, workflowID, pageKey, features, generation);
+        }
+        return features;
     }
 
     /**
@@ -599,6 +793,48 @@ public class DatabaseHandler {
         }
     }
 
+    /**
+     * Retrieve and returns the binary summary statistics for a given feature of a given
+     * data-set, from the database, without parsing the JSON summary.
+     *
+     * @param datasetID     Unique identifier of the data-set
+     * @param featureName   Name of the feature of which summary statistics are needed
+     * @return              Summary statistics of the feature, or null if the summary was
+     *                      written without the binary form
+     * @throws              DatabaseHandlerException
+     */
+    protected FeatureSummary getFeatureSummary(String datasetID, String featureName)
+            throws DatabaseHandlerException {
+        Connection connection = null;
+        PreparedStatement getSummaryStatement = null;
+        ResultSet result = null;
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(true);
+            getSummaryStatement = connection.prepareStatement(SQLQueries.GET_SUMMARY_DATA);
+            getSummaryStatement.setString(1, featureName);
+            getSummaryStatement.setString(2, datasetID);
+            result = getSummaryStatement.executeQuery();
+            if (!result.next()) {
+                throw new DatabaseHandlerException("Invalid feature \"" + featureName +
+                    "\" of the data set " + datasetID);
+            }
+            byte[] summaryData = result.getBytes(1);
+            return summaryData == null ? null : SummarySerializer.readBinary(summaryData);
+        } catch (SQLException e) {
+            throw new DatabaseHandlerException( "An error occured while retireving summary " +
+                    "statistics for the feature \"" + featureName + "\" of the data set " +
+                    datasetID + ": " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new DatabaseHandlerException( "An error occured while decoding summary " +
+                    "statistics for the feature \"" + featureName + "\" of the data set " +
+                    datasetID + ": " + e.getMessage(), e);
+        } finally {
+            // Close the database resources
+            MLDatabaseUtils.closeDatabaseResources(connection, getSummaryStatement, result);
+        }
+    }
+
     /**
      * Returns the number of features of a given data-set.
      *
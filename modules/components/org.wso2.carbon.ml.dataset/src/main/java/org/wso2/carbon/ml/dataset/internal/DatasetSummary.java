@@ -19,87 +19,119 @@ package org.wso2.carbon.ml.dataset.internal;
 
 import java.io.*;       
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
-import org.apache.commons.lang.math.NumberUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.commons.math3.random.EmpiricalDistribution;
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
-import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
 import org.wso2.carbon.ml.dataset.exceptions.DatabaseHandlerException;
 import org.wso2.carbon.ml.dataset.exceptions.DatasetSummaryException;
-import org.wso2.carbon.ml.dataset.internal.constants.DatasetConfigurations;
-import org.wso2.carbon.ml.dataset.internal.constants.FeatureType;
+import org.wso2.carbon.ml.dataset.internal.constants.SamplingMethod;
+import org.wso2.carbon.ml.dataset.internal.dto.SummaryStatisticsSettings;
 import org.wso2.carbon.ml.dataset.dto.SamplePoints;
+import org.wso2.carbon.ml.dataset.dto.UploadProgress;
 
 /**
  * Class Generate Summary statistics for a data-set.
  */
 public class DatasetSummary {
     private static final Log logger = LogFactory.getLog(DatasetSummary.class);
+    // Number of records read before the cells are handed over to the column accumulators.
+    private static final int RECORD_BATCH_SIZE = 1024;
+    // Maximum number of columns processed by a single task in the parallel mode.
+    private static final int COLUMNS_PER_TASK = 16;
+    private static final char CSV_DELIMITER = ',';
 
-    // List containing positions of columns with numerical data.
-    private List<Integer> numericDataColumnPositions = new ArrayList<Integer>();
-    // List containing positions of columns with string data.
-    private List<Integer> stringDataColumnPositions = new ArrayList<Integer>();
     // List containing actual data of the sample.
     private List<List<String>> columnData = new ArrayList<List<String>>();
-    // List containing descriptive statistics for each feature.
-    private List<DescriptiveStatistics> descriptiveStats = new ArrayList<DescriptiveStatistics>();
-    // List containing bin frequencies for each feature.
-    private List<SortedMap<?, Integer>> graphFrequencies = new ArrayList<SortedMap<?, Integer>>();
-    // Array containing histograms of each feature in the data-set.
-    private EmpiricalDistribution[] histogram;
-    // Array containing number of missing values of each feature in the data-set.
-    private int[] missing;
-    // Array containing number of unique values of each feature in the data-set.
-    private int[] unique;
-    // Array containing data-type of each feature in the data-set.
-    private String[] type;
+    // Array containing the summary accumulated for each feature in the data-set.
+    private ColumnSummary[] columnSummaries;
     // Map containing indices and names of features of the data-set.
     private Map<String, Integer> headerMap;
 
     private String datasetID;
-    private CSVParser parser;
+    private RecordReader recordReader;
+    // Pool used to process columns in parallel. Columns are processed serially, if null.
+    private ForkJoinPool summaryPool;
+    // Whether all the records are profiled, rather than only the sample.
+    private boolean profileFullDataset;
+    // Method of drawing the sample, and the index of the column which defines the strata of a
+    // stratified sample, or -1 if the data-set has no such column.
+    private String samplingMethod;
+    private int stratificationColumn = -1;
+    private UploadProgress progress;
+    // Number of feature summaries written to the database in a single batch.
+    private int summaryBatchSize;
 
     /**
-     * Constructor to create the parser for the data-set and initialize the lists.
+     * Constructor to create the tokenizer for a stream of the data-set, e.g. while it is being
+     * uploaded, and initialize the lists.
      *
-     * @param csvDataFile   File object of the data-set CSV file.
-     * @param datasetID     Unique Identifier of the data-set.
-     * @throws              DatasetSummaryException
+     * @param csvDataStream     Stream of the data-set CSV file.
+     * @param datasetID         Unique Identifier of the data-set.
+     * @param summarySettings   Settings of the summary statistics calculation.
+     * @param summaryPool       Pool to process columns in parallel, or null to process them
+     *                          serially.
+     * @throws                  DatasetSummaryException
      */
-    protected DatasetSummary(File csvDataFile, String datasetID) throws DatasetSummaryException {
-        this.datasetID = datasetID;
+    protected DatasetSummary(InputStream csvDataStream, String datasetID,
+        SummaryStatisticsSettings summarySettings, ForkJoinPool summaryPool)
+            throws DatasetSummaryException {
         try {
-            Reader reader = new InputStreamReader(new FileInputStream(csvDataFile
-                    .getAbsolutePath()),DatasetConfigurations.UTF_8);
-            this.parser = new CSVParser(reader, CSVFormat.RFC4180.withHeader()
-                    .withAllowMissingColumnNames(true));
-            this.headerMap = this.parser.getHeaderMap();
-            int noOfFeatures = this.headerMap.size();
-            // Initialize the lists.
-            this.missing = new int[noOfFeatures];
-            this.unique = new int[noOfFeatures];
-            this.type = new String[noOfFeatures];
-            this.histogram = new EmpiricalDistribution[noOfFeatures];
-            for (int i = 0; i < noOfFeatures; i++) {
-                this.descriptiveStats.add(new DescriptiveStatistics());
-                this.graphFrequencies.add(new TreeMap<String, Integer>());
-                this.columnData.add(new ArrayList<String>());
-            }
+            initialize(new StreamCsvTokenizer(csvDataStream, CSV_DELIMITER), datasetID,
+                summarySettings, summaryPool);
         } catch (IOException e) {
             throw new DatasetSummaryException("Error occured while reading from the dataset " +
                     datasetID + ": " + e.getMessage(), e);
         }
     }
 
+    /*
+     * Initialize the summary of each column of the data-set.
+     */
+    private void initialize(RecordReader recordReader, String datasetID,
+        SummaryStatisticsSettings summarySettings, ForkJoinPool summaryPool) {
+        this.recordReader = recordReader;
+        this.datasetID = datasetID;
+        this.summaryPool = summaryPool;
+        this.profileFullDataset = summarySettings.isProfileFullDataset();
+        this.headerMap = recordReader.getHeaderMap();
+        this.samplingMethod = summarySettings.getSamplingMethod();
+        this.summaryBatchSize = summarySettings.getSummaryBatchSize();
+        if (SamplingMethod.STRATIFIED.equalsIgnoreCase(this.samplingMethod)) {
+            Integer column = this.headerMap.get(summarySettings.getStratificationColumn());
+            if (column != null) {
+                this.stratificationColumn = column;
+            } else {
+                logger.info("Stratification column " + summarySettings.getStratificationColumn()
+                    + " is not found in the dataset " + datasetID + ". A uniform random sample " +
+                    "is drawn instead.");
+            }
+        }
+        int noOfFeatures = this.headerMap.size();
+        // Initialize the lists.
+        this.columnSummaries = new ColumnSummary[noOfFeatures];
+        for (int i = 0; i < noOfFeatures; i++) {
+            this.columnSummaries[i] = new ColumnSummary(summarySettings.getMaxTrackedValues(),
+                this.profileFullDataset);
+            this.columnData.add(new ArrayList<String>());
+        }
+    }
+
+    /**
+     * Sets the progress of the upload, to which the number of records read is reported.
+     *
+     * @param progress  Progress of the upload of the data-set.
+     */
+    protected void setProgress(UploadProgress progress) {
+        this.progress = progress;
+    }
+
     /**
      * get a summary of a sample from the given CSV file, including descriptive-statistics,
-     * missing values, unique values and etc. to display in the data view.
+     * missing values, unique values and etc. to display in the data view. If full data-set
+     * profiling is enabled, the summary is calculated over all the records using fixed size
+     * sketches, while only the sample is kept.
      *
      * @param sampleSize            Size of the sample to use for summary statistic calculation.
      * @param noOfIntervals         Number of intervals to be calculated for continuous data.
@@ -113,18 +145,28 @@ public class DatasetSummary {
     protected int generateSummary(int sampleSize, int noOfIntervals, int categoricalThreshold,
         boolean include, String mlDatabaseName) throws DatasetSummaryException {
         try {
-            // Find the columns containing String and Numeric data.
-            identifyColumnDataType(this.parser.iterator(), sampleSize);
-            // Calculate descriptive statistics.
-            calculateDescriptiveStats();
-            // Calculate frequencies of each bin of the String features.
-            calculateStringColumnFrequencies(noOfIntervals);
-            // Calculate frequencies of each bin of the Numerical features.
-            calculateNumericColumnFrequencies(categoricalThreshold, noOfIntervals);
+            // Accumulate the summary of each column while reading the records.
+            readRecords(sampleSize, categoricalThreshold);
+            // Calculate data-types, unique values and frequencies of each column.
+            processColumns(null, null, 0, 0, categoricalThreshold, noOfIntervals);
+            int noOfFeatures = this.headerMap.size();
+            String[] type = new String[noOfFeatures];
+            int[] missing = new int[noOfFeatures];
+            int[] unique = new int[noOfFeatures];
+            List<SortedMap<?, Integer>> graphFrequencies = new ArrayList<SortedMap<?, Integer>>();
+            List<ColumnStatistics> descriptiveStats = new ArrayList<ColumnStatistics>();
+            for (int col = 0; col < noOfFeatures; col++) {
+                ColumnSummary columnSummary = this.columnSummaries[col];
+                type[col] = columnSummary.getType();
+                missing[col] = columnSummary.getMissing();
+                unique[col] = columnSummary.getUnique();
+                graphFrequencies.add(columnSummary.getGraphFrequencies());
+                descriptiveStats.add(columnSummary.getDescriptiveStats());
+            }
             // Update the database with calculated summary statistics.
             DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName);
-            dbHandler.updateSummaryStatistics(this.datasetID, headerMap, this.type,
-                this.graphFrequencies, this.missing, this.unique, this.descriptiveStats, include);
+            dbHandler.updateSummaryStatistics(this.datasetID, headerMap, type, graphFrequencies,
+                missing, unique, descriptiveStats, include, this.summaryBatchSize);
             if(logger.isDebugEnabled()){
                 logger.info("Summary statistics successfully generated for dataset: " + datasetID);
             }
@@ -132,161 +174,229 @@ public class DatasetSummary {
         } catch (DatabaseHandlerException e) {
             throw new DatasetSummaryException("Error occured while Calculating summary statistics " +
                     "for dataset " + this.datasetID + ": " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new DatasetSummaryException("Error occured while reading from the dataset " +
+                    this.datasetID + ": " + e.getMessage(), e);
+        } finally {
+            try {
+                this.recordReader.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close the dataset " + this.datasetID + ": " +
+                    e.getMessage());
+            }
         }
     }
 
     /**
-     * Finds the columns with Categorical data and Numerical data. Stores the raw-data in a list.
+     * Reads the sample records, or all the records if the full data-set is profiled or the
+     * sample is drawn by a reservoir sampler, updating the summary of each column with every
+     * cell as it is read. Stores the raw-data of the sample in a list.
      *
-     * @param datasetIterator   Iterator for the CSV parser.
-     * @param sampleSize        Size of the sample.
-     * @throws                  DatasetSummaryException
+     * @param sampleSize            Size of the sample.
+     * @param categoricalThreshold  Threshold for number of categories, which is also the
+     *                              maximum number of strata of a stratified sample.
+     * @throws                      IOException
      */
-    private void identifyColumnDataType(Iterator<CSVRecord> datasetIterator, int sampleSize) {
+    private void readRecords(int sampleSize, int categoricalThreshold) throws IOException {
+        // Reservoir samplers see every record, while head-of-file sampling stops at the sample.
+        ReservoirSampler<String[]> reservoirSampler = null;
+        StratifiedReservoirSampler stratifiedSampler = null;
+        if (sampleSize > 0 && SamplingMethod.STRATIFIED.equalsIgnoreCase(this.samplingMethod)
+                && this.stratificationColumn >= 0) {
+            stratifiedSampler = new StratifiedReservoirSampler(sampleSize,
+                this.stratificationColumn, categoricalThreshold, new Random());
+        } else if (sampleSize > 0 && (SamplingMethod.RESERVOIR.equalsIgnoreCase(this
+                .samplingMethod) || SamplingMethod.STRATIFIED.equalsIgnoreCase(this
+                .samplingMethod))) {
+            reservoirSampler = new ReservoirSampler<String[]>(sampleSize, new Random());
+        }
+        boolean reservoirSampling = reservoirSampler != null || stratifiedSampler != null;
         int recordsCount = 0;
-        CSVRecord row;
-        int[] stringCellCount = new int[this.headerMap.size()];
-        
-        // Count the number of cells contain strings in each column.
-        while (datasetIterator.hasNext() && recordsCount != sampleSize) {
-            row = datasetIterator.next();
-            for (int currentCol = 0; currentCol < this.headerMap.size(); currentCol++) {
-                if (!row.get(currentCol).isEmpty()) {
-                    if (!NumberUtils.isNumber(row.get(currentCol))) {
-                        stringCellCount[currentCol]++;
-                    }
-                } else {
-                    // If the cell is empty, increase the missing value count.
-                    this.missing[currentCol]++;
+        int noOfFeatures = this.headerMap.size();
+        // Cells of a batch of records. Numeric cells are read as numbers, and their strings are
+        // only read for the records of the sample. The arrays are reused for each batch.
+        String[][] stringBatch = new String[RECORD_BATCH_SIZE][noOfFeatures];
+        double[][] numberBatch = new double[RECORD_BATCH_SIZE][noOfFeatures];
+        int batchSize = 0;
+        // Strings of the numeric cells are read for every column of the records of the sample,
+        // and for the columns known to hold strings, which count numeric cells by their text.
+        boolean[] allColumns = new boolean[noOfFeatures];
+        Arrays.fill(allColumns, true);
+        boolean[] stringColumns = new boolean[noOfFeatures];
+        // Number of records of the batch which belong to the sample.
+        int sampledRows = 0;
+        while ((this.profileFullDataset || reservoirSampling || recordsCount != sampleSize) &&
+                this.recordReader.nextRecord()) {
+            recordsCount++;
+            if (stratifiedSampler != null) {
+                String[] cells = new String[noOfFeatures];
+                this.recordReader.readRecord(cells);
+                stratifiedSampler.offer(cells);
+            } else if (reservoirSampler != null) {
+                // Only the records which enter the reservoir are read as strings.
+                String[] cells = null;
+                if (reservoirSampler.willAccept()) {
+                    cells = new String[noOfFeatures];
+                    this.recordReader.readRecord(cells);
                 }
-                // Append the cell to the respective column.
-                this.columnData.get(currentCol).add(row.get(currentCol));
+                reservoirSampler.offer(cells);
             }
-            recordsCount++;
-        }
-
-        // If atleast one cell contains strings, then the column is considered to has string data.
-        for (int col = 0; col < headerMap.size(); col++) {
-            if (stringCellCount[col] > 0) {
-                this.stringDataColumnPositions.add(col);
-                this.type[col] = FeatureType.CATEGORICAL;
-            } else {
-                this.numericDataColumnPositions.add(col);
-                this.type[col] = FeatureType.NUMERICAL;
+            // Unless the full data-set is profiled, a reservoir sample is summarized once drawn.
+            if (reservoirSampling && !this.profileFullDataset) {
+                continue;
             }
-        }
-    }
-
-    /**
-     * Calculate descriptive statistics for Numerical columns.
-     */
-    private void calculateDescriptiveStats() {
-        double cellValue;
-        int currentCol;
-        // Iterate through each column.
-        for (currentCol = 0; currentCol < this.headerMap.size(); currentCol++) {
-            // If the column is numerical.
-            if (this.numericDataColumnPositions.contains(currentCol)) {
-                // Convert each cell value to double and append to the
-                // Descriptive-statistics object.
-                for (int row = 0; row < this.columnData.get(currentCol).size(); row++) {
-                    if (!this.columnData.get(currentCol).get(row).isEmpty()) {
-                        cellValue = Double.parseDouble(columnData.get(currentCol).get(row));
-                        this.descriptiveStats.get(currentCol).addValue(cellValue);
-                    }
+            boolean sampled = !reservoirSampling && (recordsCount <= sampleSize ||
+                sampleSize < 0);
+            this.recordReader.readRecord(stringBatch[batchSize], numberBatch[batchSize],
+                sampled ? allColumns : stringColumns);
+            batchSize++;
+            if (sampled) {
+                sampledRows++;
+            }
+            if (batchSize == RECORD_BATCH_SIZE) {
+                processColumns(stringBatch, numberBatch, batchSize, sampledRows, 0, 0);
+                for (int col = 0; col < noOfFeatures; col++) {
+                    stringColumns[col] = this.columnSummaries[col].hasStrings();
                 }
+                batchSize = 0;
+                sampledRows = 0;
+            }
+            if (this.progress != null && recordsCount % RECORD_BATCH_SIZE == 0) {
+                this.progress.setRowsProfiled(recordsCount);
             }
         }
+        if (this.progress != null) {
+            this.progress.setRowsProfiled(recordsCount);
+        }
+        if (batchSize > 0) {
+            processColumns(stringBatch, numberBatch, batchSize, sampledRows, 0, 0);
+        }
+        if (reservoirSampling) {
+            storeSample(stratifiedSampler != null ? stratifiedSampler.getSample() :
+                reservoirSampler.getSample());
+        }
     }
 
     /**
-     * Calculate the frequencies of each category in String columns, needed to
-     * plot bar graphs/histograms.
-     * Calculate unique value counts.
+     * Stores the raw-data of a sample drawn by a reservoir sampler in a list. Unless the full
+     * data-set has been profiled, the summary of each column is updated with the sample too.
      *
-     * @param noOfIntervals     Number of intervals to be calculated.
+     * @param sample    Records of the sample.
      */
-    private void calculateStringColumnFrequencies(int noOfIntervals) {
-
-        Iterator<Integer> stringColumns = this.stringDataColumnPositions.iterator();
-        int currentCol;
-        // Iterate through all Columns with String data.
-        while (stringColumns.hasNext()) {
-            currentCol = stringColumns.next();
-            SortedMap<String, Integer> frequencies = new TreeMap<String, Integer>();
-            // Create a unique set from the column.
-            Set<String> uniqueSet = new HashSet<String>(this.columnData.get(currentCol));
-            // Count the frequencies in each unique value.
-            this.unique[currentCol] = uniqueSet.size();
-            for (String uniqueValue : uniqueSet) {
-                frequencies.put(uniqueValue.toString(),
-                    Collections.frequency(this.columnData.get(currentCol), uniqueValue));
+    private void storeSample(List<String[]> sample) {
+        if (this.profileFullDataset) {
+            for (String[] cells : sample) {
+                for (int currentCol = 0; currentCol < cells.length; currentCol++) {
+                    this.columnData.get(currentCol).add(cells[currentCol]);
+                }
+            }
+        } else {
+            for (int from = 0; from < sample.size(); from += RECORD_BATCH_SIZE) {
+                int to = Math.min(from + RECORD_BATCH_SIZE, sample.size());
+                String[][] batch = sample.subList(from, to).toArray(new String[to - from][]);
+                processColumns(batch, null, batch.length, batch.length, 0, 0);
             }
-            graphFrequencies.set(currentCol, frequencies);
         }
     }
 
     /**
-     * Calculate the frequencies of each category/interval of Numerical data columns.
+     * Process all the columns, either serially or in parallel depending on whether a pool is
+     * available. If a batch of records is given, the cells of the batch are added to the
+     * column summaries. Otherwise the column summaries are finished.
      *
-     * @param categoricalThreshold      Threshold for number of categories, to be considered as
-     *                                  discrete data.
-     * @param noOfIntervals             Number of intervals to be calculated for continuous data
+     * @param stringBatch           String values of the cells of a batch of records, or null to
+     *                              finish the column summaries.
+     * @param numberBatch           Numeric values of the cells of the batch, which are NaN if
+     *                              the cells are not numbers. If null, the string values are
+     *                              parsed.
+     * @param batchSize             Number of records in the batch.
+     * @param sampledRows           Number of leading records of the batch, which belong to the
+     *                              sample.
+     * @param categoricalThreshold  Threshold for number of categories, to be considered as
+     *                              discrete data.
+     * @param noOfIntervals         Number of intervals to be calculated for continuous data.
      */
-    private void calculateNumericColumnFrequencies(int categoricalThreshold, int noOfIntervals) {
-        Iterator<Integer> numericColumns = this.numericDataColumnPositions.iterator();
-        int currentCol;
-        // Iterate through all Columns with Numerical data.
-        while (numericColumns.hasNext()) {
-            currentCol = numericColumns.next();
-            // Create a unique set from the column.
-            Set<String> uniqueSet = new HashSet<String>(this.columnData.get(currentCol));
-            // If the unique values are less than or equal to maximum-category-limit.
-            this.unique[currentCol] = uniqueSet.size();
-            if (this.unique[currentCol] <= categoricalThreshold) {
-                // Change the data type to categorical.
-                this.type[currentCol] = FeatureType.CATEGORICAL;
-                // Calculate the category frequencies.
-                SortedMap<Double, Integer> frequencies = new TreeMap<Double, Integer>();
-                for (String uniqueValue : uniqueSet) {
-                    if (!uniqueValue.isEmpty()) {
-                        frequencies.put(Double.parseDouble(uniqueValue),
-                            Collections.frequency(this.columnData.get(currentCol), uniqueValue));
-                        }
-                }
-                this.graphFrequencies.set(currentCol, frequencies);
-            } else {
-                // If unique values are more than the threshold, calculate interval frequencies.
-                claculateIntervalFreqs(currentCol, noOfIntervals);
-            }
+    private void processColumns(String[][] stringBatch, double[][] numberBatch, int batchSize,
+        int sampledRows, int categoricalThreshold, int noOfIntervals) {
+        ColumnRangeTask task = new ColumnRangeTask(stringBatch, numberBatch, batchSize,
+            sampledRows, categoricalThreshold, noOfIntervals, 0, this.headerMap.size());
+        if (this.summaryPool == null) {
+            task.processRange();
+        } else {
+            this.summaryPool.invoke(task);
         }
     }
 
     /**
-     * Calculate the frequencies of each interval of a column.
-     *
-     * @param column        Column of which the frequencies are to be calculated.
-     * @param intervals     Number of intervals to be split.
+     * Task which processes a range of columns, splitting the range among sub tasks when the
+     * range is large.
      */
-    private void claculateIntervalFreqs(int column, int intervals) {
-        SortedMap<Integer, Integer> frequencies = new TreeMap<Integer, Integer>();
-        double[] data = new double[this.columnData.get(column).size()];
-        // Create an array from the column data.
-        for (int row = 0; row < columnData.get(column).size(); row++) {
-            if (!this.columnData.get(column).get(row).isEmpty()) {
-                data[row] = Double.parseDouble(this.columnData.get(column).get(row));
+    private class ColumnRangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final String[][] stringBatch;
+        private final double[][] numberBatch;
+        private final int batchSize;
+        private final int sampledRows;
+        private final int categoricalThreshold;
+        private final int noOfIntervals;
+        private final int fromColumn;
+        private final int toColumn;
+
+        private ColumnRangeTask(String[][] stringBatch, double[][] numberBatch, int batchSize,
+            int sampledRows, int categoricalThreshold, int noOfIntervals, int fromColumn,
+            int toColumn) {
+            this.stringBatch = stringBatch;
+            this.numberBatch = numberBatch;
+            this.batchSize = batchSize;
+            this.sampledRows = sampledRows;
+            this.categoricalThreshold = categoricalThreshold;
+            this.noOfIntervals = noOfIntervals;
+            this.fromColumn = fromColumn;
+            this.toColumn = toColumn;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.toColumn - this.fromColumn <= COLUMNS_PER_TASK) {
+                processRange();
+            } else {
+                int middleColumn = (this.fromColumn + this.toColumn) >>> 1;
+                invokeAll(new ColumnRangeTask(this.stringBatch, this.numberBatch, this.batchSize,
+                    this.sampledRows, this.categoricalThreshold, this.noOfIntervals,
+                    this.fromColumn, middleColumn),
+                    new ColumnRangeTask(this.stringBatch, this.numberBatch, this.batchSize,
+                        this.sampledRows, this.categoricalThreshold, this.noOfIntervals,
+                        middleColumn, this.toColumn));
             }
         }
-        // Create equal partitions.
-        this.histogram[column] = new EmpiricalDistribution(intervals);
-        this.histogram[column].load(data);
 
-        // Get the frequency of each partition.
-        int bin = 0;
-        for (SummaryStatistics stats : this.histogram[column].getBinStats()) {
-            frequencies.put(bin++, (int) stats.getN());
+        /*
+         * Process the columns of the range in the current thread.
+         */
+        private void processRange() {
+            for (int currentCol = this.fromColumn; currentCol < this.toColumn; currentCol++) {
+                ColumnSummary columnSummary = columnSummaries[currentCol];
+                if (this.stringBatch == null) {
+                    columnSummary.finish(this.categoricalThreshold, this.noOfIntervals);
+                } else {
+                    List<String> column = columnData.get(currentCol);
+                    for (int row = 0; row < this.batchSize; row++) {
+                        if (this.numberBatch == null) {
+                            columnSummary.addValue(this.stringBatch[row][currentCol]);
+                        } else if (Double.isNaN(this.numberBatch[row][currentCol])) {
+                            columnSummary.addText(this.stringBatch[row][currentCol]);
+                        } else {
+                            columnSummary.addNumber(this.numberBatch[row][currentCol],
+                                this.stringBatch[row][currentCol]);
+                        }
+                        if (row < this.sampledRows) {
+                            // Append the cell to the respective column.
+                            column.add(this.stringBatch[row][currentCol]);
+                        }
+                    }
+                }
+            }
         }
-        this.graphFrequencies.set(column, frequencies);
     }
 
     /**
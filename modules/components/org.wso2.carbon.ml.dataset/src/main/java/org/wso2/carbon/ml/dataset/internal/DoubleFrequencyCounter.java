@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Counts the frequencies of numeric values in a single pass, without boxing the values. This is
+ * the primitive counterpart of {@link FrequencyCounter}: values are kept in an open-addressing
+ * hash table with linear probing, and the least frequent values are evicted once the number of
+ * tracked values reaches the cap.
+ */
+public class DoubleFrequencyCounter {
+
+    private static final int INITIAL_CAPACITY = 16;
+    // Bits marking an empty slot. NaN is never counted, hence it never clashes with a value.
+    private static final long EMPTY = Double.doubleToLongBits(Double.NaN);
+
+    private final int maxTrackedValues;
+    // Slots of the hash table, holding the bits of the values. Capacity is a power of two.
+    private long[] keys;
+    private int[] counts;
+    private int size;
+    private int insertions;
+    private boolean saturated;
+
+    /**
+     * Creates a numeric frequency counter.
+     *
+     * @param maxTrackedValues  Maximum number of distinct values to track. A non-positive value
+     *                          means the number of values is not capped.
+     */
+    protected DoubleFrequencyCounter(int maxTrackedValues) {
+        this.maxTrackedValues = maxTrackedValues > 0 ? maxTrackedValues : Integer.MAX_VALUE;
+        this.keys = newKeys(INITIAL_CAPACITY);
+        this.counts = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Increases the frequency of a value by one.
+     *
+     * @param value     Value to be counted, which is not NaN
+     */
+    protected void add(double value) {
+        // Zero and negative zero are the same value.
+        long key = Double.doubleToLongBits(value == 0 ? 0.0 : value);
+        int mask = this.keys.length - 1;
+        int slot = hash(key) & mask;
+        long slotKey;
+        while ((slotKey = this.keys[slot]) != EMPTY) {
+            if (slotKey == key) {
+                this.counts[slot]++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        this.insertions++;
+        if (this.size == this.maxTrackedValues) {
+            evictLeastFrequent();
+            return;
+        }
+        this.keys[slot] = key;
+        this.counts[slot] = 1;
+        this.size++;
+        if (this.size * 2 > this.keys.length) {
+            rehash(this.keys.length * 2, 0);
+        }
+    }
+
+    /**
+     * Returns the number of distinct values counted. This is exact unless the counter is
+     * saturated, in which case it is an upper bound.
+     *
+     * @return  Number of distinct values
+     */
+    protected int getDistinctCount() {
+        return this.insertions;
+    }
+
+    /**
+     * Returns whether values have been evicted from the counter.
+     *
+     * @return  True if values have been evicted, false otherwise
+     */
+    protected boolean isSaturated() {
+        return this.saturated;
+    }
+
+    /**
+     * Returns the tracked values and their frequencies, sorted by the value.
+     *
+     * @return  Sorted map of the tracked values and their frequencies
+     */
+    protected SortedMap<Double, Integer> toSortedMap() {
+        SortedMap<Double, Integer> frequencies = new TreeMap<Double, Integer>();
+        for (int slot = 0; slot < this.keys.length; slot++) {
+            if (this.keys[slot] != EMPTY) {
+                frequencies.put(Double.longBitsToDouble(this.keys[slot]), this.counts[slot]);
+            }
+        }
+        return frequencies;
+    }
+
+    /*
+     * Evicts at least half of the tracked values, by decreasing all the counts by their median.
+     */
+    private void evictLeastFrequent() {
+        int[] sortedCounts = new int[this.size];
+        int index = 0;
+        for (int slot = 0; slot < this.keys.length; slot++) {
+            if (this.keys[slot] != EMPTY) {
+                sortedCounts[index++] = this.counts[slot];
+            }
+        }
+        Arrays.sort(sortedCounts);
+        rehash(this.keys.length, sortedCounts[(this.size - 1) / 2]);
+        this.saturated = true;
+    }
+
+    /*
+     * Moves the tracked values into a new table, decreasing their counts by the given amount and
+     * dropping the values whose count reaches zero.
+     */
+    private void rehash(int capacity, int decrement) {
+        long[] oldKeys = this.keys;
+        int[] oldCounts = this.counts;
+        this.keys = newKeys(capacity);
+        this.counts = new int[capacity];
+        this.size = 0;
+        int mask = capacity - 1;
+        for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            long key = oldKeys[oldSlot];
+            int count = oldCounts[oldSlot] - decrement;
+            if (key != EMPTY && count > 0) {
+                int slot = hash(key) & mask;
+                while (this.keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                this.keys[slot] = key;
+                this.counts[slot] = count;
+                this.size++;
+            }
+        }
+    }
+
+    private static long[] newKeys(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        return keys;
+    }
+
+    /*
+     * Mixes the bits of the value, since the table index only uses the low order bits.
+     */
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.math3.random.EmpiricalDistribution;
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+
+/**
+ * Column statistics which keep all the values, so that percentiles and interval frequencies are
+ * exact. Used for the sample of a data-set.
+ */
+public class ExactStatistics implements ColumnStatistics {
+
+    private final DescriptiveStatistics descriptiveStats = new DescriptiveStatistics();
+
+    @Override
+    public void addValue(double value) {
+        this.descriptiveStats.addValue(value);
+    }
+
+    @Override
+    public long getN() {
+        return this.descriptiveStats.getN();
+    }
+
+    @Override
+    public double getMean() {
+        return this.descriptiveStats.getMean();
+    }
+
+    @Override
+    public double getStandardDeviation() {
+        return this.descriptiveStats.getStandardDeviation();
+    }
+
+    @Override
+    public double getSkewness() {
+        return this.descriptiveStats.getSkewness();
+    }
+
+    @Override
+    public double getPercentile(double p) {
+        return this.descriptiveStats.getPercentile(p);
+    }
+
+    @Override
+    public SortedMap<Integer, Integer> getIntervalFrequencies(int intervals) {
+        SortedMap<Integer, Integer> intervalFrequencies = new TreeMap<Integer, Integer>();
+        // Create equal partitions.
+        EmpiricalDistribution histogram = new EmpiricalDistribution(intervals);
+        histogram.load(this.descriptiveStats.getValues());
+        // Get the frequency of each partition.
+        int bin = 0;
+        for (SummaryStatistics stats : histogram.getBinStats()) {
+            intervalFrequencies.put(bin++, (int) stats.getN());
+        }
+        return intervalFrequencies;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.wso2.carbon.ml.dataset.dto.Feature;
+
+/**
+ * Least recently used cache of the pages of features listed for work-flows, bounded by the
+ * number of work-flows. All the pages of a work-flow are dropped when a feature setting of the
+ * work-flow is updated, so that a page is never older than the last update.
+ */
+public class FeaturePageCache {
+
+    private final int maxWorkflows;
+    // Pages by the work-flow ID, in the order of access, the least recently used first.
+    private final LinkedHashMap<String, WorkflowPages> workflows =
+        new LinkedHashMap<String, WorkflowPages>(16, 0.75f, true);
+    // Number of invalidations, used to discard pages read before an invalidation.
+    private long generation;
+
+    /**
+     * Creates a feature page cache.
+     *
+     * @param maxWorkflows  Maximum number of work-flows of which the pages are cached
+     */
+    protected FeaturePageCache(int maxWorkflows) {
+        this.maxWorkflows = maxWorkflows;
+    }
+
+    /**
+     * Returns a cached page of features.
+     *
+     * @param datasetID     Unique Identifier of the data-set
+     * @param workflowID    Unique identifier of the work-flow
+     * @param pageKey       Key identifying the page within the work-flow
+     * @return              Unmodifiable list of features, or null if the page is not cached
+     */
+    protected synchronized List<Feature> get(String datasetID, String workflowID, String pageKey) {
+        WorkflowPages pages = this.workflows.get(workflowID);
+        if (pages == null || !pages.datasetID.equals(datasetID)) {
+            return null;
+        }
+        return pages.pages.get(pageKey);
+    }
+
+    /**
+     * Returns the current generation of the cache, which has to be taken before reading a page
+     * from the database, to be given when putting it in to the cache.
+     *
+     * @return  Generation of the cache
+     */
+    protected synchronized long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Puts a page of features in to the cache, unless a work-flow has been invalidated since the
+     * given generation, as the page may be stale.
+     *
+     * @param datasetID     Unique Identifier of the data-set
+     * @param workflowID    Unique identifier of the work-flow
+     * @param pageKey       Key identifying the page within the work-flow
+     * @param features      Features of the page
+     * @param generation    Generation of the cache when the page was read
+     * @return              Unmodifiable list of the features of the page
+     */
+    protected synchronized List<Feature> put(String datasetID, String workflowID, String pageKey,
+        List<Feature> features, long generation) {
+        List<Feature> page = Collections.unmodifiableList(new ArrayList<Feature>(features));
+        if (generation != this.generation) {
+            return page;
+        }
+        WorkflowPages pages = this.workflows.get(workflowID);
+        if (pages == null || !pages.datasetID.equals(datasetID)) {
+            pages = new WorkflowPages(datasetID);
+            this.workflows.put(workflowID, pages);
+            if (this.workflows.size() > this.maxWorkflows) {
+                this.workflows.remove(this.workflows.keySet().iterator().next());
+            }
+        }
+        pages.pages.put(pageKey, page);
+        return page;
+    }
+
+    /**
+     * Drops the cached pages of a work-flow, when one of its feature settings is updated.
+     *
+     * @param workflowID    Unique identifier of the work-flow
+     */
+    protected synchronized void invalidateWorkflow(String workflowID) {
+        this.generation++;
+        this.workflows.remove(workflowID);
+    }
+
+    /**
+     * Drops the cached pages of all the work-flows of a data-set, when its summary statistics
+     * are updated.
+     *
+     * @param datasetID     Unique Identifier of the data-set
+     */
+    protected synchronized void invalidateDataset(String datasetID) {
+        this.generation++;
+        Iterator<WorkflowPages> iterator = this.workflows.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().datasetID.equals(datasetID)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Pages of features of a single work-flow, by the page key.
+     */
+    private static class WorkflowPages {
+        private final String datasetID;
+        private final Map<String, List<Feature>> pages = new HashMap<String, List<Feature>>();
+
+        private WorkflowPages(String datasetID) {
+            this.datasetID = datasetID;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Counts the frequencies of string values in a single pass, using an open-addressing hash table
+ * with linear probing. The number of tracked values is capped, so that the memory used by
+ * high-cardinality (ID-like) columns stays bounded. Once the cap is reached, the least frequent
+ * values are evicted in the manner of the Misra-Gries frequent items algorithm, hence the
+ * counts of the remaining values become lower bounds of their actual frequencies.
+ */
+public class FrequencyCounter {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Maximum number of values tracked at a time.
+    private final int maxTrackedValues;
+    // Slots of the hash table. Capacity is always a power of two.
+    private String[] keys;
+    private int[] counts;
+    // Number of values currently tracked.
+    private int size;
+    // Number of distinct values seen, including evicted ones.
+    private int insertions;
+    // Whether any value has been evicted.
+    private boolean saturated;
+
+    /**
+     * Creates a frequency counter.
+     *
+     * @param maxTrackedValues  Maximum number of distinct values to track. A non-positive value
+     *                          means the number of values is not capped.
+     */
+    protected FrequencyCounter(int maxTrackedValues) {
+        this.maxTrackedValues = maxTrackedValues > 0 ? maxTrackedValues : Integer.MAX_VALUE;
+        this.keys = new String[INITIAL_CAPACITY];
+        this.counts = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Increases the frequency of a value by one.
+     *
+     * @param value     Value to be counted
+     */
+    protected void add(String value) {
+        int mask = this.keys.length - 1;
+        int slot = hash(value) & mask;
+        String key;
+        while ((key = this.keys[slot]) != null) {
+            if (key.equals(value)) {
+                this.counts[slot]++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // A new value.
+        this.insertions++;
+        if (this.size == this.maxTrackedValues) {
+            evictLeastFrequent();
+            // The new value is counted as evicted, as in the Misra-Gries algorithm.
+            return;
+        }
+        this.keys[slot] = value;
+        this.counts[slot] = 1;
+        this.size++;
+        // Keep the load factor at most half, so that probe sequences stay short.
+        if (this.size * 2 > this.keys.length) {
+            rehash(this.keys.length * 2, 0);
+        }
+    }
+
+    /**
+     * Returns the number of values currently tracked.
+     *
+     * @return  Number of tracked values
+     */
+    protected int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of distinct values counted. This is exact unless the counter is
+     * saturated, in which case it is an upper bound, since an evicted value which re-appears is
+     * counted again.
+     *
+     * @return  Number of distinct values
+     */
+    protected int getDistinctCount() {
+        return this.insertions;
+    }
+
+    /**
+     * Returns whether values have been evicted from the counter, i.e. whether the counts are no
+     * longer exact.
+     *
+     * @return  True if values have been evicted, false otherwise
+     */
+    protected boolean isSaturated() {
+        return this.saturated;
+    }
+
+    /**
+     * Returns the frequency of a value.
+     *
+     * @param value     Value of which the frequency is needed
+     * @return          Frequency of the value, or zero if the value is not tracked
+     */
+    protected int getCount(String value) {
+        int mask = this.keys.length - 1;
+        int slot = hash(value) & mask;
+        String key;
+        while ((key = this.keys[slot]) != null) {
+            if (key.equals(value)) {
+                return this.counts[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the tracked values and their frequencies.
+     *
+     * @return  Map of the tracked values and their frequencies
+     */
+    protected Map<String, Integer> toMap() {
+        Map<String, Integer> frequencies = new HashMap<String, Integer>(this.size * 2);
+        for (int slot = 0; slot < this.keys.length; slot++) {
+            if (this.keys[slot] != null) {
+                frequencies.put(this.keys[slot], this.counts[slot]);
+            }
+        }
+        return frequencies;
+    }
+
+    /**
+     * Returns the tracked values and their frequencies, sorted by the value.
+     *
+     * @return  Sorted map of the tracked values and their frequencies
+     */
+    protected SortedMap<String, Integer> toSortedMap() {
+        return new TreeMap<String, Integer>(toMap());
+    }
+
+    /*
+     * Evicts at least half of the tracked values, by decreasing all the counts by their median
+     * and dropping values whose count reaches zero. Evicting in bulk keeps the amortized cost of
+     * an insertion logarithmic, even when every value is distinct.
+     */
+    private void evictLeastFrequent() {
+        int[] sortedCounts = new int[this.size];
+        int index = 0;
+        for (int slot = 0; slot < this.keys.length; slot++) {
+            if (this.keys[slot] != null) {
+                sortedCounts[index++] = this.counts[slot];
+            }
+        }
+        Arrays.sort(sortedCounts);
+        int median = sortedCounts[(this.size - 1) / 2];
+        rehash(this.keys.length, median);
+        this.saturated = true;
+    }
+
+    /*
+     * Moves the tracked values into a new table, decreasing their counts by the given amount and
+     * dropping the values whose count reaches zero.
+     */
+    private void rehash(int capacity, int decrement) {
+        String[] oldKeys = this.keys;
+        int[] oldCounts = this.counts;
+        this.keys = new String[capacity];
+        this.counts = new int[capacity];
+        this.size = 0;
+        int mask = capacity - 1;
+        for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            String key = oldKeys[oldSlot];
+            int count = oldCounts[oldSlot] - decrement;
+            if (key != null && count > 0) {
+                int slot = hash(key) & mask;
+                while (this.keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                this.keys[slot] = key;
+                this.counts[slot] = count;
+                this.size++;
+            }
+        }
+    }
+
+    /*
+     * Spreads the bits of the hash code of the value, since the table index only uses the low
+     * order bits.
+     */
+    private static int hash(String value) {
+        int hash = value.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -76,6 +76,18 @@ public class MLConfigurationParser {
                 } else if (nodes.item(i).getNodeName().equals(DatasetConfigurations.UPLOAD_LIMIT)) {
                     dataUploadSettings.setUploadLimit(Long .parseLong(nodes.item(i)
                         .getTextContent()));
+                } else if (nodes.item(i).getNodeName().equals(DatasetConfigurations
+                    .UPLOAD_BUFFER_SIZE)) {
+                        dataUploadSettings.setUploadBufferSize(Integer.parseInt(nodes.item(i)
+                            .getTextContent()));
+                } else if (nodes.item(i).getNodeName().equals(DatasetConfigurations
+                    .UPLOAD_THREADS)) {
+                        dataUploadSettings.setUploadThreads(Integer.parseInt(nodes.item(i)
+                            .getTextContent()));
+                } else if (nodes.item(i).getNodeName().equals(DatasetConfigurations
+                    .UPLOAD_QUEUE_SIZE)) {
+                        dataUploadSettings.setUploadQueueSize(Integer.parseInt(nodes.item(i)
+                            .getTextContent()));
                 }
             }
             if(logger.isDebugEnabled()){
@@ -111,6 +123,37 @@ public class MLConfigurationParser {
                 } else if (nodes.item(i).getNodeName().equals(DatasetConfigurations.SAMPLE_SIZE)) {
                     summaryStatisticsSettings.setSampleSize(Integer.parseInt(nodes.item(i)
                         .getTextContent()));
+                } else if (nodes.item(i).getNodeName().equals(DatasetConfigurations.PARALLELISM)) {
+                    summaryStatisticsSettings.setParallelism(Integer.parseInt(nodes.item(i)
+                        .getTextContent()));
+                } else if (nodes.item(i).getNodeName()
+                        .equals(DatasetConfigurations.MAX_TRACKED_VALUES)) {
+                    summaryStatisticsSettings.setMaxTrackedValues(Integer.parseInt(nodes.item(i)
+                        .getTextContent()));
+                } else if (nodes.item(i).getNodeName()
+                        .equals(DatasetConfigurations.PROFILE_FULL_DATASET)) {
+                    summaryStatisticsSettings.setProfileFullDataset(Boolean.parseBoolean(nodes
+                        .item(i).getTextContent().trim()));
+                } else if (nodes.item(i).getNodeName()
+                        .equals(DatasetConfigurations.SAMPLING_METHOD)) {
+                    summaryStatisticsSettings.setSamplingMethod(nodes.item(i).getTextContent()
+                        .trim());
+                } else if (nodes.item(i).getNodeName()
+                        .equals(DatasetConfigurations.STRATIFICATION_COLUMN)) {
+                    summaryStatisticsSettings.setStratificationColumn(nodes.item(i)
+                        .getTextContent().trim());
+                } else if (nodes.item(i).getNodeName()
+                        .equals(DatasetConfigurations.SUMMARY_BATCH_SIZE)) {
+                    summaryStatisticsSettings.setSummaryBatchSize(Integer.parseInt(nodes.item(i)
+                        .getTextContent().trim()));
+                } else if (nodes.item(i).getNodeName()
+                        .equals(DatasetConfigurations.SAMPLE_CACHE_SIZE)) {
+                    summaryStatisticsSettings.setSampleCacheSize(Long.parseLong(nodes.item(i)
+                        .getTextContent().trim()));
+                } else if (nodes.item(i).getNodeName()
+                        .equals(DatasetConfigurations.FEATURE_PAGE_CACHE_SIZE)) {
+                    summaryStatisticsSettings.setFeaturePageCacheSize(Integer.parseInt(nodes
+                        .item(i).getTextContent().trim()));
                 }
             }
             if(logger.isDebugEnabled()){
@@ -23,15 +23,31 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.json.JSONArray;
 import org.osgi.service.component.ComponentContext;
 import org.wso2.carbon.ml.dataset.DatasetService;
 import org.wso2.carbon.ml.dataset.dto.Feature;
+import org.wso2.carbon.ml.dataset.dto.FeatureSettings;
+import org.wso2.carbon.ml.dataset.dto.FeatureSummary;
+import org.wso2.carbon.ml.dataset.dto.UploadProgress;
 import org.wso2.carbon.ml.dataset.exceptions.DatabaseHandlerException;
 import org.wso2.carbon.ml.dataset.exceptions.DatasetServiceException;
 import org.wso2.carbon.ml.dataset.exceptions.DatasetSummaryException;
@@ -46,9 +62,24 @@ import org.wso2.carbon.ml.dataset.internal.dto.SummaryStatisticsSettings;
  */
 public class MLDatasetService implements DatasetService {
     private static final Log logger = LogFactory.getLog(MLDatasetService.class);
+    // Time for which the progress of a finished upload is kept to be polled.
+    private static final long UPLOAD_RETENTION_MILLIS = 60 * 60 * 1000;
     private DataUploadSettings dataUploadSettings;
     private SummaryStatisticsSettings summaryStatSettings;
     private String mlDatabaseName;
+    // Pool used to calculate summary statistics of the columns in parallel.
+    private ForkJoinPool summaryPool;
+    // Cache of decoded data-set samples, used to draw scatter plots.
+    private SampleCache sampleCache;
+    // Cache of the pages of features listed for work-flows.
+    private FeaturePageCache featurePageCache;
+    // Executor running the stages which copy uploads to the disk.
+    private ExecutorService uploadExecutor;
+    // Bounded executor running the asynchronous upload jobs.
+    private ThreadPoolExecutor uploadJobExecutor;
+    // Progress of the uploads, by the data-set ID.
+    private final ConcurrentMap<String, UploadProgress> uploads =
+        new ConcurrentHashMap<String, UploadProgress>();
 
     /*
      * Activates the Data-set Service.
@@ -61,6 +92,32 @@ public class MLDatasetService implements DatasetService {
             datasetService.dataUploadSettings = mlConfigurationParser.getDataUploadSettings();
             datasetService.summaryStatSettings = mlConfigurationParser.getSummaryStatisticsSettings();
             datasetService.mlDatabaseName=mlConfigurationParser.getDatabaseName();
+            // Columns are summarized serially, unless more than one thread is configured.
+            int parallelism = datasetService.summaryStatSettings.getParallelism();
+            if (parallelism > 1) {
+                this.summaryPool = new ForkJoinPool(parallelism);
+                datasetService.summaryPool = this.summaryPool;
+            }
+            // Samples are read from the database each time, unless a cache size is configured.
+            long sampleCacheSize = datasetService.summaryStatSettings.getSampleCacheSize();
+            if (sampleCacheSize > 0) {
+                this.sampleCache = new SampleCache(sampleCacheSize);
+                datasetService.sampleCache = this.sampleCache;
+            }
+            int featurePageCacheSize =
+                datasetService.summaryStatSettings.getFeaturePageCacheSize();
+            if (featurePageCacheSize > 0) {
+                this.featurePageCache = new FeaturePageCache(featurePageCacheSize);
+                datasetService.featurePageCache = this.featurePageCache;
+            }
+            this.uploadExecutor = Executors.newCachedThreadPool();
+            datasetService.uploadExecutor = this.uploadExecutor;
+            this.uploadJobExecutor = new ThreadPoolExecutor(Math.max(1, datasetService
+                .dataUploadSettings.getUploadThreads()), Math.max(1, datasetService
+                .dataUploadSettings.getUploadThreads()), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, datasetService.dataUploadSettings
+                .getUploadQueueSize())));
+            datasetService.uploadJobExecutor = this.uploadJobExecutor;
             // Register the service.
             context.getBundleContext().registerService(DatasetService.class.getName(),
                 datasetService, null);
@@ -75,6 +132,15 @@ public class MLDatasetService implements DatasetService {
      * Deactivates the Data-set Service.
      */
     protected void deactivate(ComponentContext context) {
+        if (summaryPool != null) {
+            summaryPool.shutdown();
+        }
+        if (uploadJobExecutor != null) {
+            uploadJobExecutor.shutdown();
+        }
+        if (uploadExecutor != null) {
+            uploadExecutor.shutdown();
+        }
         logger.info("Ml Dataset Service Stopped");
     }
 
@@ -97,7 +163,8 @@ public class MLDatasetService implements DatasetService {
     }
 
     /**
-     * Upload the data file and calculate summary statistics.
+     * Upload the data file and calculate summary statistics. The upload is written to the disk
+     * and summarized at the same time, so that it is read only once.
      *
      * @param sourceInputStream     Input Stream of the source data file
      * @param datasetID             Unique Identifier of the data-set
@@ -110,6 +177,132 @@ public class MLDatasetService implements DatasetService {
     @Override
     public int uploadDataset(InputStream sourceInputStream, String datasetID, String fileName,
         String projectID) throws DatasetServiceException, IOException {
+        return runUpload(sourceInputStream, datasetID, fileName, projectID,
+            registerUpload(datasetID));
+    }
+
+    /**
+     * Queue the upload of a data file and the calculation of its summary statistics, and return
+     * without waiting for the upload. The input stream is closed once the upload has finished.
+     *
+     * @param sourceInputStream     Input Stream of the source data file
+     * @param datasetID             Unique Identifier of the data-set
+     * @param fileName              Name of the uploading file
+     * @param projectID             Unique Identifier of the project
+     * @return                      Handle of the upload job
+     * @throws                      DatasetServiceException
+     */
+    @Override
+    public Future<Integer> uploadDatasetAsync(final InputStream sourceInputStream,
+        final String datasetID, final String fileName, final String projectID)
+            throws DatasetServiceException {
+        final UploadProgress progress = registerUpload(datasetID);
+        try {
+            return uploadJobExecutor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws DatasetServiceException, IOException {
+                    try {
+                        return runUpload(sourceInputStream, datasetID, fileName, projectID,
+                            progress);
+                    } catch (DatasetServiceException e) {
+                        logger.error("Failed to upload the dataset " + datasetID + ": " +
+                            e.getMessage(), e);
+                        throw e;
+                    } finally {
+                        IOUtils.closeQuietly(sourceInputStream);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            uploads.remove(datasetID, progress);
+            throw new DatasetServiceException("Failed to queue the upload of dataset " + datasetID
+                + ": Upload queue is full.", e);
+        }
+    }
+
+    /**
+     * Returns the progress of the upload of a data-set.
+     *
+     * @param datasetID     Unique Identifier of the data-set
+     * @return              Snapshot of the progress of the upload
+     * @throws              DatasetServiceException
+     */
+    @Override
+    public UploadProgress getUploadProgress(String datasetID) throws DatasetServiceException {
+        UploadProgress progress = uploads.get(datasetID);
+        if (progress == null) {
+            throw new DatasetServiceException("No upload is found for the dataset " + datasetID);
+        }
+        return new UploadProgress(progress);
+    }
+
+    /**
+     * This method checks whether the upload of a data-set is completed or not.
+     *
+     * @param datasetID     Unique Identifier of the data-set
+     * @return              Indicates whether the upload is completed or not
+     * @throws              DatasetServiceException
+     */
+    @Override
+    public boolean isUploadCompleted(String datasetID) throws DatasetServiceException {
+        UploadProgress progress = getUploadProgress(datasetID);
+        if (UploadProgress.FAILED.equals(progress.getPhase())) {
+            throw new DatasetServiceException("Upload of the dataset " + datasetID + " failed: " +
+                progress.getError());
+        }
+        return UploadProgress.COMPLETED.equals(progress.getPhase());
+    }
+
+    /*
+     * Registers the progress of a new upload, and forgets the uploads finished long ago.
+     */
+    private synchronized UploadProgress registerUpload(String datasetID)
+            throws DatasetServiceException {
+        long expiry = System.currentTimeMillis() - UPLOAD_RETENTION_MILLIS;
+        Iterator<UploadProgress> iterator = uploads.values().iterator();
+        while (iterator.hasNext()) {
+            UploadProgress upload = iterator.next();
+            if (upload.isFinished() && upload.getFinishedTime() < expiry) {
+                iterator.remove();
+            }
+        }
+        UploadProgress progress = new UploadProgress(datasetID);
+        UploadProgress existing = uploads.put(datasetID, progress);
+        if (existing != null && !existing.isFinished()) {
+            uploads.put(datasetID, existing);
+            throw new DatasetServiceException("Dataset " + datasetID + " is already being " +
+                "uploaded.");
+        }
+        return progress;
+    }
+
+    /*
+     * Uploads a data file, keeping track of the progress of the upload.
+     */
+    private int runUpload(InputStream sourceInputStream, String datasetID, String fileName,
+        String projectID, UploadProgress progress) throws DatasetServiceException, IOException {
+        try {
+            int noOfFeatures = upload(sourceInputStream, datasetID, fileName, projectID, progress);
+            progress.setNoOfFeatures(noOfFeatures);
+            progress.setPhase(UploadProgress.COMPLETED);
+            return noOfFeatures;
+        } catch (DatasetServiceException e) {
+            progress.setFailed(e.getMessage());
+            throw e;
+        } catch (IOException e) {
+            progress.setFailed(e.getMessage());
+            throw e;
+        } catch (RuntimeException e) {
+            progress.setFailed(e.getMessage());
+            throw e;
+        }
+    }
+
+    /*
+     * Uploads a data file and calculates summary statistics.
+     */
+    private int upload(InputStream sourceInputStream, String datasetID, String fileName,
+        String projectID, UploadProgress progress) throws DatasetServiceException, IOException {
         String uploadDir = dataUploadSettings.getUploadLocation();
         BufferedWriter writer = null;
         BufferedReader bufferedReader = null;
@@ -126,17 +319,42 @@ public class MLDatasetService implements DatasetService {
                 // Upload the file.
                 File targetFile = new File(uploadDir + fileSeparator + projectID + fileSeparator +
                     fileName);
-                FileUtils.copyInputStreamToFile(sourceInputStream, targetFile);
                 // Insert details of the file to the database.
-                DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName);
+                DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName, sampleCache);
                 dbHandler.insertDatasetDetails(datasetID, targetFile.getPath(), projectID);
-                // Generate summary statistics.
-                DatasetSummary summary = new DatasetSummary(targetFile, datasetID);
-                int noOfFeatures = summary.generateSummary(summaryStatSettings.getSampleSize(),
-                    summaryStatSettings.getHistogramBins(), summaryStatSettings
-                    .getCategoricalThreshold(), true, mlDatabaseName);
-                // Update the database with the data-set sample.
-                dbHandler.updateDatasetSample(datasetID, summary.samplePoints());
+                // Tee the upload to the file and to the summary calculation.
+                progress.setPhase(UploadProgress.PROFILING);
+                UploadPipeline pipeline = new UploadPipeline(sourceInputStream, targetFile,
+                    dataUploadSettings.getUploadBufferSize(), progress);
+                pipeline.start(uploadExecutor);
+                InputStream summaryStream = pipeline.getSummaryStream();
+                int noOfFeatures;
+                boolean uploaded = false;
+                try {
+                    try {
+                        // Generate summary statistics while the file is being written.
+                        DatasetSummary summary = new DatasetSummary(summaryStream, datasetID,
+                            summaryStatSettings, summaryPool);
+                        summary.setProgress(progress);
+                        noOfFeatures = summary.generateSummary(summaryStatSettings
+                            .getSampleSize(), summaryStatSettings.getHistogramBins(),
+                            summaryStatSettings.getCategoricalThreshold(), true, mlDatabaseName);
+                        // Update the database with the data-set sample.
+                        progress.setPhase(UploadProgress.STORING_SAMPLE);
+                        dbHandler.updateDatasetSample(datasetID, summary.samplePoints());
+                    } finally {
+                        // Let the rest of the upload, if any, go to the file only.
+                        summaryStream.close();
+                    }
+                    progress.setPhase(UploadProgress.UPLOADING);
+                    pipeline.awaitCompletion();
+                    uploaded = true;
+                } finally {
+                    if (!uploaded) {
+                        // Stop the copy stage, which deletes the partially written file.
+                        pipeline.abort();
+                    }
+                }
                 return noOfFeatures;
             } else {
                 throw new DatasetServiceException("Invalid Uploading directory " + uploadDir);
@@ -171,7 +389,8 @@ public class MLDatasetService implements DatasetService {
     public void updateDataType(String featureName, String workflowID, String featureType)
             throws DatasetServiceException {
         try {
-            DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName);
+            DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName, sampleCache,
+                featurePageCache);
             dbHandler.updateDataType(featureName, workflowID, featureType);
         } catch (DatabaseHandlerException e) {
             throw new DatasetServiceException("Failed to update feature type: " + e.getMessage(), e);
@@ -190,7 +409,8 @@ public class MLDatasetService implements DatasetService {
     public void updateImputeOption(String featureName, String workflowID, String imputeOption)
             throws DatasetServiceException {
         try {
-            DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName);
+            DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName, sampleCache,
+                featurePageCache);
             dbHandler.updateImputeOption(featureName, workflowID, imputeOption);
         } catch (DatabaseHandlerException e) {
             throw new DatasetServiceException("Failed to update impute option: " + e.getMessage(),
@@ -210,7 +430,8 @@ public class MLDatasetService implements DatasetService {
     public void updateIsIncludedFeature(String featureName, String workflowID, boolean isInput)
             throws DatasetServiceException {
         try {
-            DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName);
+            DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName, sampleCache,
+                featurePageCache);
             dbHandler.updateIsIncludedFeature(featureName, workflowID, isInput);
         } catch (DatabaseHandlerException e) {
             throw new DatasetServiceException( "Failed to update included option: "
@@ -218,6 +439,27 @@ public class MLDatasetService implements DatasetService {
         }
     }
 
+    /**
+     * Update the settings of many features of a work-flow at once, in a single transaction.
+     *
+     * @param workflowID        Unique identifier of the current workflow
+     * @param featureSettings   Settings to be updated, by the name of the feature. Settings
+     *                          left null are not changed.
+     * @throws                  DatasetServiceException
+     */
+    @Override
+    public void updateFeatureSettings(String workflowID,
+        Map<String, FeatureSettings> featureSettings) throws DatasetServiceException {
+        try {
+            DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName, sampleCache,
+                featurePageCache);
+            dbHandler.updateFeatureSettings(workflowID, featureSettings);
+        } catch (DatabaseHandlerException e) {
+            throw new DatasetServiceException("Failed to update feature settings: " +
+                e.getMessage(), e);
+        }
+    }
+
     /**
      * Returns a set of features in a given range, from the alphabetically
      * ordered set of features, of a data-set.
@@ -232,13 +474,39 @@ public class MLDatasetService implements DatasetService {
     public List<Feature> getFeatures(String datasetID, String workflowID, int startIndex,
         int numberOfFeatures) throws DatasetServiceException {
         try {
-            DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName);
+            DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName, sampleCache,
+                featurePageCache);
             return dbHandler.getFeatures(datasetID, workflowID, startIndex, numberOfFeatures);
         } catch (DatabaseHandlerException e) {
             throw new DatasetServiceException("Failed to retrieve features: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Returns a set of features following a given feature, from the alphabetically ordered set
+     * of features, of a data-set.
+     *
+     * @param datasetID         Unique Identifier of the data-set
+     * @param workflowID        Unique identifier of the current workflow
+     * @param lastFeatureName   Name of the last feature of the previous page, or null for the
+     *                          first page
+     * @param numberOfFeatures  Number of features needed, after the given feature
+     * @return                  A list of Feature objects
+     * @throws                  DatasetServiceException
+     */
+    @Override
+    public List<Feature> getFeaturesAfter(String datasetID, String workflowID,
+        String lastFeatureName, int numberOfFeatures) throws DatasetServiceException {
+        try {
+            DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName, sampleCache,
+                featurePageCache);
+            return dbHandler.getFeaturesAfter(datasetID, workflowID, lastFeatureName,
+                numberOfFeatures);
+        } catch (DatabaseHandlerException e) {
+            throw new DatasetServiceException("Failed to retrieve features: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Returns the names of the features, belongs to a particular data-type
      * (Categorical/Numerical), of the work-flow.
@@ -275,7 +543,7 @@ public class MLDatasetService implements DatasetService {
     public JSONArray getScatterPlotPoints(String datasetID, String xAxisFeature, String yAxisFeature,
         String groupByFeature) throws DatasetServiceException {
         try {
-            DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName);
+            DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName, sampleCache);
             return dbHandler.getScatterPlotPoints(datasetID, xAxisFeature, yAxisFeature, groupByFeature);
         } catch (DatabaseHandlerException e) {
             throw new DatasetServiceException( "Failed to retrieve sample points: "
@@ -283,6 +551,32 @@ public class MLDatasetService implements DatasetService {
         }
     }
 
+    /**
+     * Returns at most the given number of data points of the selected sample, needed for the
+     * scatter plot, either subsampled within each value of the group-by feature or counted in
+     * the cells of a grid.
+     *
+     * @param datasetID         Unique Identifier of the data-set
+     * @param xAxisFeature      Name of the feature to use as the x-axis
+     * @param yAxisFeature      Name of the feature to use as the y-axis
+     * @param groupByFeature    Name of the feature to be grouped by (color code)
+     * @param maxPoints         Maximum number of points to return
+     * @param mode              SUBSAMPLE or BINNED
+     * @return                  A JSON array of data points
+     * @throws                  DatasetServiceException
+     */
+    public JSONArray getScatterPlotPoints(String datasetID, String xAxisFeature, String yAxisFeature,
+        String groupByFeature, int maxPoints, String mode) throws DatasetServiceException {
+        try {
+            DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName, sampleCache);
+            return dbHandler.getScatterPlotPoints(datasetID, xAxisFeature, yAxisFeature,
+                groupByFeature, maxPoints, mode);
+        } catch (DatabaseHandlerException e) {
+            throw new DatasetServiceException( "Failed to retrieve sample points: "
+                + e.getMessage(), e);
+        }
+    }
+
     /**
      * Returns the summary statistics for a given feature of a given data-set
      *
@@ -302,6 +596,28 @@ public class MLDatasetService implements DatasetService {
         }
     }
 
+    /**
+     * Returns the summary statistics for a given feature of a given data-set, decoded from
+     * their binary form.
+     *
+     * @param datasetID     Unique Identifier of the data-set
+     * @param feature       Name of the feature of which summary statistics are needed
+     * @return              Summary statistics of the feature, or null if they were stored
+     *                      only as JSON
+     * @throws              DatasetServiceException
+     */
+    @Override
+    public FeatureSummary getFeatureSummary(String datasetID, String feature)
+            throws DatasetServiceException {
+        try {
+            DatabaseHandler dbHandler = new DatabaseHandler(mlDatabaseName);
+            return dbHandler.getFeatureSummary(datasetID, feature);
+        } catch (DatabaseHandlerException e) {
+            throw new DatasetServiceException("Failed to retrieve summary statistics: " +
+                e.getMessage(), e);
+        }
+    }
+
     /**
      * Returns the number of features of a given data-set.
      *
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Reads the records of a delimited data-set one at a time. Cells of the current record can be
+ * read as numbers, so that implementations which parse numbers directly need not create a
+ * string for each numeric cell.
+ */
+public interface RecordReader extends Closeable {
+
+    /**
+     * Returns the names of the columns, mapped to their indices.
+     *
+     * @return  Map of the column names and indices
+     */
+    Map<String, Integer> getHeaderMap();
+
+    /**
+     * Advances to the next record.
+     *
+     * @return  True if there is a next record, false if the end of the data-set is reached
+     * @throws  IOException
+     */
+    boolean nextRecord() throws IOException;
+
+    /**
+     * Reads the cells of the current record. The numeric value of each cell is set, or NaN if
+     * the cell is not a number. The string value of each cell is set if the cell is not a
+     * number or if the string values of its column are requested, or null otherwise. Missing
+     * cells at the end of a short record are read as empty.
+     *
+     * @param strings       Array to fill with the string values of the cells
+     * @param numbers       Array to fill with the numeric values of the cells
+     * @param stringColumns Whether to set the string values of the numeric cells of each
+     *                      column too, or null for none of the columns
+     */
+    void readRecord(String[] strings, double[] numbers, boolean[] stringColumns);
+
+    /**
+     * Reads the string values of the cells of the current record. Missing cells at the end of a
+     * short record are read as empty.
+     *
+     * @param strings   Array to fill with the string values of the cells
+     */
+    void readRecord(String[] strings);
+}
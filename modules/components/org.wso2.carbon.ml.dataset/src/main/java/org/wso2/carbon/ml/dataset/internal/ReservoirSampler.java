@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Draws a uniform random sample of a fixed size from a stream of unknown length in a single
+ * pass, using Algorithm L (Li, 1994). Instead of drawing a random number for each item, the
+ * number of items to skip before the next replacement is drawn directly, so that the cost is
+ * proportional to the sample size rather than the length of the stream.
+ *
+ * @param <T>   Type of the sampled items
+ */
+public class ReservoirSampler<T> {
+
+    private final Random random;
+    private List<T> reservoir;
+    private int capacity;
+    // Number of items offered so far.
+    private long count;
+    // Largest of the random keys of the items in the reservoir, once it is full.
+    private double w;
+    // Number of the item (counting from one) which replaces an item of the reservoir next.
+    private long next;
+
+    /**
+     * Creates a reservoir sampler.
+     *
+     * @param capacity  Size of the sample
+     * @param random    Source of randomness
+     */
+    protected ReservoirSampler(int capacity, Random random) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Sample size should be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.random = random;
+        this.reservoir = new ArrayList<T>(Math.min(capacity, 1024));
+    }
+
+    /**
+     * Offers an item of the stream to the sampler.
+     *
+     * @param item  Item of the stream
+     */
+    protected void offer(T item) {
+        this.count++;
+        if (this.count <= this.capacity) {
+            this.reservoir.add(item);
+            if (this.count == this.capacity) {
+                this.w = Math.exp(Math.log(nextUniform()) / this.capacity);
+                skip();
+            }
+        } else if (this.count == this.next) {
+            this.reservoir.set(this.random.nextInt(this.capacity), item);
+            this.w *= Math.exp(Math.log(nextUniform()) / this.capacity);
+            skip();
+        }
+    }
+
+    /**
+     * Returns whether the next item offered enters the sample. Items which are skipped may be
+     * offered as null, so that they need not be built.
+     *
+     * @return  True if the next item enters the sample, false otherwise
+     */
+    protected boolean willAccept() {
+        return this.count < this.capacity || this.count + 1 == this.next;
+    }
+
+    /**
+     * Reduces the size of the sample, keeping the sample uniform over the items offered so far
+     * as well as the items offered afterwards.
+     *
+     * @param newCapacity   New size of the sample, which is not larger than the current size
+     */
+    protected void shrink(int newCapacity) {
+        if (newCapacity < 1 || newCapacity > this.capacity) {
+            throw new IllegalArgumentException("Cannot shrink a sample of size " + this.capacity +
+                " to " + newCapacity);
+        }
+        int retained = this.reservoir.size();
+        if (retained > newCapacity) {
+            // A random subset of a uniform sample is a uniform sample.
+            Collections.shuffle(this.reservoir, this.random);
+            this.reservoir = new ArrayList<T>(this.reservoir.subList(0, newCapacity));
+            // The largest key of the new reservoir is the newCapacity'th smallest key of the
+            // retained items. If the reservoir was full, the largest key was w and the others
+            // are uniform below it. Otherwise all the keys are uniform.
+            if (retained == this.capacity && this.count >= this.capacity) {
+                this.w *= orderStatistic(newCapacity, retained - 1);
+            } else {
+                this.w = orderStatistic(newCapacity, retained);
+            }
+            this.capacity = newCapacity;
+            skip();
+        } else {
+            this.capacity = newCapacity;
+            if (retained == newCapacity && this.count == newCapacity) {
+                this.w = Math.exp(Math.log(nextUniform()) / newCapacity);
+                skip();
+            }
+        }
+    }
+
+    /**
+     * Returns the sample of the items offered so far.
+     *
+     * @return  Sampled items
+     */
+    protected List<T> getSample() {
+        return this.reservoir;
+    }
+
+    /**
+     * Returns the number of items offered so far.
+     *
+     * @return  Number of items offered
+     */
+    protected long getCount() {
+        return this.count;
+    }
+
+    /*
+     * Draws the number of the item, which replaces an item of the reservoir next.
+     */
+    private void skip() {
+        this.next = this.count + (long) Math.floor(Math.log(nextUniform()) /
+            Math.log(1 - this.w)) + 1;
+    }
+
+    /*
+     * Draws the k'th smallest of n independent uniform random numbers.
+     */
+    private double orderStatistic(int k, int n) {
+        double[] keys = new double[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = nextUniform();
+        }
+        Arrays.sort(keys);
+        return keys[k - 1];
+    }
+
+    /*
+     * Draws a uniform random number in (0, 1], which is safe to take the logarithm of.
+     */
+    private double nextUniform() {
+        return 1 - this.random.nextDouble();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of decoded data-set samples, keyed by the data-set ID and bounded by
+ * the estimated number of bytes retained by the samples rather than by the number of samples.
+ * Since the columns of a sample are decoded lazily, the size of a sample is re-estimated each
+ * time it is put in to the cache.
+ */
+public class SampleCache {
+
+    private final long maxBytes;
+    // Samples in the order of access, the least recently used first.
+    private final LinkedHashMap<String, CachedSample> samples =
+        new LinkedHashMap<String, CachedSample>(16, 0.75f, true);
+    private long bytes;
+    // Number of invalidations, used to discard samples read before an invalidation.
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a sample cache.
+     *
+     * @param maxBytes  Maximum number of bytes retained by the cached samples
+     */
+    protected SampleCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cached sample of a data-set.
+     *
+     * @param datasetID     Unique Identifier of the data-set
+     * @return              Cached sample, or null if the sample is not cached
+     */
+    protected synchronized ColumnarSample get(String datasetID) {
+        CachedSample cached = this.samples.get(datasetID);
+        if (cached == null) {
+            this.misses++;
+            return null;
+        }
+        this.hits++;
+        return cached.sample;
+    }
+
+    /**
+     * Returns the current generation of the cache, which has to be taken before reading a
+     * sample from the database, to be given when putting it in to the cache.
+     *
+     * @return  Generation of the cache
+     */
+    protected synchronized long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Puts a sample in to the cache, or re-estimates the size of a cached sample, evicting the
+     * least recently used samples beyond the size of the cache. The sample is not cached if a
+     * sample has been invalidated since the given generation, as it may be stale.
+     *
+     * @param datasetID     Unique Identifier of the data-set
+     * @param sample        Sample of the data-set
+     * @param generation    Generation of the cache when the sample was read
+     */
+    protected synchronized void put(String datasetID, ColumnarSample sample, long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        long size = sample.getRetainedSize();
+        if (size > this.maxBytes) {
+            remove(datasetID);
+            return;
+        }
+        CachedSample previous = this.samples.put(datasetID, new CachedSample(sample, size));
+        if (previous != null) {
+            this.bytes -= previous.size;
+        }
+        this.bytes += size;
+        Iterator<Map.Entry<String, CachedSample>> iterator = this.samples.entrySet().iterator();
+        while (this.bytes > this.maxBytes && iterator.hasNext()) {
+            Map.Entry<String, CachedSample> eldest = iterator.next();
+            if (!eldest.getKey().equals(datasetID)) {
+                this.bytes -= eldest.getValue().size;
+                iterator.remove();
+                this.evictions++;
+            }
+        }
+    }
+
+    /**
+     * Removes the sample of a data-set from the cache, when the sample is rewritten.
+     *
+     * @param datasetID     Unique Identifier of the data-set
+     */
+    protected synchronized void invalidate(String datasetID) {
+        this.generation++;
+        remove(datasetID);
+    }
+
+    /**
+     * Returns the number of lookups which found a cached sample.
+     *
+     * @return  Number of cache hits
+     */
+    protected synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of lookups which did not find a cached sample.
+     *
+     * @return  Number of cache misses
+     */
+    protected synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Returns the number of samples evicted to keep the cache within its size.
+     *
+     * @return  Number of evictions
+     */
+    protected synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Returns the estimated number of bytes retained by the cached samples.
+     *
+     * @return  Size of the cache in bytes
+     */
+    protected synchronized long getSize() {
+        return this.bytes;
+    }
+
+    private void remove(String datasetID) {
+        CachedSample removed = this.samples.remove(datasetID);
+        if (removed != null) {
+            this.bytes -= removed.size;
+        }
+    }
+
+    /**
+     * Cached sample along with its estimated size at the time it was cached.
+     */
+    private static class CachedSample {
+        private final ColumnarSample sample;
+        private final long size;
+
+        private CachedSample(ColumnarSample sample, long size) {
+            this.sample = sample;
+            this.size = size;
+        }
+    }
+}
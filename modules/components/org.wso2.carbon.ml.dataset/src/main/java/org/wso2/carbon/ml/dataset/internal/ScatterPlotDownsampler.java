@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.json.JSONArray;
+
+/**
+ * Reduces the points of a scatter plot, drawn from a data-set sample, to a given number of
+ * points. The points are either subsampled within each value of the group-by feature, so that
+ * every value remains visible, or counted in the cells of a grid laid over the plot.
+ */
+public class ScatterPlotDownsampler {
+
+    // Fixed seed, so that a sample is always plotted with the same points.
+    private static final long SEED = 0x5CA77E2L;
+
+    private final ColumnarSample sample;
+    private final int xColumn;
+    private final int yColumn;
+    private final int groupColumn;
+
+    /**
+     * Creates a downsampler for the scatter plot of three columns of a sample.
+     *
+     * @param sample        Sample of the data-set
+     * @param xColumn       Index of the column to use as the x-axis
+     * @param yColumn       Index of the column to use as the y-axis
+     * @param groupColumn   Index of the column to be grouped by (color code)
+     */
+    protected ScatterPlotDownsampler(ColumnarSample sample, int xColumn, int yColumn,
+        int groupColumn) {
+        this.sample = sample;
+        this.xColumn = xColumn;
+        this.yColumn = yColumn;
+        this.groupColumn = groupColumn;
+    }
+
+    /**
+     * Returns at most the given number of points, as [x, y, group] arrays in the order of the
+     * sample. The points are split among the values of the group-by feature in proportion to
+     * their frequencies, giving at least one point to each value while the budget allows.
+     *
+     * @param maxPoints     Maximum number of points to return
+     * @return              A JSON array of data points
+     */
+    protected JSONArray subsample(int maxPoints) {
+        double[] xValues = this.sample.getNumbers(this.xColumn);
+        double[] yValues = this.sample.getNumbers(this.yColumn);
+        String[] groups = this.sample.getStrings(this.groupColumn);
+        Map<String, List<Integer>> rowsByGroup = groupRows(xValues, yValues, groups);
+        int noOfRows = 0;
+        for (List<Integer> rows : rowsByGroup.values()) {
+            noOfRows += rows.size();
+        }
+        boolean[] selected = new boolean[this.sample.getRowCount()];
+        if (noOfRows <= maxPoints) {
+            for (List<Integer> rows : rowsByGroup.values()) {
+                for (int row : rows) {
+                    selected[row] = true;
+                }
+            }
+        } else {
+            // Largest groups first, to be kept when there are more groups than points.
+            List<List<Integer>> strata = new ArrayList<List<Integer>>(rowsByGroup.values());
+            Collections.sort(strata, new Comparator<List<Integer>>() {
+                @Override
+                public int compare(List<Integer> first, List<Integer> second) {
+                    return second.size() - first.size();
+                }
+            });
+            int noOfStrata = Math.min(strata.size(), maxPoints);
+            // One point for each group, and the rest in proportion to the remaining rows.
+            double share = (double) (maxPoints - noOfStrata) / (noOfRows - noOfStrata);
+            Random random = new Random(SEED);
+            for (int i = 0; i < noOfStrata; i++) {
+                List<Integer> rows = strata.get(i);
+                int quota = 1 + (int) ((rows.size() - 1) * share);
+                // Partial Fisher-Yates shuffle of the rows of the group.
+                for (int j = 0; j < quota; j++) {
+                    Collections.swap(rows, j, j + random.nextInt(rows.size() - j));
+                    selected[rows.get(j)] = true;
+                }
+            }
+        }
+        JSONArray points = new JSONArray();
+        for (int row = 0; row < selected.length; row++) {
+            if (selected[row]) {
+                JSONArray point = new JSONArray();
+                point.put(xValues[row]);
+                point.put(yValues[row]);
+                point.put(groups[row]);
+                points.put(point);
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Returns at most the given number of cells of a square grid laid over the range of the
+     * points, as [x, y, group, count] arrays, where x and y are the center of the cell and count
+     * is the number of points of the group in the cell. The grid is made coarser until the
+     * non-empty cells of all groups fit in the budget; beyond a single cell, only the groups
+     * with the most points are returned.
+     *
+     * @param maxPoints     Maximum number of cells to return
+     * @return              A JSON array of cells
+     */
+    protected JSONArray bin(int maxPoints) {
+        double[] xValues = this.sample.getNumbers(this.xColumn);
+        double[] yValues = this.sample.getNumbers(this.yColumn);
+        String[] groups = this.sample.getStrings(this.groupColumn);
+        Map<String, List<Integer>> rowsByGroup = groupRows(xValues, yValues, groups);
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (List<Integer> rows : rowsByGroup.values()) {
+            for (int row : rows) {
+                minX = Math.min(minX, xValues[row]);
+                maxX = Math.max(maxX, xValues[row]);
+                minY = Math.min(minY, yValues[row]);
+                maxY = Math.max(maxY, yValues[row]);
+            }
+        }
+        int gridSize = Math.max(1, (int) Math.sqrt(maxPoints));
+        List<Cell> cells;
+        while (true) {
+            cells = new ArrayList<Cell>();
+            for (Map.Entry<String, List<Integer>> group : rowsByGroup.entrySet()) {
+                Map<Integer, Cell> groupCells = new LinkedHashMap<Integer, Cell>();
+                for (int row : group.getValue()) {
+                    int xCell = cellOf(xValues[row], minX, maxX, gridSize);
+                    int yCell = cellOf(yValues[row], minY, maxY, gridSize);
+                    Integer key = xCell * gridSize + yCell;
+                    Cell cell = groupCells.get(key);
+                    if (cell == null) {
+                        cell = new Cell(group.getKey(), centerOf(xCell, minX, maxX, gridSize),
+                            centerOf(yCell, minY, maxY, gridSize));
+                        groupCells.put(key, cell);
+                    }
+                    cell.count++;
+                }
+                cells.addAll(groupCells.values());
+            }
+            if (cells.size() <= maxPoints || gridSize == 1) {
+                break;
+            }
+            gridSize = gridSize / 2;
+        }
+        if (cells.size() > maxPoints) {
+            Collections.sort(cells, new Comparator<Cell>() {
+                @Override
+                public int compare(Cell first, Cell second) {
+                    return second.count - first.count;
+                }
+            });
+            cells = cells.subList(0, maxPoints);
+        }
+        JSONArray points = new JSONArray();
+        for (Cell cell : cells) {
+            JSONArray point = new JSONArray();
+            point.put(cell.x);
+            point.put(cell.y);
+            point.put(cell.group);
+            point.put(cell.count);
+            points.put(point);
+        }
+        return points;
+    }
+
+    /*
+     * Returns the rows in which none of the three columns is missing and both coordinates are
+     * numbers, by the value of the group-by column.
+     */
+    private Map<String, List<Integer>> groupRows(double[] xValues, double[] yValues,
+        String[] groups) {
+        Map<String, List<Integer>> rowsByGroup = new LinkedHashMap<String, List<Integer>>();
+        for (int row = 0; row < this.sample.getRowCount(); row++) {
+            if (!this.sample.isMissing(this.xColumn, row) &&
+                    !this.sample.isMissing(this.yColumn, row) &&
+                    !this.sample.isMissing(this.groupColumn, row) &&
+                    !Double.isNaN(xValues[row]) && !Double.isNaN(yValues[row])) {
+                List<Integer> rows = rowsByGroup.get(groups[row]);
+                if (rows == null) {
+                    rows = new ArrayList<Integer>();
+                    rowsByGroup.put(groups[row], rows);
+                }
+                rows.add(row);
+            }
+        }
+        return rowsByGroup;
+    }
+
+    private static int cellOf(double value, double min, double max, int gridSize) {
+        if (max <= min) {
+            return 0;
+        }
+        return Math.min(gridSize - 1, (int) ((value - min) / (max - min) * gridSize));
+    }
+
+    private static double centerOf(int cell, double min, double max, int gridSize) {
+        return min + (cell + 0.5) * (max - min) / gridSize;
+    }
+
+    /**
+     * Number of points of a group in a cell of the grid.
+     */
+    private static class Cell {
+        private final String group;
+        private final double x;
+        private final double y;
+        private int count;
+
+        private Cell(String group, double x, double y) {
+            this.group = group;
+            this.x = x;
+            this.y = y;
+        }
+    }
+}
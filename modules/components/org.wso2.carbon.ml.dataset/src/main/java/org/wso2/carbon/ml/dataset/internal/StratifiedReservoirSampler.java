@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Draws a stratified random sample of records, keyed on the value of a chosen column, in a single
+ * pass. Each stratum is sampled by its own reservoir and the sample size is split equally among
+ * the strata seen so far, so that rare values of the column are represented in the sample. The
+ * number of strata is capped; records of the values beyond the cap share one more stratum.
+ */
+public class StratifiedReservoirSampler {
+
+    private final int sampleSize;
+    private final int stratificationColumn;
+    private final int maxStrata;
+    private final Random random;
+    private final Map<String, ReservoirSampler<String[]>> strata =
+        new LinkedHashMap<String, ReservoirSampler<String[]>>();
+    // Stratum shared by the values beyond the cap, created on demand.
+    private ReservoirSampler<String[]> otherStratum;
+
+    /**
+     * Creates a stratified reservoir sampler.
+     *
+     * @param sampleSize            Size of the sample
+     * @param stratificationColumn  Index of the column, of which the values define the strata
+     * @param maxStrata             Maximum number of values of the column to be sampled
+     *                              separately
+     * @param random                Source of randomness
+     */
+    protected StratifiedReservoirSampler(int sampleSize, int stratificationColumn, int maxStrata,
+        Random random) {
+        this.sampleSize = sampleSize;
+        this.stratificationColumn = stratificationColumn;
+        this.maxStrata = Math.max(1, maxStrata);
+        this.random = random;
+    }
+
+    /**
+     * Offers a record to the sampler.
+     *
+     * @param record    Cells of the record
+     */
+    protected void offer(String[] record) {
+        String value = record[this.stratificationColumn];
+        ReservoirSampler<String[]> stratum = this.strata.get(value);
+        if (stratum == null) {
+            if (this.strata.size() < this.maxStrata) {
+                stratum = new ReservoirSampler<String[]>(allocate(this.strata.size() + 1),
+                    this.random);
+                this.strata.put(value, stratum);
+            } else {
+                if (this.otherStratum == null) {
+                    this.otherStratum = new ReservoirSampler<String[]>(allocate(this.strata
+                        .size() + 1), this.random);
+                }
+                stratum = this.otherStratum;
+            }
+        }
+        stratum.offer(record);
+    }
+
+    /**
+     * Returns the sample of the records offered so far.
+     *
+     * @return  Sampled records
+     */
+    protected List<String[]> getSample() {
+        List<String[]> sample = new ArrayList<String[]>(this.sampleSize);
+        for (ReservoirSampler<String[]> stratum : this.strata.values()) {
+            sample.addAll(stratum.getSample());
+        }
+        if (this.otherStratum != null) {
+            sample.addAll(this.otherStratum.getSample());
+        }
+        return sample;
+    }
+
+    /*
+     * Calculates the size of the sample of each stratum for the given number of strata, and
+     * shrinks the samples of the existing strata accordingly.
+     */
+    private int allocate(int noOfStrata) {
+        int stratumSize = Math.max(1, this.sampleSize / noOfStrata);
+        for (ReservoirSampler<String[]> stratum : this.strata.values()) {
+            stratum.shrink(stratumSize);
+        }
+        if (this.otherStratum != null) {
+            this.otherStratum.shrink(stratumSize);
+        }
+        return stratumSize;
+    }
+}
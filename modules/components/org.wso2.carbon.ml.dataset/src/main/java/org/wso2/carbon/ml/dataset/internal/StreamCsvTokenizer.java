@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Tokenizes a data-set which arrives as a stream of bytes, e.g. while it is being uploaded. The
+ * stream is read in to a buffer, which is compacted when a record does not fit in to the rest of
+ * the buffer, and enlarged when a record does not fit in to the whole buffer.
+ */
+public class StreamCsvTokenizer extends CsvTokenizer {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    private final InputStream input;
+    private byte[] buffer;
+    private boolean endOfInput;
+
+    /**
+     * Creates a tokenizer for a data-set stream, reading the header from the first record.
+     *
+     * @param input         Stream of the data-set
+     * @param delimiter     Delimiter of the cells, e.g. ',' or '\t'
+     * @throws              IOException
+     */
+    protected StreamCsvTokenizer(InputStream input, char delimiter) throws IOException {
+        this(input, delimiter, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a tokenizer for a data-set stream, reading the header from the first record.
+     *
+     * @param input         Stream of the data-set
+     * @param delimiter     Delimiter of the cells, e.g. ',' or '\t'
+     * @param bufferSize    Initial number of bytes buffered
+     * @throws              IOException
+     */
+    protected StreamCsvTokenizer(InputStream input, char delimiter, int bufferSize)
+            throws IOException {
+        super(delimiter);
+        this.input = input;
+        this.buffer = new byte[bufferSize];
+        this.window = ByteBuffer.wrap(this.buffer);
+        readHeader();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.input.close();
+    }
+
+    @Override
+    protected boolean isEndOfInput() {
+        return this.endOfInput;
+    }
+
+    @Override
+    protected void moveWindow() throws IOException {
+        int remaining = this.windowLimit - this.position;
+        if (remaining == this.buffer.length) {
+            // The record is longer than the buffer.
+            if (this.buffer.length > Integer.MAX_VALUE / 2) {
+                throw new IOException("Record of " + remaining + " bytes is too long.");
+            }
+            this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+            this.window = ByteBuffer.wrap(this.buffer);
+        } else if (this.position > 0) {
+            System.arraycopy(this.buffer, this.position, this.buffer, 0, remaining);
+        }
+        this.position = 0;
+        int read = this.input.read(this.buffer, remaining, this.buffer.length - remaining);
+        if (read < 0) {
+            this.endOfInput = true;
+            this.windowLimit = remaining;
+        } else {
+            this.windowLimit = remaining + read;
+        }
+    }
+}
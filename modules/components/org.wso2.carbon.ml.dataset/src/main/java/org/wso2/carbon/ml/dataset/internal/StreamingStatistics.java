@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+import org.apache.commons.math3.stat.descriptive.moment.Skewness;
+import org.wso2.carbon.ml.commons.sketch.KllSketch;
+
+/**
+ * Column statistics which do not store the values, so that the memory used stays fixed
+ * regardless of the number of values. Moments are calculated exactly using storeless statistics,
+ * while percentiles and interval frequencies are estimated using a KLL quantile sketch.
+ */
+public class StreamingStatistics implements ColumnStatistics {
+
+    private final SummaryStatistics summaryStats = new SummaryStatistics();
+    private final Skewness skewness = new Skewness();
+    private final KllSketch quantileSketch;
+
+    /**
+     * Creates streaming statistics.
+     *
+     * @param quantileAccuracy  Accuracy parameter (k) of the quantile sketch
+     */
+    protected StreamingStatistics(int quantileAccuracy) {
+        this.quantileSketch = new KllSketch(quantileAccuracy);
+    }
+
+    @Override
+    public void addValue(double value) {
+        this.summaryStats.addValue(value);
+        this.skewness.increment(value);
+        this.quantileSketch.update(value);
+    }
+
+    @Override
+    public long getN() {
+        return this.summaryStats.getN();
+    }
+
+    @Override
+    public double getMean() {
+        return this.summaryStats.getMean();
+    }
+
+    @Override
+    public double getStandardDeviation() {
+        return this.summaryStats.getStandardDeviation();
+    }
+
+    @Override
+    public double getSkewness() {
+        return this.skewness.getResult();
+    }
+
+    /**
+     * Returns an estimate of the given percentile of the values.
+     *
+     * @param p     Percentile, between 0 and 100
+     * @return      Estimated percentile
+     */
+    @Override
+    public double getPercentile(double p) {
+        return this.quantileSketch.getQuantile(p / 100);
+    }
+
+    /**
+     * Estimates the frequencies of the intervals from the ranks of their upper bounds in the
+     * quantile sketch. Intervals are of equal width, as with the empirical distribution.
+     *
+     * @param intervals     Number of intervals to be split
+     * @return              Estimated frequencies of each interval
+     */
+    @Override
+    public SortedMap<Integer, Integer> getIntervalFrequencies(int intervals) {
+        SortedMap<Integer, Integer> intervalFrequencies = new TreeMap<Integer, Integer>();
+        double min = this.quantileSketch.getMin();
+        double max = this.quantileSketch.getMax();
+        double intervalWidth = (max - min) / intervals;
+        long previousRank = 0;
+        for (int bin = 0; bin < intervals; bin++) {
+            // The rank of the upper bound of the last interval is the number of values.
+            long rank = bin == intervals - 1 || intervalWidth == 0 ? this.quantileSketch.getN() :
+                this.quantileSketch.getRank(min + (bin + 1) * intervalWidth);
+            intervalFrequencies.put(bin, (int) (rank - previousRank));
+            previousRank = rank;
+        }
+        return intervalFrequencies;
+    }
+}
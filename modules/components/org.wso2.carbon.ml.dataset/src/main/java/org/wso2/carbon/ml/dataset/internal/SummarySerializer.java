@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.text.DecimalFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.wso2.carbon.ml.dataset.dto.FeatureSummary;
+import org.wso2.carbon.ml.dataset.internal.constants.FeatureType;
+
+/**
+ * Writes the summary statistics of columns, one column at a time, as the JSON summary plotted
+ * by the UI and as a compact binary form read by the other components. The JSON is written
+ * straight to a character sink instead of building a tree of JSON objects, and the buffers and
+ * the number format are reused across the columns. Not thread safe.
+ *
+ * Binary layout: version, type, number of unique and missing values, a flag telling which
+ * statistics follow, the raw (unrounded) mean, median, standard deviation and skewness, and the
+ * number of intervals or categories followed by each name and frequency.
+ */
+public class SummarySerializer {
+
+    private static final byte VERSION = 1;
+    private static final byte HAS_STATISTICS = 1;
+    private static final byte HAS_SKEWNESS = 2;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final DecimalFormat decimalFormat = new DecimalFormat("#.###");
+    private final StringBuilder json = new StringBuilder();
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream binary = new DataOutputStream(this.bytes);
+
+    // Column being written.
+    private String type;
+    private SortedMap<?, Integer> graphFrequencies;
+    private int missing;
+    private int unique;
+    private boolean hasStatistics;
+    private boolean hasSkewness;
+    private double mean;
+    private double median;
+    private double std;
+    private double skewness;
+
+    /**
+     * Sets the column to be written. The statistics of the column are calculated once, for both
+     * the forms of the summary.
+     *
+     * @param type              Data-type of the column
+     * @param graphFrequencies  Bin frequencies of the column
+     * @param missing           Number of missing values in the column
+     * @param unique            Number of unique values in the column
+     * @param descriptiveStats  Statistics of the numeric values of the column
+     */
+    protected void setColumn(String type, SortedMap<?, Integer> graphFrequencies, int missing,
+        int unique, ColumnStatistics descriptiveStats) {
+        this.type = type;
+        this.graphFrequencies = graphFrequencies;
+        this.missing = missing;
+        this.unique = unique;
+        this.hasStatistics = descriptiveStats.getN() != 0;
+        this.hasSkewness = this.hasStatistics && type.equalsIgnoreCase(FeatureType.NUMERICAL);
+        if (this.hasStatistics) {
+            this.mean = descriptiveStats.getMean();
+            this.median = descriptiveStats.getPercentile(50);
+            this.std = descriptiveStats.getStandardDeviation();
+        }
+        if (this.hasSkewness) {
+            this.skewness = descriptiveStats.getSkewness();
+        }
+    }
+
+    /**
+     * Returns the JSON summary of the current column, as plotted by the UI.
+     *
+     * @return  JSON representation of the summary statistics of the column
+     */
+    protected String toJson() {
+        this.json.setLength(0);
+        try {
+            writeJson(this.json);
+        } catch (IOException e) {
+            // Not thrown by a string builder.
+            throw new IllegalStateException(e);
+        }
+        return this.json.toString();
+    }
+
+    /**
+     * Writes the JSON summary of the current column to a character sink.
+     *
+     * @param out   Sink to write to
+     * @throws      IOException If the sink fails
+     */
+    protected void writeJson(Appendable out) throws IOException {
+        out.append("[{\"unique\":").append(String.valueOf(this.unique));
+        out.append(",\"missing\":").append(String.valueOf(this.missing));
+        if (this.hasStatistics) {
+            writeStatistic(out, "mean", this.mean);
+            writeStatistic(out, "median", this.median);
+            writeStatistic(out, "std", this.std);
+            if (this.hasSkewness) {
+                writeStatistic(out, "skewness", this.skewness);
+            }
+        }
+        // Intervals/categories and their frequencies.
+        out.append(",\"values\":[");
+        boolean first = true;
+        for (Map.Entry<?, Integer> frequency : this.graphFrequencies.entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            out.append('[');
+            writeString(out, frequency.getKey().toString());
+            out.append(',').append(String.valueOf(frequency.getValue())).append(']');
+        }
+        out.append("],\"bar\":true,\"key\":\"Frequency\"}]");
+    }
+
+    /**
+     * Returns the binary summary of the current column.
+     *
+     * @return  Binary representation of the summary statistics of the column
+     */
+    protected byte[] toBinary() {
+        this.bytes.reset();
+        try {
+            this.binary.writeByte(VERSION);
+            writeUtf(this.binary, this.type);
+            this.binary.writeInt(this.unique);
+            this.binary.writeInt(this.missing);
+            this.binary.writeByte((this.hasStatistics ? HAS_STATISTICS : 0) |
+                (this.hasSkewness ? HAS_SKEWNESS : 0));
+            if (this.hasStatistics) {
+                this.binary.writeDouble(this.mean);
+                this.binary.writeDouble(this.median);
+                this.binary.writeDouble(this.std);
+            }
+            if (this.hasSkewness) {
+                this.binary.writeDouble(this.skewness);
+            }
+            this.binary.writeInt(this.graphFrequencies.size());
+            for (Map.Entry<?, Integer> frequency : this.graphFrequencies.entrySet()) {
+                writeUtf(this.binary, frequency.getKey().toString());
+                this.binary.writeInt(frequency.getValue());
+            }
+            this.binary.flush();
+        } catch (IOException e) {
+            // Not thrown by a byte array stream.
+            throw new IllegalStateException(e);
+        }
+        return this.bytes.toByteArray();
+    }
+
+    /**
+     * Reads a binary summary.
+     *
+     * @param data  Binary summary of a column
+     * @return      Summary statistics of the column
+     * @throws      IOException If the data is not a binary summary
+     */
+    protected static FeatureSummary readBinary(byte[] data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try {
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported summary version: " + version);
+            }
+            FeatureSummary summary = new FeatureSummary();
+            summary.setType(readUtf(buffer));
+            summary.setUnique(buffer.getInt());
+            summary.setMissing(buffer.getInt());
+            byte flags = buffer.get();
+            if ((flags & HAS_STATISTICS) != 0) {
+                summary.setMean(buffer.getDouble());
+                summary.setMedian(buffer.getDouble());
+                summary.setStd(buffer.getDouble());
+            }
+            if ((flags & HAS_SKEWNESS) != 0) {
+                summary.setSkewness(buffer.getDouble());
+            }
+            int noOfValues = buffer.getInt();
+            Map<String, Integer> frequencies = new LinkedHashMap<String, Integer>();
+            for (int i = 0; i < noOfValues; i++) {
+                String name = readUtf(buffer);
+                frequencies.put(name, buffer.getInt());
+            }
+            summary.setFrequencies(frequencies);
+            return summary;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Binary summary is truncated.", e);
+        }
+    }
+
+    private void writeStatistic(Appendable out, String name, double value) throws IOException {
+        // Statistics are written as strings rounded to three decimals, as the UI expects.
+        out.append(",\"").append(name).append("\":");
+        writeString(out, this.decimalFormat.format(value));
+    }
+
+    /*
+     * Writes a JSON string literal, escaping the characters JSON does not allow in strings.
+     */
+    private static void writeString(Appendable out, String value) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            case '\t':
+                out.append("\\t");
+                break;
+            default:
+                if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                    out.append("\\u").append(HEX_DIGITS[c >> 12])
+                        .append(HEX_DIGITS[(c >> 8) & 0xF]).append(HEX_DIGITS[(c >> 4) & 0xF])
+                        .append(HEX_DIGITS[c & 0xF]);
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private static void writeUtf(DataOutputStream output, String value) throws IOException {
+        byte[] encoded = value.getBytes(UTF_8);
+        output.writeInt(encoded.length);
+        output.write(encoded);
+    }
+
+    private static String readUtf(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Binary summary is truncated.");
+        }
+        String value = new String(buffer.array(), buffer.position(), length, UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
+import org.wso2.carbon.ml.dataset.dto.UploadProgress;
+
+/**
+ * Tees an uploaded data-set to a file and to the summary calculation in a single read. The copy
+ * stage reads the upload in chunks, writes each chunk to the file and hands it over to the
+ * summary stream, through a bounded buffer of chunks. The chunks are recycled, so that the
+ * memory used is fixed by the size of the buffer. If the summary stream is closed before the end
+ * of the upload, e.g. when only the head of the data-set is summarized, the rest of the upload is
+ * only written to the file. If the upload fails or is aborted, the partially written file is
+ * deleted.
+ */
+public class UploadPipeline {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int MIN_CHUNKS = 2;
+    // Marks the end of the upload in the queue of filled chunks.
+    private static final Chunk END_OF_UPLOAD = new Chunk(0);
+
+    private final InputStream source;
+    private final File targetFile;
+    private final UploadProgress progress;
+    private final BlockingQueue<Chunk> freeChunks;
+    private final BlockingQueue<Chunk> filledChunks;
+    private final SummaryStream summaryStream = new SummaryStream();
+    private volatile boolean summaryClosed;
+    private volatile boolean aborted;
+    private volatile IOException uploadFailure;
+    private Future<Long> upload;
+
+    /**
+     * Creates an upload pipeline.
+     *
+     * @param source        Input stream of the uploaded data-set
+     * @param targetFile    File to which the data-set is written
+     * @param bufferSize    Number of bytes buffered between the copy stage and the summary
+     *                      calculation
+     * @param progress      Progress of the upload, to which the number of bytes written is
+     *                      reported, or null
+     */
+    protected UploadPipeline(InputStream source, File targetFile, int bufferSize,
+        UploadProgress progress) {
+        this.source = source;
+        this.targetFile = targetFile;
+        this.progress = progress;
+        int noOfChunks = Math.max(MIN_CHUNKS, bufferSize / CHUNK_SIZE);
+        this.freeChunks = new ArrayBlockingQueue<Chunk>(noOfChunks);
+        // One more slot, so that the end of the upload can always be queued.
+        this.filledChunks = new ArrayBlockingQueue<Chunk>(noOfChunks + 1);
+        for (int i = 0; i < noOfChunks; i++) {
+            this.freeChunks.add(new Chunk(CHUNK_SIZE));
+        }
+    }
+
+    /**
+     * Starts copying the upload to the file.
+     *
+     * @param executor  Executor to run the copy stage on
+     */
+    protected void start(ExecutorService executor) {
+        this.upload = executor.submit(new Callable<Long>() {
+            @Override
+            public Long call() throws IOException {
+                return copy();
+            }
+        });
+    }
+
+    /**
+     * Returns the stream of the uploaded bytes, to be read by the summary calculation. The
+     * stream has to be closed once the summary calculation is done.
+     *
+     * @return  Stream of the uploaded bytes
+     */
+    protected InputStream getSummaryStream() {
+        return this.summaryStream;
+    }
+
+    /**
+     * Waits until the whole upload has been written to the file.
+     *
+     * @return  Number of bytes written to the file
+     * @throws  IOException
+     */
+    protected long awaitCompletion() throws IOException {
+        try {
+            return this.upload.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading " + this.targetFile);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error occured while uploading " + this.targetFile + ": " +
+                e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Aborts the upload, e.g. when the summary calculation fails, and waits until the copy stage
+     * has stopped and deleted the partially written file. The copy stage stops before the next
+     * chunk of the upload.
+     */
+    protected void abort() {
+        this.aborted = true;
+        this.summaryStream.close();
+        if (this.upload == null) {
+            return;
+        }
+        try {
+            awaitCompletion();
+        } catch (InterruptedIOException e) {
+            // The interrupt status is restored, and the copy stage stops on its own.
+        } catch (IOException e) {
+            // The failure, which caused the upload to be aborted, is reported instead.
+        }
+    }
+
+    /*
+     * Copy stage: reads the upload chunk by chunk, writing each chunk to the file and handing it
+     * over to the summary stream.
+     */
+    private long copy() throws IOException {
+        OutputStream output = null;
+        long noOfBytes = 0;
+        try {
+            File parent = this.targetFile.getParentFile();
+            if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Failed to create the directory " + parent);
+            }
+            output = new FileOutputStream(this.targetFile);
+            Chunk chunk;
+            while ((chunk = this.freeChunks.take()).fill(this.source)) {
+                if (this.aborted) {
+                    throw new IOException("Upload of " + this.targetFile + " is aborted.");
+                }
+                output.write(chunk.data, 0, chunk.length);
+                noOfBytes += chunk.length;
+                if (this.progress != null) {
+                    this.progress.setBytesWritten(noOfBytes);
+                }
+                if (this.summaryClosed) {
+                    this.freeChunks.add(chunk);
+                } else {
+                    this.filledChunks.put(chunk);
+                }
+            }
+            this.freeChunks.add(chunk);
+            output.close();
+            output = null;
+            return noOfBytes;
+        } catch (IOException e) {
+            this.uploadFailure = e;
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.uploadFailure = new InterruptedIOException("Interrupted while uploading " +
+                this.targetFile);
+            throw this.uploadFailure;
+        } finally {
+            this.filledChunks.offer(END_OF_UPLOAD);
+            if (output != null) {
+                try {
+                    output.close();
+                } catch (IOException e) {
+                    // The failure of the copy is reported instead.
+                }
+                FileUtils.deleteQuietly(this.targetFile);
+            }
+        }
+    }
+
+    /**
+     * Buffer holding a chunk of the upload.
+     */
+    private static class Chunk {
+        private final byte[] data;
+        private int length;
+
+        private Chunk(int size) {
+            this.data = new byte[size];
+        }
+
+        /*
+         * Reads the next chunk of the upload, returning false at the end of the upload.
+         */
+        private boolean fill(InputStream input) throws IOException {
+            this.length = 0;
+            int read;
+            while (this.length < this.data.length && (read = input.read(this.data, this.length,
+                    this.data.length - this.length)) >= 0) {
+                this.length += read;
+            }
+            return this.length > 0;
+        }
+    }
+
+    /**
+     * Stream of the uploaded bytes, which reads the chunks filled by the copy stage and returns
+     * them to the copy stage once read.
+     */
+    private class SummaryStream extends InputStream {
+        private Chunk current;
+        private int offset;
+        private boolean ended;
+        private boolean closed;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (this.closed) {
+                throw new IOException("Summary stream of " + targetFile + " is closed.");
+            }
+            if (len == 0) {
+                return 0;
+            }
+            while (this.current == null) {
+                if (this.ended) {
+                    return -1;
+                }
+                Chunk chunk;
+                try {
+                    chunk = filledChunks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while reading the upload of " +
+                        targetFile);
+                }
+                if (chunk == END_OF_UPLOAD) {
+                    this.ended = true;
+                    if (uploadFailure != null) {
+                        throw new IOException("Error occured while uploading " + targetFile +
+                            ": " + uploadFailure.getMessage(), uploadFailure);
+                    }
+                } else {
+                    this.current = chunk;
+                    this.offset = 0;
+                }
+            }
+            int count = Math.min(len, this.current.length - this.offset);
+            System.arraycopy(this.current.data, this.offset, buffer, off, count);
+            this.offset += count;
+            if (this.offset == this.current.length) {
+                freeChunks.add(this.current);
+                this.current = null;
+            }
+            return count;
+        }
+
+        /**
+         * Stops handing over the chunks to the summary stream, and returns the buffered chunks
+         * to the copy stage.
+         */
+        @Override
+        public void close() {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            summaryClosed = true;
+            if (this.current != null) {
+                freeChunks.add(this.current);
+                this.current = null;
+            }
+            Chunk chunk;
+            while ((chunk = filledChunks.poll()) != null) {
+                if (chunk != END_OF_UPLOAD) {
+                    freeChunks.add(chunk);
+                }
+            }
+        }
+    }
+}
@@ -26,12 +26,23 @@ public class DatasetConfigurations {
     public static final String UPLOAD_LOCATION = "uploadLocation";
     public static final String IN_MEMORY_THRESHOLD = "inMemoryThreshold";
     public static final String UPLOAD_LIMIT = "uploadLimit";
+    public static final String UPLOAD_BUFFER_SIZE = "uploadBufferSize";
+    public static final String UPLOAD_THREADS = "uploadThreads";
+    public static final String UPLOAD_QUEUE_SIZE = "uploadQueueSize";
     
     // Summary statistic calculation configurations  
     public static final String SUMMARY_STATISTICS_SETTINGS = "summaryStatisticsSettings";
     public static final String HISTOGRAM_BINS = "histogramBins";
     public static final String CATEGORICAL_THRESHOLD = "categoricalThreshold";
     public static final String SAMPLE_SIZE = "sampleSize";
+    public static final String PARALLELISM = "parallelism";
+    public static final String MAX_TRACKED_VALUES = "maxTrackedValues";
+    public static final String PROFILE_FULL_DATASET = "profileFullDataset";
+    public static final String SAMPLING_METHOD = "samplingMethod";
+    public static final String STRATIFICATION_COLUMN = "stratificationColumn";
+    public static final String SUMMARY_BATCH_SIZE = "summaryBatchSize";
+    public static final String SAMPLE_CACHE_SIZE = "sampleCacheSize";
+    public static final String FEATURE_PAGE_CACHE_SIZE = "featurePageCacheSize";
     
     // System property names
     public static final String HOME = "user.home";
@@ -20,6 +20,8 @@ package org.wso2.carbon.ml.dataset.internal.constants;
 public class ImputeOption {
 	public static final String DISCARD = "DISCARD";
 	public static final String REPLACE_WTH_MEAN = "REPLACE_WTH_MEAN";
+	public static final String REPLACE_WTH_MEDIAN = "REPLACE_WTH_MEDIAN";
+	public static final String REPLACE_WTH_MODE = "REPLACE_WTH_MODE";
 	public static final String REGRESSION_IMPUTATION = "REGRESSION_IMPUTATION";
 	
 	/*
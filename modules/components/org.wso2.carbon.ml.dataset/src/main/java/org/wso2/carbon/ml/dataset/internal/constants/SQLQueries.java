@@ -32,9 +32,22 @@ public class SQLQueries {
 	        "WORKFLOW.WORKFLOW_ID=?) AS WORKFLOW_SETTINGS ON WORKFLOW_SETTINGS.FEATURE_NAME = " +
 	        "DEFAULT.FEATURE_NAME ORDER BY DEFAULT.FEATURE_NAME LIMIT ? OFFSET ?";
 
+	// Seeks past the last feature of the previous page on the (DATASET_ID, FEATURE_NAME) index,
+	// instead of sorting and skipping the features of all the previous pages.
+	public static final String GET_FEATURES_AFTER = "SELECT DEFAULT.FEATURE_NAME, " +
+	        "DEFAULT.SUMMARY, SETTINGS.TYPE, SETTINGS.INCLUDE, SETTINGS.IMPUTE_METHOD FROM " +
+	        "ML_FEATURE_DEFAULTS DEFAULT INNER JOIN ML_FEATURE_SETTINGS SETTINGS ON " +
+	        "SETTINGS.FEATURE_NAME = DEFAULT.FEATURE_NAME INNER JOIN ML_WORKFLOW WORKFLOW ON " +
+	        "WORKFLOW.WORKFLOW_ID = SETTINGS.WORKFLOW_ID AND WORKFLOW.DATASET_ID = " +
+	        "DEFAULT.DATASET_ID WHERE DEFAULT.DATASET_ID=? AND SETTINGS.WORKFLOW_ID=? AND " +
+	        "DEFAULT.FEATURE_NAME > ? ORDER BY DEFAULT.FEATURE_NAME LIMIT ?";
+
 	public static final String GET_SUMMARY_STATS = "SELECT SUMMARY FROM ML_FEATURE_DEFAULTS WHERE" +
 	        " FEATURE_NAME=? AND DATASET_ID=?";
 
+	public static final String GET_SUMMARY_DATA = "SELECT SUMMARY_DATA FROM ML_FEATURE_DEFAULTS " +
+	        "WHERE FEATURE_NAME=? AND DATASET_ID=?";
+
 	public static final String INSERT_DATASET = "INSERT INTO ML_DATASET(DATASET_ID, DATASET_URL, " +
 	        "PROJECT_ID) VALUES(?,?,?)";
 
@@ -53,7 +66,8 @@ public class SQLQueries {
 	        "IMPUTE_METHOD = ? WHERE FEATURE_NAME = ? AND WORKFLOW_ID = ?";
 
 	public static final String UPDATE_SUMMARY_STATS = "MERGE INTO ML_FEATURE_DEFAULTS(FEATURE_NAME," +
-	        " FEATURE_INDEX, DATASET_ID, SUMMARY, TYPE, IMPUTE_METHOD, INCLUDE) VALUES(?,?,?,?,?,?,?)";
+	        " FEATURE_INDEX, DATASET_ID, SUMMARY, SUMMARY_DATA, TYPE, IMPUTE_METHOD, INCLUDE) " +
+	        "VALUES(?,?,?,?,?,?,?,?)";
 
 	public static final String UPDATE_SAMPLE_POINTS = "UPDATE ML_DATASET SET SAMPLE_POINTS=? "
 			+ "where DATASET_ID=?";
@@ -21,6 +21,9 @@ public class DataUploadSettings {
 	private String uploadLocation;
 	private int inMemoryThreshold;
 	private long uploadLimit;
+	private int uploadBufferSize;
+	private int uploadThreads;
+	private int uploadQueueSize;
 
 	/**
 	 * Returns Data upload directory.
@@ -75,4 +78,58 @@ public class DataUploadSettings {
 	public void setUploadLimit(long uploadLimit) {
 		this.uploadLimit = uploadLimit;
 	}
+
+	/**
+	 * Returns the number of bytes buffered between the upload and the summary calculation.
+	 *
+	 * @return Size of the upload buffer in bytes
+	 */
+	public int getUploadBufferSize() {
+		return uploadBufferSize;
+	}
+
+	/**
+	 * Sets the number of bytes buffered between the upload and the summary calculation.
+	 *
+	 * @param uploadBufferSize Size of the upload buffer in bytes
+	 */
+	public void setUploadBufferSize(int uploadBufferSize) {
+		this.uploadBufferSize = uploadBufferSize;
+	}
+
+	/**
+	 * Returns the number of uploads processed concurrently.
+	 *
+	 * @return Number of upload threads
+	 */
+	public int getUploadThreads() {
+		return uploadThreads;
+	}
+
+	/**
+	 * Sets the number of uploads processed concurrently.
+	 *
+	 * @param uploadThreads Number of upload threads
+	 */
+	public void setUploadThreads(int uploadThreads) {
+		this.uploadThreads = uploadThreads;
+	}
+
+	/**
+	 * Returns the maximum number of asynchronous uploads waiting to be processed.
+	 *
+	 * @return Size of the upload queue
+	 */
+	public int getUploadQueueSize() {
+		return uploadQueueSize;
+	}
+
+	/**
+	 * Sets the maximum number of asynchronous uploads waiting to be processed.
+	 *
+	 * @param uploadQueueSize Size of the upload queue
+	 */
+	public void setUploadQueueSize(int uploadQueueSize) {
+		this.uploadQueueSize = uploadQueueSize;
+	}
 }
@@ -22,6 +22,14 @@ public class SummaryStatisticsSettings {
 	private int histogramBins;
 	private int categoricalThreshold;
 	private int sampleSize;
+	private int parallelism;
+	private int maxTrackedValues;
+	private boolean profileFullDataset;
+	private String samplingMethod;
+	private String stratificationColumn;
+	private int summaryBatchSize;
+	private long sampleCacheSize;
+	private int featurePageCacheSize;
 
 	/**
 	 * Returns the number of bins for the histogram.
@@ -76,4 +84,148 @@ public class SummaryStatisticsSettings {
 	public void setSampleSize(int sampleSize) {
 		this.sampleSize = sampleSize;
 	}
+
+	/**
+	 * Returns number of threads used to calculate summary statistics of the columns.
+	 *
+	 * @return Number of threads used to calculate summary statistics
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets number of threads used to calculate summary statistics of the columns.
+	 *
+	 * @param parallelism Number of threads used to calculate summary statistics
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Returns maximum number of distinct values of a column, of which the frequencies are tracked.
+	 *
+	 * @return Maximum number of distinct values of which the frequencies are tracked
+	 */
+	public int getMaxTrackedValues() {
+		return maxTrackedValues;
+	}
+
+	/**
+	 * Sets maximum number of distinct values of a column, of which the frequencies are tracked.
+	 *
+	 * @param maxTrackedValues Maximum number of distinct values of which the frequencies are tracked
+	 */
+	public void setMaxTrackedValues(int maxTrackedValues) {
+		this.maxTrackedValues = maxTrackedValues;
+	}
+
+	/**
+	 * Returns whether summary statistics are calculated over all the records of the data-set.
+	 *
+	 * @return True if all the records are profiled, false if only the sample is profiled
+	 */
+	public boolean isProfileFullDataset() {
+		return profileFullDataset;
+	}
+
+	/**
+	 * Sets whether summary statistics are calculated over all the records of the data-set.
+	 *
+	 * @param profileFullDataset True to profile all the records, false to profile only the sample
+	 */
+	public void setProfileFullDataset(boolean profileFullDataset) {
+		this.profileFullDataset = profileFullDataset;
+	}
+
+	/**
+	 * Returns method of drawing the data sample.
+	 *
+	 * @return Method of drawing the data sample
+	 */
+	public String getSamplingMethod() {
+		return samplingMethod;
+	}
+
+	/**
+	 * Sets method of drawing the data sample.
+	 *
+	 * @param samplingMethod Method of drawing the data sample
+	 */
+	public void setSamplingMethod(String samplingMethod) {
+		this.samplingMethod = samplingMethod;
+	}
+
+	/**
+	 * Returns name of the column, of which the values define the strata of a stratified sample.
+	 *
+	 * @return Name of the column which defines the strata
+	 */
+	public String getStratificationColumn() {
+		return stratificationColumn;
+	}
+
+	/**
+	 * Sets name of the column, of which the values define the strata of a stratified sample.
+	 *
+	 * @param stratificationColumn Name of the column which defines the strata
+	 */
+	public void setStratificationColumn(String stratificationColumn) {
+		this.stratificationColumn = stratificationColumn;
+	}
+
+	/**
+	 * Returns number of feature summaries written to the database in a single batch.
+	 *
+	 * @return Number of feature summaries in a batch
+	 */
+	public int getSummaryBatchSize() {
+		return summaryBatchSize;
+	}
+
+	/**
+	 * Sets number of feature summaries written to the database in a single batch.
+	 *
+	 * @param summaryBatchSize Number of feature summaries in a batch
+	 */
+	public void setSummaryBatchSize(int summaryBatchSize) {
+		this.summaryBatchSize = summaryBatchSize;
+	}
+
+	/**
+	 * Returns maximum number of bytes retained by the cache of decoded data-set samples.
+	 *
+	 * @return Size of the sample cache in bytes, zero if samples are not cached
+	 */
+	public long getSampleCacheSize() {
+		return sampleCacheSize;
+	}
+
+	/**
+	 * Sets maximum number of bytes retained by the cache of decoded data-set samples.
+	 *
+	 * @param sampleCacheSize Size of the sample cache in bytes, zero to disable the cache
+	 */
+	public void setSampleCacheSize(long sampleCacheSize) {
+		this.sampleCacheSize = sampleCacheSize;
+	}
+
+	/**
+	 * Returns maximum number of work-flows of which the pages of features are cached.
+	 *
+	 * @return Size of the feature page cache, zero if pages are not cached
+	 */
+	public int getFeaturePageCacheSize() {
+		return featurePageCacheSize;
+	}
+
+	/**
+	 * Sets maximum number of work-flows of which the pages of features are cached.
+	 *
+	 * @param featurePageCacheSize Size of the feature page cache, zero to disable the cache
+	 */
+	public void setFeaturePageCacheSize(int featurePageCacheSize) {
+		this.featurePageCacheSize = featurePageCacheSize;
+	}
 }
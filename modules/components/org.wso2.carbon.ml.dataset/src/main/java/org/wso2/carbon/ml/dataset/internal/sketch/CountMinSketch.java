@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal.sketch;
+
+/**
+ * Count-Min sketch, which estimates the frequencies of the values of a stream in a fixed amount
+ * of memory. Estimates never underestimate the actual frequency, and overestimate it by at most
+ * e * N / width with a probability of 1 - exp(-depth), where N is the number of values added.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int widthMask;
+    private final long[][] table;
+
+    /**
+     * Creates a Count-Min sketch.
+     *
+     * @param depth     Number of hash functions (rows)
+     * @param width     Number of counters per row. Rounded up to a power of two.
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("Depth and width should be positive: " + depth +
+                ", " + width);
+        }
+        int roundedWidth = Integer.highestOneBit(width);
+        if (roundedWidth < width) {
+            roundedWidth <<= 1;
+        }
+        this.depth = depth;
+        this.widthMask = roundedWidth - 1;
+        this.table = new long[depth][roundedWidth];
+    }
+
+    /**
+     * Increases the frequency of a value by one.
+     *
+     * @param value     Value to be added
+     */
+    public void add(String value) {
+        long hash = SketchHash.hash64(value);
+        for (int row = 0; row < this.depth; row++) {
+            this.table[row][index(hash, row)]++;
+        }
+    }
+
+    /**
+     * Returns the estimated frequency of a value.
+     *
+     * @param value     Value of which the frequency is needed
+     * @return          Estimated frequency of the value
+     */
+    public long estimate(String value) {
+        long hash = SketchHash.hash64(value);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < this.depth; row++) {
+            estimate = Math.min(estimate, this.table[row][index(hash, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Merges another sketch of the same dimensions in to this sketch.
+     *
+     * @param other     Sketch to be merged
+     */
+    public void merge(CountMinSketch other) {
+        if (other.depth != this.depth || other.widthMask != this.widthMask) {
+            throw new IllegalArgumentException("Cannot merge sketches of different dimensions.");
+        }
+        for (int row = 0; row < this.depth; row++) {
+            for (int column = 0; column <= this.widthMask; column++) {
+                this.table[row][column] += other.table[row][column];
+            }
+        }
+    }
+
+    /*
+     * Derives the counter index of a row from the two halves of the hash (Kirsch-Mitzenmacher).
+     */
+    private int index(long hash, int row) {
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        return (hash1 + row * hash2) & this.widthMask;
+    }
+}
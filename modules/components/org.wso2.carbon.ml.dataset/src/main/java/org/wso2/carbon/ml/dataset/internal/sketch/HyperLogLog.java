@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal.sketch;
+
+/**
+ * HyperLogLog sketch, which estimates the number of distinct values of a stream in a fixed
+ * amount of memory. With a precision of p, the sketch uses 2^p single byte registers and has a
+ * relative standard error of about 1.04 / sqrt(2^p).
+ */
+public class HyperLogLog {
+
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Creates a HyperLogLog sketch.
+     *
+     * @param precision     Number of bits of the hash used to select a register (4 - 16)
+     */
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("Precision should be between 4 and 16: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value     Value to be added
+     */
+    public void add(String value) {
+        addHash(SketchHash.hash64(value));
+    }
+
+    /**
+     * Adds the 64 bit hash of a value to the sketch.
+     *
+     * @param hash  Hash of the value
+     */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - this.precision));
+        // Position of the first set bit of the remaining bits. A sentinel bit bounds the result.
+        int rank = Long.numberOfLeadingZeros((hash << this.precision) |
+            (1L << (this.precision - 1))) + 1;
+        if (rank > this.registers[index]) {
+            this.registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Returns the estimated number of distinct values added to the sketch.
+     *
+     * @return  Estimated number of distinct values
+     */
+    public long estimate() {
+        int m = this.registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : this.registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        // Use linear counting for small cardinalities, where the raw estimate is biased.
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Merges another sketch of the same precision in to this sketch.
+     *
+     * @param other     Sketch to be merged
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != this.precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of different precisions: " +
+                this.precision + " and " + other.precision);
+        }
+        for (int i = 0; i < this.registers.length; i++) {
+            if (other.registers[i] > this.registers[i]) {
+                this.registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /*
+     * Bias correction constant for the given number of registers.
+     */
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal.sketch;
+
+/**
+ * 64 bit hash function shared by the sketches. String.hashCode() is only 32 bits wide and poorly
+ * distributed, which is not sufficient for cardinality estimation of large data-sets.
+ */
+public class SketchHash {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /*
+     * private Constructor to prevent any other class from instantiating.
+     */
+    private SketchHash() {
+    }
+
+    /**
+     * Returns the 64 bit hash of a string.
+     *
+     * @param value     String to be hashed
+     * @return          64 bit hash of the string
+     */
+    public static long hash64(String value) {
+        // FNV-1a over the characters, followed by the finalizer to avalanche the bits.
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash64(hash);
+    }
+
+    /**
+     * Returns the 64 bit hash of a long, e.g. the bits of a double.
+     *
+     * @param value     Long to be hashed
+     * @return          64 bit hash of the long
+     */
+    public static long hash64(long value) {
+        // MurmurHash3 finalizer, which avalanches the bits.
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.dataset.internal.constants.FeatureType;
+
+public class ColumnSummaryTest {
+
+    @Test
+    public void testRawCategories() {
+        ColumnSummary summary = new ColumnSummary(0, false);
+        // The column is not known to hold strings until the second cell.
+        summary.addNumber(2, null);
+        summary.addText("a");
+        summary.addNumber(7, "007");
+        summary.addNumber(7, "7");
+        summary.addValue("1");
+        summary.addValue("1.0");
+        summary.addValue("1");
+        summary.finish(10, 4);
+        SortedMap<String, Integer> expected = new TreeMap<String, Integer>();
+        expected.put("2.0", 1);
+        expected.put("a", 1);
+        expected.put("007", 1);
+        expected.put("7", 1);
+        expected.put("1", 2);
+        expected.put("1.0", 1);
+        Assert.assertEquals(summary.getType(), FeatureType.CATEGORICAL, "Type doesn't match");
+        Assert.assertEquals(summary.getGraphFrequencies(), expected,
+            "Categories are not named by their raw text");
+        Assert.assertEquals(summary.getUnique(), 6, "Unique count doesn't match");
+    }
+}
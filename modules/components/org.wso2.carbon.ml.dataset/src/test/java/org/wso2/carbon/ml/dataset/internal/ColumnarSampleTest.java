@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.dataset.dto.SamplePoints;
+
+public class ColumnarSampleTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        SamplePoints sample = createSample();
+        ColumnarSample encoded = new ColumnarSample(ColumnarSample.encode(sample));
+        Assert.assertEquals(encoded.getHeader(), sample.getHeader());
+        Assert.assertEquals(encoded.getRowCount(), 4);
+        Assert.assertTrue(encoded.isNumeric(0));
+        Assert.assertTrue(encoded.isNumeric(1));
+        Assert.assertFalse(encoded.isNumeric(2));
+        Assert.assertFalse(encoded.isNumeric(3));
+        // Cells are restored exactly, with missing cells as empty strings.
+        Assert.assertEquals(encoded.toSamplePoints().getSamplePoints(), sample.getSamplePoints());
+        Assert.assertTrue(encoded.isMissing(1, 2));
+        Assert.assertFalse(encoded.isMissing(1, 3));
+    }
+
+    @Test
+    public void testNumbers() throws IOException {
+        ColumnarSample encoded = new ColumnarSample(ColumnarSample.encode(createSample()));
+        Assert.assertTrue(Arrays.equals(encoded.getNumbers(0), new double[] { 1.5, -2.25, 0.0,
+            1.0E-7 }));
+        double[] mixed = encoded.getNumbers(3);
+        Assert.assertEquals(mixed[0], 1.0, 0);
+        Assert.assertEquals(mixed[1], 2.5, 0);
+        Assert.assertTrue(Double.isNaN(mixed[2]));
+        Assert.assertEquals(mixed[3], 1000.0, 0);
+    }
+
+    @Test
+    public void testSerializedSample() throws IOException {
+        SamplePoints sample = createSample();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream output = new ObjectOutputStream(bytes);
+        output.writeObject(sample);
+        output.close();
+        ColumnarSample read = ColumnarSample.read(bytes.toByteArray());
+        Assert.assertEquals(read.toSamplePoints().getSamplePoints(), sample.getSamplePoints());
+    }
+
+    @Test
+    public void testCorruptedSample() throws IOException {
+        byte[] data = ColumnarSample.encode(createSample());
+        try {
+            new ColumnarSample(Arrays.copyOf(data, 30));
+            Assert.fail("Truncated sample is not detected.");
+        } catch (IOException e) {
+            // Expected.
+        }
+        data[4] = 99;
+        try {
+            ColumnarSample.read(data);
+            Assert.fail("Unknown version is not detected.");
+        } catch (IOException e) {
+            // Expected.
+        }
+    }
+
+    private static SamplePoints createSample() {
+        Map<String, Integer> header = new LinkedHashMap<String, Integer>();
+        header.put("real", 0);
+        header.put("count", 1);
+        header.put("label", 2);
+        header.put("mixed", 3);
+        List<List<String>> columns = new ArrayList<List<String>>();
+        columns.add(Arrays.asList("1.5", "-2.25", "0.0", "1.0E-7"));
+        columns.add(Arrays.asList("3", "-12", "", "100000"));
+        columns.add(Arrays.asList("yes", "no", "yes", "\u00e9t\u00e9"));
+        // Numbers written in different ways are kept as they are.
+        columns.add(Arrays.asList("1", "2.50", "", "1e3"));
+        SamplePoints sample = new SamplePoints();
+        sample.setHeader(header);
+        sample.setSamplePoints(columns);
+        return sample;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.dataset.dto.Feature;
+
+public class FeaturePageCacheTest {
+
+    @Test
+    public void testPages() {
+        FeaturePageCache cache = new FeaturePageCache(2);
+        cache.put("d1", "w1", "#0:10", createPage("a"), cache.getGeneration());
+        cache.put("d1", "w1", "#10:10", createPage("b"), cache.getGeneration());
+        Assert.assertEquals(cache.get("d1", "w1", "#0:10").get(0).getFieldName(), "a");
+        Assert.assertEquals(cache.get("d1", "w1", "#10:10").get(0).getFieldName(), "b");
+        Assert.assertNull(cache.get("d1", "w1", "#20:10"));
+        // Pages of a work-flow are not returned for another data-set.
+        Assert.assertNull(cache.get("d2", "w1", "#0:10"));
+    }
+
+    @Test
+    public void testEviction() {
+        FeaturePageCache cache = new FeaturePageCache(2);
+        cache.put("d1", "w1", "#0:10", createPage("a"), cache.getGeneration());
+        cache.put("d1", "w2", "#0:10", createPage("a"), cache.getGeneration());
+        // Accessing w1 makes w2 the least recently used work-flow.
+        Assert.assertNotNull(cache.get("d1", "w1", "#0:10"));
+        cache.put("d2", "w3", "#0:10", createPage("a"), cache.getGeneration());
+        Assert.assertNull(cache.get("d1", "w2", "#0:10"));
+        Assert.assertNotNull(cache.get("d1", "w1", "#0:10"));
+        Assert.assertNotNull(cache.get("d2", "w3", "#0:10"));
+    }
+
+    @Test
+    public void testInvalidation() {
+        FeaturePageCache cache = new FeaturePageCache(10);
+        cache.put("d1", "w1", "#0:10", createPage("a"), cache.getGeneration());
+        cache.put("d1", "w2", "#0:10", createPage("a"), cache.getGeneration());
+        cache.put("d2", "w3", "#0:10", createPage("a"), cache.getGeneration());
+        long generation = cache.getGeneration();
+        cache.invalidateWorkflow("w1");
+        Assert.assertNull(cache.get("d1", "w1", "#0:10"));
+        Assert.assertNotNull(cache.get("d1", "w2", "#0:10"));
+        // A page read before the invalidation is returned, but not cached.
+        List<Feature> stale = cache.put("d1", "w1", "#0:10", createPage("a"), generation);
+        Assert.assertEquals(stale.size(), 1);
+        Assert.assertNull(cache.get("d1", "w1", "#0:10"));
+        cache.invalidateDataset("d1");
+        Assert.assertNull(cache.get("d1", "w2", "#0:10"));
+        Assert.assertNotNull(cache.get("d2", "w3", "#0:10"));
+    }
+
+    private static List<Feature> createPage(String featureName) {
+        return Arrays.asList(new Feature(featureName, true, "NUMERICAL", "DISCARD", "[]"));
+    }
+}
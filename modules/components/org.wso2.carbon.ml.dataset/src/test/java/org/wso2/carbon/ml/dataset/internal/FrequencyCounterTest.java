@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class FrequencyCounterTest {
+
+    @Test
+    public void testExactCounts() throws Exception {
+        FrequencyCounter counter = new FrequencyCounter(0);
+        for (int i = 0; i < 1000; i++) {
+            counter.add(String.valueOf(i % 37));
+        }
+        counter.add("");
+        Assert.assertEquals(counter.getDistinctCount(), 38, "Distinct count doesn't match");
+        Assert.assertFalse(counter.isSaturated(), "Counter shouldn't be saturated");
+        Map<String, Integer> frequencies = counter.toMap();
+        Assert.assertEquals(frequencies.size(), 38, "Tracked value count doesn't match");
+        Assert.assertEquals(counter.getCount("0"), 28, "Frequency of 0 doesn't match");
+        Assert.assertEquals(counter.getCount("36"), 27, "Frequency of 36 doesn't match");
+        Assert.assertEquals(counter.getCount(""), 1, "Frequency of empty value doesn't match");
+        Assert.assertEquals(counter.getCount("missing"), 0, "Untracked value has a frequency");
+    }
+
+    @Test
+    public void testCappedCounts() throws Exception {
+        FrequencyCounter counter = new FrequencyCounter(100);
+        for (int i = 0; i < 100000; i++) {
+            // A frequent value among ID-like values.
+            counter.add(i % 10 == 0 ? "frequent" : "id" + i);
+        }
+        Assert.assertTrue(counter.isSaturated(), "Counter should be saturated");
+        Assert.assertTrue(counter.size() <= 100, "Tracked value count exceeds the cap");
+        Assert.assertTrue(counter.getCount("frequent") > 0, "Frequent value has been evicted");
+        Assert.assertTrue(counter.getCount("frequent") <= 10000,
+            "Frequency of frequent value is over estimated");
+    }
+}
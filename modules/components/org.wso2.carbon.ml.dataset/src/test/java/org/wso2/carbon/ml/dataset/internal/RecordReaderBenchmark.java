@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * Measures the throughput of the stream tokenizer, which reads uploads, when reading a data-set
+ * the way the summary statistics calculation does. Not run as a test.
+ *
+ * Usage: RecordReaderBenchmark [csv file | size of the generated file in MB (default 1024)]
+ */
+public class RecordReaderBenchmark {
+
+    private static final int NO_OF_COLUMNS = 12;
+
+    public static void main(String[] args) throws Exception {
+        File csvFile;
+        if (args.length > 0 && new File(args[0]).isFile()) {
+            csvFile = new File(args[0]);
+        } else {
+            long sizeInMB = args.length > 0 ? Long.parseLong(args[0]) : 1024;
+            csvFile = File.createTempFile("benchmark", ".csv");
+            csvFile.deleteOnExit();
+            generate(csvFile, sizeInMB * 1024 * 1024);
+        }
+        System.out.println("Data-set: " + csvFile + " (" + csvFile.length() / (1024 * 1024) +
+            " MB)");
+        // Warm up the tokenizer, then measure.
+        for (int run = 0; run < 3; run++) {
+            long streamTime = time(new StreamCsvTokenizer(new FileInputStream(csvFile), ','));
+            System.out.println("Run " + run + ": stream tokenizer " + streamTime + " ms (" +
+                String.format("%.1f", csvFile.length() / (1024.0 * 1024.0) * 1000 /
+                Math.max(streamTime, 1)) + " MB/s)");
+        }
+    }
+
+    /*
+     * Reads all the records, summing the numeric cells so that the work is not optimized away.
+     */
+    private static long time(RecordReader recordReader) throws IOException {
+        long start = System.currentTimeMillis();
+        int noOfColumns = recordReader.getHeaderMap().size();
+        String[] strings = new String[noOfColumns];
+        double[] numbers = new double[noOfColumns];
+        double sum = 0;
+        long records = 0;
+        while (recordReader.nextRecord()) {
+            recordReader.readRecord(strings, numbers, null);
+            for (double number : numbers) {
+                if (!Double.isNaN(number)) {
+                    sum += number;
+                }
+            }
+            records++;
+        }
+        recordReader.close();
+        long elapsed = System.currentTimeMillis() - start;
+        System.out.println("  " + records + " records, checksum " + sum);
+        return elapsed;
+    }
+
+    /*
+     * Generates a data-set with numeric and categorical columns, and some missing values.
+     */
+    private static void generate(File csvFile, long size) throws IOException {
+        Random random = new Random(0);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(csvFile),
+            "UTF-8"), 1 << 20);
+        try {
+            StringBuilder record = new StringBuilder();
+            for (int column = 0; column < NO_OF_COLUMNS; column++) {
+                record.append(column == 0 ? "" : ",").append("column").append(column);
+            }
+            writer.write(record.append('\n').toString());
+            long written = record.length();
+            while (written < size) {
+                record.setLength(0);
+                for (int column = 0; column < NO_OF_COLUMNS; column++) {
+                    if (column > 0) {
+                        record.append(',');
+                    }
+                    if (random.nextInt(50) == 0) {
+                        continue;
+                    }
+                    switch (column % 4) {
+                        case 0:
+                            record.append(random.nextInt(100000));
+                            break;
+                        case 1:
+                            record.append(random.nextGaussian() * 1000);
+                            break;
+                        case 2:
+                            record.append("category").append(random.nextInt(20));
+                            break;
+                        default:
+                            record.append(random.nextInt(1000) / 100.0);
+                    }
+                }
+                writer.write(record.append('\n').toString());
+                written += record.length();
+            }
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ReservoirSamplerTest {
+
+    @Test
+    public void testUniformSample() throws Exception {
+        Random random = new Random(1);
+        int[] decileCounts = new int[10];
+        for (int trial = 0; trial < 200; trial++) {
+            ReservoirSampler<Integer> sampler = new ReservoirSampler<Integer>(100, random);
+            for (int i = 0; i < 10000; i++) {
+                sampler.offer(i);
+            }
+            Assert.assertEquals(sampler.getSample().size(), 100, "Sample size doesn't match");
+            for (int item : sampler.getSample()) {
+                decileCounts[item / 1000]++;
+            }
+        }
+        // Each decile of the stream is expected in 10% of the 20000 sampled items.
+        for (int decileCount : decileCounts) {
+            Assert.assertEquals(decileCount, 2000, 200, "Sample is not uniform over the stream");
+        }
+    }
+
+    @Test
+    public void testShrink() throws Exception {
+        Random random = new Random(2);
+        int[] halfCounts = new int[2];
+        for (int trial = 0; trial < 200; trial++) {
+            ReservoirSampler<Integer> sampler = new ReservoirSampler<Integer>(100, random);
+            for (int i = 0; i < 10000; i++) {
+                if (i == 5000) {
+                    sampler.shrink(50);
+                }
+                sampler.offer(i);
+            }
+            Assert.assertEquals(sampler.getSample().size(), 50, "Sample size doesn't match");
+            for (int item : sampler.getSample()) {
+                halfCounts[item / 5000]++;
+            }
+        }
+        Assert.assertEquals(halfCounts[0], 5000, 300, "Sample is not uniform after shrinking");
+    }
+
+    @Test
+    public void testStratifiedSample() throws Exception {
+        StratifiedReservoirSampler sampler = new StratifiedReservoirSampler(100, 0, 3,
+            new Random(3));
+        for (int i = 0; i < 10000; i++) {
+            // A rare class, a frequent class and values beyond the cap of strata.
+            String value = i % 1000 == 0 ? "rare" : i % 2 == 0 ? "frequent" : "v" + (i % 7);
+            sampler.offer(new String[] { value });
+        }
+        List<String[]> sample = sampler.getSample();
+        Assert.assertTrue(sample.size() <= 100, "Sample size exceeds the limit");
+        int rareCount = 0;
+        for (String[] record : sample) {
+            if ("rare".equals(record[0])) {
+                rareCount++;
+            }
+        }
+        Assert.assertEquals(rareCount, 10, "All records of the rare stratum should be sampled");
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.dataset.dto.SamplePoints;
+
+public class SampleCacheTest {
+
+    @Test
+    public void testEvictionBySize() throws IOException {
+        long sampleSize = createSample().getRetainedSize();
+        SampleCache cache = new SampleCache(2 * sampleSize);
+        cache.put("a", createSample(), cache.getGeneration());
+        cache.put("b", createSample(), cache.getGeneration());
+        Assert.assertEquals(cache.getSize(), 2 * sampleSize);
+        // Accessing "a" makes "b" the least recently used sample.
+        Assert.assertNotNull(cache.get("a"));
+        cache.put("c", createSample(), cache.getGeneration());
+        Assert.assertNull(cache.get("b"));
+        Assert.assertNotNull(cache.get("a"));
+        Assert.assertNotNull(cache.get("c"));
+        Assert.assertEquals(cache.getEvictions(), 1);
+        Assert.assertEquals(cache.getHits(), 3);
+        Assert.assertEquals(cache.getMisses(), 1);
+        Assert.assertEquals(cache.getSize(), 2 * sampleSize);
+    }
+
+    @Test
+    public void testDecodedColumnsAreWeighed() throws IOException {
+        ColumnarSample sample = createSample();
+        long encodedSize = sample.getRetainedSize();
+        SampleCache cache = new SampleCache(encodedSize * 100);
+        cache.put("a", sample, cache.getGeneration());
+        sample.getNumbers(0);
+        sample.getStrings(1);
+        cache.put("a", sample, cache.getGeneration());
+        Assert.assertTrue(cache.getSize() > encodedSize);
+        Assert.assertEquals(cache.getSize(), sample.getRetainedSize());
+    }
+
+    @Test
+    public void testOversizedSample() throws IOException {
+        ColumnarSample sample = createSample();
+        SampleCache cache = new SampleCache(sample.getRetainedSize() - 1);
+        cache.put("a", sample, cache.getGeneration());
+        Assert.assertNull(cache.get("a"));
+        Assert.assertEquals(cache.getSize(), 0);
+    }
+
+    @Test
+    public void testInvalidation() throws IOException {
+        SampleCache cache = new SampleCache(Long.MAX_VALUE);
+        cache.put("a", createSample(), cache.getGeneration());
+        // A sample read before the invalidation is not cached, as it may be stale.
+        long generation = cache.getGeneration();
+        cache.invalidate("a");
+        Assert.assertNull(cache.get("a"));
+        cache.put("a", createSample(), generation);
+        Assert.assertNull(cache.get("a"));
+        cache.put("a", createSample(), cache.getGeneration());
+        Assert.assertNotNull(cache.get("a"));
+    }
+
+    private static ColumnarSample createSample() throws IOException {
+        Map<String, Integer> header = new LinkedHashMap<String, Integer>();
+        header.put("x", 0);
+        header.put("label", 1);
+        List<List<String>> columns = new ArrayList<List<String>>();
+        columns.add(Arrays.asList("1.5", "2", "", "4.25"));
+        columns.add(Arrays.asList("yes", "no", "yes", "no"));
+        SamplePoints sample = new SamplePoints();
+        sample.setHeader(header);
+        sample.setSamplePoints(columns);
+        return new ColumnarSample(ColumnarSample.encode(sample));
+    }
+}
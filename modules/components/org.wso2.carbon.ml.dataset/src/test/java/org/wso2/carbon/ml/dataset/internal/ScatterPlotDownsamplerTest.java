@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.dataset.dto.SamplePoints;
+
+public class ScatterPlotDownsamplerTest {
+
+    @Test
+    public void testSmallSampleIsNotReduced() throws IOException {
+        ScatterPlotDownsampler downsampler = createDownsampler(100, 10);
+        JSONArray points = downsampler.subsample(1000);
+        // Rows with a missing cell are left out.
+        Assert.assertEquals(points.length(), 99);
+        Assert.assertEquals(points.getJSONArray(0).getDouble(0), 1.0, 0);
+        Assert.assertEquals(points.getJSONArray(0).getString(2), "common");
+    }
+
+    @Test
+    public void testStratifiedSubsample() throws IOException {
+        ScatterPlotDownsampler downsampler = createDownsampler(10000, 10);
+        JSONArray points = downsampler.subsample(500);
+        Assert.assertTrue(points.length() <= 500);
+        Assert.assertTrue(points.length() > 490);
+        Map<String, Integer> counts = countGroups(points, -1);
+        // The rare group is kept, and the common group is sampled in proportion.
+        Assert.assertTrue(counts.get("rare") >= 1);
+        Assert.assertTrue(counts.get("common") > 400);
+    }
+
+    @Test
+    public void testBinning() throws IOException {
+        ScatterPlotDownsampler downsampler = createDownsampler(10000, 10);
+        JSONArray cells = downsampler.bin(100);
+        Assert.assertTrue(cells.length() <= 100);
+        // Every point is counted in a cell.
+        Map<String, Integer> counts = countGroups(cells, 3);
+        Assert.assertEquals(counts.get("common") + counts.get("rare"), 9999);
+        Assert.assertEquals((int) counts.get("rare"), 9999 / 10 + 1);
+        // Fewer cells than groups keeps the largest cells.
+        Assert.assertEquals(downsampler.bin(1).length(), 1);
+    }
+
+    private static Map<String, Integer> countGroups(JSONArray points, int countIndex) {
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        for (int i = 0; i < points.length(); i++) {
+            JSONArray point = points.getJSONArray(i);
+            Integer count = counts.get(point.getString(2));
+            int weight = countIndex < 0 ? 1 : point.getInt(countIndex);
+            counts.put(point.getString(2), (count == null ? 0 : count) + weight);
+        }
+        return counts;
+    }
+
+    /*
+     * Sample in which every tenth row belongs to a rare group and the second row has a missing
+     * y coordinate.
+     */
+    private static ScatterPlotDownsampler createDownsampler(int noOfRows, int rareEvery)
+            throws IOException {
+        Map<String, Integer> header = new LinkedHashMap<String, Integer>();
+        header.put("x", 0);
+        header.put("y", 1);
+        header.put("group", 2);
+        List<String> x = new ArrayList<String>();
+        List<String> y = new ArrayList<String>();
+        List<String> group = new ArrayList<String>();
+        for (int row = 0; row < noOfRows; row++) {
+            x.add(String.valueOf(row + 1));
+            y.add(row == 1 ? "" : String.valueOf(row % 97));
+            group.add(row % rareEvery == rareEvery - 1 ? "rare" : "common");
+        }
+        List<List<String>> columns = new ArrayList<List<String>>();
+        columns.add(x);
+        columns.add(y);
+        columns.add(group);
+        SamplePoints sample = new SamplePoints();
+        sample.setHeader(header);
+        sample.setSamplePoints(columns);
+        return new ScatterPlotDownsampler(new ColumnarSample(ColumnarSample.encode(sample)), 0,
+            1, 2);
+    }
+}
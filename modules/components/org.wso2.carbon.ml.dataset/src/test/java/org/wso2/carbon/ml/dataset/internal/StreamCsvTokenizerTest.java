@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class StreamCsvTokenizerTest {
+
+    @Test
+    public void testQuotedCells() throws Exception {
+        byte[] data = ("id,name,score\r\n" +
+            "1,\"Smith, John\",4.5\r\n" +
+            "2,\"say \"\"hi\"\"\",-1e3\r\n" +
+            "3,\"multi\nline\",\r\n" +
+            "4,plain,0x1F").getBytes("UTF-8");
+        // A small buffer, so that records cross the boundaries of the buffer.
+        StreamCsvTokenizer tokenizer = new StreamCsvTokenizer(new ByteArrayInputStream(data),
+            ',', 8);
+        Map<String, Integer> headerMap = tokenizer.getHeaderMap();
+        Assert.assertEquals(headerMap.size(), 3, "Header size doesn't match");
+        Assert.assertEquals(headerMap.get("score"), Integer.valueOf(2), "Header index doesn't match");
+        String[] strings = new String[3];
+        double[] numbers = new double[3];
+
+        Assert.assertTrue(tokenizer.nextRecord(), "Record 1 is missing");
+        tokenizer.readRecord(strings, numbers, null);
+        Assert.assertEquals(numbers[0], 1, 0, "Numeric cell doesn't match");
+        Assert.assertNull(strings[0], "String of a numeric cell shouldn't be created");
+        Assert.assertEquals(strings[1], "Smith, John", "Quoted cell doesn't match");
+        Assert.assertEquals(numbers[2], 4.5, 0, "Decimal cell doesn't match");
+
+        Assert.assertTrue(tokenizer.nextRecord(), "Record 2 is missing");
+        tokenizer.readRecord(strings, numbers, new boolean[] { true, true, true });
+        Assert.assertEquals(strings[0], "2", "String of a numeric cell doesn't match");
+        Assert.assertEquals(strings[1], "say \"hi\"", "Escaped quotes don't match");
+        Assert.assertEquals(numbers[2], -1000, 0, "Exponent cell doesn't match");
+
+        Assert.assertTrue(tokenizer.nextRecord(), "Record 3 is missing");
+        tokenizer.readRecord(strings, numbers, null);
+        Assert.assertEquals(strings[1], "multi\nline", "Multi-line cell doesn't match");
+        Assert.assertEquals(strings[2], "", "Empty cell doesn't match");
+        Assert.assertTrue(Double.isNaN(numbers[2]), "Empty cell shouldn't be a number");
+
+        Assert.assertTrue(tokenizer.nextRecord(), "Record 4 is missing");
+        tokenizer.readRecord(strings, numbers, null);
+        Assert.assertEquals(strings[2], "0x1F", "Non-decimal cell doesn't match");
+
+        Assert.assertFalse(tokenizer.nextRecord(), "Unexpected record");
+        tokenizer.close();
+    }
+
+    @Test
+    public void testRecordsAcrossReads() throws Exception {
+        byte[] data = ("id,name,score\r\n" +
+            "1,\"Smith, John\",4.5\r\n" +
+            "2,\"a much longer cell than the buffer\",-1e3\n" +
+            "3,\"multi\nline\",").getBytes("UTF-8");
+        // A small buffer and short reads, so that records cross the reads and outgrow the buffer.
+        InputStream input = new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                return super.read(buffer, offset, Math.min(length, 3));
+            }
+        };
+        StreamCsvTokenizer tokenizer = new StreamCsvTokenizer(input, ',', 8);
+        Assert.assertEquals(tokenizer.getHeaderMap().size(), 3, "Header size doesn't match");
+        String[] strings = new String[3];
+        double[] numbers = new double[3];
+
+        Assert.assertTrue(tokenizer.nextRecord(), "Record 1 is missing");
+        tokenizer.readRecord(strings, numbers, null);
+        Assert.assertEquals(numbers[0], 1, 0, "Numeric cell doesn't match");
+        Assert.assertEquals(strings[1], "Smith, John", "Quoted cell doesn't match");
+        Assert.assertEquals(numbers[2], 4.5, 0, "Decimal cell doesn't match");
+
+        Assert.assertTrue(tokenizer.nextRecord(), "Record 2 is missing");
+        tokenizer.readRecord(strings, numbers, null);
+        Assert.assertEquals(strings[1], "a much longer cell than the buffer",
+            "Long cell doesn't match");
+        Assert.assertEquals(numbers[2], -1000, 0, "Exponent cell doesn't match");
+
+        Assert.assertTrue(tokenizer.nextRecord(), "Record 3 is missing");
+        tokenizer.readRecord(strings, numbers, null);
+        Assert.assertEquals(strings[1], "multi\nline", "Multi-line cell doesn't match");
+        Assert.assertEquals(strings[2], "", "Empty cell doesn't match");
+
+        Assert.assertFalse(tokenizer.nextRecord(), "Unexpected record");
+        tokenizer.close();
+    }
+
+    @Test
+    public void testNumbers() throws Exception {
+        String[] cells = { "0", "-0.5", ".25", "7.", "123456789012345678901", "1.7976931348623157E308",
+            "4.9e-324", "0.1", "3.14159265358979323846", "12e-5", "-", "1e", "+1", "1,5" };
+        StringBuilder data = new StringBuilder("value\n");
+        for (String cell : cells) {
+            data.append(cell.contains(",") ? "\"" + cell + "\"" : cell).append('\n');
+        }
+        StreamCsvTokenizer tokenizer = new StreamCsvTokenizer(new ByteArrayInputStream(
+            data.toString().getBytes("UTF-8")), ',');
+        for (String cell : cells) {
+            Assert.assertTrue(tokenizer.nextRecord(), "Record is missing");
+            double expected;
+            try {
+                expected = cell.startsWith("+") ? Double.NaN : Double.parseDouble(cell);
+            } catch (NumberFormatException e) {
+                expected = Double.NaN;
+            }
+            Assert.assertEquals(Double.doubleToLongBits(tokenizer.getNumber(0)),
+                Double.doubleToLongBits(expected), "Number doesn't match for " + cell);
+        }
+        tokenizer.close();
+    }
+}
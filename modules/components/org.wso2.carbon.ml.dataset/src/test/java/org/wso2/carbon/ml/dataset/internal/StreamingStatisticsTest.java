@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.util.SortedMap;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class StreamingStatisticsTest {
+
+    @Test
+    public void testIntervalFrequencies() {
+        ColumnStatistics stats = new StreamingStatistics(200);
+        for (int i = 0; i < 10000; i++) {
+            stats.addValue(i % 1000);
+        }
+        SortedMap<Integer, Integer> frequencies = stats.getIntervalFrequencies(10);
+        Assert.assertEquals(frequencies.size(), 10, "Interval count doesn't match");
+        int total = 0;
+        for (int frequency : frequencies.values()) {
+            Assert.assertEquals(frequency, 1000, 10000 * 0.02, "Frequency is not within 2%");
+            total += frequency;
+        }
+        Assert.assertEquals(total, 10000, "Frequencies don't add up to the value count");
+        Assert.assertEquals(stats.getPercentile(50), 500, 1000 * 0.02,
+            "Median is not within 2% in rank");
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.dataset.dto.FeatureSummary;
+import org.wso2.carbon.ml.dataset.internal.constants.FeatureType;
+
+public class SummarySerializerTest {
+
+    @Test
+    public void testJson() {
+        SummarySerializer serializer = new SummarySerializer();
+        SortedMap<String, Integer> frequencies = new TreeMap<String, Integer>();
+        frequencies.put("a\"b", 2);
+        frequencies.put("c\\d\n", 1);
+        serializer.setColumn(FeatureType.CATEGORICAL, frequencies, 4, 2,
+            new ExactStatistics());
+        Assert.assertEquals(serializer.toJson(), "[{\"unique\":2,\"missing\":4,\"values\":" +
+            "[[\"a\\\"b\",2],[\"c\\\\d\\n\",1]],\"bar\":true,\"key\":\"Frequency\"}]");
+    }
+
+    @Test
+    public void testJsonStatistics() {
+        SummarySerializer serializer = new SummarySerializer();
+        serializer.setColumn(FeatureType.NUMERICAL, new TreeMap<String, Integer>(), 0, 3,
+            createStatistics());
+        String json = serializer.toJson();
+        Assert.assertTrue(json.contains("\"median\":\"2\""));
+        Assert.assertTrue(json.contains("\"skewness\":"));
+        // The buffer is reused for the next column.
+        serializer.setColumn(FeatureType.CATEGORICAL, new TreeMap<String, Integer>(), 0, 3,
+            createStatistics());
+        Assert.assertFalse(serializer.toJson().contains("skewness"));
+    }
+
+    @Test
+    public void testBinary() throws IOException {
+        SummarySerializer serializer = new SummarySerializer();
+        SortedMap<String, Integer> frequencies = new TreeMap<String, Integer>();
+        frequencies.put("1.0-2.0", 2);
+        frequencies.put("2.0-3.0", 1);
+        serializer.setColumn(FeatureType.NUMERICAL, frequencies, 1, 3, createStatistics());
+        FeatureSummary summary = SummarySerializer.readBinary(serializer.toBinary());
+        Assert.assertEquals(summary.getType(), FeatureType.NUMERICAL);
+        Assert.assertEquals(summary.getUnique(), 3);
+        Assert.assertEquals(summary.getMissing(), 1);
+        Assert.assertEquals(summary.getMean(), 7.0 / 3, 0);
+        Assert.assertEquals(summary.getMedian(), 2.0, 0);
+        Assert.assertFalse(Double.isNaN(summary.getSkewness()));
+        Assert.assertEquals(summary.getFrequencies(), frequencies);
+
+        serializer.setColumn(FeatureType.CATEGORICAL, frequencies, 0, 2,
+            new ExactStatistics());
+        byte[] data = serializer.toBinary();
+        summary = SummarySerializer.readBinary(data);
+        Assert.assertTrue(Double.isNaN(summary.getMean()));
+        Assert.assertTrue(Double.isNaN(summary.getSkewness()));
+        try {
+            SummarySerializer.readBinary(Arrays.copyOf(data, data.length - 1));
+            Assert.fail("Truncated summary is not detected.");
+        } catch (IOException e) {
+            // Expected.
+        }
+    }
+
+    private static ExactStatistics createStatistics() {
+        ExactStatistics stats = new ExactStatistics();
+        stats.addValue(1);
+        stats.addValue(2);
+        stats.addValue(4);
+        return stats;
+    }
+}
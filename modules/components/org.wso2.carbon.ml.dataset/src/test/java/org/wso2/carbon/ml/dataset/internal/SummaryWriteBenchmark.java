@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.wso2.carbon.ml.dataset.internal.constants.FeatureType;
+
+/**
+ * Measures the time taken to write the summary statistics of 100, 1k and 10k features to an
+ * in-memory H2 database, sending one row per round trip against sending the rows in batches.
+ * Not run as a test.
+ *
+ * Usage: SummaryWriteBenchmark [batch size (default 500)]
+ */
+public class SummaryWriteBenchmark {
+
+    private static final int[] NO_OF_FEATURES = { 100, 1000, 10000 };
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int batchSize = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:summary-benchmark;DB_CLOSE_DELAY=-1");
+        createTables(dataSource);
+        DatabaseHandler handler = new DatabaseHandler(dataSource);
+        int datasetCount = 0;
+        for (int noOfFeatures : NO_OF_FEATURES) {
+            Summary summary = new Summary(noOfFeatures);
+            for (int run = 0; run < RUNS; run++) {
+                String unbatchedDataset = "dataset-" + datasetCount++;
+                String batchedDataset = "dataset-" + datasetCount++;
+                handler.insertDatasetDetails(unbatchedDataset, "/tmp/" + unbatchedDataset, null);
+                handler.insertDatasetDetails(batchedDataset, "/tmp/" + batchedDataset, null);
+                long unbatchedTime = time(handler, unbatchedDataset, summary, 1);
+                long batchedTime = time(handler, batchedDataset, summary, batchSize);
+                System.out.println(noOfFeatures + " features, run " + run + ": row by row " +
+                    unbatchedTime + " ms, batches of " + batchSize + " " + batchedTime + " ms");
+            }
+        }
+    }
+
+    private static long time(DatabaseHandler handler, String datasetID, Summary summary,
+        int batchSize) throws Exception {
+        long start = System.nanoTime();
+        handler.updateSummaryStatistics(datasetID, summary.headerMap, summary.type,
+            summary.graphFrequencies, summary.missing, summary.unique, summary.descriptiveStats,
+            true, batchSize);
+        return (System.nanoTime() - start) / 1000000;
+    }
+
+    private static void createTables(JdbcDataSource dataSource) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            Statement statement = connection.createStatement();
+            statement.execute("CREATE TABLE ML_DATASET(DATASET_ID VARCHAR(50) NOT NULL, " +
+                "SAMPLE_POINTS OTHER, DATASET_URL VARCHAR(300), PROJECT_ID VARCHAR(50), " +
+                "CONSTRAINT PK_DATASET PRIMARY KEY(DATASET_ID))");
+            statement.execute("CREATE TABLE ML_FEATURE_DEFAULTS(DATASET_ID VARCHAR(50) NOT " +
+                "NULL, FEATURE_INDEX INT, FEATURE_NAME VARCHAR(100) NOT NULL, SUMMARY CLOB, " +
+                "SUMMARY_DATA BLOB, TYPE VARCHAR(20), IMPUTE_METHOD VARCHAR(30), INCLUDE BOOLEAN, CONSTRAINT " +
+                "PK_FEATURE_DEFAULTS PRIMARY KEY(FEATURE_NAME,DATASET_ID), CONSTRAINT " +
+                "FK_DATASET_FEATURE_DEFAULTS FOREIGN KEY(DATASET_ID) REFERENCES " +
+                "ML_DATASET(DATASET_ID) ON UPDATE CASCADE ON DELETE CASCADE)");
+            statement.close();
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Summary statistics of a data-set of numerical features.
+     */
+    private static class Summary {
+        private final Map<String, Integer> headerMap = new LinkedHashMap<String, Integer>();
+        private final String[] type;
+        private final List<SortedMap<?, Integer>> graphFrequencies =
+            new ArrayList<SortedMap<?, Integer>>();
+        private final int[] missing;
+        private final int[] unique;
+        private final List<ColumnStatistics> descriptiveStats =
+            new ArrayList<ColumnStatistics>();
+
+        private Summary(int noOfFeatures) {
+            Random random = new Random(noOfFeatures);
+            this.type = new String[noOfFeatures];
+            this.missing = new int[noOfFeatures];
+            this.unique = new int[noOfFeatures];
+            for (int i = 0; i < noOfFeatures; i++) {
+                this.headerMap.put("feature" + i, i);
+                this.type[i] = FeatureType.NUMERICAL;
+                this.missing[i] = random.nextInt(10);
+                this.unique[i] = 1000;
+                SortedMap<String, Integer> frequencies = new TreeMap<String, Integer>();
+                ExactStatistics stats = new ExactStatistics();
+                for (int bin = 0; bin < 20; bin++) {
+                    frequencies.put("bin" + bin, random.nextInt(1000));
+                }
+                for (int value = 0; value < 1000; value++) {
+                    stats.addValue(random.nextGaussian());
+                }
+                this.graphFrequencies.add(frequencies);
+                this.descriptiveStats.add(stats);
+            }
+        }
+    }
+}
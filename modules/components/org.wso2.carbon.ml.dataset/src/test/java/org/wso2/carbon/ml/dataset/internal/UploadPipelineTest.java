@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class UploadPipelineTest {
+
+    private static final int UPLOAD_SIZE = 1024 * 1024 + 123;
+    private static final int BUFFER_SIZE = 128 * 1024;
+
+    private ExecutorService executor;
+    private byte[] upload;
+
+    @BeforeClass
+    public void setUp() {
+        this.executor = Executors.newCachedThreadPool();
+        this.upload = new byte[UPLOAD_SIZE];
+        new Random(11).nextBytes(this.upload);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        this.executor.shutdown();
+    }
+
+    @Test
+    public void testTee() throws IOException {
+        File targetFile = File.createTempFile("upload", ".csv");
+        targetFile.deleteOnExit();
+        UploadPipeline pipeline = new UploadPipeline(new ByteArrayInputStream(this.upload),
+            targetFile, BUFFER_SIZE, null);
+        pipeline.start(this.executor);
+        InputStream summaryStream = pipeline.getSummaryStream();
+        byte[] summarized = readFully(summaryStream);
+        summaryStream.close();
+        Assert.assertEquals(pipeline.awaitCompletion(), UPLOAD_SIZE);
+        Assert.assertTrue(Arrays.equals(summarized, this.upload));
+        Assert.assertTrue(Arrays.equals(readFully(new FileInputStream(targetFile)), this.upload));
+    }
+
+    @Test
+    public void testSummaryClosedEarly() throws IOException {
+        File targetFile = File.createTempFile("upload", ".csv");
+        targetFile.deleteOnExit();
+        UploadPipeline pipeline = new UploadPipeline(new ByteArrayInputStream(this.upload),
+            targetFile, BUFFER_SIZE, null);
+        pipeline.start(this.executor);
+        InputStream summaryStream = pipeline.getSummaryStream();
+        byte[] head = new byte[1000];
+        Assert.assertEquals(summaryStream.read(head), head.length);
+        summaryStream.close();
+        // The rest of the upload is written to the file, although it is not summarized.
+        Assert.assertEquals(pipeline.awaitCompletion(), UPLOAD_SIZE);
+        Assert.assertTrue(Arrays.equals(readFully(new FileInputStream(targetFile)), this.upload));
+    }
+
+    @Test
+    public void testFailedUpload() throws IOException {
+        File targetFile = File.createTempFile("upload", ".csv");
+        targetFile.deleteOnExit();
+        InputStream failingSource = new InputStream() {
+            private int count;
+
+            @Override
+            public int read() throws IOException {
+                if (++this.count > 200000) {
+                    throw new IOException("Connection reset");
+                }
+                return 'a';
+            }
+        };
+        UploadPipeline pipeline = new UploadPipeline(failingSource, targetFile, BUFFER_SIZE,
+            null);
+        pipeline.start(this.executor);
+        InputStream summaryStream = pipeline.getSummaryStream();
+        try {
+            readFully(summaryStream);
+            Assert.fail("Failure of the upload is not reported to the summary stream.");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains("Connection reset"));
+        }
+        summaryStream.close();
+        try {
+            pipeline.awaitCompletion();
+            Assert.fail("Failure of the upload is not reported.");
+        } catch (IOException e) {
+            Assert.assertEquals(e.getMessage(), "Connection reset");
+        }
+    }
+
+    @Test
+    public void testSummaryFailure() throws IOException {
+        File targetFile = File.createTempFile("upload", ".csv");
+        targetFile.deleteOnExit();
+        UploadPipeline pipeline = new UploadPipeline(new ByteArrayInputStream(this.upload),
+            targetFile, BUFFER_SIZE, null);
+        pipeline.start(this.executor);
+        InputStream summaryStream = pipeline.getSummaryStream();
+        byte[] head = new byte[1000];
+        Assert.assertEquals(summaryStream.read(head), head.length);
+        // The summary fails part-way through the upload, which is aborted.
+        pipeline.abort();
+        Assert.assertFalse(targetFile.exists(), "Partially written file is not deleted.");
+        try {
+            pipeline.awaitCompletion();
+            Assert.fail("Aborted upload is reported as completed.");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains("aborted"));
+        }
+    }
+
+    private static byte[] readFully(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[10000];
+        int read;
+        while ((read = input.read(buffer)) >= 0) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.dataset.internal.sketch;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class HyperLogLogTest {
+
+    @Test
+    public void testEstimate() throws Exception {
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+        for (int i = 0; i < 100000; i++) {
+            first.add("value" + i);
+            // Half of the values of the second sketch overlap with the first.
+            second.add("value" + (i + 50000));
+        }
+        Assert.assertEquals(first.estimate(), 100000, 100000 * 0.05,
+            "Distinct count estimate is not within 5%");
+        first.merge(second);
+        Assert.assertEquals(first.estimate(), 150000, 150000 * 0.05,
+            "Distinct count estimate of the merged sketch is not within 5%");
+    }
+
+    @Test
+    public void testSmallCardinality() throws Exception {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add(String.valueOf(i % 10));
+        }
+        Assert.assertEquals(sketch.estimate(), 10, "Distinct count of a small set doesn't match");
+    }
+}
@@ -21,7 +21,9 @@ package org.wso2.carbon.ml.model;
 import org.wso2.carbon.ml.model.exceptions.ModelServiceException;
 import org.wso2.carbon.ml.model.internal.dto.ConfusionMatrix;
 import org.wso2.carbon.ml.model.internal.dto.HyperParameter;
+import org.wso2.carbon.ml.model.internal.dto.ModelExecutionStatus;
 import org.wso2.carbon.ml.model.internal.dto.ModelSettings;
+import org.wso2.carbon.ml.model.spark.dto.FeatureProjection;
 import org.wso2.carbon.ml.model.spark.dto.ModelSummary;
 
 import java.util.List;
@@ -56,6 +58,31 @@ public interface ModelService {
      */
     public void buildModel(String modelID, String workflowID) throws ModelServiceException;
 
+    /**
+     * @param modelID    Model ID
+     * @param workflowID Workflow ID
+     * @param priority   Priority of the model among the queued models of the tenant
+     * @throws ModelServiceException
+     */
+    public void buildModel(String modelID, String workflowID, int priority)
+            throws ModelServiceException;
+
+    /**
+     * Cancels building a queued or running model
+     *
+     * @param modelID Model ID
+     * @return Returns whether the model was queued or running
+     * @throws ModelServiceException
+     */
+    public boolean cancelModelBuild(String modelID) throws ModelServiceException;
+
+    /**
+     * @param modelID Model ID
+     * @return Returns the execution status of the model, including its position in the queue
+     * @throws ModelServiceException
+     */
+    public ModelExecutionStatus getExecutionStatus(String modelID) throws ModelServiceException;
+
     /**
      * @param modelID Model ID
      * @return Model summary object
@@ -63,6 +90,14 @@ public interface ModelService {
      */
     public ModelSummary getModelSummary(String modelID) throws ModelServiceException;
 
+    /**
+     * @param modelID Model ID
+     * @return Projection of the data-set columns in to the feature vectors of the model, to be
+     * applied to the rows scored with the model
+     * @throws ModelServiceException
+     */
+    public FeatureProjection getFeatureProjection(String modelID) throws ModelServiceException;
+
     /**
      * @param modelSettings Model settings
      * @throws ModelServiceException
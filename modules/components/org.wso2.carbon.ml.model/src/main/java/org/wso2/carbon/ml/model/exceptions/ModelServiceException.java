@@ -19,6 +19,10 @@
 package org.wso2.carbon.ml.model.exceptions;
 
 public class ModelServiceException extends Exception {
+    public ModelServiceException(String message) {
+        super(message);
+    }
+
     public ModelServiceException(String message, Throwable cause) {
         super(message, cause);
     }
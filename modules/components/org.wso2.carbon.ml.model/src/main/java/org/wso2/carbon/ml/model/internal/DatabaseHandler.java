@@ -20,16 +20,21 @@ package org.wso2.carbon.ml.model.internal;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wso2.carbon.ml.commons.datasource.MLDataSourceRegistry;
 import org.wso2.carbon.ml.model.internal.constants.MLModelConstants;
 import org.wso2.carbon.ml.model.internal.constants.SQLQueries;
+import org.wso2.carbon.ml.model.internal.dto.CategoricalSummary;
 import org.wso2.carbon.ml.model.internal.dto.HyperParameter;
 import org.wso2.carbon.ml.model.internal.dto.MLFeature;
 import org.wso2.carbon.ml.model.internal.dto.MLWorkflow;
+import org.wso2.carbon.ml.model.internal.dto.ModelExecutionStatus;
 import org.wso2.carbon.ml.model.exceptions.DatabaseHandlerException;
+import org.wso2.carbon.ml.model.spark.dto.FeatureProjection;
 import org.wso2.carbon.ml.model.spark.dto.ModelSummary;
 
-import javax.naming.Context;
-import javax.naming.InitialContext;
 import javax.naming.NamingException;
 import javax.sql.DataSource;
 import java.sql.Connection;
@@ -39,6 +44,7 @@ import java.sql.SQLException;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -56,8 +62,7 @@ public class DatabaseHandler {
      */
     public DatabaseHandler() throws DatabaseHandlerException {
         try {
-            Context initContext = new InitialContext();
-            dataSource = (DataSource) initContext.lookup(MLModelConstants.ML_DB);
+            dataSource = MLDataSourceRegistry.getDataSource(MLModelConstants.ML_DB);
         } catch (NamingException e) {
             throw new DatabaseHandlerException(
                     "An error occured while obtaining the data source: " + e.getMessage(), e);
@@ -116,25 +121,27 @@ public class DatabaseHandler {
     }
 
     /**
-     * This method initialize insering model into the database
+     * This method inserts a model queued for training into the database
      *
-     * @param modelID            Model ID
-     * @param workflowID         Workflow ID
-     * @param executionStartTime Model execution start time
+     * @param modelID       Model ID
+     * @param workflowID    Workflow ID
+     * @param priority      Priority of the training job
+     * @param submittedTime Time the training job was submitted
      * @throws DatabaseHandlerException
      */
-    public void insertModel(String modelID, String workflowID, Time executionStartTime)
-            throws DatabaseHandlerException {
+    public void insertModel(String modelID, String workflowID, int priority,
+            Timestamp submittedTime) throws DatabaseHandlerException {
         Connection connection = null;
         PreparedStatement insertStatement = null;
         try {
-            // insert model settings to the database.
             connection = this.dataSource.getConnection();
             connection.setAutoCommit(false);
             insertStatement = connection.prepareStatement(SQLQueries.INSERT_ML_MODEL);
             insertStatement.setString(1, modelID);
             insertStatement.setString(2, workflowID);
-            insertStatement.setTime(3, executionStartTime);
+            insertStatement.setString(3, MLModelConstants.MODEL_STATUS.QUEUED.toString());
+            insertStatement.setInt(4, priority);
+            insertStatement.setTimestamp(5, submittedTime);
             insertStatement.execute();
             connection.commit();
             if (logger.isDebugEnabled()) {
@@ -154,18 +161,170 @@ public class DatabaseHandler {
             MLDatabaseUtils.closeDatabaseResources(connection, insertStatement);
         }
     }
+
+    /**
+     * This method marks a model as running, and sets its execution start time
+     *
+     * @param modelID            Model ID
+     * @param executionStartTime Model execution start time
+     * @throws DatabaseHandlerException
+     */
+    public void updateModelStarted(String modelID, Timestamp executionStartTime)
+            throws DatabaseHandlerException {
+        Connection connection = null;
+        PreparedStatement updateStatement = null;
+        try {
+            connection = this.dataSource.getConnection();
+            updateStatement = connection.prepareStatement(SQLQueries.UPDATE_MODEL_STARTED);
+            updateStatement.setString(1, MLModelConstants.MODEL_STATUS.RUNNING.toString());
+            updateStatement.setTimestamp(2, executionStartTime);
+            updateStatement.setString(3, modelID);
+            updateStatement.execute();
+        } catch (SQLException e) {
+            throw new DatabaseHandlerException(
+                    "An error occured while updating the start time of model id " + modelID +
+                    ": " + e.getMessage(), e);
+        } finally {
+            MLDatabaseUtils.closeDatabaseResources(connection, updateStatement);
+        }
+    }
+
+    /**
+     * This method updates the status of a model
+     *
+     * @param modelID Model ID
+     * @param status  Model status
+     * @throws DatabaseHandlerException
+     */
+    public void updateModelStatus(String modelID, MLModelConstants.MODEL_STATUS status)
+            throws DatabaseHandlerException {
+        Connection connection = null;
+        PreparedStatement updateStatement = null;
+        try {
+            connection = this.dataSource.getConnection();
+            updateStatement = connection.prepareStatement(SQLQueries.UPDATE_MODEL_STATUS);
+            updateStatement.setString(1, status.toString());
+            updateStatement.setString(2, modelID);
+            updateStatement.execute();
+        } catch (SQLException e) {
+            throw new DatabaseHandlerException(
+                    "An error occured while updating the status of model id " + modelID + ": " +
+                    e.getMessage(), e);
+        } finally {
+            MLDatabaseUtils.closeDatabaseResources(connection, updateStatement);
+        }
+    }
+
+    /**
+     * This method marks models left queued or running, by a server which stopped before they
+     * ended, as failed
+     *
+     * @return Returns the number of models marked as failed
+     * @throws DatabaseHandlerException
+     */
+    public int failUnfinishedModels() throws DatabaseHandlerException {
+        Connection connection = null;
+        PreparedStatement updateStatement = null;
+        try {
+            connection = this.dataSource.getConnection();
+            updateStatement = connection.prepareStatement(
+                    SQLQueries.UPDATE_UNFINISHED_MODEL_STATUS);
+            updateStatement.setString(1, MLModelConstants.MODEL_STATUS.FAILED.toString());
+            updateStatement.setString(2, MLModelConstants.MODEL_STATUS.QUEUED.toString());
+            updateStatement.setString(3, MLModelConstants.MODEL_STATUS.RUNNING.toString());
+            return updateStatement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseHandlerException(
+                    "An error occured while updating the status of unfinished models: " +
+                    e.getMessage(), e);
+        } finally {
+            MLDatabaseUtils.closeDatabaseResources(connection, updateStatement);
+        }
+    }
+
+    /**
+     * This method returns the ID of the tenant who owns the project of a workflow
+     *
+     * @param workflowID Workflow ID
+     * @return Returns the tenant ID, or null if the project has no tenant
+     * @throws DatabaseHandlerException
+     */
+    public String getTenantID(String workflowID) throws DatabaseHandlerException {
+        Connection connection = null;
+        ResultSet result = null;
+        PreparedStatement getStatement = null;
+        try {
+            connection = dataSource.getConnection();
+            getStatement = connection.prepareStatement(SQLQueries.GET_TENANT_ID);
+            getStatement.setString(1, workflowID);
+            result = getStatement.executeQuery();
+            if (result.first()) {
+                return result.getString(1);
+            }
+            return null;
+        } catch (SQLException e) {
+            throw new DatabaseHandlerException(
+                    "An error occured while reading the tenant of workflow " + workflowID +
+                    " from the database: " + e.getMessage(), e);
+        } finally {
+            MLDatabaseUtils.closeDatabaseResources(connection, getStatement, result);
+        }
+    }
+
+    /**
+     * This method returns the execution status of a model, without its queue position
+     *
+     * @param modelID Model ID
+     * @return Returns the execution status of the model
+     * @throws DatabaseHandlerException
+     */
+    public ModelExecutionStatus getModelExecutionStatus(String modelID)
+            throws DatabaseHandlerException {
+        Connection connection = null;
+        ResultSet result = null;
+        PreparedStatement getStatement = null;
+        try {
+            connection = dataSource.getConnection();
+            getStatement = connection.prepareStatement(SQLQueries.GET_MODEL_EXECUTION_STATUS);
+            getStatement.setString(1, modelID);
+            result = getStatement.executeQuery();
+            if (!result.first()) {
+                throw new DatabaseHandlerException("Invalid model ID: " + modelID);
+            }
+            ModelExecutionStatus status = new ModelExecutionStatus();
+            status.setStatus(result.getString(1));
+            status.setPriority(result.getInt(2));
+            status.setSubmittedTime(getTime(result.getTimestamp(3)));
+            status.setStartTime(getTime(result.getTimestamp(4)));
+            status.setEndTime(getTime(result.getTimestamp(5)));
+            if (status.getStatus() == null) {
+                // models built before the training job scheduler have no status
+                status.setStatus((status.getEndTime() > 0 ? MLModelConstants.MODEL_STATUS
+                        .COMPLETED : MLModelConstants.MODEL_STATUS.RUNNING).toString());
+            }
+            return status;
+        } catch (SQLException e) {
+            throw new DatabaseHandlerException(
+                    "An error occured while reading the execution status of model " + modelID +
+                    " from the database: " + e.getMessage(), e);
+        } finally {
+            MLDatabaseUtils.closeDatabaseResources(connection, getStatement, result);
+        }
+    }
+
     /**
      * This method inserts model and model summary into the database
      *
      * @param modelID          Model ID
      * @param model            Machine learning model
      * @param modelSummary     Machine learning model summary
+     * @param projection       Projection of the data-set columns in to the feature vectors
      * @param executionEndTime Model execution end time
      * @param <T>              Type of machine learning  model
      * @throws DatabaseHandlerException
      */
     public <T> void updateModel(String modelID, T model,
-            ModelSummary modelSummary, Time executionEndTime)
+            ModelSummary modelSummary, FeatureProjection projection, Time executionEndTime)
             throws DatabaseHandlerException {
         Connection connection = null;
         PreparedStatement updateStatement = null;
@@ -175,8 +334,9 @@ public class DatabaseHandler {
             updateStatement = connection.prepareStatement(SQLQueries.UPDATE_ML_MODEL);
             updateStatement.setObject(1, model);
             updateStatement.setObject(2, modelSummary);
-            updateStatement.setTime(3, executionEndTime);
-            updateStatement.setString(4, modelID);
+            updateStatement.setObject(3, projection);
+            updateStatement.setTime(4, executionEndTime);
+            updateStatement.setString(5, modelID);
             updateStatement.execute();
             connection.commit();
             if (logger.isDebugEnabled()) {
@@ -233,6 +393,97 @@ public class DatabaseHandler {
 
     }
 
+    /**
+     * This method returns the projection of the data-set columns in to the feature vectors of a
+     * model, which has to be applied to the rows scored with the model
+     *
+     * @param modelID Model ID
+     * @return Feature projection, or null if the model is not built yet
+     * @throws DatabaseHandlerException
+     */
+    public FeatureProjection getFeatureProjection(String modelID)
+            throws DatabaseHandlerException {
+        Connection connection = null;
+        ResultSet result = null;
+        PreparedStatement getStatement = null;
+        try {
+            connection = dataSource.getConnection();
+            getStatement = connection.prepareStatement(SQLQueries.GET_FEATURE_PROJECTION);
+            getStatement.setString(1, modelID);
+            result = getStatement.executeQuery();
+            if (result.first()) {
+                return (FeatureProjection) result.getObject(1);
+            } else {
+                throw new DatabaseHandlerException("Invalid model ID: " + modelID);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseHandlerException("An error occured while reading feature projection " +
+                                               "for " + modelID + " from the database: " +
+                                               e.getMessage(), e);
+        } finally {
+            MLDatabaseUtils.closeDatabaseResources(connection, getStatement, result);
+        }
+    }
+
+    /**
+     * This method returns the categories of the features of the data-set of a workflow which are
+     * categorical by their summary statistics, read from the frequency tables of the summaries
+     *
+     * @param workflowID Machine learning workflow ID
+     * @return Returns the categorical summaries by feature name
+     * @throws DatabaseHandlerException
+     */
+    public Map<String, CategoricalSummary> getCategoricalSummaries(String workflowID)
+            throws DatabaseHandlerException {
+        Connection connection = null;
+        ResultSet result = null;
+        PreparedStatement getStatement = null;
+        try {
+            Map<String, CategoricalSummary> summaries = new HashMap<String, CategoricalSummary>();
+            connection = dataSource.getConnection();
+            getStatement = connection.prepareStatement(
+                    SQLQueries.GET_FEATURE_SUMMARIES_BY_TYPE);
+            getStatement.setString(1, MLModelConstants.CATEGORICAL);
+            getStatement.setString(2, workflowID);
+            result = getStatement.executeQuery();
+            while (result.next()) {
+                String summary = result.getString(2);
+                if (summary != null) {
+                    summaries.put(result.getString(1), getCategoricalSummary(summary));
+                }
+            }
+            return summaries;
+        } catch (SQLException e) {
+            throw new DatabaseHandlerException("An error occured while reading categorical " +
+                                               "summaries of workflow " + workflowID + ": " +
+                                               e.getMessage(), e);
+        } catch (JSONException e) {
+            throw new DatabaseHandlerException("An error occured while parsing categorical " +
+                                               "summaries of workflow " + workflowID + ": " +
+                                               e.getMessage(), e);
+        } finally {
+            MLDatabaseUtils.closeDatabaseResources(connection, getStatement, result);
+        }
+    }
+
+    /**
+     * @param summary JSON summary statistics of a feature, as plotted by the UI
+     * @return Returns the categories of the frequency table and the number of unique values
+     */
+    private static CategoricalSummary getCategoricalSummary(String summary)
+            throws JSONException {
+        JSONObject statistics = new JSONArray(summary).getJSONObject(0);
+        JSONArray frequencies = statistics.getJSONArray("values");
+        List<String> categories = new ArrayList<String>(frequencies.length());
+        for (int i = 0; i < frequencies.length(); i++) {
+            categories.add(frequencies.getJSONArray(i).getString(0));
+        }
+        CategoricalSummary categoricalSummary = new CategoricalSummary();
+        categoricalSummary.setCategories(categories);
+        categoricalSummary.setUnique(statistics.getInt("unique"));
+        return categoricalSummary;
+    }
+
     /**
      *
      * @param workflowID Machine learning workflow ID
@@ -266,6 +517,7 @@ public class DatabaseHandler {
                     mlFeature.setType(result.getString(2));
                     mlFeature.setImputeOption(result.getString(3));
                     mlFeature.setInclude(result.getBoolean(4));
+                    mlFeature.setIndex(result.getInt(5));
                     mlFeatures.add(mlFeature);
                 }
             }
@@ -355,4 +607,8 @@ public class DatabaseHandler {
             MLDatabaseUtils.closeDatabaseResources(connection, statement, result);
         }
     }
+
+    private static long getTime(Timestamp time) {
+        return time != null ? time.getTime() : 0;
+    }
 }
@@ -50,7 +50,7 @@ public class MLModelUtils {
 
     /**
      * @param feature         Feature name
-     * @param headerRow       HeaderFilter row
+     * @param headerRow       Header row
      * @param columnSeparator Column separator character
      * @return Index of the response variable
      */
@@ -68,6 +68,15 @@ public class MLModelUtils {
         return featureIndex;
     }
 
+    /**
+     * @param headerRow       Header row
+     * @param columnSeparator Column separator character
+     * @return Names of the columns, including empty names
+     */
+    public static String[] getColumnNames(String headerRow, String columnSeparator) {
+        return headerRow.split(columnSeparator, -1);
+    }
+
     /**
      * @param datasetURL Dataset URL
      * @return Column separator character
@@ -145,7 +154,8 @@ public class MLModelUtils {
     public static Object parseXML(String xmlFilePath) throws XMLParserException {
         try {
             File file = new File(xmlFilePath);
-            JAXBContext jaxbContext = JAXBContext.newInstance(MLAlgorithms.class);
+            JAXBContext jaxbContext = JAXBContext.newInstance(MLAlgorithms.class,
+                    SparkSettings.class);
             Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
             return jaxbUnmarshaller.unmarshal(file);
         } catch (JAXBException e) {
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.spark.storage.StorageLevel;
+import org.wso2.carbon.ml.model.internal.dto.MLFeature;
+import org.wso2.carbon.ml.model.internal.dto.MLWorkflow;
+import org.wso2.carbon.ml.model.internal.dto.PreprocessedDataset;
+import org.wso2.carbon.ml.model.spark.dto.FeatureProjection;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Least recently used cache of preprocessed data-sets, persisted on the shared Spark context, so
+ * that models built from the same data-set with the same feature settings, e.g. while tuning
+ * hyper-parameters, skip parsing the data-set. A data-set is identified by its URL, the checksum
+ * of its file and a hash of the feature settings it was preprocessed with.
+ */
+public class PreprocessedDatasetCache {
+    private static final Log logger = LogFactory.getLog(PreprocessedDatasetCache.class);
+    private static final int BUFFER_SIZE = 65536;
+
+    private final int maxDatasets;
+    private final StorageLevel storageLevel;
+    // preprocessed data-sets in the order of access, the least recently used first
+    private final LinkedHashMap<String, PreprocessedDataset> datasets =
+            new LinkedHashMap<String, PreprocessedDataset>(16, 0.75f, true);
+    // checksums of data-set files, by their path, length and last modified time
+    private final Map<String, Long> checksums = new LinkedHashMap<String, Long>();
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxDatasets  Maximum number of preprocessed data-sets kept
+     * @param storageLevel Storage level the preprocessed data-sets are persisted at
+     */
+    public PreprocessedDatasetCache(int maxDatasets, StorageLevel storageLevel) {
+        this.maxDatasets = maxDatasets;
+        this.storageLevel = storageLevel;
+    }
+
+    /**
+     * @param workflow   Machine learning workflow
+     * @param projection Projection of the data-set columns in to the feature vectors
+     * @return Returns the key of the preprocessed data-set of the workflow, or null if the
+     * data-set file can not be read locally, and therefore can not be cached
+     */
+    public String getKey(MLWorkflow workflow, FeatureProjection projection) {
+        File file = new File(workflow.getDatasetURL());
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return workflow.getDatasetURL() + "#" + Long.toHexString(getChecksum(file)) + "#" +
+                   getFeatureSettingsHash(workflow, projection);
+        } catch (IOException e) {
+            logger.warn("Preprocessed data-set of " + workflow.getDatasetURL() + " can not be " +
+                        "cached: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * @param key Key of the preprocessed data-set
+     * @return Returns the preprocessed data-set, or null if it is not cached
+     */
+    public synchronized PreprocessedDataset get(String key) {
+        PreprocessedDataset dataset = datasets.get(key);
+        if (dataset == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return dataset;
+    }
+
+    /**
+     * Persists a preprocessed data-set and puts it in to the cache, unpersisting the least
+     * recently used data-sets beyond the size of the cache. If the data-set was cached meanwhile
+     * by another build, the cached data-set is kept and returned instead.
+     *
+     * @param key     Key of the preprocessed data-set
+     * @param dataset Preprocessed data-set
+     * @return Returns the cached data-set, to be used instead of the given one
+     */
+    public synchronized PreprocessedDataset put(String key, PreprocessedDataset dataset) {
+        PreprocessedDataset cached = datasets.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (maxDatasets < 1) {
+            return dataset;
+        }
+        dataset.getLabeledPoints().persist(storageLevel);
+        datasets.put(key, dataset);
+        Iterator<Map.Entry<String, PreprocessedDataset>> iterator =
+                datasets.entrySet().iterator();
+        while (datasets.size() > maxDatasets && iterator.hasNext()) {
+            Map.Entry<String, PreprocessedDataset> eldest = iterator.next();
+            // builds still using an evicted data-set recompute it from the file
+            eldest.getValue().getLabeledPoints().unpersist(false);
+            iterator.remove();
+            evictions++;
+        }
+        return dataset;
+    }
+
+    /**
+     * Unpersists all the cached data-sets.
+     */
+    public synchronized void clear() {
+        for (PreprocessedDataset dataset : datasets.values()) {
+            dataset.getLabeledPoints().unpersist(false);
+        }
+        datasets.clear();
+        checksums.clear();
+    }
+
+    /**
+     * @return Returns the number of lookups which found a cached data-set
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return Returns the number of lookups which did not find a cached data-set
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return Returns the number of data-sets unpersisted to keep the cache within its size
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return Returns the storage level the preprocessed data-sets are persisted at
+     */
+    public StorageLevel getStorageLevel() {
+        return storageLevel;
+    }
+
+    /**
+     * The checksum of a file is computed once, and reused until the length or the last modified
+     * time of the file changes.
+     */
+    private long getChecksum(File file) throws IOException {
+        String version = file.getAbsolutePath() + "#" + file.length() + "#" + file.lastModified();
+        synchronized (this) {
+            Long checksum = checksums.get(version);
+            if (checksum != null) {
+                return checksum;
+            }
+        }
+        CRC32 crc = new CRC32();
+        InputStream input = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        } finally {
+            input.close();
+        }
+        synchronized (this) {
+            // forget the checksums of data-set files which are no longer cached
+            if (checksums.size() >= maxDatasets * 2 + 1) {
+                checksums.clear();
+            }
+            checksums.put(version, crc.getValue());
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Hash of the settings which the preprocessing of a data-set depends on: the response
+     * variable, the name, index, type, impute option and inclusion of each feature, and the
+     * layout of the feature vectors, which depends on the encoding of the categorical features.
+     */
+    protected static String getFeatureSettingsHash(MLWorkflow workflow,
+            FeatureProjection projection) {
+        List<MLFeature> features = new ArrayList<MLFeature>(workflow.getFeatures());
+        Collections.sort(features, new Comparator<MLFeature>() {
+            @Override
+            public int compare(MLFeature feature1, MLFeature feature2) {
+                return feature1.getName().compareTo(feature2.getName());
+            }
+        });
+        StringBuilder settings = new StringBuilder(workflow.getResponseVariable());
+        for (MLFeature feature : features) {
+            settings.append('\n').append(feature.getName()).append('\t').append(feature.getIndex())
+                    .append('\t').append(feature.getType()).append('\t')
+                    .append(feature.getImputeOption()).append('\t').append(feature.isInclude());
+        }
+        settings.append('\n').append(projection);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(
+                    settings.toString().getBytes("UTF-8"));
+            StringBuilder hash = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hash.append(Character.forDigit((b >> 4) & 0xf, 16)).append(
+                        Character.forDigit(b & 0xf, 16));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-1
+            throw new IllegalStateException(e);
+        } catch (UnsupportedEncodingException e) {
+            // every Java platform supports UTF-8
+            throw new IllegalStateException(e);
+        }
+    }
+}
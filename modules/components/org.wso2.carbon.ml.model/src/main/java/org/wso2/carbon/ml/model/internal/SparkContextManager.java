@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.storage.StorageLevel;
+import org.wso2.carbon.ml.model.exceptions.SparkConfigurationParserException;
+import org.wso2.carbon.ml.model.internal.constants.MLModelConstants;
+import org.wso2.carbon.ml.model.internal.dto.PreprocessingSettings;
+import org.wso2.carbon.ml.model.internal.dto.TrainingJobSettings;
+
+/**
+ * Owns the Spark context shared by all model builds. The context is created from the Spark
+ * configuration on first use, and lives until the model service stops. Each build runs as a job
+ * group of its own on the shared context, so that it can be cancelled on its own. Data-sets
+ * preprocessed on the context are cached along with it.
+ */
+public class SparkContextManager {
+    private static final Log logger = LogFactory.getLog(SparkContextManager.class);
+    private static final String APP_NAME_PROPERTY = "spark.app.name";
+    private static final String DEFAULT_APP_NAME = "WSO2 Machine Learner";
+
+    private final String sparkConfigXML;
+    // read without the lock by cancellations, which must not wait for the context to start
+    private volatile JavaSparkContext context;
+    private PreprocessedDatasetCache datasetCache;
+    private PreprocessingSettings preprocessingSettings;
+
+    /**
+     * @param sparkConfigXML Path to the Spark configuration
+     */
+    public SparkContextManager(String sparkConfigXML) {
+        this.sparkConfigXML = sparkConfigXML;
+    }
+
+    /**
+     * @return Returns the shared Spark context, creating it if it is not created yet
+     * @throws SparkConfigurationParserException
+     */
+    public synchronized JavaSparkContext getContext() throws SparkConfigurationParserException {
+        if (context == null) {
+            SparkConf sparkConf = MLModelUtils.getSparkConf(sparkConfigXML);
+            if (!sparkConf.contains(APP_NAME_PROPERTY)) {
+                sparkConf.setAppName(DEFAULT_APP_NAME);
+            }
+            PreprocessedDatasetCache cache = createDatasetCache(sparkConf);
+            PreprocessingSettings settings = createPreprocessingSettings(sparkConf);
+            /**
+             * Spark looks for various configuration files using it's class loader. Therefore, the
+             * class loader needed to be switched temporarily.
+             */
+            ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+            try {
+                Thread.currentThread().setContextClassLoader(
+                        JavaSparkContext.class.getClassLoader());
+                context = new JavaSparkContext(sparkConf);
+                datasetCache = cache;
+                preprocessingSettings = settings;
+            } finally {
+                Thread.currentThread().setContextClassLoader(tccl);
+            }
+            logger.info("Spark context started.");
+        }
+        return context;
+    }
+
+    /**
+     * @return Returns the cache of data-sets preprocessed on the shared Spark context
+     * @throws SparkConfigurationParserException
+     */
+    public synchronized PreprocessedDatasetCache getDatasetCache()
+            throws SparkConfigurationParserException {
+        getContext();
+        return datasetCache;
+    }
+
+    /**
+     * @return Returns the settings of preprocessing data-sets, as configured for the shared Spark
+     * context
+     * @throws SparkConfigurationParserException
+     */
+    public synchronized PreprocessingSettings getPreprocessingSettings()
+            throws SparkConfigurationParserException {
+        getContext();
+        return preprocessingSettings;
+    }
+
+    /**
+     * @return Returns the settings of the training job scheduler, read from the Spark
+     * configuration without starting the Spark context
+     * @throws SparkConfigurationParserException
+     */
+    public TrainingJobSettings getTrainingJobSettings() throws SparkConfigurationParserException {
+        SparkConf sparkConf = MLModelUtils.getSparkConf(sparkConfigXML);
+        TrainingJobSettings settings = new TrainingJobSettings();
+        String property = MLModelConstants.MAX_CONCURRENT_TRAINING_JOBS;
+        try {
+            settings.setMaxConcurrentJobs(Integer.parseInt(sparkConf.get(property,
+                    String.valueOf(MLModelConstants.DEFAULT_MAX_CONCURRENT_TRAINING_JOBS))));
+            property = MLModelConstants.TRAINING_QUEUE_CAPACITY;
+            settings.setQueueCapacity(Integer.parseInt(sparkConf.get(property,
+                    String.valueOf(MLModelConstants.DEFAULT_TRAINING_QUEUE_CAPACITY))));
+        } catch (NumberFormatException e) {
+            throw new SparkConfigurationParserException("Invalid " + property + ": " +
+                                                        e.getMessage(), e);
+        }
+        if (settings.getMaxConcurrentJobs() < 1) {
+            throw new SparkConfigurationParserException("Invalid " +
+                    MLModelConstants.MAX_CONCURRENT_TRAINING_JOBS + ": " +
+                    settings.getMaxConcurrentJobs() + " is not positive", null);
+        }
+        if (settings.getQueueCapacity() < 0) {
+            throw new SparkConfigurationParserException("Invalid " +
+                    MLModelConstants.TRAINING_QUEUE_CAPACITY + ": " +
+                    settings.getQueueCapacity() + " is negative", null);
+        }
+        return settings;
+    }
+
+    /**
+     * Runs the Spark jobs submitted by the current thread as a job group, until the job group is
+     * cleared.
+     *
+     * @param groupID     Job group ID
+     * @param description Job group description
+     * @throws SparkConfigurationParserException
+     */
+    public void setJobGroup(String groupID, String description)
+            throws SparkConfigurationParserException {
+        // interrupt the tasks of the group when it is cancelled, so that they stop promptly
+        getContext().sc().setJobGroup(groupID, description, true);
+    }
+
+    /**
+     * Stops running the Spark jobs submitted by the current thread as a job group.
+     */
+    public void clearJobGroup() {
+        JavaSparkContext sparkContext = context;
+        if (sparkContext != null) {
+            sparkContext.sc().clearJobGroup();
+        }
+    }
+
+    /**
+     * Cancels the running Spark jobs of a job group.
+     *
+     * @param groupID Job group ID
+     */
+    public void cancelJobGroup(String groupID) {
+        JavaSparkContext sparkContext = context;
+        if (sparkContext != null) {
+            sparkContext.sc().cancelJobGroup(groupID);
+        }
+    }
+
+    /**
+     * Stops the Spark context, if it is started.
+     */
+    public synchronized void stop() {
+        if (context != null) {
+            datasetCache.clear();
+            datasetCache = null;
+            context.stop();
+            context = null;
+            logger.info("Spark context stopped.");
+        }
+    }
+
+    private static PreprocessedDatasetCache createDatasetCache(SparkConf sparkConf)
+            throws SparkConfigurationParserException {
+        try {
+            int maxDatasets = Integer.parseInt(sparkConf.get(
+                    MLModelConstants.DATASET_CACHE_SIZE,
+                    String.valueOf(MLModelConstants.DEFAULT_DATASET_CACHE_SIZE)));
+            String storageLevel = sparkConf.get(MLModelConstants.DATASET_CACHE_STORAGE_LEVEL,
+                    MLModelConstants.DEFAULT_DATASET_CACHE_STORAGE_LEVEL);
+            return new PreprocessedDatasetCache(maxDatasets, getStorageLevel(storageLevel));
+        } catch (NumberFormatException e) {
+            throw new SparkConfigurationParserException("Invalid " +
+                    MLModelConstants.DATASET_CACHE_SIZE + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static PreprocessingSettings createPreprocessingSettings(SparkConf sparkConf)
+            throws SparkConfigurationParserException {
+        PreprocessingSettings settings = new PreprocessingSettings();
+        String property = MLModelConstants.SPARSE_VECTOR_MAX_DENSITY;
+        try {
+            settings.setMaxSparseDensity(Double.parseDouble(sparkConf.get(property,
+                    String.valueOf(MLModelConstants.DEFAULT_SPARSE_VECTOR_MAX_DENSITY))));
+            property = MLModelConstants.MAX_DICTIONARY_SIZE;
+            settings.setMaxDictionarySize(Integer.parseInt(sparkConf.get(property,
+                    String.valueOf(MLModelConstants.DEFAULT_MAX_DICTIONARY_SIZE))));
+            property = MLModelConstants.HASH_BUCKETS;
+            settings.setHashBuckets(Integer.parseInt(sparkConf.get(property,
+                    String.valueOf(MLModelConstants.DEFAULT_HASH_BUCKETS))));
+            property = MLModelConstants.IMPUTATION_SAMPLE_FRACTION;
+            settings.setImputationSampleFraction(Double.parseDouble(sparkConf.get(property,
+                    String.valueOf(MLModelConstants.DEFAULT_IMPUTATION_SAMPLE_FRACTION))));
+        } catch (NumberFormatException e) {
+            throw new SparkConfigurationParserException("Invalid " + property + ": " +
+                                                        e.getMessage(), e);
+        }
+        if (settings.getMaxSparseDensity() < 0 || settings.getMaxSparseDensity() > 1) {
+            throw new SparkConfigurationParserException("Invalid " +
+                    MLModelConstants.SPARSE_VECTOR_MAX_DENSITY + ": " +
+                    settings.getMaxSparseDensity() + " is not between 0 and 1", null);
+        }
+        if (settings.getHashBuckets() < 1) {
+            throw new SparkConfigurationParserException("Invalid " +
+                    MLModelConstants.HASH_BUCKETS + ": " + settings.getHashBuckets() +
+                    " is not positive", null);
+        }
+        if (settings.getImputationSampleFraction() <= 0 ||
+            settings.getImputationSampleFraction() > 1) {
+            throw new SparkConfigurationParserException("Invalid " +
+                    MLModelConstants.IMPUTATION_SAMPLE_FRACTION + ": " +
+                    settings.getImputationSampleFraction() + " is not above 0 and at most 1",
+                    null);
+        }
+        return settings;
+    }
+
+    private static StorageLevel getStorageLevel(String name)
+            throws SparkConfigurationParserException {
+        if ("MEMORY_ONLY".equals(name)) {
+            return StorageLevel.MEMORY_ONLY();
+        } else if ("MEMORY_ONLY_SER".equals(name)) {
+            return StorageLevel.MEMORY_ONLY_SER();
+        } else if ("MEMORY_AND_DISK".equals(name)) {
+            return StorageLevel.MEMORY_AND_DISK();
+        } else if ("MEMORY_AND_DISK_SER".equals(name)) {
+            return StorageLevel.MEMORY_AND_DISK_SER();
+        } else if ("DISK_ONLY".equals(name)) {
+            return StorageLevel.DISK_ONLY();
+        }
+        throw new SparkConfigurationParserException("Invalid " +
+                MLModelConstants.DATASET_CACHE_STORAGE_LEVEL + ": " + name, null);
+    }
+}
@@ -20,8 +20,6 @@ package org.wso2.carbon.ml.model.internal;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.spark.SparkConf;
-import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.mllib.util.MLUtils;
 import org.json.JSONObject;
 import org.osgi.service.component.ComponentContext;
@@ -34,13 +32,15 @@ import org.wso2.carbon.ml.model.internal.dto.ConfusionMatrix;
 import org.wso2.carbon.ml.model.internal.dto.HyperParameter;
 import org.wso2.carbon.ml.model.internal.dto.MLAlgorithm;
 import org.wso2.carbon.ml.model.internal.dto.MLAlgorithms;
-import org.wso2.carbon.ml.model.internal.dto.MLWorkflow;
+import org.wso2.carbon.ml.model.internal.dto.ModelExecutionStatus;
 import org.wso2.carbon.ml.model.internal.dto.ModelSettings;
-import org.wso2.carbon.ml.model.spark.algorithms.SupervisedModel;
+import org.wso2.carbon.ml.model.internal.dto.TrainingJobSettings;
+import org.wso2.carbon.ml.model.spark.dto.FeatureProjection;
 import org.wso2.carbon.ml.model.spark.dto.ModelSummary;
 import org.wso2.carbon.ml.model.spark.dto.PredictedVsActual;
 import org.wso2.carbon.ml.model.spark.dto.ProbabilisticClassificationModelSummary;
 
+import java.sql.Timestamp;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -49,16 +49,17 @@ import java.util.List;
 import java.util.Map;
 
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.BINARY;
-import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.CLASSIFICATION;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.DATASET_SIZE;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.DECIMAL_FORMAT;
+import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.DEFAULT_TENANT_ID;
+import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.DEFAULT_TRAINING_PRIORITY;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.HIGH;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.INTERPRETABILITY;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.LARGE;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.MEDIUM;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.ML_ALGORITHMS_CONFIG_XML;
+import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.MODEL_STATUS;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.NO;
-import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.NUMERICAL_PREDICTION;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.SMALL;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.SPARK_CONFIG_XML;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.SUPERVISED_ALGORITHM;
@@ -73,6 +74,8 @@ import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.YES;
 public class SparkModelService implements ModelService {
     private static final Log logger = LogFactory.getLog(SparkModelService.class);
     private MLAlgorithms mlAlgorithms;
+    private TrainingJobScheduler trainingJobScheduler;
+    private SparkContextManager sparkContextManager;
 
     public SparkModelService() throws MLAlgorithmParserException {
         mlAlgorithms = MLModelUtils.getMLAlgorithms(ML_ALGORITHMS_CONFIG_XML);
@@ -86,12 +89,32 @@ public class SparkModelService implements ModelService {
     protected void activate(ComponentContext context) throws ModelServiceException {
         try {
             SparkModelService sparkModelService = new SparkModelService();
+            // models left unfinished when the server stopped will never be built
+            int unfinishedModels = new DatabaseHandler().failUnfinishedModels();
+            if (unfinishedModels > 0) {
+                logger.warn(unfinishedModels + " unfinished models of a previous run are marked as "
+                            + "failed.");
+            }
+            // the Spark context is started by the first build
+            sparkContextManager = new SparkContextManager(SPARK_CONFIG_XML);
+            sparkModelService.sparkContextManager = sparkContextManager;
+            TrainingJobSettings trainingJobSettings = sparkContextManager.getTrainingJobSettings();
+            trainingJobScheduler = new TrainingJobScheduler(
+                    trainingJobSettings.getMaxConcurrentJobs(),
+                    trainingJobSettings.getQueueCapacity());
+            sparkModelService.trainingJobScheduler = trainingJobScheduler;
             context.getBundleContext().registerService(ModelService.class.getName(),
                     sparkModelService, null);
             logger.info("ML Model Service Started.");
         } catch (MLAlgorithmParserException e) {
             throw new ModelServiceException("An error occured while parsing machine learning " +
                                             "algorithm configration: " + e.getMessage(), e);
+        } catch (DatabaseHandlerException e) {
+            throw new ModelServiceException("An error occured while updating unfinished models: "
+                                            + e.getMessage(), e);
+        } catch (SparkConfigurationParserException e) {
+            throw new ModelServiceException("An error occured while parsing the training job " +
+                                            "settings: " + e.getMessage(), e);
         }
     }
 
@@ -101,6 +124,12 @@ public class SparkModelService implements ModelService {
      * @param context ComponentContext
      */
     protected void deactivate(ComponentContext context) {
+        if (trainingJobScheduler != null) {
+            trainingJobScheduler.shutdown();
+        }
+        if (sparkContextManager != null) {
+            sparkContextManager.stop();
+        }
         logger.info("ML Model Service Stopped.");
     }
 
@@ -189,36 +218,80 @@ public class SparkModelService implements ModelService {
      * @throws ModelServiceException
      */
     public void buildModel(String modelID, String workflowID) throws ModelServiceException {
-        /**
-         * Spark looks for various configuration files using it's class loader. Therefore, the
-         * class loader needed to be switched temporarily.
-         */
-        // assign current thread context class loader to a variable
-        ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+        buildModel(modelID, workflowID, DEFAULT_TRAINING_PRIORITY);
+    }
+
+    /**
+     * Queues a model to be built. Models are built in the background, a few at a time, and
+     * tenants take turns to have their models built.
+     *
+     * @param modelID    Model ID
+     * @param workflowID Workflow ID
+     * @param priority   Priority of the model among the queued models of the tenant
+     * @throws ModelServiceException
+     */
+    public void buildModel(String modelID, String workflowID, int priority)
+            throws ModelServiceException {
+        if (trainingJobScheduler == null) {
+            throw new ModelServiceException("Model service is not active.");
+        }
+        DatabaseHandler databaseHandler = null;
         try {
-            // class loader is switched to JavaSparkContext.class's class loader
-            Thread.currentThread().setContextClassLoader(JavaSparkContext.class.getClassLoader());
-            DatabaseHandler databaseHandler = new DatabaseHandler();
-            MLWorkflow workflow = databaseHandler.getWorkflow(workflowID);
-            String algorithmType = workflow.getAlgorithmClass();
-            if (CLASSIFICATION.equals(algorithmType) || NUMERICAL_PREDICTION.equals(
-                    algorithmType)) {
-                // create a new spark configuration
-                SparkConf sparkConf = MLModelUtils.getSparkConf(SPARK_CONFIG_XML);
-                SupervisedModel supervisedModel = new SupervisedModel();
-                supervisedModel.buildModel(modelID, workflow, sparkConf);
+            databaseHandler = new DatabaseHandler();
+            String tenantID = databaseHandler.getTenantID(workflowID);
+            if (tenantID == null) {
+                tenantID = DEFAULT_TENANT_ID;
             }
+            databaseHandler.insertModel(modelID, workflowID, priority,
+                    new Timestamp(System.currentTimeMillis()));
+            trainingJobScheduler.submit(new SparkTrainingJob(modelID, workflowID, tenantID,
+                    priority, sparkContextManager));
         } catch (DatabaseHandlerException e) {
             throw new ModelServiceException(
                     "An error occurred while saving model to database: " + e.getMessage(),
                     e);
-        } catch (SparkConfigurationParserException e) {
-            throw new ModelServiceException(
-                    "An error occurred while parsing spark configuration: " + e.getMessage(),
-                    e);
-        } finally {
-            // switch class loader back to thread context class loader
-            Thread.currentThread().setContextClassLoader(tccl);
+        } catch (ModelServiceException e) {
+            try {
+                databaseHandler.updateModelStatus(modelID, MODEL_STATUS.FAILED);
+            } catch (DatabaseHandlerException e1) {
+                logger.error("An error occurred while updating the status of model " + modelID +
+                             ": " + e1.getMessage(), e1);
+            }
+            throw new ModelServiceException("An error occurred while queuing model " + modelID +
+                                            ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Cancels building a queued or running model
+     *
+     * @param modelID Model ID
+     * @return Returns whether the model was queued or running
+     * @throws ModelServiceException
+     */
+    public boolean cancelModelBuild(String modelID) throws ModelServiceException {
+        if (trainingJobScheduler == null) {
+            throw new ModelServiceException("Model service is not active.");
+        }
+        return trainingJobScheduler.cancel(modelID);
+    }
+
+    /**
+     * @param modelID Model ID
+     * @return Returns the execution status of the model, including its position in the queue
+     * @throws ModelServiceException
+     */
+    public ModelExecutionStatus getExecutionStatus(String modelID) throws ModelServiceException {
+        try {
+            ModelExecutionStatus status = new DatabaseHandler().getModelExecutionStatus(modelID);
+            if (trainingJobScheduler != null
+                && MODEL_STATUS.QUEUED.toString().equals(status.getStatus())) {
+                status.setQueuePosition(trainingJobScheduler.getQueuePosition(modelID));
+            }
+            return status;
+        } catch (DatabaseHandlerException e) {
+            throw new ModelServiceException("An error occurred while querying model: " + modelID
+                                            + " for execution status: " + e.getMessage(), e);
         }
     }
 
@@ -239,6 +312,21 @@ public class SparkModelService implements ModelService {
         return modelSummary;
     }
 
+    /**
+     * @param modelID Model ID
+     * @return Projection of the data-set columns in to the feature vectors of the model
+     * @throws ModelServiceException
+     */
+    public FeatureProjection getFeatureProjection(String modelID) throws ModelServiceException {
+        try {
+            DatabaseHandler databaseHandler = new DatabaseHandler();
+            return databaseHandler.getFeatureProjection(modelID);
+        } catch (DatabaseHandlerException e) {
+            throw new ModelServiceException("An error occured while retrieving feature projection: "
+                                            + e.getMessage(), e);
+        }
+    }
+
     /**
      * @param modelSettings Model settings
      * @throws ModelServiceException
@@ -257,37 +345,29 @@ public class SparkModelService implements ModelService {
     }
 
     /**
-     * This method checks whether model execution is completed or not
+     * This method checks whether model execution is completed or not. A model which failed or
+     * was cancelled is completed as well.
      *
      * @param modelID Model ID
      * @return Indicates whether model execution is completed or not
      * @throws ModelServiceException
      */
     public boolean isExecutionCompleted(String modelID) throws ModelServiceException {
-        try {
-            DatabaseHandler handler = new DatabaseHandler();
-            return handler.getModelExecutionEndTime(modelID) > 0;
-        } catch (DatabaseHandlerException e) {
-            throw new ModelServiceException("An error occurred while querying model: " + modelID
-                                            + " for execution end time: " + e.getMessage(), e);
-        }
+        String status = getExecutionStatus(modelID).getStatus();
+        return !MODEL_STATUS.QUEUED.toString().equals(status)
+               && !MODEL_STATUS.RUNNING.toString().equals(status);
     }
 
     /**
-     * This method checks whether model execution is started or not
+     * This method checks whether model execution is started or not. A queued model is not
+     * started.
      *
      * @param modelID Model ID
      * @return Indicates whether model execution is started or not
      * @throws ModelServiceException
      */
     public boolean isExecutionStarted(String modelID) throws ModelServiceException {
-        try {
-            DatabaseHandler handler = new DatabaseHandler();
-            return handler.getModelExecutionStartTime(modelID) > 0;
-        } catch (DatabaseHandlerException e) {
-            throw new ModelServiceException("An error occurred while querying model: " + modelID +
-                                            " for execution start time: " + e.getMessage(), e);
-        }
+        return !MODEL_STATUS.QUEUED.toString().equals(getExecutionStatus(modelID).getStatus());
     }
 
     /**
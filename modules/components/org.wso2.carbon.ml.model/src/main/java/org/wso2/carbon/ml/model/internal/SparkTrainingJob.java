@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.wso2.carbon.ml.model.exceptions.DatabaseHandlerException;
+import org.wso2.carbon.ml.model.exceptions.ModelServiceException;
+import org.wso2.carbon.ml.model.exceptions.SparkConfigurationParserException;
+import org.wso2.carbon.ml.model.internal.dto.MLWorkflow;
+import org.wso2.carbon.ml.model.spark.algorithms.SupervisedModel;
+
+import java.sql.Timestamp;
+
+import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.CLASSIFICATION;
+import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.MODEL_STATUS;
+import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.NUMERICAL_PREDICTION;
+
+/**
+ * A training job which builds a model of a workflow as a job group of the shared Spark context,
+ * and records its status in the database
+ */
+public class SparkTrainingJob extends TrainingJob {
+    private static final Log logger = LogFactory.getLog(SparkTrainingJob.class);
+    private final String workflowID;
+    private final SparkContextManager sparkContextManager;
+
+    /**
+     * @param modelID             Model ID
+     * @param workflowID          Workflow ID
+     * @param tenantID            ID of the tenant who owns the workflow
+     * @param priority            Priority of the job
+     * @param sparkContextManager Manager of the shared Spark context
+     */
+    public SparkTrainingJob(String modelID, String workflowID, String tenantID, int priority,
+            SparkContextManager sparkContextManager) {
+        super(modelID, tenantID, priority);
+        this.workflowID = workflowID;
+        this.sparkContextManager = sparkContextManager;
+    }
+
+    @Override
+    public void run() {
+        if (isCancelled()) {
+            return;
+        }
+        /**
+         * Spark looks for various configuration files using it's class loader. Therefore, the
+         * class loader needed to be switched temporarily.
+         */
+        // assign current thread context class loader to a variable
+        ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+        try {
+            // class loader is switched to JavaSparkContext.class's class loader
+            Thread.currentThread().setContextClassLoader(JavaSparkContext.class.getClassLoader());
+            DatabaseHandler databaseHandler = new DatabaseHandler();
+            databaseHandler.updateModelStarted(getModelID(),
+                    new Timestamp(System.currentTimeMillis()));
+            MLWorkflow workflow = databaseHandler.getWorkflow(workflowID);
+            String algorithmType = workflow.getAlgorithmClass();
+            if (CLASSIFICATION.equals(algorithmType) || NUMERICAL_PREDICTION.equals(
+                    algorithmType)) {
+                JavaSparkContext sparkContext = sparkContextManager.getContext();
+                sparkContextManager.setJobGroup(getModelID(), "Training of model " +
+                                                              getModelID());
+                try {
+                    // a cancellation before the job group was set has no jobs to cancel
+                    if (!isCancelled()) {
+                        SupervisedModel supervisedModel = new SupervisedModel();
+                        supervisedModel.buildModel(getModelID(), workflow, sparkContext,
+                                sparkContextManager.getDatasetCache(),
+                                sparkContextManager.getPreprocessingSettings());
+                    }
+                } finally {
+                    sparkContextManager.clearJobGroup();
+                }
+            }
+            databaseHandler.updateModelStatus(getModelID(),
+                    isCancelled() ? MODEL_STATUS.CANCELLED : MODEL_STATUS.COMPLETED);
+        } catch (DatabaseHandlerException e) {
+            failed("An error occurred while saving model to database: " + e.getMessage(), e);
+        } catch (SparkConfigurationParserException e) {
+            failed("An error occurred while parsing spark configuration: " + e.getMessage(), e);
+        } catch (ModelServiceException e) {
+            failed(e.getMessage(), e);
+        } catch (Exception e) {
+            // includes checked exceptions which Spark throws without declaring them
+            failed("An error occurred while building the model: " + e.getMessage(), e);
+        } finally {
+            // switch class loader back to thread context class loader
+            Thread.currentThread().setContextClassLoader(tccl);
+        }
+    }
+
+    /**
+     * Cancels the Spark jobs of the model, rather than interrupting the worker, which Spark's
+     * job waiter would escape with an undeclared InterruptedException.
+     */
+    @Override
+    protected void stopRunning(Thread worker) {
+        sparkContextManager.cancelJobGroup(getModelID());
+    }
+
+    @Override
+    protected void discarded() {
+        updateStatus(MODEL_STATUS.CANCELLED);
+    }
+
+    private void failed(String message, Exception e) {
+        if (isCancelled()) {
+            logger.info("Training of model " + getModelID() + " was cancelled.");
+            updateStatus(MODEL_STATUS.CANCELLED);
+        } else {
+            logger.error("Training of model " + getModelID() + " failed: " + message, e);
+            updateStatus(MODEL_STATUS.FAILED);
+        }
+    }
+
+    private void updateStatus(MODEL_STATUS status) {
+        try {
+            new DatabaseHandler().updateModelStatus(getModelID(), status);
+        } catch (DatabaseHandlerException e) {
+            logger.error("An error occurred while updating the status of model " + getModelID() +
+                         ": " + e.getMessage(), e);
+        }
+    }
+}
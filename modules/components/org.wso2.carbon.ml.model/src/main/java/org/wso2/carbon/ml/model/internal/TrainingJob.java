@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.internal;
+
+/**
+ * A model training job, queued and run by the training job scheduler
+ */
+public abstract class TrainingJob implements Runnable {
+    private final String modelID;
+    private final String tenantID;
+    private final int priority;
+    // order of submission, to run jobs of the same priority first come first served
+    private long sequence;
+    private volatile boolean cancelled;
+    private Thread worker;
+
+    /**
+     * @param modelID  Model ID
+     * @param tenantID ID of the tenant who owns the model
+     * @param priority Priority of the job, higher priority jobs of a tenant run first
+     */
+    protected TrainingJob(String modelID, String tenantID, int priority) {
+        this.modelID = modelID;
+        this.tenantID = tenantID;
+        this.priority = priority;
+    }
+
+    /**
+     * @return Returns the model ID
+     */
+    public String getModelID() {
+        return modelID;
+    }
+
+    /**
+     * @return Returns the ID of the tenant who owns the model
+     */
+    public String getTenantID() {
+        return tenantID;
+    }
+
+    /**
+     * @return Returns the priority of the job
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return Returns whether the job has been cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancels the job. A running job is stopped by {@link #stopRunning()}, and has to stop at its
+     * own pace.
+     */
+    protected void cancel() {
+        cancelled = true;
+        if (worker != null) {
+            stopRunning(worker);
+        }
+    }
+
+    /**
+     * Asks the running job to stop, once it is cancelled. The worker thread is interrupted,
+     * unless the job stops in some other way.
+     *
+     * @param worker Thread running the job
+     */
+    protected void stopRunning(Thread worker) {
+        worker.interrupt();
+    }
+
+    /**
+     * Called when the job is cancelled, or dropped at shutdown, before it starts to run.
+     */
+    protected void discarded() {
+    }
+
+    protected long getSequence() {
+        return sequence;
+    }
+
+    protected void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    protected void setWorker(Thread worker) {
+        this.worker = worker;
+    }
+}
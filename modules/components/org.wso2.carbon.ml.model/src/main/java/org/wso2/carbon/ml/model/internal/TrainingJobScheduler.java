@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.ml.model.exceptions.ModelServiceException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Runs model training jobs on a fixed number of worker threads, from a bounded queue. Tenants
+ * with queued jobs are served in turn, so that one tenant can not hold up the others, and the
+ * jobs of a tenant run in the order of their priority, then of their submission.
+ */
+public class TrainingJobScheduler {
+    private static final Log logger = LogFactory.getLog(TrainingJobScheduler.class);
+
+    private static final Comparator<TrainingJob> JOB_ORDER = new Comparator<TrainingJob>() {
+        @Override
+        public int compare(TrainingJob job1, TrainingJob job2) {
+            if (job1.getPriority() != job2.getPriority()) {
+                return job1.getPriority() > job2.getPriority() ? -1 : 1;
+            }
+            return job1.getSequence() < job2.getSequence() ? -1 :
+                   (job1.getSequence() == job2.getSequence() ? 0 : 1);
+        }
+    };
+
+    private final int queueCapacity;
+    private final Thread[] workers;
+    // queued jobs of each tenant
+    private final Map<String, PriorityQueue<TrainingJob>> tenantQueues =
+            new HashMap<String, PriorityQueue<TrainingJob>>();
+    // tenants with queued jobs, in the order they are served
+    private final LinkedList<String> tenants = new LinkedList<String>();
+    // queued and running jobs by model ID
+    private final Map<String, TrainingJob> jobs = new HashMap<String, TrainingJob>();
+    private int queuedJobs;
+    private long sequence;
+    private boolean shutdown;
+
+    /**
+     * @param maxConcurrentJobs Maximum number of jobs run at once
+     * @param queueCapacity     Maximum number of jobs waiting to run
+     */
+    public TrainingJobScheduler(int maxConcurrentJobs, int queueCapacity) {
+        if (maxConcurrentJobs < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Invalid training job scheduler size: " +
+                                               maxConcurrentJobs + " workers, " + queueCapacity +
+                                               " queued jobs");
+        }
+        this.queueCapacity = queueCapacity;
+        this.workers = new Thread[maxConcurrentJobs];
+        for (int i = 0; i < maxConcurrentJobs; i++) {
+            workers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    runJobs();
+                }
+            }, "ml-training-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Queues a job to be run.
+     *
+     * @param job Training job
+     * @throws ModelServiceException If the queue is full, the scheduler is shut down, or a job of
+     *                               the same model is already queued or running
+     */
+    public synchronized void submit(TrainingJob job) throws ModelServiceException {
+        if (shutdown) {
+            throw new ModelServiceException("Training job scheduler is shut down.");
+        }
+        if (queuedJobs >= queueCapacity) {
+            throw new ModelServiceException("Training job queue is full: " + queuedJobs +
+                                            " jobs are waiting to run.");
+        }
+        if (jobs.containsKey(job.getModelID())) {
+            throw new ModelServiceException("A training job is already submitted for model: " +
+                                            job.getModelID());
+        }
+        job.setSequence(sequence++);
+        PriorityQueue<TrainingJob> queue = tenantQueues.get(job.getTenantID());
+        if (queue == null) {
+            queue = new PriorityQueue<TrainingJob>(11, JOB_ORDER);
+            tenantQueues.put(job.getTenantID(), queue);
+            tenants.addLast(job.getTenantID());
+        }
+        queue.add(job);
+        jobs.put(job.getModelID(), job);
+        queuedJobs++;
+        notify();
+    }
+
+    /**
+     * Cancels a queued or running job.
+     *
+     * @param modelID Model ID
+     * @return Returns whether a queued or running job of the model was found
+     */
+    public boolean cancel(String modelID) {
+        TrainingJob dequeued = null;
+        synchronized (this) {
+            TrainingJob job = jobs.get(modelID);
+            if (job == null) {
+                return false;
+            }
+            if (dequeue(job)) {
+                jobs.remove(modelID);
+                dequeued = job;
+            }
+            job.cancel();
+        }
+        // record the cancellation outside the lock, as it may take a while
+        if (dequeued != null) {
+            dequeued.discarded();
+        }
+        return true;
+    }
+
+    /**
+     * @param modelID Model ID
+     * @return Returns the position of the job in the queue, starting from 1, or 0 if the job is
+     * not queued
+     */
+    public synchronized int getQueuePosition(String modelID) {
+        TrainingJob job = jobs.get(modelID);
+        if (job == null || !tenantQueues.containsKey(job.getTenantID())
+            || !tenantQueues.get(job.getTenantID()).contains(job)) {
+            return 0;
+        }
+        // replay the order in which the queued jobs will be taken
+        Map<String, LinkedList<TrainingJob>> pending =
+                new HashMap<String, LinkedList<TrainingJob>>();
+        for (Map.Entry<String, PriorityQueue<TrainingJob>> entry : tenantQueues.entrySet()) {
+            TrainingJob[] queued = entry.getValue().toArray(new TrainingJob[0]);
+            Arrays.sort(queued, JOB_ORDER);
+            pending.put(entry.getKey(), new LinkedList<TrainingJob>(Arrays.asList(queued)));
+        }
+        LinkedList<String> turns = new LinkedList<String>(tenants);
+        int position = 1;
+        while (!turns.isEmpty()) {
+            String tenant = turns.removeFirst();
+            LinkedList<TrainingJob> queue = pending.get(tenant);
+            if (queue.removeFirst() == job) {
+                return position;
+            }
+            position++;
+            if (!queue.isEmpty()) {
+                turns.addLast(tenant);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return Returns the number of jobs waiting to run
+     */
+    public synchronized int getQueuedJobCount() {
+        return queuedJobs;
+    }
+
+    /**
+     * @return Returns the number of running jobs
+     */
+    public synchronized int getRunningJobCount() {
+        return jobs.size() - queuedJobs;
+    }
+
+    /**
+     * Stops taking jobs, drops the queued jobs and cancels the running jobs.
+     */
+    public void shutdown() {
+        List<TrainingJob> dropped = new ArrayList<TrainingJob>();
+        synchronized (this) {
+            shutdown = true;
+            for (PriorityQueue<TrainingJob> queue : tenantQueues.values()) {
+                dropped.addAll(queue);
+            }
+            tenantQueues.clear();
+            tenants.clear();
+            queuedJobs = 0;
+            for (TrainingJob job : jobs.values()) {
+                job.cancel();
+            }
+            for (TrainingJob job : dropped) {
+                jobs.remove(job.getModelID());
+            }
+            notifyAll();
+        }
+        for (TrainingJob job : dropped) {
+            job.discarded();
+        }
+    }
+
+    private void runJobs() {
+        while (true) {
+            TrainingJob job;
+            try {
+                job = take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (job == null) {
+                return;
+            }
+            try {
+                job.run();
+            } catch (Throwable e) {
+                // the worker outlives any failure of a job, which may not even be declared
+                logger.error("An error occured while running the training job of model: " +
+                             job.getModelID() + ": " + e.getMessage(), e);
+            } finally {
+                finished(job);
+            }
+        }
+    }
+
+    private synchronized TrainingJob take() throws InterruptedException {
+        while (!shutdown && tenants.isEmpty()) {
+            wait();
+        }
+        if (shutdown) {
+            return null;
+        }
+        // serve the next tenant in turn, who goes to the back if it has more queued jobs
+        String tenant = tenants.removeFirst();
+        PriorityQueue<TrainingJob> queue = tenantQueues.get(tenant);
+        TrainingJob job = queue.poll();
+        if (queue.isEmpty()) {
+            tenantQueues.remove(tenant);
+        } else {
+            tenants.addLast(tenant);
+        }
+        queuedJobs--;
+        job.setWorker(Thread.currentThread());
+        return job;
+    }
+
+    private synchronized void finished(TrainingJob job) {
+        job.setWorker(null);
+        jobs.remove(job.getModelID());
+        // clear an interrupt of a cancellation which came after the job ended
+        Thread.interrupted();
+    }
+
+    private boolean dequeue(TrainingJob job) {
+        PriorityQueue<TrainingJob> queue = tenantQueues.get(job.getTenantID());
+        if (queue == null || !queue.remove(job)) {
+            return false;
+        }
+        if (queue.isEmpty()) {
+            tenantQueues.remove(job.getTenantID());
+            tenants.remove(job.getTenantID());
+        }
+        queuedJobs--;
+        return true;
+    }
+}
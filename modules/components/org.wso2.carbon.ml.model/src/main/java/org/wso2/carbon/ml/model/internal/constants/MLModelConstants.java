@@ -48,6 +48,10 @@ public final class MLModelConstants {
     // feature settings
     public static final String DISCARD = "DISCARD";
     public static final String MEAN_IMPUTATION = "REPLACE_WTH_MEAN";
+    public static final String MEDIAN_IMPUTATION = "REPLACE_WTH_MEDIAN";
+    public static final String MODE_IMPUTATION = "REPLACE_WTH_MODE";
+    public static final String CATEGORICAL = "CATEGORICAL";
+    public static final String NUMERICAL = "NUMERICAL";
 
     // xml tags
     public static final String ALGORITHMS = "algorithms";
@@ -88,6 +92,36 @@ public final class MLModelConstants {
     public static final String SPARK_CONFIG_XML = "repository/conf/etc/spark-config.xml";
     public static final String ML_DB = "jdbc/WSO2ML_DB";
 
+    // training job scheduler, configured in the spark configuration
+    public static final String MAX_CONCURRENT_TRAINING_JOBS = "ml.training.maxConcurrentJobs";
+    public static final String TRAINING_QUEUE_CAPACITY = "ml.training.queueCapacity";
+    public static final int DEFAULT_MAX_CONCURRENT_TRAINING_JOBS = 2;
+    public static final int DEFAULT_TRAINING_QUEUE_CAPACITY = 50;
+    public static final int DEFAULT_TRAINING_PRIORITY = 0;
+    public static final String DEFAULT_TENANT_ID = "-1234";
+
+    // preprocessed dataset cache, configured in the spark configuration
+    public static final String DATASET_CACHE_SIZE = "ml.datasetCache.maxDatasets";
+    public static final String DATASET_CACHE_STORAGE_LEVEL = "ml.datasetCache.storageLevel";
+    public static final int DEFAULT_DATASET_CACHE_SIZE = 4;
+    public static final String DEFAULT_DATASET_CACHE_STORAGE_LEVEL = "MEMORY_AND_DISK";
+
+    // fraction of non-zero features below which a row is built as a sparse vector
+    public static final String SPARSE_VECTOR_MAX_DENSITY = "ml.sparseVectors.maxDensity";
+    public static final double DEFAULT_SPARSE_VECTOR_MAX_DENSITY = 0.3;
+
+    // categorical feature encoding, configured in the spark configuration
+    public static final String MAX_DICTIONARY_SIZE = "ml.categoricalEncoding.maxDictionarySize";
+    public static final String HASH_BUCKETS = "ml.categoricalEncoding.hashBuckets";
+    public static final int DEFAULT_MAX_DICTIONARY_SIZE = 1000;
+    public static final int DEFAULT_HASH_BUCKETS = 1024;
+
+    // fraction of the rows imputation statistics are calculated from, 1 for all the rows
+    public static final String IMPUTATION_SAMPLE_FRACTION = "ml.imputation.sampleFraction";
+    public static final double DEFAULT_IMPUTATION_SAMPLE_FRACTION = 1.0;
+    public static final int IMPUTATION_QUANTILE_SKETCH_SIZE = 200;
+    public static final int IMPUTATION_FREQUENT_ITEMS_SKETCH_SIZE = 100;
+
     // other
     public static final Long RANDOM_SEED = 11L;
     public static final String EMPTY = "";
@@ -107,6 +141,10 @@ public final class MLModelConstants {
         K_MEANS
     }
 
+    public enum MODEL_STATUS {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
     /**
      * Private constructor to prevent any other class from instantiating.
      */
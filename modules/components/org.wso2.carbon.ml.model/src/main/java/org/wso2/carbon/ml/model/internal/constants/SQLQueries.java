@@ -29,24 +29,52 @@ public class SQLQueries {
 
     public static final String UPDATE_ML_MODEL = "UPDATE ML_MODEL SET MODEL=?," +
                                                  "MODEL_SUMMARY=?," +
+                                                 "FEATURE_PROJECTION=?," +
                                                  "MODEL_EXECUTION_END_TIME=?"
                                                  + "WHERE MODEL_ID=?";
 
     public static final String INSERT_ML_MODEL = "INSERT INTO ML_MODEL(MODEL_ID,WORKFLOW_ID," +
-                                                 "MODEL_EXECUTION_START_TIME) VALUES(?,?,?)";
+                                                 "STATUS,PRIORITY,SUBMITTED_TIME) " +
+                                                 "VALUES(?,?,?,?,?)";
+
+    public static final String UPDATE_MODEL_STATUS = "UPDATE ML_MODEL SET STATUS=? WHERE " +
+                                                     "MODEL_ID=?";
+
+    public static final String UPDATE_MODEL_STARTED = "UPDATE ML_MODEL SET STATUS=?," +
+                                                      "MODEL_EXECUTION_START_TIME=? WHERE " +
+                                                      "MODEL_ID=?";
+
+    public static final String UPDATE_UNFINISHED_MODEL_STATUS = "UPDATE ML_MODEL SET STATUS=? " +
+                                                                "WHERE STATUS IN (?,?)";
+
+    public static final String GET_MODEL_EXECUTION_STATUS =
+            "SELECT STATUS,PRIORITY,SUBMITTED_TIME,MODEL_EXECUTION_START_TIME," +
+            "MODEL_EXECUTION_END_TIME FROM ML_MODEL WHERE MODEL_ID=?";
+
+    public static final String GET_TENANT_ID = "SELECT TENANT_ID FROM ML_TENANT_PROJECTS WHERE " +
+                                               "PROJECT_ID IN (SELECT PROJECT_ID FROM " +
+                                               "ML_WORKFLOW WHERE WORKFLOW_ID=?)";
 
     public static final String GET_MODEL_SUMMARY = "SELECT MODEL_SUMMARY FROM ML_MODEL WHERE "
                                                    + "MODEL_ID=?";
 
+    public static final String GET_FEATURE_PROJECTION = "SELECT FEATURE_PROJECTION FROM ML_MODEL " +
+                                                        "WHERE MODEL_ID=?";
+
     public static final String GET_ML_MODEL_SETTINGS =
             "SELECT ALGORITHM_CLASS,ALGORITHM_NAME,RESPONSE,TRAIN_DATA_FRACTION,HYPER_PARAMETERS " +
             "FROM ML_MODEL_SETTINGS WHERE "
             + "WORKFLOW_ID=?";
 
     public static final String GET_ML_FEATURE_SETTINGS = "SELECT FEATURE_NAME,TYPE,IMPUTE_METHOD," +
-                                                         "INCLUDE FROM ML_FEATURE_SETTINGS WHERE " +
+                                                         "INCLUDE,FEATURE_INDEX FROM " +
+                                                         "ML_FEATURE_SETTINGS WHERE " +
                                                          "WORKFLOW_ID=?";
 
+    public static final String GET_FEATURE_SUMMARIES_BY_TYPE =
+            "SELECT FEATURE_NAME,SUMMARY FROM ML_FEATURE_DEFAULTS WHERE TYPE=? AND DATASET_ID IN " +
+            "(SELECT DATASET_ID FROM ML_WORKFLOW WHERE WORKFLOW_ID=?)";
+
     public static final String GET_DATASET_LOCATION = "SELECT DATASET_URL FROM ML_DATASET WHERE "
                                                       + "DATASET_ID IN (SELECT DATASET_ID FROM " +
                                                       "ML_WORKFLOW WHERE WORKFLOW_ID=?)";
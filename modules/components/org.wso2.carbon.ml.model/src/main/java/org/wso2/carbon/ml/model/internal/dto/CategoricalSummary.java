@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.model.internal.dto;
+
+import java.util.List;
+
+/**
+ * DTO class to store the categories of a categorical feature, as listed by the summary statistics
+ * of the data-set
+ */
+public class CategoricalSummary {
+    private List<String> categories;
+    private int unique;
+
+    /**
+     * @return Returns the categories in the frequency table of the summary, which are the most
+     * frequent categories when the feature has too many categories to count
+     */
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    /**
+     * @param categories Sets the categories in the frequency table of the summary
+     */
+    public void setCategories(List<String> categories) {
+        this.categories = categories;
+    }
+
+    /**
+     * @return Returns the number of unique values of the feature, which is estimated when the
+     * feature has too many categories to count
+     */
+    public int getUnique() {
+        return unique;
+    }
+
+    /**
+     * @param unique Sets the number of unique values of the feature
+     */
+    public void setUnique(int unique) {
+        this.unique = unique;
+    }
+}
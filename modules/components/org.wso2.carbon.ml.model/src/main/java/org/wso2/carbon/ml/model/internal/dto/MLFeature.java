@@ -78,7 +78,8 @@ public class MLFeature {
     }
 
     /**
-     * @param imputeOption Sets impute option - DISCARD or REPLACE_WITH_MEAN
+     * @param imputeOption Sets impute option - DISCARD, REPLACE_WTH_MEAN, REPLACE_WTH_MEDIAN or
+     *                     REPLACE_WTH_MODE
      */
     public void setImputeOption(String imputeOption) {
         this.imputeOption = imputeOption;
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.internal.dto;
+
+/**
+ * DTO class to store the execution status of a model
+ */
+public class ModelExecutionStatus {
+    private String status;
+    private int priority;
+    private int queuePosition;
+    private long submittedTime;
+    private long startTime;
+    private long endTime;
+
+    /**
+     *
+     * @return Returns the status of the model - QUEUED, RUNNING, COMPLETED, FAILED or CANCELLED
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     *
+     * @param status Sets the status of the model
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     *
+     * @return Returns the priority of the training job
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     *
+     * @param priority Sets the priority of the training job
+     */
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    /**
+     *
+     * @return Returns the position of the training job in the queue, starting from 1, or 0 if
+     * the job is not queued
+     */
+    public int getQueuePosition() {
+        return queuePosition;
+    }
+
+    /**
+     *
+     * @param queuePosition Sets the position of the training job in the queue
+     */
+    public void setQueuePosition(int queuePosition) {
+        this.queuePosition = queuePosition;
+    }
+
+    /**
+     *
+     * @return Returns the time the training job was submitted, in milliseconds
+     */
+    public long getSubmittedTime() {
+        return submittedTime;
+    }
+
+    /**
+     *
+     * @param submittedTime Sets the time the training job was submitted
+     */
+    public void setSubmittedTime(long submittedTime) {
+        this.submittedTime = submittedTime;
+    }
+
+    /**
+     *
+     * @return Returns the time the model execution started, in milliseconds, or 0 if not started
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     *
+     * @param startTime Sets the time the model execution started
+     */
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    /**
+     *
+     * @return Returns the time the model execution ended, in milliseconds, or 0 if not ended
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    /**
+     *
+     * @param endTime Sets the time the model execution ended
+     */
+    public void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+}
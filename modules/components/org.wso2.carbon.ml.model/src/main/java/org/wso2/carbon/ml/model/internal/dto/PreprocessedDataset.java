@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.model.internal.dto;
+
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.mllib.regression.LabeledPoint;
+
+/**
+ * DTO class to store a data-set preprocessed in to labeled points, with the values the missing
+ * values of its columns were imputed with
+ */
+public class PreprocessedDataset {
+    private JavaRDD<LabeledPoint> labeledPoints;
+    private double[] imputeValues;
+
+    /**
+     * @return Returns the labeled points of the data-set
+     */
+    public JavaRDD<LabeledPoint> getLabeledPoints() {
+        return labeledPoints;
+    }
+
+    /**
+     * @param labeledPoints Sets the labeled points of the data-set
+     */
+    public void setLabeledPoints(JavaRDD<LabeledPoint> labeledPoints) {
+        this.labeledPoints = labeledPoints;
+    }
+
+    /**
+     * @return Returns the value which imputed a missing value of each column, or NaN for none
+     */
+    public double[] getImputeValues() {
+        return imputeValues;
+    }
+
+    /**
+     * @param imputeValues Sets the value which imputed a missing value of each column
+     */
+    public void setImputeValues(double[] imputeValues) {
+        this.imputeValues = imputeValues;
+    }
+}
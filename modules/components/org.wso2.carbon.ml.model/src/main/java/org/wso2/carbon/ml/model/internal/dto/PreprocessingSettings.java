@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.model.internal.dto;
+
+/**
+ * DTO class to store the settings of preprocessing data-sets in to feature vectors, configured in
+ * the spark configuration
+ */
+public class PreprocessingSettings {
+    private double maxSparseDensity;
+    private int maxDictionarySize;
+    private int hashBuckets;
+    private double imputationSampleFraction;
+
+    /**
+     * @return Returns the fraction of non-zero features below which a row is built as a sparse
+     * vector
+     */
+    public double getMaxSparseDensity() {
+        return maxSparseDensity;
+    }
+
+    /**
+     * @param maxSparseDensity Sets the fraction of non-zero features below which a row is built
+     *                         as a sparse vector
+     */
+    public void setMaxSparseDensity(double maxSparseDensity) {
+        this.maxSparseDensity = maxSparseDensity;
+    }
+
+    /**
+     * @return Returns the maximum number of categories of a categorical feature encoded with a
+     * dictionary, above which its values are hashed
+     */
+    public int getMaxDictionarySize() {
+        return maxDictionarySize;
+    }
+
+    /**
+     * @param maxDictionarySize Sets the maximum number of categories of a categorical feature
+     *                          encoded with a dictionary
+     */
+    public void setMaxDictionarySize(int maxDictionarySize) {
+        this.maxDictionarySize = maxDictionarySize;
+    }
+
+    /**
+     * @return Returns the number of hash buckets of a one-hot encoded categorical feature with
+     * too many categories for a dictionary
+     */
+    public int getHashBuckets() {
+        return hashBuckets;
+    }
+
+    /**
+     * @param hashBuckets Sets the number of hash buckets of a one-hot encoded categorical feature
+     *                    with too many categories for a dictionary
+     */
+    public void setHashBuckets(int hashBuckets) {
+        this.hashBuckets = hashBuckets;
+    }
+
+    /**
+     * @return Returns the fraction of the rows the values imputing missing values are calculated
+     * from
+     */
+    public double getImputationSampleFraction() {
+        return imputationSampleFraction;
+    }
+
+    /**
+     * @param imputationSampleFraction Sets the fraction of the rows the values imputing missing
+     *                                 values are calculated from
+     */
+    public void setImputationSampleFraction(double imputationSampleFraction) {
+        this.imputationSampleFraction = imputationSampleFraction;
+    }
+}
@@ -19,40 +19,40 @@
 package org.wso2.carbon.ml.model.spark.algorithms;
 
 import org.apache.commons.math3.stat.regression.ModelSpecificationException;
-import org.apache.spark.SparkConf;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.mllib.classification.LogisticRegressionModel;
-import org.apache.spark.mllib.linalg.Vector;
 import org.apache.spark.mllib.regression.LabeledPoint;
-import org.apache.spark.mllib.stat.MultivariateStatisticalSummary;
-import org.apache.spark.mllib.stat.Statistics;
 import org.apache.spark.mllib.tree.model.DecisionTreeModel;
 import org.wso2.carbon.ml.model.exceptions.AlgorithmNameException;
 import org.wso2.carbon.ml.model.exceptions.DatabaseHandlerException;
 import org.wso2.carbon.ml.model.exceptions.ModelServiceException;
 import org.wso2.carbon.ml.model.internal.DatabaseHandler;
 import org.wso2.carbon.ml.model.internal.MLModelUtils;
+import org.wso2.carbon.ml.model.internal.PreprocessedDatasetCache;
+import org.wso2.carbon.ml.model.internal.dto.CategoricalSummary;
+import org.wso2.carbon.ml.model.internal.dto.MLFeature;
 import org.wso2.carbon.ml.model.internal.dto.MLWorkflow;
+import org.wso2.carbon.ml.model.internal.dto.PreprocessedDataset;
+import org.wso2.carbon.ml.model.internal.dto.PreprocessingSettings;
+import org.wso2.carbon.ml.model.spark.dto.CategoricalEncoder;
 import org.wso2.carbon.ml.model.spark.dto.ClassClassificationModelSummary;
+import org.wso2.carbon.ml.model.spark.dto.FeatureProjection;
 import org.wso2.carbon.ml.model.spark.dto.ProbabilisticClassificationModelSummary;
-import org.wso2.carbon.ml.model.spark.transformations.DiscardedRowsFilter;
-import org.wso2.carbon.ml.model.spark.transformations.HeaderFilter;
-import org.wso2.carbon.ml.model.spark.transformations.LineToTokens;
-import org.wso2.carbon.ml.model.spark.transformations.MeanImputation;
-import org.wso2.carbon.ml.model.spark.transformations.MissingValuesFilter;
-import org.wso2.carbon.ml.model.spark.transformations.StringArrayToDoubleArray;
-import org.wso2.carbon.ml.model.spark.transformations.TokensToLabeledPoints;
-import org.wso2.carbon.ml.model.spark.transformations.TokensToVectors;
+import org.wso2.carbon.ml.model.spark.transformations.ImputationStatistics;
+import org.wso2.carbon.ml.model.spark.transformations.LinesToImputationStatistics;
+import org.wso2.carbon.ml.model.spark.transformations.LinesToLabeledPoints;
 import scala.Tuple2;
 
 import java.sql.Time;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
+import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.CATEGORICAL;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.DISCARD;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.IMPURITY;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.ITERATIONS;
@@ -60,6 +60,8 @@ import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.LEARN
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.MAX_BINS;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.MAX_DEPTH;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.MEAN_IMPUTATION;
+import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.MEDIAN_IMPUTATION;
+import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.MODE_IMPUTATION;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.NUM_CLASSES;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.RANDOM_SEED;
 import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.REGULARIZATION_PARAMETER;
@@ -69,17 +71,19 @@ import static org.wso2.carbon.ml.model.internal.constants.MLModelConstants.SUPER
 
 public class SupervisedModel {
     /**
-     * @param modelID   Model ID
-     * @param workflow  Workflow ID
-     * @param sparkConf Spark configuration
+     * @param modelID          Model ID
+     * @param workflow         Workflow ID
+     * @param sc               Shared Spark context, which is left running
+     * @param datasetCache     Cache of preprocessed data-sets, or null to preprocess the data-set
+     * @param settings         Settings of preprocessing the data-set in to feature vectors
      * @throws ModelServiceException
      */
-    public void buildModel(String modelID, MLWorkflow workflow, SparkConf sparkConf)
+    public void buildModel(String modelID, MLWorkflow workflow, JavaSparkContext sc,
+            PreprocessedDatasetCache datasetCache, PreprocessingSettings settings)
             throws ModelServiceException {
         try {
-            sparkConf.setAppName(modelID);
-            // create a new java spark context
-            JavaSparkContext sc = new JavaSparkContext(sparkConf);
+            SUPERVISED_ALGORITHM supervisedAlgorithm = SUPERVISED_ALGORITHM.valueOf(
+                    workflow.getAlgorithmName());
             // parse lines in the dataset
             String datasetURL = workflow.getDatasetURL();
             JavaRDD<String> lines = sc.textFile(datasetURL);
@@ -87,32 +91,31 @@ public class SupervisedModel {
             String headerRow = lines.take(1).get(0);
             // get column separator
             String columnSeparator = MLModelUtils.getColumnSeparator(datasetURL);
-            // apply pre processing
-            JavaRDD<double[]> features = preProcess(sc, workflow, lines, headerRow,
-                    columnSeparator);
-            // generate train and test datasets by converting tokens to labeled points
-            int responseIndex = MLModelUtils.getFeatureIndex(workflow.getResponseVariable(),
-                    headerRow, columnSeparator);
-            TokensToLabeledPoints tokensToLabeledPoints = new TokensToLabeledPoints(responseIndex);
-            JavaRDD<LabeledPoint> labeledPoints = features.map(tokensToLabeledPoints);
-            JavaRDD<LabeledPoint> trainingData = labeledPoints.sample(false,
-                    workflow.getTrainDataFraction(), RANDOM_SEED);
-            JavaRDD<LabeledPoint> testingData = labeledPoints.subtract(trainingData);
+            // project the included features other than the response in to the feature vectors
+            FeatureProjection projection = getFeatureProjection(workflow, headerRow,
+                    columnSeparator, getEncoders(workflow, supervisedAlgorithm, settings));
+            JavaRDD<LabeledPoint> labeledPoints = getLabeledPoints(sc, workflow, lines, headerRow,
+                    columnSeparator, projection, datasetCache, settings);
+            // split by sampling rows rather than subtracting the training rows, which would hash
+            // every feature vector as a dense array
+            double trainDataFraction = workflow.getTrainDataFraction();
+            JavaRDD<LabeledPoint>[] splits = labeledPoints.randomSplit(
+                    new double[] { trainDataFraction, 1 - trainDataFraction }, RANDOM_SEED);
+            JavaRDD<LabeledPoint> trainingData = splits[0];
+            JavaRDD<LabeledPoint> testingData = splits[1];
             // build a machine learning model according to user selected algorithm
-            SUPERVISED_ALGORITHM supervisedAlgorithm = SUPERVISED_ALGORITHM.valueOf(
-                    workflow.getAlgorithmName());
             switch (supervisedAlgorithm) {
                 case LOGISTIC_REGRESSION:
-                    buildLogisticRegressionModel(modelID, trainingData, testingData, workflow);
+                    buildLogisticRegressionModel(modelID, trainingData, testingData, workflow,
+                            projection);
                     break;
                 case DECISION_TREE:
-                    buildDecisionTreeModel(modelID, trainingData, testingData, workflow);
+                    buildDecisionTreeModel(modelID, trainingData, testingData, workflow,
+                            projection);
                     break;
                 default:
                     throw new AlgorithmNameException("Incorrect algorithm name");
             }
-            // stop spark context
-            sc.stop();
         } catch (ModelSpecificationException e) {
             throw new ModelServiceException(
                     "An error occurred while building supervised machine learning model: " +
@@ -121,48 +124,192 @@ public class SupervisedModel {
     }
 
     /**
-     * @param sc              JavaSparkContext
+     * Creates the encoders of the included categorical features, by the categories listed in the
+     * summary statistics of the data-set. Features are one-hot encoded, except for decision trees,
+     * which take category indices. A feature with more categories than the maximum dictionary
+     * size, or more than a decision tree has bins for, is hashed in to a bounded number of
+     * categories. A categorical response is indexed only if its categories are not numeric.
+     *
+     * @param workflow  Machine learning workflow
+     * @param algorithm Supervised algorithm
+     * @param settings  Settings of preprocessing the data-set in to feature vectors
+     * @return Returns the encoders by feature name
+     * @throws ModelServiceException
+     */
+    private Map<String, CategoricalEncoder> getEncoders(MLWorkflow workflow,
+            SUPERVISED_ALGORITHM algorithm, PreprocessingSettings settings)
+            throws ModelServiceException {
+        Map<String, CategoricalEncoder> encoders = new HashMap<String, CategoricalEncoder>();
+        boolean oneHot = algorithm != SUPERVISED_ALGORITHM.DECISION_TREE;
+        int maxCategories = oneHot ? Integer.MAX_VALUE : Integer.parseInt(
+                workflow.getHyperParameters().get(MAX_BINS));
+        Map<String, CategoricalSummary> summaries = null;
+        try {
+            for (MLFeature feature : workflow.getFeatures()) {
+                if (!feature.isInclude() || !CATEGORICAL.equals(feature.getType())) {
+                    continue;
+                }
+                if (summaries == null) {
+                    summaries = new DatabaseHandler().getCategoricalSummaries(
+                            workflow.getWorkflowID());
+                }
+                // a feature set as categorical but not summarized as categorical has no categories
+                CategoricalSummary summary = summaries.get(feature.getName());
+                if (feature.getName().equals(workflow.getResponseVariable())) {
+                    if (summary != null && !isNumeric(summary.getCategories())) {
+                        encoders.put(feature.getName(), new CategoricalEncoder(
+                                summary.getCategories(), false));
+                    }
+                } else if (summary != null && summary.getUnique() <= settings.getMaxDictionarySize()
+                           && summary.getCategories().size() < maxCategories) {
+                    encoders.put(feature.getName(), new CategoricalEncoder(summary.getCategories(),
+                            oneHot));
+                } else {
+                    encoders.put(feature.getName(), new CategoricalEncoder(Math.min(
+                            settings.getHashBuckets(), maxCategories), oneHot));
+                }
+            }
+        } catch (DatabaseHandlerException e) {
+            throw new ModelServiceException("An error occured while reading the categories of " +
+                                            "features: " + e.getMessage(), e);
+        }
+        return encoders;
+    }
+
+    private static boolean isNumeric(List<String> categories) {
+        for (String category : categories) {
+            try {
+                Double.parseDouble(category);
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
      * @param workflow        Machine learning workflow
-     * @param lines           JavaRDD of strings
-     * @param headerRow       HeaderFilter row
+     * @param headerRow       Header row of the data-set
      * @param columnSeparator Column separator
-     * @return Returns a JavaRDD of doubles
+     * @param encoders        Encoders of the categorical features by name
+     * @return Returns the projection of the data-set columns in to the feature vectors
+     * @throws ModelServiceException
+     */
+    private FeatureProjection getFeatureProjection(MLWorkflow workflow, String headerRow,
+            String columnSeparator, Map<String, CategoricalEncoder> encoders)
+            throws ModelServiceException {
+        List<String> includedFeatures = new ArrayList<String>();
+        for (MLFeature feature : workflow.getFeatures()) {
+            if (feature.isInclude()) {
+                includedFeatures.add(feature.getName());
+            }
+        }
+        return new FeatureProjection(MLModelUtils.getColumnNames(headerRow, columnSeparator),
+                workflow.getResponseVariable(), includedFeatures, encoders);
+    }
+
+    /**
+     * Preprocesses the lines of the data-set of a workflow in to labeled points, or takes them
+     * from the cache if the data-set was preprocessed with the same feature settings before, and
+     * sets the values the missing values were imputed with to the feature projection, so that
+     * they are stored with the model
+     *
+     * @param sc               JavaSparkContext
+     * @param workflow         Machine learning workflow
+     * @param lines            JavaRDD of strings
+     * @param headerRow        Header row of the data-set
+     * @param columnSeparator  Column separator
+     * @param projection       Projection of the data-set columns in to the feature vectors
+     * @param datasetCache     Cache of preprocessed data-sets, or null
+     * @param settings         Settings of preprocessing the data-set in to feature vectors
+     * @return Returns a JavaRDD of labeled points
      * @throws ModelServiceException
      */
-    private JavaRDD<double[]> preProcess(JavaSparkContext sc, MLWorkflow workflow, JavaRDD<String>
-            lines, String headerRow, String columnSeparator) throws ModelServiceException {
+    private JavaRDD<LabeledPoint> getLabeledPoints(JavaSparkContext sc, MLWorkflow workflow,
+            JavaRDD<String> lines, String headerRow, String columnSeparator,
+            FeatureProjection projection, PreprocessedDatasetCache datasetCache,
+            PreprocessingSettings settings) throws ModelServiceException {
+        String cacheKey = null;
+        if (datasetCache != null) {
+            cacheKey = datasetCache.getKey(workflow, projection);
+            if (cacheKey != null) {
+                PreprocessedDataset cached = datasetCache.get(cacheKey);
+                if (cached != null) {
+                    projection.setImputeValues(cached.getImputeValues());
+                    return cached.getLabeledPoints();
+                }
+            }
+        }
+        // apply pre processing
+        PreprocessedDataset dataset = preProcess(sc, workflow, lines, headerRow, columnSeparator,
+                projection, settings);
+        if (cacheKey != null) {
+            dataset = datasetCache.put(cacheKey, dataset);
+        }
+        projection.setImputeValues(dataset.getImputeValues());
+        return dataset.getLabeledPoints();
+    }
+
+    /**
+     * Decodes the lines of the data-set in to labeled points in a single pass, with the features
+     * given by the feature projection
+     *
+     * @param sc               JavaSparkContext
+     * @param workflow         Machine learning workflow
+     * @param lines            JavaRDD of strings
+     * @param headerRow        Header row
+     * @param columnSeparator  Column separator
+     * @param projection       Projection of the data-set columns in to the feature vectors
+     * @param settings         Settings of preprocessing the data-set in to feature vectors
+     * @return Returns the labeled points, with the values imputing the missing values
+     * @throws ModelServiceException
+     */
+    private PreprocessedDataset preProcess(JavaSparkContext sc, MLWorkflow workflow,
+            JavaRDD<String> lines, String headerRow, String columnSeparator,
+            FeatureProjection projection, PreprocessingSettings settings)
+            throws ModelServiceException {
         try {
-            HeaderFilter headerFilter = new HeaderFilter(headerRow);
-            JavaRDD<String> data = lines.filter(headerFilter);
-            Pattern pattern = Pattern.compile(columnSeparator);
-            LineToTokens lineToTokens = new LineToTokens(pattern);
-            JavaRDD<String[]> tokens = data.map(lineToTokens);
-            // get feature indices for discard imputation
-            DiscardedRowsFilter discardedRowsFilter = new DiscardedRowsFilter(
-                    MLModelUtils.getImputeFeatureIndices(
-                            workflow, DISCARD));
-            // Discard the row if any of the impute indices content have a missing or NA value
-            JavaRDD<String[]> tokensDiscardedRemoved = tokens.filter(discardedRowsFilter);
-            JavaRDD<double[]> features = null;
-            // get feature indices for mean imputation
-            List<Integer> meanImputeIndices = MLModelUtils.getImputeFeatureIndices(workflow,
-                    MEAN_IMPUTATION);
-            if (meanImputeIndices.size() > 0) {
-                // calculate means for the whole dataset (sampleFraction = 1.0) or a sample
-                Map<Integer, Double> means = getMeans(sc, tokensDiscardedRemoved, meanImputeIndices,
-                        0.01);
-                // Replace missing values in impute indices with the mean for that column
-                MeanImputation meanImputation = new MeanImputation(means);
-                features = tokensDiscardedRemoved.map(meanImputation);
-            } else {
-                /**
-                 * Mean imputation mapper will convert string tokens to doubles as a part of the
-                 * operation. If there is no mean imputation for any columns, tokens has to be
-                 * converted into doubles.
-                 */
-                features = tokensDiscardedRemoved.map(new StringArrayToDoubleArray());
+            if (columnSeparator.length() != 1) {
+                throw new ModelServiceException("Unsupported column separator of dataset: " +
+                                                workflow.getDatasetURL());
+            }
+            String[] columnNames = MLModelUtils.getColumnNames(headerRow, columnSeparator);
+            List<Integer> discardColumns = new ArrayList<Integer>();
+            List<Integer> imputeColumns = new ArrayList<Integer>();
+            List<String> imputeOptions = new ArrayList<String>();
+            for (MLFeature feature : workflow.getFeatures()) {
+                if (!feature.isInclude()) {
+                    continue;
+                }
+                int column = getColumn(columnNames, feature.getName());
+                if (DISCARD.equals(feature.getImputeOption())) {
+                    discardColumns.add(column);
+                } else if ((MEAN_IMPUTATION.equals(feature.getImputeOption())
+                            || MEDIAN_IMPUTATION.equals(feature.getImputeOption())
+                            || MODE_IMPUTATION.equals(feature.getImputeOption()))
+                           && !CATEGORICAL.equals(feature.getType())) {
+                    // missing values of categorical features are a category of their own
+                    imputeColumns.add(column);
+                    imputeOptions.add(feature.getImputeOption());
+                }
             }
-            return features;
+            double[] imputeValues = new double[columnNames.length];
+            Arrays.fill(imputeValues, Double.NaN);
+            if (imputeColumns.size() > 0) {
+                // impute values are calculated from the rows which are not discarded
+                imputeValues = getImputeValues(lines, new LinesToImputationStatistics(headerRow,
+                        columnSeparator.charAt(0), columnNames.length, toArray(discardColumns),
+                        toArray(imputeColumns), imputeOptions.toArray(
+                        new String[imputeOptions.size()])), columnNames.length,
+                        settings.getImputationSampleFraction());
+            }
+            PreprocessedDataset dataset = new PreprocessedDataset();
+            // the broadcast is kept as long as the labeled points, which may be recomputed
+            dataset.setLabeledPoints(lines.mapPartitions(new LinesToLabeledPoints(headerRow,
+                    columnSeparator.charAt(0), projection, toArray(discardColumns),
+                    sc.broadcast(imputeValues), settings.getMaxSparseDensity())));
+            dataset.setImputeValues(imputeValues);
+            return dataset;
         } catch (ModelServiceException e) {
             throw new ModelServiceException("An error occured while preprocessing data: " +
                                             e.getMessage(), e);
@@ -170,31 +317,55 @@ public class SupervisedModel {
     }
 
     /**
-     * @param sc                JavaSparkContext
-     * @param tokens            JavaRDD of String[]
-     * @param meanImputeIndices Indices of columns to impute
-     * @param sampleFraction    Sample fraction used to calculate mean
-     * @return Returns a map of impute indices and means
+     * @param columnNames Column names of the data-set
+     * @param name        Name of a feature
+     * @return Returns the index of the column of the feature
      * @throws ModelServiceException
      */
-    private Map<Integer, Double> getMeans(JavaSparkContext sc, JavaRDD<String[]> tokens,
-            List<Integer> meanImputeIndices, double sampleFraction) throws ModelServiceException {
-        Map<Integer, Double> imputeMeans = new HashMap();
-        JavaRDD<String[]> missingValuesRemoved = tokens.filter(new MissingValuesFilter());
-        JavaRDD<Vector> features = null;
-        // calculate mean and populate mean imputation hashmap
-        TokensToVectors tokensToVectors = new TokensToVectors(meanImputeIndices);
-        if (sampleFraction < 1.0) {
-            features = tokens.sample(false, sampleFraction).map(tokensToVectors);
-        } else {
-            features = tokens.map(tokensToVectors);
+    private int getColumn(String[] columnNames, String name) throws ModelServiceException {
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new ModelServiceException("Feature " + name + " is not a column of the dataset.");
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
         }
-        MultivariateStatisticalSummary summary = Statistics.colStats(features.rdd());
-        double[] means = summary.mean().toArray();
-        for (int i = 0; i < means.length; i++) {
-            imputeMeans.put(meanImputeIndices.get(i), means[i]);
+        return array;
+    }
+
+    /**
+     * Calculates the values imputing the missing values of columns in a single pass over the
+     * lines, accumulating the statistics of each partition and merging them, ignoring the missing
+     * values
+     *
+     * @param lines          JavaRDD of strings
+     * @param statistics     Function accumulating the statistics of the lines of a partition
+     * @param columnCount    Number of columns of the data-set
+     * @param sampleFraction Fraction of the rows to calculate the impute values from, or 1 for
+     *                       all the rows
+     * @return Returns the value imputing a missing value of each column, or NaN for none
+     * @throws ModelServiceException
+     */
+    private double[] getImputeValues(JavaRDD<String> lines,
+            LinesToImputationStatistics statistics, int columnCount, double sampleFraction)
+            throws ModelServiceException {
+        try {
+            if (sampleFraction < 1.0) {
+                lines = lines.sample(false, sampleFraction, RANDOM_SEED);
+            }
+            // every partition yields its statistics, hence there is at least one to reduce
+            return lines.mapPartitions(statistics).reduce(new ImputationStatistics.Merge())
+                    .getImputeValues(columnCount);
+        } catch (IllegalArgumentException e) {
+            throw new ModelServiceException("An error occured while calculating impute values: "
+                                            + e.getMessage(), e);
         }
-        return imputeMeans;
     }
 
     /**
@@ -203,15 +374,14 @@ public class SupervisedModel {
      * @param trainingData Training data
      * @param testingData  Testing data
      * @param workflow     Machine learning workflow
+     * @param projection   Projection of the data-set columns in to the feature vectors
      * @throws org.wso2.carbon.ml.model.exceptions.ModelServiceException
      */
     private void buildLogisticRegressionModel(String modelID, JavaRDD<LabeledPoint> trainingData,
-            JavaRDD<LabeledPoint> testingData,
-            MLWorkflow workflow) throws ModelServiceException {
+            JavaRDD<LabeledPoint> testingData, MLWorkflow workflow, FeatureProjection projection)
+            throws ModelServiceException {
         try {
             DatabaseHandler databaseHandler = new DatabaseHandler();
-            databaseHandler.insertModel(modelID, workflow.getWorkflowID(),
-                    new Time(System.currentTimeMillis()));
             LogisticRegression logisticRegression = new LogisticRegression();
             Map<String, String> hyperParameters = workflow.getHyperParameters();
             LogisticRegressionModel model = logisticRegression.trainWithSGD(trainingData,
@@ -226,7 +396,7 @@ public class SupervisedModel {
             ProbabilisticClassificationModelSummary probabilisticClassificationModelSummary =
                     logisticRegression.getModelSummary(scoresAndLabels);
             databaseHandler.updateModel(modelID, model, probabilisticClassificationModelSummary,
-                    new Time(System.currentTimeMillis()));
+                    projection, new Time(System.currentTimeMillis()));
         } catch (DatabaseHandlerException e) {
             throw new ModelServiceException("An error occured while building logistic regression " +
                                             "model: " + e.getMessage(), e);
@@ -239,19 +409,19 @@ public class SupervisedModel {
      * @param trainingData Training data
      * @param testingData  Testing data
      * @param workflow     Machine learning workflow
+     * @param projection   Projection of the data-set columns in to the feature vectors
      * @throws ModelServiceException
      */
     private void buildDecisionTreeModel(String modelID, JavaRDD<LabeledPoint> trainingData,
-            JavaRDD<LabeledPoint> testingData, MLWorkflow workflow) throws ModelServiceException {
+            JavaRDD<LabeledPoint> testingData, MLWorkflow workflow, FeatureProjection projection)
+            throws ModelServiceException {
         try {
             DatabaseHandler databaseHandler = new DatabaseHandler();
-            databaseHandler.insertModel(modelID, workflow.getWorkflowID(),
-                    new Time(System.currentTimeMillis()));
             Map<String, String> hyperParameters = workflow.getHyperParameters();
             DecisionTree decisionTree = new DecisionTree();
             DecisionTreeModel decisionTreeModel = decisionTree.train(trainingData,
                     Integer.parseInt(hyperParameters.get(NUM_CLASSES)),
-                    new HashMap<Integer, Integer>(), hyperParameters.get(IMPURITY),
+                    projection.getCategoricalFeaturesInfo(), hyperParameters.get(IMPURITY),
                     Integer.parseInt(hyperParameters.get(MAX_DEPTH)),
                     Integer.parseInt(hyperParameters.get(MAX_BINS)));
             JavaPairRDD<Double, Double> predictionsAnsLabels = decisionTree.test(decisionTreeModel,
@@ -259,7 +429,7 @@ public class SupervisedModel {
             ClassClassificationModelSummary classClassificationModelSummary = decisionTree
                     .getClassClassificationModelSummary(predictionsAnsLabels);
             databaseHandler.updateModel(modelID, decisionTreeModel, classClassificationModelSummary,
-                    new Time(System.currentTimeMillis()));
+                    projection, new Time(System.currentTimeMillis()));
         } catch (DatabaseHandlerException e) {
             throw new ModelServiceException("An error occured while building decision tree model: "
                                             + e.getMessage(), e);
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.spark.dto;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encoder of the values of a categorical feature in to category indices, which are either used as
+ * the value of the feature (dictionary indexing) or as the position of a 1 among one value per
+ * category (one-hot encoding). Categories are taken from a dictionary, with one more category for
+ * the values which are not in the dictionary, or from a bounded number of hash buckets for
+ * features with too many categories to keep a dictionary of.
+ */
+public class CategoricalEncoder implements Serializable {
+    private static final long serialVersionUID = -6630792436475225180L;
+
+    // categories by name, or null when values are hashed
+    private final Map<String, Integer> dictionary;
+    private final String[] categories;
+    private final int categoryCount;
+    private final boolean oneHot;
+
+    /**
+     * Creates a dictionary encoder. Values which are not in the dictionary, including missing
+     * values, are encoded as one more category after the categories of the dictionary.
+     *
+     * @param categories Categories of the dictionary, in the order of their indices
+     * @param oneHot     Whether to one-hot encode the category indices
+     */
+    public CategoricalEncoder(List<String> categories, boolean oneHot) {
+        this.dictionary = new HashMap<String, Integer>();
+        this.categories = new String[categories.size()];
+        for (int i = 0; i < this.categories.length; i++) {
+            this.categories[i] = categories.get(i);
+            // a category repeated in a different form keeps its first index
+            String category = normalize(this.categories[i]);
+            if (!dictionary.containsKey(category)) {
+                dictionary.put(category, i);
+            }
+        }
+        this.categoryCount = this.categories.length + 1;
+        this.oneHot = oneHot;
+    }
+
+    /**
+     * Creates a hashing encoder, which hashes values in to a bounded number of categories.
+     *
+     * @param buckets Number of hash buckets
+     * @param oneHot  Whether to one-hot encode the category indices
+     */
+    public CategoricalEncoder(int buckets, boolean oneHot) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException("Number of hash buckets should be positive, but " +
+                                               "found " + buckets);
+        }
+        this.dictionary = null;
+        this.categories = null;
+        this.categoryCount = buckets;
+        this.oneHot = oneHot;
+    }
+
+    /**
+     * @return Returns whether values are hashed instead of looked up in a dictionary
+     */
+    public boolean isHashing() {
+        return dictionary == null;
+    }
+
+    /**
+     * @return Returns whether the category indices are one-hot encoded
+     */
+    public boolean isOneHot() {
+        return oneHot;
+    }
+
+    /**
+     * @return Returns the number of categories, including the category of unknown values of a
+     * dictionary encoder
+     */
+    public int getCategoryCount() {
+        return categoryCount;
+    }
+
+    /**
+     * @return Returns the number of values the feature is encoded in to
+     */
+    public int getWidth() {
+        return oneHot ? categoryCount : 1;
+    }
+
+    /**
+     * @param value Value of the feature, or an empty string for a missing value
+     * @return Returns the index of the category of the value
+     */
+    public int getCategory(String value) {
+        String category = normalize(value);
+        if (dictionary == null) {
+            // String.hashCode() is specified, hence stable across the JVMs a model is used in
+            return (category.hashCode() & Integer.MAX_VALUE) % categoryCount;
+        }
+        Integer index = dictionary.get(category);
+        return index != null ? index : categoryCount - 1;
+    }
+
+    /**
+     * @param index Index of a category
+     * @return Returns the name of the category in the dictionary, or null if the category is the
+     * category of unknown values or values are hashed
+     */
+    public String getCategoryName(int index) {
+        return categories != null && index >= 0 && index < categories.length ? categories[index] :
+               null;
+    }
+
+    /**
+     * Numbers fall in to the same category regardless of their representation, since the
+     * summary statistics list numeric categories in their canonical form.
+     */
+    private static String normalize(String value) {
+        value = value.trim();
+        if (value.length() > 0) {
+            char first = value.charAt(0);
+            if (Character.isDigit(first) || first == '-' || first == '+' || first == '.') {
+                try {
+                    return String.valueOf(Double.parseDouble(value));
+                } catch (NumberFormatException e) {
+                    // not a number
+                }
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return (dictionary == null ? "hashing" : "dictionary") + (oneHot ? "-one-hot" : "-index")
+               + ":" + categoryCount;
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.spark.dto;
+
+import org.wso2.carbon.ml.model.exceptions.ModelServiceException;
+import org.wso2.carbon.ml.model.internal.constants.MLModelConstants;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mapping from the columns of a data-set to the indices of the feature vectors of a model, which
+ * is stored with the model so that the rows to be scored are projected the same way as the rows
+ * the model was trained with. Only the included features other than the response are mapped,
+ * in the order of their columns. A numerical feature takes one index of the vector, and a
+ * categorical feature takes the indices its encoder encodes it in to. Missing values of the rows to
+ * be scored are replaced the same way as the missing values of the rows the model was trained
+ * with, by the impute values calculated while preprocessing the data-set.
+ */
+public class FeatureProjection implements Serializable {
+    private static final long serialVersionUID = 4563215698204516215L;
+
+    private final String responseVariable;
+    private final int responseColumn;
+    private final int columnCount;
+    private final String[] featureNames;
+    private final int[] featureColumns;
+    // encoder of each feature, or null for a numerical feature
+    private final CategoricalEncoder[] encoders;
+    // index of the first value of each feature in the feature vector
+    private final int[] vectorOffsets;
+    private final int vectorSize;
+    private final CategoricalEncoder responseEncoder;
+    // value replacing a missing value of each column, or NaN to leave it as 0, which is null in
+    // projections stored before impute values were stored with them
+    private double[] imputeValues;
+
+    /**
+     * @param columnNames      Column names of the data-set, in the order of the columns
+     * @param responseVariable Name of the response variable
+     * @param includedFeatures Names of the included features, which may contain the response
+     * @throws ModelServiceException
+     */
+    public FeatureProjection(String[] columnNames, String responseVariable,
+            List<String> includedFeatures) throws ModelServiceException {
+        this(columnNames, responseVariable, includedFeatures,
+                new HashMap<String, CategoricalEncoder>());
+    }
+
+    /**
+     * @param columnNames      Column names of the data-set, in the order of the columns
+     * @param responseVariable Name of the response variable
+     * @param includedFeatures Names of the included features, which may contain the response
+     * @param encoders         Encoders of the categorical features by name, which may contain an
+     *                         encoder of the response
+     * @throws ModelServiceException
+     */
+    public FeatureProjection(String[] columnNames, String responseVariable,
+            List<String> includedFeatures, Map<String, CategoricalEncoder> encoders)
+            throws ModelServiceException {
+        this.responseVariable = responseVariable;
+        this.responseColumn = getColumn(columnNames, responseVariable);
+        this.columnCount = columnNames.length;
+        List<Integer> columns = new ArrayList<Integer>();
+        for (String feature : includedFeatures) {
+            int column = getColumn(columnNames, feature);
+            if (column != responseColumn && !columns.contains(column)) {
+                columns.add(column);
+            }
+        }
+        Collections.sort(columns);
+        this.featureColumns = new int[columns.size()];
+        this.featureNames = new String[columns.size()];
+        this.encoders = new CategoricalEncoder[columns.size()];
+        this.vectorOffsets = new int[columns.size()];
+        int offset = 0;
+        for (int i = 0; i < featureColumns.length; i++) {
+            featureColumns[i] = columns.get(i);
+            featureNames[i] = columnNames[featureColumns[i]];
+            this.encoders[i] = encoders.get(featureNames[i]);
+            vectorOffsets[i] = offset;
+            offset += this.encoders[i] != null ? this.encoders[i].getWidth() : 1;
+        }
+        this.vectorSize = offset;
+        this.responseEncoder = encoders.get(responseVariable);
+        if (responseEncoder != null && responseEncoder.isOneHot()) {
+            throw new ModelServiceException("Response variable " + responseVariable +
+                                            " cannot be one-hot encoded.");
+        }
+    }
+
+    /**
+     * @return Returns the name of the response variable
+     */
+    public String getResponseVariable() {
+        return responseVariable;
+    }
+
+    /**
+     * @return Returns the column of the response variable in the data-set
+     */
+    public int getResponseColumn() {
+        return responseColumn;
+    }
+
+    /**
+     * @return Returns the number of columns of the data-set
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * @return Returns the number of values in a feature vector
+     */
+    public int getVectorSize() {
+        return vectorSize;
+    }
+
+    /**
+     * @param feature Index of a feature, in the order of the feature names
+     * @return Returns the index of the first value of the feature in the feature vector
+     */
+    public int getVectorOffset(int feature) {
+        return vectorOffsets[feature];
+    }
+
+    /**
+     * @param feature Index of a feature, in the order of the feature names
+     * @return Returns the encoder of the feature, or null if the feature is numerical
+     */
+    public CategoricalEncoder getEncoder(int feature) {
+        return encoders[feature];
+    }
+
+    /**
+     * @return Returns the encoder of the response variable, or null if the response is numerical
+     */
+    public CategoricalEncoder getResponseEncoder() {
+        return responseEncoder;
+    }
+
+    /**
+     * @return Returns the value replacing a missing value of each column of the data-set, or NaN
+     * for the columns which are not imputed
+     */
+    public double[] getImputeValues() {
+        if (imputeValues == null) {
+            double[] none = new double[columnCount];
+            Arrays.fill(none, Double.NaN);
+            return none;
+        }
+        return imputeValues.clone();
+    }
+
+    /**
+     * @param imputeValues Sets the value replacing a missing value of each column of the
+     *                     data-set, or NaN for the columns which are not imputed
+     */
+    public void setImputeValues(double[] imputeValues) {
+        if (imputeValues.length != columnCount) {
+            throw new IllegalArgumentException("Expected impute values of " + columnCount +
+                                               " columns, but found " + imputeValues.length);
+        }
+        this.imputeValues = imputeValues.clone();
+    }
+
+    /**
+     * @return Returns whether any feature is categorical
+     */
+    public boolean hasCategoricalFeatures() {
+        for (CategoricalEncoder encoder : encoders) {
+            if (encoder != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Returns the number of categories of each dictionary indexed or hashed feature which
+     * is not one-hot encoded, by its index in the feature vector, as expected by decision trees
+     */
+    public Map<Integer, Integer> getCategoricalFeaturesInfo() {
+        Map<Integer, Integer> categoricalFeaturesInfo = new HashMap<Integer, Integer>();
+        for (int i = 0; i < encoders.length; i++) {
+            if (encoders[i] != null && !encoders[i].isOneHot()) {
+                categoricalFeaturesInfo.put(vectorOffsets[i], encoders[i].getCategoryCount());
+            }
+        }
+        return categoricalFeaturesInfo;
+    }
+
+    /**
+     * @return Returns the names of the features, in the order of the feature vector
+     */
+    public List<String> getFeatureNames() {
+        return Collections.unmodifiableList(Arrays.asList(featureNames));
+    }
+
+    /**
+     * @return Returns the column of each feature in the data-set, in the order of the feature
+     * vector
+     */
+    public int[] getFeatureColumns() {
+        return featureColumns.clone();
+    }
+
+    /**
+     * @param featureName Name of a feature
+     * @return Returns the index of the first value of the feature in the feature vector, or -1 if
+     * the feature is not projected
+     */
+    public int getVectorIndex(String featureName) {
+        for (int i = 0; i < featureNames.length; i++) {
+            if (featureNames[i].equals(featureName)) {
+                return vectorOffsets[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Projects a row of numerical values of the data-set in to a feature vector
+     *
+     * @param row Values of a row, in the order of the columns of the data-set
+     * @return Returns the values of the features, in the order of the feature vector
+     */
+    public double[] project(double[] row) {
+        if (row.length != columnCount) {
+            throw new IllegalArgumentException("Expected " + columnCount + " values, but found " +
+                                               row.length + ".");
+        }
+        if (hasCategoricalFeatures()) {
+            throw new IllegalStateException("Categorical features cannot be projected from " +
+                                            "numerical values.");
+        }
+        double[] features = new double[vectorSize];
+        for (int i = 0; i < featureColumns.length; i++) {
+            features[i] = row[featureColumns[i]];
+        }
+        return features;
+    }
+
+    /**
+     * Projects a row of the data-set in to a feature vector, encoding the categorical features.
+     * A missing numerical value is replaced by the impute value of its column, or 0 if the column
+     * is not imputed, and a missing categorical value is encoded as an empty category, as when
+     * the data-set was preprocessed.
+     *
+     * @param row Values of a row, in the order of the columns of the data-set, with empty
+     *            strings or NA for missing values
+     * @return Returns the values of the features, in the order of the feature vector
+     */
+    public double[] project(String[] row) {
+        if (row.length != columnCount) {
+            throw new IllegalArgumentException("Expected " + columnCount + " values, but found " +
+                                               row.length + ".");
+        }
+        double[] features = new double[vectorSize];
+        for (int i = 0; i < featureColumns.length; i++) {
+            int column = featureColumns[i];
+            String value = isMissing(row[column]) ? MLModelConstants.EMPTY : row[column];
+            if (encoders[i] == null) {
+                features[vectorOffsets[i]] = value.length() == 0 ? getImputeValue(column) :
+                                             Double.parseDouble(value);
+            } else if (encoders[i].isOneHot()) {
+                features[vectorOffsets[i] + encoders[i].getCategory(value)] = 1;
+            } else {
+                features[vectorOffsets[i]] = encoders[i].getCategory(value);
+            }
+        }
+        return features;
+    }
+
+    /**
+     * @return Returns the layout of the feature vector, which differs between projections
+     * producing different feature vectors from the same data-set
+     */
+    @Override
+    public String toString() {
+        StringBuilder layout = new StringBuilder(responseVariable);
+        if (responseEncoder != null) {
+            layout.append('=').append(responseEncoder);
+        }
+        for (int i = 0; i < featureNames.length; i++) {
+            layout.append(',').append(featureNames[i]);
+            if (encoders[i] != null) {
+                layout.append('=').append(encoders[i]);
+            }
+        }
+        return layout.toString();
+    }
+
+    private double getImputeValue(int column) {
+        return imputeValues == null || Double.isNaN(imputeValues[column]) ? 0 :
+               imputeValues[column];
+    }
+
+    private static boolean isMissing(String value) {
+        return value == null || MLModelConstants.EMPTY.equals(value)
+               || MLModelConstants.NA.equals(value);
+    }
+
+    /**
+     * @param columnNames Column names of the data-set
+     * @param name        Name of a feature
+     * @return Returns the index of the column of the feature
+     * @throws ModelServiceException
+     */
+    private static int getColumn(String[] columnNames, String name) throws ModelServiceException {
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new ModelServiceException("Feature " + name + " is not a column of the dataset.");
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.spark.transformations;
+
+import org.apache.spark.mllib.linalg.Vector;
+import org.apache.spark.mllib.linalg.Vectors;
+
+import java.io.Serializable;
+
+/**
+ * This class builds feature vectors from the values of rows, choosing the representation of each
+ * row by its measured density: a row with fewer non-zero values than the maximum sparse density
+ * is built as a sparse vector, and any other row as a dense vector. A sparse vector takes 12 bytes
+ * per non-zero value against 8 bytes per value of a dense vector, and is slower to operate on
+ * per value, so sparse vectors only pay off well below a density of 2/3.
+ */
+public class FeatureVectorBuilder implements Serializable {
+    private static final long serialVersionUID = -3185264081564917253L;
+
+    private final double maxSparseDensity;
+
+    /**
+     * @param maxSparseDensity Fraction of non-zero values below which a row is built as a sparse
+     *                         vector. 0 builds dense vectors only.
+     */
+    public FeatureVectorBuilder(double maxSparseDensity) {
+        if (maxSparseDensity < 0 || maxSparseDensity > 1) {
+            throw new IllegalArgumentException("Maximum sparse density should be between 0 and 1, "
+                                               + "but found " + maxSparseDensity);
+        }
+        this.maxSparseDensity = maxSparseDensity;
+    }
+
+    /**
+     * @return Returns the fraction of non-zero values below which rows are built as sparse vectors
+     */
+    public double getMaxSparseDensity() {
+        return maxSparseDensity;
+    }
+
+    /**
+     * Builds the feature vector of a row. The values are copied, so that the array can be reused
+     * for the next row.
+     *
+     * @param values Feature values of a row
+     * @return Returns a sparse or a dense vector of the values
+     */
+    public Vector build(double[] values) {
+        int nonZeros = 0;
+        for (double value : values) {
+            // NaN is a non-zero value
+            if (value != 0) {
+                nonZeros++;
+            }
+        }
+        if (nonZeros >= maxSparseDensity * values.length) {
+            return Vectors.dense(values.clone());
+        }
+        int[] indices = new int[nonZeros];
+        double[] nonZeroValues = new double[nonZeros];
+        int j = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != 0) {
+                indices[j] = i;
+                nonZeroValues[j] = values[i];
+                j++;
+            }
+        }
+        return Vectors.sparse(values.length, indices, nonZeroValues);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.spark.transformations;
+
+import org.apache.spark.api.java.function.Function2;
+import org.wso2.carbon.ml.commons.sketch.FrequentItemsSketch;
+import org.wso2.carbon.ml.commons.sketch.KllSketch;
+import org.wso2.carbon.ml.model.internal.constants.MLModelConstants;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * This class accumulates the statistics the missing values of the imputed columns are replaced
+ * with, in one aggregation over the rows of a data-set, ignoring the missing values. Means are
+ * exact, while medians and modes are estimated by quantile and frequent items sketches, which are
+ * merged across partitions in a fixed amount of memory per column.
+ */
+public class ImputationStatistics implements Serializable {
+    private static final long serialVersionUID = -8072935166357604428L;
+
+    private final int[] columns;
+    private final String[] imputeOptions;
+    private final double[] sums;
+    private final long[] counts;
+    // sketch of each column imputed with the median, or null
+    private final KllSketch[] quantileSketches;
+    // sketch of each column imputed with the mode, or null
+    private final FrequentItemsSketch[] frequentItemsSketches;
+
+    /**
+     * @param columns       Indices of the imputed columns
+     * @param imputeOptions Impute option of each imputed column, which is mean, median or mode
+     *                      imputation
+     */
+    public ImputationStatistics(int[] columns, String[] imputeOptions) {
+        if (columns.length != imputeOptions.length) {
+            throw new IllegalArgumentException("Expected impute options of " + columns.length +
+                                               " columns, but found " + imputeOptions.length);
+        }
+        this.columns = columns.clone();
+        this.imputeOptions = imputeOptions.clone();
+        this.sums = new double[columns.length];
+        this.counts = new long[columns.length];
+        this.quantileSketches = new KllSketch[columns.length];
+        this.frequentItemsSketches = new FrequentItemsSketch[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (MLModelConstants.MEDIAN_IMPUTATION.equals(imputeOptions[i])) {
+                quantileSketches[i] = new KllSketch(
+                        MLModelConstants.IMPUTATION_QUANTILE_SKETCH_SIZE);
+            } else if (MLModelConstants.MODE_IMPUTATION.equals(imputeOptions[i])) {
+                frequentItemsSketches[i] = new FrequentItemsSketch(
+                        MLModelConstants.IMPUTATION_FREQUENT_ITEMS_SKETCH_SIZE);
+            } else if (!MLModelConstants.MEAN_IMPUTATION.equals(imputeOptions[i])) {
+                throw new IllegalArgumentException("Unsupported impute option of column " +
+                                                   columns[i] + ": " + imputeOptions[i]);
+            }
+        }
+    }
+
+    /**
+     * Adds the values of the imputed columns of a row, skipping missing values. Only the values of
+     * the imputed columns are parsed.
+     *
+     * @param line   Line of the row
+     * @param starts Start offset of the token of each column in the line
+     * @param ends   End offset of the token of each column in the line
+     * @return Returns these statistics
+     */
+    public ImputationStatistics add(String line, int[] starts, int[] ends) {
+        for (int i = 0; i < columns.length; i++) {
+            int start = starts[columns[i]];
+            int end = ends[columns[i]];
+            if (LinesToLabeledPoints.isMissing(line, start, end)) {
+                continue;
+            }
+            double value;
+            try {
+                value = Double.parseDouble(line.substring(start, end));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("An error occured while calculating the " +
+                                                   "impute value of column " + columns[i] + ": " +
+                                                   e.getMessage(), e);
+            }
+            sums[i] += value;
+            counts[i]++;
+            if (quantileSketches[i] != null) {
+                quantileSketches[i].update(value);
+            } else if (frequentItemsSketches[i] != null) {
+                frequentItemsSketches[i].update(value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Merges the statistics of another partition of the same columns.
+     *
+     * @param other Statistics to be merged
+     * @return Returns these statistics
+     */
+    public ImputationStatistics merge(ImputationStatistics other) {
+        if (!Arrays.equals(columns, other.columns)) {
+            throw new IllegalArgumentException("Statistics of different columns cannot be merged.");
+        }
+        for (int i = 0; i < columns.length; i++) {
+            sums[i] += other.sums[i];
+            counts[i] += other.counts[i];
+            if (quantileSketches[i] != null) {
+                quantileSketches[i].merge(other.quantileSketches[i]);
+            } else if (frequentItemsSketches[i] != null) {
+                frequentItemsSketches[i].merge(other.frequentItemsSketches[i]);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @param columnCount Number of columns of the data-set
+     * @return Returns the value replacing a missing value of each column of the data-set, or NaN
+     * for the columns which are not imputed or have no values
+     */
+    public double[] getImputeValues(int columnCount) {
+        double[] imputeValues = new double[columnCount];
+        Arrays.fill(imputeValues, Double.NaN);
+        for (int i = 0; i < columns.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            if (quantileSketches[i] != null) {
+                imputeValues[columns[i]] = quantileSketches[i].getQuantile(0.5);
+            } else if (frequentItemsSketches[i] != null) {
+                imputeValues[columns[i]] = frequentItemsSketches[i].getMostFrequent();
+            } else {
+                imputeValues[columns[i]] = sums[i] / counts[i];
+            }
+        }
+        return imputeValues;
+    }
+
+    /**
+     * Merges the statistics of two partitions.
+     */
+    public static class Merge
+            implements Function2<ImputationStatistics, ImputationStatistics, ImputationStatistics> {
+        private static final long serialVersionUID = -5327616043117440693L;
+
+        @Override
+        public ImputationStatistics call(ImputationStatistics statistics,
+                ImputationStatistics other) {
+            return statistics.merge(other);
+        }
+    }
+}
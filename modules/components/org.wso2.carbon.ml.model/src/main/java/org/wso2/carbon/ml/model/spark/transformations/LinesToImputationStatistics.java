@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.spark.transformations;
+
+import org.apache.spark.api.java.function.FlatMapFunction;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * This class accumulates the statistics imputing the missing values of the lines of a partition,
+ * in a single pass. Lines are split on a separator character in to reused token offsets, the same
+ * way as they are decoded in to labeled points, so that only the values of the imputed columns are
+ * ever parsed. The header row is skipped, and so are the rows which are discarded for a missing
+ * value, so that the impute values are calculated from the rows the model is trained with.
+ */
+public class LinesToImputationStatistics
+        implements FlatMapFunction<Iterator<String>, ImputationStatistics> {
+    private static final long serialVersionUID = 6312075938412370583L;
+
+    private final String header;
+    private final char separator;
+    private final int columnCount;
+    private final int[] discardColumns;
+    private final int[] imputeColumns;
+    private final String[] imputeOptions;
+
+    /**
+     * @param header         Header row, which is skipped
+     * @param separator      Column separator character
+     * @param columnCount    Number of columns of the data-set
+     * @param discardColumns Indices of the columns a missing value of which discards the row
+     * @param imputeColumns  Indices of the imputed columns
+     * @param imputeOptions  Impute option of each imputed column
+     */
+    public LinesToImputationStatistics(String header, char separator, int columnCount,
+            int[] discardColumns, int[] imputeColumns, String[] imputeOptions) {
+        this.header = header;
+        this.separator = separator;
+        this.columnCount = columnCount;
+        this.discardColumns = discardColumns.clone();
+        this.imputeColumns = imputeColumns.clone();
+        this.imputeOptions = imputeOptions.clone();
+    }
+
+    @Override
+    public Iterable<ImputationStatistics> call(Iterator<String> lines) {
+        ImputationStatistics statistics = new ImputationStatistics(imputeColumns, imputeOptions);
+        int[] starts = new int[columnCount];
+        int[] ends = new int[columnCount];
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.length() == 0 || line.equals(header)) {
+                continue;
+            }
+            LinesToLabeledPoints.split(line, separator, starts, ends);
+            if (!isDiscarded(line, starts, ends)) {
+                statistics.add(line, starts, ends);
+            }
+        }
+        return Collections.singletonList(statistics);
+    }
+
+    private boolean isDiscarded(String line, int[] starts, int[] ends) {
+        for (int discardColumn : discardColumns) {
+            if (LinesToLabeledPoints.isMissing(line, starts[discardColumn], ends[discardColumn])) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
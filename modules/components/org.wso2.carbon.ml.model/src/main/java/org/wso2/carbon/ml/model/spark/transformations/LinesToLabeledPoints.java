@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.spark.transformations;
+
+import org.apache.spark.api.java.function.FlatMapFunction;
+import org.apache.spark.broadcast.Broadcast;
+import org.apache.spark.mllib.regression.LabeledPoint;
+import org.wso2.carbon.ml.model.internal.constants.MLModelConstants;
+import org.wso2.carbon.ml.model.spark.dto.CategoricalEncoder;
+import org.wso2.carbon.ml.model.spark.dto.FeatureProjection;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class decodes the lines of a partition straight in to labeled points, in a single pass.
+ * It replaces the chain of header filter, tokenizer, discarded rows filter, mean imputation and
+ * labeled point transformations, and splits each line on a separator character in to reused
+ * token offsets, so that only the values of the response and the projected feature columns are
+ * ever parsed. Categorical features and response are encoded by the encoders of the feature
+ * projection. The feature values of a row are decoded in to a reused array, and built in to a
+ * sparse or a dense vector by their density, so that per row only the vector, the labeled point
+ * and the strings of categorical values are allocated. The values imputing missing values can be
+ * broadcast, so that they are shipped once per executor rather than with every task.
+ */
+public class LinesToLabeledPoints implements FlatMapFunction<Iterator<String>, LabeledPoint> {
+    private final String header;
+    private final char separator;
+    private final int columnCount;
+    private final int responseColumn;
+    private final int[] featureColumns;
+    private final CategoricalEncoder[] encoders;
+    private final int[] vectorOffsets;
+    private final int vectorSize;
+    private final CategoricalEncoder responseEncoder;
+    private final int[] discardColumns;
+    // value replacing a missing value of each column, or NaN to leave it as 0, which is left out
+    // of the decoder and read when decoding when the impute values are broadcast
+    private double[] imputeValues;
+    private final Broadcast<double[]> broadcastImputeValues;
+    private final FeatureVectorBuilder vectorBuilder;
+
+    /**
+     * @param header           Header row, which is skipped
+     * @param separator        Column separator character
+     * @param projection       Projection of the columns of the data-set in to feature vectors
+     * @param discardColumns   Indices of the columns a missing value of which discards the row
+     * @param imputeValues     Value replacing a missing numerical value of each column, or NaN
+     *                         for none
+     * @param maxSparseDensity Fraction of non-zero features below which a row is built as a
+     *                         sparse vector, or 0 to build dense vectors only
+     */
+    public LinesToLabeledPoints(String header, char separator, FeatureProjection projection,
+            int[] discardColumns, double[] imputeValues, double maxSparseDensity) {
+        this(header, separator, projection, discardColumns, imputeValues.clone(), null,
+                maxSparseDensity);
+    }
+
+    /**
+     * @param header           Header row, which is skipped
+     * @param separator        Column separator character
+     * @param projection       Projection of the columns of the data-set in to feature vectors
+     * @param discardColumns   Indices of the columns a missing value of which discards the row
+     * @param imputeValues     Broadcast value replacing a missing numerical value of each column,
+     *                         or NaN for none
+     * @param maxSparseDensity Fraction of non-zero features below which a row is built as a
+     *                         sparse vector, or 0 to build dense vectors only
+     */
+    public LinesToLabeledPoints(String header, char separator, FeatureProjection projection,
+            int[] discardColumns, Broadcast<double[]> imputeValues, double maxSparseDensity) {
+        this(header, separator, projection, discardColumns, imputeValues.value(), imputeValues,
+                maxSparseDensity);
+    }
+
+    private LinesToLabeledPoints(String header, char separator, FeatureProjection projection,
+            int[] discardColumns, double[] imputeValues, Broadcast<double[]> broadcastImputeValues,
+            double maxSparseDensity) {
+        this.columnCount = projection.getColumnCount();
+        if (imputeValues.length != columnCount) {
+            throw new IllegalArgumentException("Expected impute values of " + columnCount +
+                                               " columns, but found " + imputeValues.length);
+        }
+        this.header = header;
+        this.separator = separator;
+        this.responseColumn = projection.getResponseColumn();
+        this.featureColumns = projection.getFeatureColumns();
+        this.encoders = new CategoricalEncoder[featureColumns.length];
+        this.vectorOffsets = new int[featureColumns.length];
+        for (int i = 0; i < featureColumns.length; i++) {
+            encoders[i] = projection.getEncoder(i);
+            vectorOffsets[i] = projection.getVectorOffset(i);
+        }
+        this.vectorSize = projection.getVectorSize();
+        this.responseEncoder = projection.getResponseEncoder();
+        this.discardColumns = discardColumns.clone();
+        this.imputeValues = broadcastImputeValues == null ? imputeValues : null;
+        this.broadcastImputeValues = broadcastImputeValues;
+        this.vectorBuilder = new FeatureVectorBuilder(maxSparseDensity);
+    }
+
+    @Override
+    public Iterable<LabeledPoint> call(final Iterator<String> lines) {
+        return new Iterable<LabeledPoint>() {
+            @Override
+            public Iterator<LabeledPoint> iterator() {
+                return new RowIterator(lines);
+            }
+        };
+    }
+
+    /**
+     * Decodes a line in to a labeled point.
+     *
+     * @param line     Line of the data-set
+     * @param starts   Reused array to hold the start offsets of the tokens
+     * @param ends     Reused array to hold the end offsets of the tokens
+     * @param features Reused array to hold the feature values
+     * @return Returns the labeled point, or null if the line is skipped
+     */
+    protected LabeledPoint decode(String line, int[] starts, int[] ends, double[] features) {
+        if (line.length() == 0 || line.equals(header)) {
+            return null;
+        }
+        split(line, separator, starts, ends);
+        for (int discardColumn : discardColumns) {
+            if (isMissing(line, starts[discardColumn], ends[discardColumn])) {
+                return null;
+            }
+        }
+        // one-hot encoded features leave the values of the other categories as 0
+        Arrays.fill(features, 0);
+        for (int i = 0; i < featureColumns.length; i++) {
+            if (encoders[i] == null) {
+                features[vectorOffsets[i]] = parse(line, starts, ends, featureColumns[i]);
+            } else if (encoders[i].isOneHot()) {
+                features[vectorOffsets[i] + encode(line, starts, ends, featureColumns[i],
+                        encoders[i])] = 1;
+            } else {
+                features[vectorOffsets[i]] = encode(line, starts, ends, featureColumns[i],
+                        encoders[i]);
+            }
+        }
+        double label = responseEncoder == null ? parse(line, starts, ends, responseColumn) :
+                       encode(line, starts, ends, responseColumn, responseEncoder);
+        return new LabeledPoint(label, vectorBuilder.build(features));
+    }
+
+    /**
+     * Splits a line in to the offsets of its tokens. A line with fewer columns has missing values
+     * at its end, and extra columns are ignored.
+     *
+     * @param line      Line of the data-set
+     * @param separator Column separator character
+     * @param starts    Reused array to hold the start offsets of the tokens, one per column
+     * @param ends      Reused array to hold the end offsets of the tokens, one per column
+     */
+    static void split(String line, char separator, int[] starts, int[] ends) {
+        Arrays.fill(starts, 0);
+        Arrays.fill(ends, 0);
+        int column = 0;
+        int start = 0;
+        int length = line.length();
+        for (int i = 0; i <= length && column < starts.length; i++) {
+            if (i == length || line.charAt(i) == separator) {
+                starts[column] = start;
+                ends[column] = i;
+                column++;
+                start = i + 1;
+            }
+        }
+    }
+
+    /**
+     * @return Returns whether the token between the offsets is empty or NA
+     */
+    static boolean isMissing(String line, int start, int end) {
+        return start == end || (end - start == MLModelConstants.NA.length()
+                                && line.startsWith(MLModelConstants.NA, start));
+    }
+
+    private static int encode(String line, int[] starts, int[] ends, int column,
+            CategoricalEncoder encoder) {
+        int start = starts[column];
+        int end = ends[column];
+        return encoder.getCategory(isMissing(line, start, end) ? MLModelConstants.EMPTY :
+                                   line.substring(start, end));
+    }
+
+    private double parse(String line, int[] starts, int[] ends, int column) {
+        int start = starts[column];
+        int end = ends[column];
+        if (isMissing(line, start, end)) {
+            return Double.isNaN(imputeValues[column]) ? 0 : imputeValues[column];
+        }
+        try {
+            return Double.parseDouble(line.substring(start, end));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("An error occured while decoding column " + column
+                                               + " of row: " + line + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lazily decodes the lines of a partition, skipping the lines which yield no labeled point.
+     */
+    private class RowIterator implements Iterator<LabeledPoint> {
+        private final Iterator<String> lines;
+        private final int[] starts = new int[columnCount];
+        private final int[] ends = new int[columnCount];
+        private final double[] features = new double[vectorSize];
+        private LabeledPoint next;
+
+        private RowIterator(Iterator<String> lines) {
+            this.lines = lines;
+            if (imputeValues == null) {
+                imputeValues = broadcastImputeValues.value();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && lines.hasNext()) {
+                next = decode(lines.next(), starts, ends, features);
+            }
+            return next != null;
+        }
+
+        @Override
+        public LabeledPoint next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            LabeledPoint point = next;
+            next = null;
+            return point;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.internal;
+
+import org.apache.spark.storage.StorageLevel;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.model.internal.dto.MLFeature;
+import org.wso2.carbon.ml.model.internal.dto.MLWorkflow;
+import org.wso2.carbon.ml.model.spark.dto.CategoricalEncoder;
+import org.wso2.carbon.ml.model.spark.dto.FeatureProjection;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PreprocessedDatasetCacheTest {
+
+    @Test
+    public void testKey() throws Exception {
+        File file = File.createTempFile("dataset", ".csv");
+        file.deleteOnExit();
+        write(file, "a,b,c\n1,2,3\n");
+        PreprocessedDatasetCache cache = new PreprocessedDatasetCache(2,
+                StorageLevel.MEMORY_ONLY());
+        MLWorkflow workflow = createWorkflow(file.getPath(), "DISCARD");
+        FeatureProjection projection = new FeatureProjection(new String[] { "a", "b", "c" }, "c",
+                Arrays.asList("a", "b"));
+        String key = cache.getKey(workflow, projection);
+        Assert.assertNotNull(key);
+        Assert.assertEquals(cache.getKey(workflow, projection), key);
+        // hyper-parameters and the order of the features do not matter
+        workflow.setTrainDataFraction(0.5);
+        Collections.reverse(workflow.getFeatures());
+        Assert.assertEquals(cache.getKey(workflow, projection), key);
+        // feature settings do
+        Assert.assertFalse(key.equals(cache.getKey(createWorkflow(file.getPath(),
+                "REPLACE_WTH_MEAN"), projection)));
+        // so does the encoding of the features
+        Map<String, CategoricalEncoder> encoders = new HashMap<String, CategoricalEncoder>();
+        encoders.put("b", new CategoricalEncoder(16, true));
+        Assert.assertFalse(key.equals(cache.getKey(workflow, new FeatureProjection(
+                new String[] { "a", "b", "c" }, "c", Arrays.asList("a", "b"), encoders))));
+        // and so does the content of the file
+        write(file, "a,b,c\n1,2,4\n");
+        file.setLastModified(file.lastModified() + 2000);
+        Assert.assertFalse(key.equals(cache.getKey(workflow, projection)));
+    }
+
+    @Test
+    public void testRemoteDataset() throws Exception {
+        PreprocessedDatasetCache cache = new PreprocessedDatasetCache(2,
+                StorageLevel.MEMORY_ONLY());
+        Assert.assertNull(cache.getKey(createWorkflow("hdfs://host/dataset.csv", "DISCARD"),
+                new FeatureProjection(new String[] { "a", "b", "c" }, "c",
+                        Arrays.asList("a", "b"))));
+    }
+
+    private static MLWorkflow createWorkflow(String datasetURL, String imputeOption) {
+        MLWorkflow workflow = new MLWorkflow();
+        workflow.setDatasetURL(datasetURL);
+        workflow.setResponseVariable("c");
+        List<MLFeature> features = new ArrayList<MLFeature>();
+        for (String name : Arrays.asList("a", "b")) {
+            MLFeature feature = new MLFeature();
+            feature.setName(name);
+            feature.setType("NUMERICAL");
+            feature.setImputeOption(imputeOption);
+            feature.setInclude(true);
+            features.add(feature);
+        }
+        workflow.setFeatures(features);
+        return workflow;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.internal;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.model.exceptions.ModelServiceException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TrainingJobSchedulerTest {
+
+    @Test
+    public void testOrder() throws Exception {
+        TrainingJobScheduler scheduler = new TrainingJobScheduler(1, 10);
+        List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingJob blocker = new BlockingJob("blocker", "a", 0, ran, release);
+        scheduler.submit(blocker);
+        Assert.assertTrue(blocker.started.await(5, TimeUnit.SECONDS));
+        scheduler.submit(new BlockingJob("a1", "a", 0, ran, null));
+        scheduler.submit(new BlockingJob("a2", "a", 5, ran, null));
+        scheduler.submit(new BlockingJob("a3", "a", 0, ran, null));
+        scheduler.submit(new BlockingJob("b1", "b", 0, ran, null));
+        // tenants take turns, and the jobs of a tenant run by priority
+        Assert.assertEquals(scheduler.getQueuePosition("a2"), 1);
+        Assert.assertEquals(scheduler.getQueuePosition("b1"), 2);
+        Assert.assertEquals(scheduler.getQueuePosition("a1"), 3);
+        Assert.assertEquals(scheduler.getQueuePosition("a3"), 4);
+        Assert.assertEquals(scheduler.getQueuePosition("blocker"), 0);
+        Assert.assertEquals(scheduler.getQueuedJobCount(), 4);
+        Assert.assertEquals(scheduler.getRunningJobCount(), 1);
+        release.countDown();
+        waitUntilIdle(scheduler);
+        Assert.assertEquals(ran, Arrays.asList("blocker", "a2", "b1", "a1", "a3"));
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        TrainingJobScheduler scheduler = new TrainingJobScheduler(1, 10);
+        List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+        BlockingJob blocker = new BlockingJob("blocker", "a", 0, ran, new CountDownLatch(1));
+        BlockingJob queued = new BlockingJob("queued", "a", 0, ran, null);
+        scheduler.submit(blocker);
+        Assert.assertTrue(blocker.started.await(5, TimeUnit.SECONDS));
+        scheduler.submit(queued);
+        Assert.assertTrue(scheduler.cancel("queued"));
+        Assert.assertTrue(queued.discarded);
+        Assert.assertEquals(scheduler.getQueuedJobCount(), 0);
+        // a running job is interrupted
+        Assert.assertTrue(scheduler.cancel("blocker"));
+        waitUntilIdle(scheduler);
+        Assert.assertTrue(blocker.interrupted);
+        Assert.assertFalse(scheduler.cancel("blocker"));
+        Assert.assertEquals(ran, Arrays.asList("blocker"));
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testBoundedQueue() throws Exception {
+        TrainingJobScheduler scheduler = new TrainingJobScheduler(1, 1);
+        List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+        BlockingJob blocker = new BlockingJob("blocker", "a", 0, ran, new CountDownLatch(1));
+        scheduler.submit(blocker);
+        Assert.assertTrue(blocker.started.await(5, TimeUnit.SECONDS));
+        scheduler.submit(new BlockingJob("queued", "a", 0, ran, null));
+        try {
+            scheduler.submit(new BlockingJob("rejected", "b", 0, ran, null));
+            Assert.fail("Job is queued beyond the capacity of the queue.");
+        } catch (ModelServiceException e) {
+            // expected
+        }
+        scheduler.shutdown();
+        Assert.assertTrue(blocker.interrupted || blocker.isCancelled());
+    }
+
+    @Test
+    public void testUndeclaredException() throws Exception {
+        TrainingJobScheduler scheduler = new TrainingJobScheduler(1, 10);
+        List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+        scheduler.submit(new TrainingJob("failing", "a", 0) {
+            @Override
+            public void run() {
+                // as Spark's job waiter throws when it is interrupted
+                TrainingJobSchedulerTest.<RuntimeException>throwUndeclared(
+                        new InterruptedException());
+            }
+        });
+        waitUntilIdle(scheduler);
+        // the only worker survives the failed job
+        scheduler.submit(new BlockingJob("next", "a", 0, ran, null));
+        waitUntilIdle(scheduler);
+        Assert.assertEquals(ran, Arrays.asList("next"));
+        scheduler.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> void throwUndeclared(Throwable e) throws T {
+        throw (T) e;
+    }
+
+    private static void waitUntilIdle(TrainingJobScheduler scheduler) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getQueuedJobCount() + scheduler.getRunningJobCount() > 0) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline, "Jobs did not finish.");
+            Thread.sleep(10);
+        }
+    }
+
+    private static class BlockingJob extends TrainingJob {
+        private final List<String> ran;
+        private final CountDownLatch release;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private volatile boolean interrupted;
+        private volatile boolean discarded;
+
+        private BlockingJob(String modelID, String tenantID, int priority, List<String> ran,
+                CountDownLatch release) {
+            super(modelID, tenantID, priority);
+            this.ran = ran;
+            this.release = release;
+        }
+
+        @Override
+        public void run() {
+            ran.add(getModelID());
+            started.countDown();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+
+        @Override
+        protected void discarded() {
+            discarded = true;
+        }
+    }
+}
@@ -24,13 +24,10 @@ import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.mllib.classification.LogisticRegressionModel;
 import org.apache.spark.mllib.regression.LabeledPoint;
 import org.testng.annotations.Test;
-import org.wso2.carbon.ml.model.spark.transformations.HeaderFilter;
-import org.wso2.carbon.ml.model.spark.transformations.LineToTokens;
-import org.wso2.carbon.ml.model.spark.transformations.MeanImputation;
-import org.wso2.carbon.ml.model.spark.transformations.TokensToLabeledPoints;
+import org.wso2.carbon.ml.model.spark.dto.FeatureProjection;
+import org.wso2.carbon.ml.model.spark.transformations.LinesToLabeledPoints;
 
-import java.util.HashMap;
-import java.util.regex.Pattern;
+import java.util.Arrays;
 
 public class LogisticRegressionTest {
 
@@ -39,15 +36,14 @@ public class LogisticRegressionTest {
         SparkConf conf = new SparkConf().setAppName("testLineToTokens").setMaster("local");
         JavaSparkContext sc = new JavaSparkContext(conf);
         JavaRDD<String> lines = sc.textFile("src/test/resources/pIndiansDiabetes.csv");
-        Pattern pattern = Pattern.compile(",");
-        LineToTokens lineToTokens = new LineToTokens(pattern);
         String headerRow = lines.take(1).get(0);
-        HeaderFilter headerFilter = new HeaderFilter(headerRow);
-        JavaRDD<String> data = lines.filter(headerFilter);
-        JavaRDD<String[]> tokens = data.map(lineToTokens);
-        TokensToLabeledPoints tokensToLabeledPoints = new TokensToLabeledPoints(8);
-        MeanImputation meanImputation = new MeanImputation(new HashMap<Integer, Double>());
-        JavaRDD<LabeledPoint> labeledPoints = tokens.map(meanImputation).map(tokensToLabeledPoints);
+        String[] columnNames = headerRow.split(",");
+        FeatureProjection projection = new FeatureProjection(columnNames, columnNames[8],
+                Arrays.asList(Arrays.copyOf(columnNames, 8)));
+        double[] imputeValues = new double[columnNames.length];
+        Arrays.fill(imputeValues, Double.NaN);
+        JavaRDD<LabeledPoint> labeledPoints = lines.mapPartitions(new LinesToLabeledPoints(
+                headerRow, ',', projection, new int[0], imputeValues, 0));
         JavaRDD<LabeledPoint> trainingData = labeledPoints.sample(false, 0.7, 11L);
         JavaRDD<LabeledPoint> testingData = labeledPoints.subtract(trainingData);
         LogisticRegression logisticRegression = new LogisticRegression();
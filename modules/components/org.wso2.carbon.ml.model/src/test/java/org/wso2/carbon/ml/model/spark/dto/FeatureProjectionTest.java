@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.spark.dto;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.model.exceptions.ModelServiceException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class FeatureProjectionTest {
+
+    @Test
+    public void testProjection() throws Exception {
+        // the response is included, d is excluded and the features are given out of order
+        FeatureProjection projection = new FeatureProjection(new String[] { "a", "r", "b", "d" },
+                "r", Arrays.asList("b", "r", "a"));
+        Assert.assertEquals(projection.getResponseColumn(), 1);
+        Assert.assertEquals(projection.getVectorSize(), 2);
+        Assert.assertEquals(projection.getFeatureNames(), Arrays.asList("a", "b"));
+        Assert.assertEquals(projection.getVectorIndex("b"), 1);
+        Assert.assertEquals(projection.getVectorIndex("d"), -1);
+        Assert.assertTrue(Arrays.equals(projection.project(new double[] { 1, 0, 2, 3 }),
+                new double[] { 1, 2 }));
+
+        // the projection is stored with the model
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream output = new ObjectOutputStream(bytes);
+        output.writeObject(projection);
+        output.close();
+        FeatureProjection stored = (FeatureProjection) new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())).readObject();
+        Assert.assertEquals(stored.getFeatureNames(), projection.getFeatureNames());
+        Assert.assertTrue(Arrays.equals(stored.getFeatureColumns(),
+                projection.getFeatureColumns()));
+    }
+
+    @Test
+    public void testMissingValues() throws Exception {
+        Map<String, CategoricalEncoder> encoders = new HashMap<String, CategoricalEncoder>();
+        encoders.put("c", new CategoricalEncoder(Arrays.asList("", "x"), false));
+        FeatureProjection projection = new FeatureProjection(new String[] { "a", "b", "c", "r" },
+                "r", Arrays.asList("a", "b", "c"), encoders);
+        // a is imputed, while b is not
+        projection.setImputeValues(new double[] { 2.5, Double.NaN, Double.NaN, Double.NaN });
+        Assert.assertTrue(Arrays.equals(projection.project(new String[] { "", "NA", "NA", "1" }),
+                new double[] { 2.5, 0, 0 }));
+        Assert.assertTrue(Arrays.equals(projection.project(new String[] { "NA", "", "x", "1" }),
+                new double[] { 2.5, 0, 1 }));
+
+        // the impute values are stored with the projection
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream output = new ObjectOutputStream(bytes);
+        output.writeObject(projection);
+        output.close();
+        FeatureProjection stored = (FeatureProjection) new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())).readObject();
+        Assert.assertTrue(Arrays.equals(stored.project(new String[] { "", "3", "x", "1" }),
+                new double[] { 2.5, 3, 1 }));
+    }
+
+    @Test(expectedExceptions = ModelServiceException.class)
+    public void testUnknownFeature() throws Exception {
+        new FeatureProjection(new String[] { "a", "r" }, "r", Arrays.asList("a", "x"));
+    }
+}
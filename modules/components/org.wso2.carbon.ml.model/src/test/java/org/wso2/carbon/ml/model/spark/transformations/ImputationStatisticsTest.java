@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.spark.transformations;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.model.internal.constants.MLModelConstants;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+public class ImputationStatisticsTest {
+
+    @Test
+    public void testImputeValues() {
+        // columns: mean, excluded, median, mode
+        int[] columns = { 0, 2, 3 };
+        String[] imputeOptions = { MLModelConstants.MEAN_IMPUTATION,
+                MLModelConstants.MEDIAN_IMPUTATION, MLModelConstants.MODE_IMPUTATION };
+        ImputationStatistics first = new ImputationStatistics(columns, imputeOptions);
+        ImputationStatistics second = new ImputationStatistics(columns, imputeOptions);
+        add(first, "1,x,1,5");
+        add(first, ",x,NA,5");
+        add(second, "2,x,100,6");
+        add(second, "6,x,3");
+        double[] imputeValues = first.merge(second).getImputeValues(5);
+        Assert.assertEquals(imputeValues.length, 5);
+        // missing values are ignored
+        Assert.assertEquals(imputeValues[0], 3.0);
+        Assert.assertTrue(Double.isNaN(imputeValues[1]));
+        Assert.assertEquals(imputeValues[2], 3.0);
+        Assert.assertEquals(imputeValues[3], 5.0);
+        Assert.assertTrue(Double.isNaN(imputeValues[4]));
+    }
+
+    @Test
+    public void testDistinctModeColumn() {
+        ImputationStatistics statistics = new ImputationStatistics(new int[] { 0 },
+                new String[] { MLModelConstants.MODE_IMPUTATION });
+        // every value is distinct, so that no counter of the sketch is left
+        int noOfRows = (MLModelConstants.IMPUTATION_FREQUENT_ITEMS_SKETCH_SIZE + 1) * 10;
+        for (int i = 0; i < noOfRows; i++) {
+            add(statistics, String.valueOf(noOfRows - i));
+        }
+        Assert.assertEquals(statistics.getImputeValues(1)[0], 1.0);
+    }
+
+    @Test
+    public void testLines() {
+        // b is imputed with the mean, and rows missing a are discarded
+        LinesToImputationStatistics linesToStatistics = new LinesToImputationStatistics("a,b,c",
+                ',', 3, new int[] { 0 }, new int[] { 1 },
+                new String[] { MLModelConstants.MEAN_IMPUTATION });
+        Iterator<ImputationStatistics> statistics = linesToStatistics.call(Arrays.asList("a,b,c",
+                "1,2,x", "", "NA,100,x", "2,NA,x", "3,4").iterator()).iterator();
+        double[] imputeValues = statistics.next().getImputeValues(3);
+        Assert.assertFalse(statistics.hasNext());
+        Assert.assertEquals(imputeValues[1], 3.0);
+        Assert.assertTrue(Double.isNaN(imputeValues[0]));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnsupportedImputeOption() {
+        new ImputationStatistics(new int[] { 0 }, new String[] { MLModelConstants.DISCARD });
+    }
+
+    private static void add(ImputationStatistics statistics, String line) {
+        int[] starts = new int[4];
+        int[] ends = new int[4];
+        LinesToLabeledPoints.split(line, ',', starts, ends);
+        statistics.add(line, starts, ends);
+    }
+}
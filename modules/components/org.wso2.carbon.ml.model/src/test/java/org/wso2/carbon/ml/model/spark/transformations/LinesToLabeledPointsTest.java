@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.spark.transformations;
+
+import org.apache.spark.mllib.linalg.DenseVector;
+import org.apache.spark.mllib.linalg.SparseVector;
+import org.apache.spark.mllib.regression.LabeledPoint;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.model.spark.dto.CategoricalEncoder;
+import org.wso2.carbon.ml.model.spark.dto.FeatureProjection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class LinesToLabeledPointsTest {
+
+    @Test
+    public void testCall() throws Exception {
+        // columns: a, response, b, c - c is excluded, b is mean imputed, a discards its rows
+        FeatureProjection projection = new FeatureProjection(new String[] { "a", "r", "b", "c" },
+                "r", Arrays.asList("a", "b"));
+        LinesToLabeledPoints decoder = new LinesToLabeledPoints("a,r,b,c", ',', projection,
+                new int[] { 0 }, new double[] { Double.NaN, Double.NaN, 2.5, Double.NaN }, 0);
+        List<LabeledPoint> points = decode(decoder, "a,r,b,c", "1,0,3,x", "NA,1,4,5", "",
+                "2,1,,7", "3.5,0,NA", ",1,2,3");
+        Assert.assertEquals(points.size(), 3);
+        assertPoint(points.get(0), 0, 1, 3);
+        assertPoint(points.get(1), 1, 2, 2.5);
+        // missing values at the end of a row
+        assertPoint(points.get(2), 0, 3.5, 2.5);
+    }
+
+    @Test
+    public void testTabSeparated() throws Exception {
+        LinesToLabeledPoints decoder = new LinesToLabeledPoints("x\ty", '\t',
+                new FeatureProjection(new String[] { "x", "y" }, "y", Arrays.asList("x")),
+                new int[0], new double[] { Double.NaN, Double.NaN }, 0);
+        List<LabeledPoint> points = decode(decoder, "x\ty", "1e3\t1", "\t0");
+        Assert.assertEquals(points.size(), 2);
+        assertPoint(points.get(0), 1, 1000);
+        // a missing value which is not imputed is 0
+        assertPoint(points.get(1), 0, 0);
+    }
+
+    @Test
+    public void testSparseVectors() throws Exception {
+        // one-hot columns after the response
+        FeatureProjection projection = new FeatureProjection(new String[] { "r", "a", "b", "c",
+                "d" }, "r", Arrays.asList("a", "b", "c", "d"));
+        LinesToLabeledPoints decoder = new LinesToLabeledPoints("r,a,b,c,d", ',', projection,
+                new int[0], new double[5], 0.5);
+        List<LabeledPoint> points = decode(decoder, "1,0,0,1,0", "0,1,1,0,0");
+        Assert.assertTrue(points.get(0).features() instanceof SparseVector);
+        Assert.assertTrue(Arrays.equals(((SparseVector) points.get(0).features()).indices(),
+                new int[] { 2 }));
+        assertPoint(points.get(0), 1, 0, 0, 1, 0);
+        // a row as dense as the maximum sparse density is dense
+        Assert.assertTrue(points.get(1).features() instanceof DenseVector);
+        assertPoint(points.get(1), 0, 1, 1, 0, 0);
+    }
+
+    @Test
+    public void testCategoricalFeatures() throws Exception {
+        // a is one-hot encoded, b is indexed, c is hashed and the response is indexed
+        Map<String, CategoricalEncoder> encoders = new HashMap<String, CategoricalEncoder>();
+        encoders.put("a", new CategoricalEncoder(Arrays.asList("x", "y"), true));
+        encoders.put("b", new CategoricalEncoder(Arrays.asList("1.0", "2.0"), false));
+        encoders.put("c", new CategoricalEncoder(4, false));
+        encoders.put("r", new CategoricalEncoder(Arrays.asList("no", "yes"), false));
+        FeatureProjection projection = new FeatureProjection(new String[] { "a", "b", "c", "d",
+                "r" }, "r", Arrays.asList("a", "b", "c", "d"), encoders);
+        Assert.assertEquals(projection.getVectorSize(), 6);
+        Assert.assertEquals(projection.getVectorIndex("d"), 5);
+        Map<Integer, Integer> categoricalFeaturesInfo = projection.getCategoricalFeaturesInfo();
+        Assert.assertEquals(categoricalFeaturesInfo.size(), 2);
+        Assert.assertEquals(categoricalFeaturesInfo.get(3), Integer.valueOf(3));
+        Assert.assertEquals(categoricalFeaturesInfo.get(4), Integer.valueOf(4));
+
+        LinesToLabeledPoints decoder = new LinesToLabeledPoints("a,b,c,d,r", ',', projection,
+                new int[0], new double[5], 0);
+        List<LabeledPoint> points = decode(decoder, "y,2,q,1.5,yes", "z,,q,0,no", ",1.0,q,2,");
+        double hash = encoders.get("c").getCategory("q");
+        assertPoint(points.get(0), 1, 0, 1, 0, 1, hash, 1.5);
+        // unknown and missing categories are the category after the categories of the dictionary
+        assertPoint(points.get(1), 0, 0, 0, 1, 2, hash, 0);
+        assertPoint(points.get(2), 2, 0, 0, 1, 0, hash, 2);
+        // rows to be scored are encoded the same way
+        Assert.assertTrue(Arrays.equals(projection.project(new String[] { "y", "2", "q", "1.5",
+                "" }), points.get(0).features().toArray()));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidValue() throws Exception {
+        LinesToLabeledPoints decoder = new LinesToLabeledPoints("x,y", ',',
+                new FeatureProjection(new String[] { "x", "y" }, "y", Arrays.asList("x")),
+                new int[0], new double[] { Double.NaN, Double.NaN }, 0);
+        decode(decoder, "abc,1");
+    }
+
+    private static List<LabeledPoint> decode(LinesToLabeledPoints decoder, String... lines) {
+        List<LabeledPoint> points = new ArrayList<LabeledPoint>();
+        for (LabeledPoint point : decoder.call(Arrays.asList(lines).iterator())) {
+            points.add(point);
+        }
+        return points;
+    }
+
+    private static void assertPoint(LabeledPoint point, double label, double... features) {
+        Assert.assertEquals(point.label(), label, 0);
+        Assert.assertTrue(Arrays.equals(point.features().toArray(), features),
+                Arrays.toString(point.features().toArray()));
+    }
+}
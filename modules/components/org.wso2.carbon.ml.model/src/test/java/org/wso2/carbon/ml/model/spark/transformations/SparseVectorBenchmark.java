@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.model.spark.transformations;
+
+import org.apache.spark.mllib.linalg.DenseVector;
+import org.apache.spark.mllib.linalg.SparseVector;
+import org.apache.spark.mllib.linalg.Vector;
+import org.apache.spark.mllib.regression.LabeledPoint;
+import org.wso2.carbon.ml.model.exceptions.ModelServiceException;
+import org.wso2.carbon.ml.model.internal.constants.MLModelConstants;
+import org.wso2.carbon.ml.model.spark.dto.FeatureProjection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the memory retained by the labeled points of a data-set of 10 categorical features
+ * one-hot encoded in to 100k columns, the time taken to decode them, and the time taken by passes
+ * of a logistic regression gradient step over them, building dense vectors only against building
+ * vectors by their density. Not run as a test; give the JVM a heap of about 1 GB.
+ *
+ * Usage: SparseVectorBenchmark [no of rows (default 200)]
+ */
+public class SparseVectorBenchmark {
+
+    private static final int NO_OF_CATEGORICAL_FEATURES = 10;
+    private static final int NO_OF_CATEGORIES = 10000;
+    private static final int NO_OF_DISTINCT_LINES = 20;
+    private static final int PASSES = 10;
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) throws ModelServiceException {
+        int noOfRows = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int noOfColumns = 1 + NO_OF_CATEGORICAL_FEATURES * NO_OF_CATEGORIES;
+        String header = getHeader(noOfColumns);
+        List<String> lines = getLines(noOfColumns);
+        String[] columnNames = header.split(",");
+        FeatureProjection projection = new FeatureProjection(columnNames, columnNames[0],
+                Arrays.asList(columnNames));
+        double[] imputeValues = new double[noOfColumns];
+        Arrays.fill(imputeValues, Double.NaN);
+        double[] maxSparseDensities = { 0, MLModelConstants.DEFAULT_SPARSE_VECTOR_MAX_DENSITY };
+        for (int run = 0; run < RUNS; run++) {
+            for (double maxSparseDensity : maxSparseDensities) {
+                LinesToLabeledPoints decoder = new LinesToLabeledPoints(header, ',', projection,
+                        new int[0], imputeValues, maxSparseDensity);
+                long usedBefore = getUsedMemory();
+                long start = System.nanoTime();
+                List<LabeledPoint> points = new ArrayList<LabeledPoint>(noOfRows);
+                for (LabeledPoint point : decoder.call(new LineIterator(lines, noOfRows))) {
+                    points.add(point);
+                }
+                long decodeTime = (System.nanoTime() - start) / 1000000;
+                long retained = getUsedMemory() - usedBefore;
+                start = System.nanoTime();
+                double[] weights = new double[noOfColumns - 1];
+                for (int pass = 0; pass < PASSES; pass++) {
+                    for (LabeledPoint point : points) {
+                        step(weights, point, 0.1);
+                    }
+                }
+                long trainTime = (System.nanoTime() - start) / 1000000;
+                String vectors = maxSparseDensity == 0 ? "dense" : "max sparse density " +
+                                                                  maxSparseDensity;
+                System.out.println(noOfRows + " rows, run " + run + ", " + vectors + ": retained "
+                                   + retained / 1024 + " KB, decoded in " + decodeTime + " ms ("
+                                   + noOfRows * 1000L / Math.max(decodeTime, 1) + " rows/s), "
+                                   + PASSES + " gradient passes in " + trainTime + " ms");
+                points.clear();
+            }
+        }
+    }
+
+    /**
+     * Takes a stochastic gradient step of logistic regression on a labeled point.
+     */
+    private static void step(double[] weights, LabeledPoint point, double stepSize) {
+        Vector features = point.features();
+        double margin = 0;
+        if (features instanceof SparseVector) {
+            int[] indices = ((SparseVector) features).indices();
+            double[] values = ((SparseVector) features).values();
+            for (int i = 0; i < indices.length; i++) {
+                margin += weights[indices[i]] * values[i];
+            }
+            double multiplier = stepSize * (point.label() - 1 / (1 + Math.exp(-margin)));
+            for (int i = 0; i < indices.length; i++) {
+                weights[indices[i]] += multiplier * values[i];
+            }
+        } else {
+            double[] values = ((DenseVector) features).toArray();
+            for (int i = 0; i < values.length; i++) {
+                margin += weights[i] * values[i];
+            }
+            double multiplier = stepSize * (point.label() - 1 / (1 + Math.exp(-margin)));
+            for (int i = 0; i < values.length; i++) {
+                weights[i] += multiplier * values[i];
+            }
+        }
+    }
+
+    private static long getUsedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String getHeader(int noOfColumns) {
+        StringBuilder header = new StringBuilder("response");
+        for (int i = 1; i < noOfColumns; i++) {
+            header.append(",c").append(i);
+        }
+        return header.toString();
+    }
+
+    /**
+     * Returns distinct lines of a response and one category set for each categorical feature,
+     * which are repeated to make the rows, as generating a line takes longer than decoding it.
+     */
+    private static List<String> getLines(int noOfColumns) {
+        Random random = new Random(noOfColumns);
+        List<String> lines = new ArrayList<String>(NO_OF_DISTINCT_LINES);
+        char[] values = new char[2 * noOfColumns - 1];
+        for (int i = 0; i < NO_OF_DISTINCT_LINES; i++) {
+            Arrays.fill(values, '0');
+            for (int j = 1; j < values.length; j += 2) {
+                values[j] = ',';
+            }
+            values[0] = random.nextBoolean() ? '1' : '0';
+            for (int feature = 0; feature < NO_OF_CATEGORICAL_FEATURES; feature++) {
+                int column = 1 + feature * NO_OF_CATEGORIES + random.nextInt(NO_OF_CATEGORIES);
+                values[2 * column] = '1';
+            }
+            lines.add(new String(values));
+        }
+        return lines;
+    }
+
+    /**
+     * Iterates over the given number of rows, repeating the distinct lines.
+     */
+    private static class LineIterator implements Iterator<String> {
+        private final List<String> lines;
+        private final int noOfRows;
+        private int row;
+
+        private LineIterator(List<String> lines, int noOfRows) {
+            this.lines = lines;
+            this.noOfRows = noOfRows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return row < noOfRows;
+        }
+
+        @Override
+        public String next() {
+            return lines.get(row++ % lines.size());
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -23,12 +23,11 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
-import javax.naming.Context;
-import javax.naming.InitialContext;
 import javax.sql.DataSource;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.ml.commons.datasource.MLDataSourceRegistry;
 import org.wso2.carbon.ml.project.mgt.exceptions.DatabaseHandlerException;
 
 public class DatabaseHandler {
@@ -54,11 +53,10 @@ public class DatabaseHandler {
 			if (databaseHandler == null) {
 				synchronized (DatabaseHandler.class) {
 					if (databaseHandler == null) {
-						databaseHandler = new DatabaseHandler();
 						// load the carbon data source configurations of the H2
-						// database
-						Context initContext = new InitialContext();
-						dataSource = (DataSource) initContext.lookup("jdbc/WSO2ML_DB");
+						// database, shared with the other components
+						dataSource = MLDataSourceRegistry.getDataSource("jdbc/WSO2ML_DB");
+						databaseHandler = new DatabaseHandler();
 					}
 				}
 			}
@@ -376,7 +374,9 @@ public class DatabaseHandler {
 	}
 
 	/**
-	 * Set the default values for feature properties of a given workflow.
+	 * Set the default values for feature properties of a given workflow. The default settings
+	 * are copied in a single statement, falling back to a batch of inserts if the statement
+	 * fails, within one transaction.
 	 *
 	 * @param datasetID    Unique identifier of the data-set
 	 * @param workflowID   Unique identifier of the current workflow
@@ -385,47 +385,84 @@ public class DatabaseHandler {
 	protected void setDefaultFeatureSettings(String datasetID, String workflowID)
 			throws DatabaseHandlerException {
 		Connection connection = null;
+		try {
+			connection = dataSource.getConnection();
+			connection.setAutoCommit(false);
+			try {
+				copyDefaultFeatureSettings(connection, datasetID, workflowID);
+			} catch (SQLException e) {
+				logger.warn("Failed to copy feature defaults of dataset " + datasetID +
+				            " in a single statement. Inserting them in a batch instead: " +
+				            e.getMessage());
+				MLDatabaseUtil.rollBack(connection);
+				insertDefaultFeatureSettings(connection, datasetID, workflowID);
+			}
+			connection.commit();
+			if (logger.isDebugEnabled()) {
+				logger.debug("Successfully inserted feature deafults of dataset: " + datasetID +
+				             " of the workflow: " + workflowID);
+			}
+		} catch (SQLException e) {
+			// rollback the changes
+			MLDatabaseUtil.rollBack(connection);
+			throw new DatabaseHandlerException(
+			                                   "An error occured while setting details of dataset " +
+			                                		   datasetID + " of the workflow " +
+			                                		   workflowID + " to the database:" +
+			                                		   e.getMessage(), e);
+		} finally {
+			// enable auto commit
+			MLDatabaseUtil.enableAutoCommit(connection);
+			// close the database resources
+			MLDatabaseUtil.closeDatabaseResources(connection);
+		}
+	}
+
+	/*
+	 * Copies the default feature settings of a data-set to a workflow, in a single statement.
+	 */
+	private void copyDefaultFeatureSettings(Connection connection, String datasetID,
+			String workflowID) throws SQLException {
+		PreparedStatement copyStatement = null;
+		try {
+			copyStatement = connection.prepareStatement(SQLQueries.COPY_DEFAULT_FEATURE_SETTINGS);
+			copyStatement.setString(1, workflowID);
+			copyStatement.setString(2, datasetID);
+			copyStatement.executeUpdate();
+		} finally {
+			MLDatabaseUtil.closeDatabaseResources(copyStatement);
+		}
+	}
+
+	/*
+	 * Reads the default feature settings of a data-set and inserts them to a workflow, reusing a
+	 * single statement and sending the rows in one batch.
+	 */
+	private void insertDefaultFeatureSettings(Connection connection, String datasetID,
+			String workflowID) throws SQLException {
 		PreparedStatement insertStatement = null;
 		PreparedStatement getDefaultFeatureSettings = null;
 		ResultSet result = null;
 		try {
-			connection = dataSource.getConnection();
-			connection.setAutoCommit(true);
 			// read default feature settings from data-set summary table
 			getDefaultFeatureSettings =
 					connection.prepareStatement(SQLQueries.GET_DEFAULT_FEATURE_SETTINGS);
 			getDefaultFeatureSettings.setString(1, datasetID);
 			result = getDefaultFeatureSettings.executeQuery();
 			// insert default feature settings into feature settings table
-			connection.setAutoCommit(false);
+			insertStatement = connection.prepareStatement(SQLQueries.INSERT_FEATURE_SETTINGS);
 			while (result.next()) {
-				insertStatement = connection.prepareStatement(SQLQueries.INSERT_FEATURE_SETTINGS);
 				insertStatement.setString(1, workflowID);
 				insertStatement.setString(2, result.getString(1));
 				insertStatement.setString(3, result.getString(2));
 				insertStatement.setString(4, result.getString(3));
 				insertStatement.setString(5, result.getString(4));
 				insertStatement.setBoolean(6, result.getBoolean(5));
-				insertStatement.execute();
-				connection.commit();
-			}
-			if (logger.isDebugEnabled()) {
-				logger.debug("Successfully inserted feature deafults of dataset: " + datasetID +
-				             " of the workflow: " + datasetID);
+				insertStatement.addBatch();
 			}
-		} catch (SQLException e) {
-			// rollback the changes
-			MLDatabaseUtil.rollBack(connection);
-			throw new DatabaseHandlerException(
-			                                   "An error occured while setting details of dataset " +
-			                                		   datasetID + " of the workflow " +
-			                                		   datasetID + " to the database:" +
-			                                		   e.getMessage(), e);
+			insertStatement.executeBatch();
 		} finally {
-			// enable auto commit
-			MLDatabaseUtil.enableAutoCommit(connection);
-			// close the database resources
-			MLDatabaseUtil.closeDatabaseResources(connection, insertStatement, result);
+			MLDatabaseUtil.closeDatabaseResources(null, insertStatement, result);
 			MLDatabaseUtil.closeDatabaseResources(getDefaultFeatureSettings);
 		}
 	}
@@ -48,6 +48,11 @@ public class SQLQueries {
 	        "(WORKFLOW_ID, FEATURE_NAME, FEATURE_INDEX, TYPE, IMPUTE_METHOD, INCLUDE) " +
 	        "VALUES(?,?,?,?,?,?)";
 
+	public static final String COPY_DEFAULT_FEATURE_SETTINGS = "INSERT INTO ML_FEATURE_SETTINGS " +
+	        "(WORKFLOW_ID, FEATURE_NAME, FEATURE_INDEX, TYPE, IMPUTE_METHOD, INCLUDE) SELECT " +
+	        "CAST(? AS VARCHAR(50)), FEATURE_NAME, FEATURE_INDEX, TYPE, IMPUTE_METHOD, INCLUDE " +
+	        "FROM ML_FEATURE_DEFAULTS WHERE DATASET_ID=?";
+
 	//private Constructor to prevent class from instantiating.
 	private SQLQueries() {
 	}
@@ -33,6 +33,7 @@ DATASET_ID VARCHAR(50) NOT NULL,
 FEATURE_INDEX INT,
 FEATURE_NAME VARCHAR(100) NOT NULL,
 SUMMARY CLOB,
+SUMMARY_DATA BLOB,
 TYPE VARCHAR(20),
 IMPUTE_METHOD VARCHAR(30),
 INCLUDE BOOLEAN,
@@ -41,6 +42,12 @@ CONSTRAINT FK_DATASET_FEATURE_DEFAULTS FOREIGN KEY(DATASET_ID) REFERENCES ML_DAT
 UPDATE CASCADE ON DELETE CASCADE
 );
 
+-- Binary summaries, added to ML_FEATURE_DEFAULTS tables created by earlier versions
+ALTER TABLE ML_FEATURE_DEFAULTS ADD COLUMN IF NOT EXISTS SUMMARY_DATA BLOB;
+
+-- Features of a data-set in the order of their names, to list them page by page
+CREATE INDEX IF NOT EXISTS IDX_FEATURE_DEFAULTS_DATASET ON ML_FEATURE_DEFAULTS(DATASET_ID, FEATURE_NAME);
+
 --WORKFLOW
 CREATE TABLE IF NOT EXISTS ML_WORKFLOW(
 WORKFLOW_ID VARCHAR(50) NOT NULL,
@@ -86,11 +93,23 @@ CONSTRAINT FK_WORKFLOW_MODEL_SETTINGS FOREIGN KEY(WORKFLOW_ID) REFERENCES ML_WOR
 CREATE TABLE IF NOT EXISTS ML_MODEL(
 MODEL_ID VARCHAR(50) NOT NULL,
 WORKFLOW_ID VARCHAR(50) NOT NULL,
+STATUS VARCHAR(20),
+PRIORITY INT,
+SUBMITTED_TIME TIMESTAMP,
 MODEL_EXECUTION_START_TIME TIMESTAMP,
 MODEL_EXECUTION_END_TIME TIMESTAMP,
 MODEL OTHER,
 MODEL_SUMMARY OTHER,
+FEATURE_PROJECTION OTHER,
 CONSTRAINT PK_MODEL PRIMARY KEY(MODEL_ID),
 CONSTRAINT FK_WORKFLOW_MODEL FOREIGN KEY(WORKFLOW_ID) REFERENCES ML_WORKFLOW(WORKFLOW_ID) ON UPDATE
 CASCADE ON DELETE CASCADE
 );
+
+-- Columns of the training job scheduler, added to ML_MODEL tables created by earlier versions
+ALTER TABLE ML_MODEL ADD COLUMN IF NOT EXISTS STATUS VARCHAR(20);
+ALTER TABLE ML_MODEL ADD COLUMN IF NOT EXISTS PRIORITY INT;
+ALTER TABLE ML_MODEL ADD COLUMN IF NOT EXISTS SUBMITTED_TIME TIMESTAMP;
+
+-- Feature projection of the model, added to ML_MODEL tables created by earlier versions
+ALTER TABLE ML_MODEL ADD COLUMN IF NOT EXISTS FEATURE_PROJECTION OTHER;